@@ -0,0 +1,76 @@
+package funmatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 100,000 small square matrices, multiplied pairwise and mapped, as a list of separate {@link DoubleMatrix}es and as
+ * one {@link MatrixBatch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class BatchBenchmarks {
+
+  private static final int COUNT = 100_000;
+
+  @Param({"3", "4"})
+  int side;
+
+  private List<DoubleMatrix> separate;
+  private MatrixBatch batch;
+
+  @Setup
+  public void build() {
+    separate = new ArrayList<>();
+    for (int item = 0; item < COUNT; item++) {
+      int offset = item;
+      separate.add(new DoubleMatrix((i, j) -> (offset % 97) * 0.5 + i - j, side, side));
+    }
+    batch = new MatrixBatch(separate);
+  }
+
+  @Benchmark
+  public List<DoubleMatrix> separateMultiply() {
+    List<DoubleMatrix> products = new ArrayList<>(COUNT);
+    for (DoubleMatrix aMatrix : separate) {
+      products.add(aMatrix.multiply(aMatrix));
+    }
+    return products;
+  }
+
+  @Benchmark
+  public MatrixBatch batchMultiply() {
+    return batch.multiply(batch);
+  }
+
+  @Benchmark
+  public List<DoubleMatrix> separateMap() {
+    List<DoubleMatrix> mapped = new ArrayList<>(COUNT);
+    for (DoubleMatrix aMatrix : separate) {
+      mapped.add(aMatrix.mapToDouble(x -> x * 2 + 1));
+    }
+    return mapped;
+  }
+
+  @Benchmark
+  public MatrixBatch batchMap() {
+    return batch.map(x -> x * 2 + 1);
+  }
+}
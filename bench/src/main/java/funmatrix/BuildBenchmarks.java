@@ -0,0 +1,83 @@
+package funmatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filling a square matrix cell by cell, through nested <code>List</code>s or a {@link MatrixBuilder}, and making
+ * <code>size</code> point edits to one, through <code>updateEntry</code> or <code>toTransient</code>. Run with
+ * <code>-prof gc</code> to compare the garbage each produces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class BuildBenchmarks {
+
+  @Param({"10", "100", "1000"})
+  int size;
+
+  private IMatrix<Integer> matrix;
+
+  @Setup
+  public void build() {
+    matrix = new FunMatrix<>((i, j) -> i * size + j, size, size);
+  }
+
+  @Benchmark
+  public IMatrix<Integer> fromLists() {
+    List<List<Integer>> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      List<Integer> row = new ArrayList<>(size);
+      for (int j = 0; j < size; j++) {
+        row.add(i * size + j);
+      }
+      rows.add(row);
+    }
+    return new FunMatrix<>(rows);
+  }
+
+  @Benchmark
+  public IMatrix<Integer> fromBuilder() {
+    MatrixBuilder<Integer> builder = new MatrixBuilder<>(size, size);
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        builder.set(i * size + j, i, j);
+      }
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public IMatrix<Integer> diagonalByUpdateEntry() {
+    IMatrix<Integer> updated = matrix;
+    for (int i = 0; i < size; i++) {
+      updated = updated.updateEntry(0, i, i);
+    }
+    return updated;
+  }
+
+  @Benchmark
+  public IMatrix<Integer> diagonalByTransient() {
+    MatrixBuilder<Integer> edits = matrix.toTransient();
+    for (int i = 0; i < size; i++) {
+      edits.set(0, i, i);
+    }
+    return edits.freeze();
+  }
+}
@@ -0,0 +1,53 @@
+package funmatrix;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An element type for the benchmarks, with representative functions of the same cost for every implementation
+ * holding it. Functions are typed on <code>Object</code> so one benchmark method can drive every kind of matrix.
+ */
+enum ElementKind {
+
+  INTEGER(k -> k,
+      x -> (Integer) x + 1,
+      (x, y) -> (Integer) x + (Integer) y,
+      x -> (Integer) x % 2 == 0,
+      (x, y) -> (Integer) x * (Integer) y, 0),
+
+  DOUBLE(k -> k * 0.5,
+      x -> (Double) x * 1.5,
+      (x, y) -> (Double) x + (Double) y,
+      x -> (Double) x > 100,
+      (x, y) -> (Double) x * (Double) y, 0.0),
+
+  STRING(k -> Integer.toString(k),
+      x -> ((String) x).length(),
+      (x, y) -> ((String) x).compareTo((String) y),
+      x -> ((String) x).endsWith("7"),
+      null, null);
+
+  final Function<Integer, Object> entry;
+  final Function<Object, Object> mapper;
+  final BiFunction<Object, Object, Object> combiner;
+  final Predicate<Object> condition;
+  // the semiring (times, combiner as plus, zero) for multiplying; null when the type has none
+  final BiFunction<Object, Object, Object> times;
+  final Object zero;
+
+  ElementKind(Function<Integer, Object> _entry, Function<Object, Object> _mapper,
+              BiFunction<Object, Object, Object> _combiner, Predicate<Object> _condition,
+              BiFunction<Object, Object, Object> _times, Object _zero) {
+    entry = _entry;
+    mapper = _mapper;
+    combiner = _combiner;
+    condition = _condition;
+    times = _times;
+    zero = _zero;
+  }
+
+  Object entry(int rowMajorIndex) {
+    return entry.apply(rowMajorIndex);
+  }
+}
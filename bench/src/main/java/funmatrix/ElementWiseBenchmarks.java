@@ -0,0 +1,126 @@
+package funmatrix;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The operations that visit every cell once, for every {@link MatrixKind} and size.
+ * <br>
+ * Operations on {@link MatrixKind#LAZY_INTEGER} that return a matrix only compose functions; the cost of running
+ * the chain shows up in the terminal operations (<code>foldNW</code>, <code>filter</code>, ...).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class ElementWiseBenchmarks {
+
+  @Param({"10", "100", "1000", "4096"})
+  int size;
+
+  @Param
+  MatrixKind kind;
+
+  private IMatrix<Object> matrix;
+  // equal to matrix, but not the same object
+  private IMatrix<Object> equalMatrix;
+  private ElementKind elements;
+  private int windowFirst;
+  private int windowLast;
+  // an order every element type has
+  private final Comparator<Object> byHash = Comparator.comparingInt(Object::hashCode);
+
+  @Setup
+  public void build() {
+    matrix = (IMatrix<Object>) kind.build(size);
+    equalMatrix = (IMatrix<Object>) kind.build(size);
+    elements = kind.elements;
+    windowFirst = size / 4;
+    windowLast = 3 * size / 4 - 1;
+  }
+
+  @Benchmark
+  public IMatrix<Object> map() {
+    return matrix.map(elements.mapper);
+  }
+
+  @Benchmark
+  public IMatrix<Object> mapIndexed() {
+    return matrix.map((i, j) -> i ^ j);
+  }
+
+  @Benchmark
+  public int forEachIndexed() {
+    int[] hash = new int[1];
+    matrix.forEachIndexed((i, j, x) -> hash[0] = hash[0] * 31 + x.hashCode());
+    return hash[0];
+  }
+
+  @Benchmark
+  public Integer foldNW() {
+    return matrix.foldNW((x, hash) -> hash * 31 + x.hashCode(), 0);
+  }
+
+  @Benchmark
+  public Integer foldSE() {
+    return matrix.foldSE((x, hash) -> hash * 31 + x.hashCode(), 0);
+  }
+
+  @Benchmark
+  public IMatrix<Object> elementWiseCombine() {
+    return matrix.elementWiseCombine(elements.combiner, equalMatrix);
+  }
+
+  @Benchmark
+  public List<Object> filter() {
+    return matrix.filter(elements.condition);
+  }
+
+  @Benchmark
+  public IMatrix<Object> sort() {
+    return matrix.sort(byHash);
+  }
+
+  // the few best cells of a large matrix, which should cost far less than sort
+  @Benchmark
+  public List<Cell<Object>> topK() {
+    return matrix.topK(100, byHash);
+  }
+
+  @Benchmark
+  public IMatrix<Object> subMatrix() {
+    return matrix.subMatrix(windowFirst, windowLast, windowFirst, windowLast);
+  }
+
+  // reading a window, which is what subMatrix is usually followed by
+  @Benchmark
+  public Integer subMatrixFold() {
+    return matrix.subMatrix(windowFirst, windowLast, windowFirst, windowLast)
+        .foldNW((x, hash) -> hash * 31 + x.hashCode(), 0);
+  }
+
+  @Benchmark
+  public boolean equalsEqualMatrix() {
+    return matrix.equals(equalMatrix);
+  }
+
+  @Benchmark
+  public int hashCodeOfMatrix() {
+    return matrix.hashCode();
+  }
+}
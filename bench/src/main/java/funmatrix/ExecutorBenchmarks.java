@@ -0,0 +1,78 @@
+package funmatrix;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A burst of 256 small map-then-sum jobs on same-shape matrices, run inline on the benchmark thread and through a
+ * {@link MatrixExecutor} with batches of one job (a hand-off per job) and of 64 jobs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class ExecutorBenchmarks {
+
+  private static final int JOBS = 256;
+
+  @Param({"8", "64"})
+  int size;
+
+  @Param({"1", "64"})
+  int batchSize;
+
+  private IMatrix<Integer> matrix;
+  private MatrixExecutor executor;
+
+  @Setup
+  public void build() {
+    matrix = new FunMatrix<>((i, j) -> i * size + j, size, size);
+    executor = MatrixExecutor.create(JOBS, batchSize);
+  }
+
+  @TearDown
+  public void close() {
+    executor.close();
+  }
+
+  @Benchmark
+  public int inline() {
+    int total = 0;
+    for (int k = 0; k < JOBS; k++) {
+      total += job(matrix);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public int executor() {
+    CompletableFuture<Integer>[] futures = new CompletableFuture[JOBS];
+    for (int k = 0; k < JOBS; k++) {
+      futures[k] = executor.submit(matrix, ExecutorBenchmarks::job);
+    }
+    int total = 0;
+    for (CompletableFuture<Integer> aFuture : futures) {
+      total += aFuture.join();
+    }
+    return total;
+  }
+
+  private static int job(IMatrix<Integer> toRun) {
+    return toRun.map(x -> x + 1).foldNW((Integer x, Integer sum) -> x + sum, 0);
+  }
+}
@@ -0,0 +1,62 @@
+package funmatrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of instrumenting a matrix: mapping and updating a plain {@link FunMatrix}, the same matrix instrumented
+ * into {@link MatrixMetrics#NONE}, and into an {@link AggregatingMetrics}. Small sizes show the fixed cost per
+ * operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class InstrumentationBenchmarks {
+
+  @Param({"4", "100"})
+  int size;
+
+  @Param({"PLAIN", "NONE", "AGGREGATING"})
+  String sink;
+
+  private IMatrix<Integer> matrix;
+
+  @Setup
+  public void build() {
+    IMatrix<Integer> plain = new FunMatrix<>((i, j) -> i * size + j, size, size);
+    switch (sink) {
+      case "NONE":
+        matrix = plain.instrumented(MatrixMetrics.NONE);
+        break;
+      case "AGGREGATING":
+        matrix = plain.instrumented(new AggregatingMetrics());
+        break;
+      default:
+        matrix = plain;
+    }
+  }
+
+  @Benchmark
+  public IMatrix<Integer> map() {
+    return matrix.map(x -> x + 1);
+  }
+
+  @Benchmark
+  public IMatrix<Integer> updateEntry() {
+    return matrix.updateEntry(0, 0, 0);
+  }
+}
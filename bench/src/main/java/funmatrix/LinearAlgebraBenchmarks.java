@@ -0,0 +1,56 @@
+package funmatrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decomposing, solving against and row reducing a random square {@link DoubleMatrix}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class LinearAlgebraBenchmarks {
+
+  @Param({"256", "1024"})
+  int size;
+
+  private DoubleMatrix matrix;
+  private DoubleMatrix rightHandSide;
+
+  @Setup
+  public void build() {
+    Random random = new Random(42);
+    matrix = new DoubleMatrix((i, j) -> random.nextDouble() * 2 - 1, size, size);
+    rightHandSide = new DoubleMatrix((i, j) -> random.nextDouble(), size, 1);
+  }
+
+  @Benchmark
+  public LUDecomposition lu() {
+    return matrix.lu();
+  }
+
+  @Benchmark
+  public DoubleMatrix solve() {
+    return matrix.solve(rightHandSide);
+  }
+
+  @Benchmark
+  public DoubleMatrix rref() {
+    return matrix.rref();
+  }
+}
@@ -0,0 +1,102 @@
+package funmatrix;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The implementations, and element types, that the benchmarks compare. Each builds a square matrix whose entries are
+ * a function of their row-major index, so two matrices of the same kind and size are always equal.
+ */
+public enum MatrixKind {
+
+  FUN_INTEGER(ElementKind.INTEGER) {
+    @Override
+    IMatrix<?> build(int size) {
+      return new FunMatrix<>((i, j) -> elements.entry(i * size + j), size, size);
+    }
+  },
+
+  FUN_DOUBLE(ElementKind.DOUBLE) {
+    @Override
+    IMatrix<?> build(int size) {
+      return new FunMatrix<>((i, j) -> elements.entry(i * size + j), size, size);
+    }
+  },
+
+  FUN_STRING(ElementKind.STRING) {
+    @Override
+    IMatrix<?> build(int size) {
+      return new FunMatrix<>((i, j) -> elements.entry(i * size + j), size, size);
+    }
+  },
+
+  // a transposed view of a FunMatrix, so every read is strided
+  FUN_INTEGER_VIEW(ElementKind.INTEGER) {
+    @Override
+    IMatrix<?> build(int size) {
+      return FUN_INTEGER.build(size).transpose();
+    }
+  },
+
+  DOUBLE_MATRIX(ElementKind.DOUBLE) {
+    @Override
+    IMatrix<?> build(int size) {
+      return new DoubleMatrix((IMatrix<Double>) FUN_DOUBLE.build(size));
+    }
+  },
+
+  INT_MATRIX(ElementKind.INTEGER) {
+    @Override
+    IMatrix<?> build(int size) {
+      return new IntMatrix((IMatrix<Integer>) FUN_INTEGER.build(size));
+    }
+  },
+
+  LAZY_INTEGER(ElementKind.INTEGER) {
+    @Override
+    IMatrix<?> build(int size) {
+      return FUN_INTEGER.build(size).lazy();
+    }
+  },
+
+  PERSISTENT_INTEGER(ElementKind.INTEGER) {
+    @Override
+    IMatrix<?> build(int size) {
+      return new PersistentMatrix<>((IMatrix<Integer>) FUN_INTEGER.build(size));
+    }
+  },
+
+  // 95% zeros
+  SPARSE_INTEGER(ElementKind.INTEGER) {
+    @Override
+    IMatrix<?> build(int size) {
+      return new SparseMatrix<>(new FunMatrix<>((i, j) -> (i * size + j) % 20 == 0 ? i * size + j : 0, size, size), 0);
+    }
+  },
+
+  MAPPED_DOUBLE(ElementKind.DOUBLE) {
+    @Override
+    IMatrix<?> build(int size) {
+      try {
+        File file = File.createTempFile("funmatrix-bench", ".fmat");
+        file.deleteOnExit();
+        return MappedDoubleMatrix.write(file.toPath(), (IMatrix<Double>) FUN_DOUBLE.build(size));
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  };
+
+  final ElementKind elements;
+
+  MatrixKind(ElementKind _elements) {
+    elements = _elements;
+  }
+
+  /**
+   * A new <code>size</code> x <code>size</code> matrix of this kind.
+   */
+  abstract IMatrix<?> build(int size);
+}
@@ -0,0 +1,56 @@
+package funmatrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Multiplying two square matrices: <code>pseudoMultiply</code> over the element type's (*, +) semiring, or the
+ * primitive <code>multiply</code> for {@link DoubleMatrix} and {@link IntMatrix}. Multiplying costs
+ * <i>size<sup>3</sup></i>, so the default sizes stop at 1000; pass <code>-p size=4096</code> to go further.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class MultiplyBenchmarks {
+
+  @Param({"10", "100", "500", "1000"})
+  int size;
+
+  @Param({"FUN_INTEGER", "FUN_DOUBLE", "DOUBLE_MATRIX", "INT_MATRIX", "SPARSE_INTEGER"})
+  MatrixKind kind;
+
+  private IMatrix<?> left;
+  private IMatrix<?> right;
+
+  @Setup
+  public void build() {
+    left = kind.build(size);
+    right = kind.build(size);
+  }
+
+  @Benchmark
+  public IMatrix<?> multiply() {
+    if (left instanceof DoubleMatrix) {
+      return ((DoubleMatrix) left).multiply((DoubleMatrix) right);
+    }
+    if (left instanceof IntMatrix) {
+      return ((IntMatrix) left).multiply((IntMatrix) right);
+    }
+    return ((IMatrix<Object>) left).pseudoMultiply(kind.elements.times, kind.elements.combiner,
+        (IMatrix<Object>) right, kind.elements.zero);
+  }
+}
@@ -0,0 +1,54 @@
+package funmatrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Each {@link MultiplyStrategy} multiplying two square {@link DoubleMatrix}es and two square {@link IntMatrix}es.
+ * The default sizes straddle the default crossover of 256; pass <code>-p size=4096</code> for the sizes where
+ * {@link MultiplyStrategy#STRASSEN} pulls ahead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class MultiplyStrategyBenchmarks {
+
+  @Param({"128", "512", "1024"})
+  int size;
+
+  @Param({"NAIVE", "BLOCKED", "RECURSIVE", "STRASSEN", "AUTO"})
+  MultiplyStrategy strategy;
+
+  private DoubleMatrix doubles;
+  private IntMatrix ints;
+
+  @Setup
+  public void build() {
+    doubles = new DoubleMatrix((i, j) -> Math.sin(i + 2 * j), size, size);
+    ints = new IntMatrix(new FunMatrix<>((i, j) -> (i * 31 + j * 17) % 23 - 11, size, size));
+  }
+
+  @Benchmark
+  public DoubleMatrix multiplyDoubles() {
+    return doubles.multiply(doubles, strategy);
+  }
+
+  @Benchmark
+  public IntMatrix multiplyInts() {
+    return ints.multiply(ints, strategy);
+  }
+}
@@ -0,0 +1,94 @@
+package funmatrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The SIMD kernels of {@link DoubleMatrix} and {@link IntMatrix}, next to the same operations written as lambdas.
+ * Pass <code>-jvmArgsAppend -Dfunmatrix.vector=false</code> to measure the scalar kernels instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class NumericBenchmarks {
+
+  @Param({"100", "1000", "4096"})
+  int size;
+
+  private DoubleMatrix doubles;
+  private DoubleMatrix otherDoubles;
+  private IntMatrix ints;
+  private IntMatrix otherInts;
+
+  @Setup
+  public void build() {
+    doubles = (DoubleMatrix) MatrixKind.DOUBLE_MATRIX.build(size);
+    otherDoubles = doubles.scale(0.5);
+    ints = (IntMatrix) MatrixKind.INT_MATRIX.build(size);
+    otherInts = ints.offset(1);
+  }
+
+  @Benchmark
+  public DoubleMatrix addDoubles() {
+    return doubles.elementWiseCombineToDouble(Arithmetic.ADD, otherDoubles);
+  }
+
+  @Benchmark
+  public DoubleMatrix addDoublesLambda() {
+    return doubles.elementWiseCombineToDouble((x, y) -> x + y, otherDoubles);
+  }
+
+  @Benchmark
+  public IntMatrix addInts() {
+    return ints.elementWiseCombineToInt(Arithmetic.ADD, otherInts);
+  }
+
+  @Benchmark
+  public DoubleMatrix scaleDoubles() {
+    return doubles.scale(1.5);
+  }
+
+  @Benchmark
+  public DoubleMatrix clampDoubles() {
+    return doubles.clamp(100, 1000);
+  }
+
+  @Benchmark
+  public double sumDoubles() {
+    return doubles.sum();
+  }
+
+  @Benchmark
+  public double sumDoublesReduce() {
+    return doubles.reduce(0, Double::sum);
+  }
+
+  @Benchmark
+  public double maxDoubles() {
+    return doubles.max();
+  }
+
+  @Benchmark
+  public double dotDoubles() {
+    return doubles.dot(otherDoubles);
+  }
+
+  @Benchmark
+  public int sumInts() {
+    return ints.sum();
+  }
+}
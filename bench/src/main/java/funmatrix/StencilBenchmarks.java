@@ -0,0 +1,76 @@
+package funmatrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A 3 x 3 box blur with clamped edges, written three ways: as a <code>map(rowColMapper)</code> closure calling
+ * <code>getElement</code> with hand-written edge checks, with {@link IMatrix#mapNeighborhood}, and with
+ * {@link DoubleMatrix#convolve}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class StencilBenchmarks {
+
+  @Param({"256", "1024"})
+  int size;
+
+  private IMatrix<Double> boxed;
+  private DoubleMatrix doubles;
+  private DoubleMatrix box;
+
+  @Setup
+  public void build() {
+    doubles = new DoubleMatrix((i, j) -> (i * 31 + j * 17) % 255, size, size);
+    boxed = new FunMatrix<>((i, j) -> doubles.getDouble(i, j), size, size);
+    box = new DoubleMatrix(1.0 / 9, 3, 3);
+  }
+
+  @Benchmark
+  public IMatrix<Double> closure() {
+    return boxed.map((i, j) -> {
+      double sum = 0;
+      for (int di = -1; di <= 1; di++) {
+        for (int dj = -1; dj <= 1; dj++) {
+          int row = Math.min(Math.max(i + di, 0), size - 1);
+          int col = Math.min(Math.max(j + dj, 0), size - 1);
+          sum += boxed.getElement(row, col);
+        }
+      }
+      return sum / 9;
+    });
+  }
+
+  @Benchmark
+  public IMatrix<Double> mapNeighborhood() {
+    return boxed.mapNeighborhood(1, BoundaryMode.CLAMP, n -> {
+      double sum = 0;
+      for (int di = -1; di <= 1; di++) {
+        for (int dj = -1; dj <= 1; dj++) {
+          sum += n.get(di, dj);
+        }
+      }
+      return sum / 9;
+    });
+  }
+
+  @Benchmark
+  public DoubleMatrix convolve() {
+    return doubles.convolve(box, BoundaryMode.CLAMP);
+  }
+}
@@ -0,0 +1,67 @@
+package funmatrix;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping, reducing and multiplying a square {@link TiledMatrix} of <code>double</code>s whose cache holds every
+ * tile, or only <code>residentTiles</code> of them, so that the rest go to and from disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+public class TiledBenchmarks {
+
+  @Param({"1024"})
+  int size;
+
+  @Param({"4", "1024"})
+  int residentTiles;
+
+  private Path dir;
+  private TiledMatrix<Double> matrix;
+
+  @Setup
+  public void build() throws IOException {
+    dir = Files.createTempDirectory("tiled-benchmarks");
+    TileOptions options = TileOptions.DEFAULT.withTileSize(128).withMaxResidentTiles(residentTiles)
+        .withSpillDirectory(dir);
+    matrix = TiledMatrix.generate((i, j) -> Math.sin(i + 2 * j), size, size, ElementCodec.DOUBLES, options);
+  }
+
+  @TearDown
+  public void close() throws IOException {
+    matrix.close();
+    Files.delete(dir);
+  }
+
+  @Benchmark
+  public Double mapThenReduce() throws IOException {
+    try (TiledMatrix<Double> mapped = matrix.map(x -> x * 2, ElementCodec.DOUBLES)) {
+      return mapped.reduce(0.0, Double::sum);
+    }
+  }
+
+  @Benchmark
+  public Double foldNW() {
+    return matrix.foldNW(Double::sum, 0.0);
+  }
+}
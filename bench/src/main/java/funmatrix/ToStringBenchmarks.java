@@ -0,0 +1,53 @@
+package funmatrix;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <code>toString</code>, which renders every cell, and an elided {@link IMatrix#render(RenderOptions)}, which should
+ * cost the same at every size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class ToStringBenchmarks {
+
+  @Param({"10", "100", "1000"})
+  int size;
+
+  @Param({"FUN_INTEGER", "FUN_STRING", "DOUBLE_MATRIX", "SPARSE_INTEGER"})
+  MatrixKind kind;
+
+  private IMatrix<?> matrix;
+  private RenderOptions elided;
+
+  @Setup
+  public void build() {
+    matrix = kind.build(size);
+    elided = RenderOptions.DEFAULT.withMaxRows(10).withMaxCols(10).withPrecision(3);
+  }
+
+  @Benchmark
+  public String toStringOfMatrix() {
+    return matrix.toString();
+  }
+
+  @Benchmark
+  public String renderElided() {
+    return matrix.render(elided);
+  }
+}
@@ -0,0 +1,90 @@
+import java.util.function.BiFunction;
+
+/**
+ * An {@link IMatrix} that lives in a memory-mapped matrix file rather than on the heap, the shared base of
+ * {@link MappedDoubleMatrix} and {@link MappedLongMatrix}.
+ * <br>
+ * Subclasses only say how one cell of their {@link MappedCells} is read as an element; the shape, bounds checking,
+ * <code>getElement</code> and the generic folds all read straight from the mapping here.
+ *
+ * @param <X> The type of the entry included in this matrix
+ */
+public abstract class AMappedMatrix<X> extends AMatrix<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final int rows;
+  protected final int cols;
+  protected final MappedCells cells;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  AMappedMatrix(MappedCells _cells) {
+    rows = _cells.header.rows;
+    cols = _cells.header.cols;
+    cells = _cells;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public X getElement(int row, int col)
+      throws IllegalArgumentException {
+    return cell(indexOf(row, col));
+  }
+
+  @Override
+  public int getWidth() {
+    return cols;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows;
+  }
+
+  @Override
+  public <Y> Y foldNW(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+
+    for (long k = 0; k < cells.header.cellCount(); k++) {
+      folded = folder.apply(cell(k), folded);
+    }
+
+    return folded;
+  }
+
+  @Override
+  public <Y> Y foldSE(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+
+    for (long k = cells.header.cellCount() - 1; k >= 0; k--) {
+      folded = folder.apply(cell(k), folded);
+    }
+
+    return folded;
+  }
+
+  @Override
+  public IMatrix<X> copy() {
+    // the mapping is read-only, so a copy can share it
+    return this;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~protected methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * The element held in row-major cell <code>k</code> of the mapping.
+   */
+  protected abstract X cell(long k);
+
+  /**
+   * The row-major cell of (<code>row</code>, <code>col</code>).
+   *
+   * @throws IllegalArgumentException if (<code>row</code>, <code>col</code>) is outside this matrix
+   */
+  protected long indexOf(int row, int col)
+      throws IllegalArgumentException {
+    return (long) Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1);
+  }
+}
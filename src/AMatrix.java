@@ -0,0 +1,577 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A skeletal {@link IMatrix} that implements every operation in terms of {@link #getElement(int, int)},
+ * {@link #getHeight()} and {@link #getWidth()}.
+ * <ul>
+ *     <li>Subclasses override whichever operations their own storage can do faster</li>
+ *     <li>Operations whose result type differs from <code>X</code> produce a {@link FunMatrix}</li>
+ * </ul>
+ *
+ * @param <X> The type of the entry included in this matrix
+ */
+public abstract class AMatrix<X> implements IMatrix<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public <Y> IMatrix<Y> map(Function<X, Y> elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    Object[] mapped = new Object[getHeight() * getWidth()];
+
+    for (int i = 0; i < getHeight(); i++) {
+      for (int j = 0; j < getWidth(); j++) {
+        mapped[i * getWidth() + j] = elementMapper.apply(getElement(i, j));
+      }
+    }
+
+    return new FunMatrix<Y>(getHeight(), getWidth(), mapped);
+  }
+
+  @Override
+  public <Y> IMatrix<Y> map(IntIntFunction<Y> rowColMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(rowColMapper);
+
+    Object[] mapped = new Object[getHeight() * getWidth()];
+
+    for (int i = 0; i < getHeight(); i++) {
+      for (int j = 0; j < getWidth(); j++) {
+        mapped[i * getWidth() + j] = rowColMapper.apply(i, j);
+      }
+    }
+
+    return new FunMatrix<Y>(getHeight(), getWidth(), mapped);
+  }
+
+  @Override
+  public <Y> IMatrix<Y> mapNeighborhood(int radius, BoundaryMode mode, X outside,
+                                        Function<Neighborhood<X>, Y> kernelFn)
+      throws IllegalArgumentException {
+    checkNeighborhood(radius, mode, outside, kernelFn);
+    return new FunMatrix<Y>(getHeight(), getWidth(), Stencils.mapNeighborhood(rowMajorEntries(), getHeight(),
+        getWidth(), radius, mode, outside, kernelFn, Parallelism.SEQUENTIAL));
+  }
+
+  @Override
+  public <Y> IMatrix<Y> mapNeighborhood(int radius, BoundaryMode mode, Function<Neighborhood<X>, Y> kernelFn)
+      throws IllegalArgumentException {
+    return mapNeighborhood(radius, mode, null, kernelFn);
+  }
+
+  @Override
+  public void forEachIndexed(IndexedConsumer<X> action)
+      throws IllegalArgumentException {
+    Utils.notNull(action);
+    IntFunction<X> cells = cellsOf(this);
+    int width = getWidth();
+
+    for (int i = 0; i < getHeight(); i++) {
+      for (int j = 0; j < width; j++) {
+        action.accept(i, j, cells.apply(i * width + j));
+      }
+    }
+  }
+
+  @Override
+  public List<X> filter(Predicate<X> condition)
+      throws IllegalArgumentException {
+    Utils.notNull(condition);
+    return stream().filter(condition).collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  @Override
+  public <Y> Y foldNW(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+
+    for (int i = 0; i < getHeight(); i++) {
+      for (int j = 0; j < getWidth(); j++) {
+        folded = folder.apply(getElement(i, j), folded);
+      }
+    }
+
+    return folded;
+  }
+
+  @Override
+  public <Y> Y foldSE(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+
+    for (int i = getHeight() - 1; i >= 0; i--) {
+      for (int j = getWidth() - 1; j >= 0; j--) {
+        folded = folder.apply(getElement(i, j), folded);
+      }
+    }
+
+    return folded;
+  }
+
+  @Override
+  public X reduce(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    Object[] flat = rowMajorEntries();
+
+    return Reduction.pairwise(flat, 0, flat.length, identity, associativeCombiner);
+  }
+
+  @Override
+  public IMatrix<X> reduceRows(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    Object[] flat = rowMajorEntries();
+    Object[] reduced = new Object[getHeight()];
+
+    for (int i = 0; i < getHeight(); i++) {
+      reduced[i] = Reduction.pairwise(flat, i * getWidth(), (i + 1) * getWidth(), identity, associativeCombiner);
+    }
+
+    return new FunMatrix<>(getHeight(), 1, reduced);
+  }
+
+  @Override
+  public IMatrix<X> reduceCols(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+
+    return new FunMatrix<>(1, getWidth(),
+        Reduction.columnwise(rowMajorEntries(), getWidth(), 0, getHeight(), identity, associativeCombiner));
+  }
+
+  @Override
+  public <Y, Z> IMatrix<Z> elementWiseCombine(BiFunction<X, Y, Z> combiner, IMatrix<Y> combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+
+    if (getHeight() != combineWith.getHeight() || getWidth() != combineWith.getWidth()) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    return map((i, j) -> combiner.apply(getElement(i, j), combineWith.getElement(i, j)));
+  }
+
+  @Override
+  public <Y, Z, α> IMatrix<α> pseudoMultiply(BiFunction<X, Y, Z> interMatrixOperation,
+                                             BiFunction<Z, α, α> intraMatrixOperation, IMatrix<Y> combineWith,
+                                             α αIdentity)
+      throws IllegalArgumentException {
+    Utils.notNull(interMatrixOperation);
+    Utils.notNull(intraMatrixOperation);
+    MatrixMultiplication.checkDimensions(this, combineWith);
+
+    Object[] product = MatrixMultiplication.blocked(rowMajorEntries(), rowMajorEntries(combineWith),
+        getHeight(), getWidth(), combineWith.getWidth(), interMatrixOperation, intraMatrixOperation, αIdentity);
+
+    return new FunMatrix<>(getHeight(), combineWith.getWidth(), product);
+  }
+
+  @Override
+  public IMatrix<X> sort(Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.notNull(comparator);
+
+    return new FunMatrix<>(getHeight(), getWidth(),
+        Sorting.sorted(rowMajorEntries(), comparator, Parallelism.SEQUENTIAL));
+  }
+
+  @Override
+  public IMatrix<X> sortRows(Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.notNull(comparator);
+
+    return new FunMatrix<>(getHeight(), getWidth(),
+        Sorting.rowsSorted(rowMajorEntries(), getHeight(), getWidth(), comparator, Parallelism.SEQUENTIAL));
+  }
+
+  @Override
+  public IMatrix<X> sortCols(Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.notNull(comparator);
+
+    // the columns of this matrix are the rows of its transpose
+    return transpose().sortRows(comparator).transpose().compact();
+  }
+
+  @Override
+  public IMatrix<X> sortRowsBy(int keyCol, Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, keyCol, getWidth() - 1);
+    Utils.notNull(comparator);
+
+    return new FunMatrix<>(getHeight(), getWidth(),
+        Sorting.rowsSortedBy(rowMajorEntries(), getHeight(), getWidth(), keyCol, comparator));
+  }
+
+  @Override
+  public List<Cell<X>> topK(int k, Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, k, Integer.MAX_VALUE);
+    Utils.notNull(comparator);
+
+    Sorting.TopK<X> top = new Sorting.TopK<>(k, getWidth(), comparator);
+    IntFunction<X> cells = cellsOf(this);
+    for (int idx = 0; idx < getHeight() * getWidth(); idx++) {
+      top.offer(cells.apply(idx), idx);
+    }
+    return top.toList();
+  }
+
+  @Override
+  public List<Cell<X>> bottomK(int k, Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.notNull(comparator);
+
+    return topK(k, comparator.reversed());
+  }
+
+  @Override
+  public IMatrix<X> replaceMap(Predicate<X> replaceIf, X replaceWith) {
+    return map(x -> replaceIf.test(x) ? replaceWith : x);
+  }
+
+  @Override
+  public List<X> asList() {
+    List<X> _asList = new ArrayList<>();
+
+    for (int i = 0; i < getHeight(); i++) {
+      for (int j = 0; j < getWidth(); j++) {
+        _asList.add(getElement(i, j));
+      }
+    }
+
+    return _asList;
+  }
+
+  @Override
+  public IMatrix<X> copy() {
+    return map(x -> x);
+  }
+
+  @Override
+  public MatrixBuilder<X> toTransient() {
+    return new MatrixBuilder<>(this);
+  }
+
+  @Override
+  public IMatrix<X> updateEntry(X newEntry, int row, int col)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, row, getHeight() - 1);
+    Utils.intBetween(0, col, getWidth() - 1);
+    Utils.notNull(newEntry);
+
+    return map((i, j) -> i == row && j == col ? newEntry : getElement(i, j));
+  }
+
+  @Override
+  public IMatrix<X> updateRow(List<X> newRow, int rowNum)
+      throws IllegalArgumentException {
+    // is the desired row number valid?
+    Utils.intBetween(0, rowNum, getHeight() - 1);
+    // does the specified new row have the right number of entries?
+    Utils.intBetween(getWidth(), Utils.notNull(newRow).size(), getWidth());
+
+    return map((i, j) -> i == rowNum ? newRow.get(j) : getElement(i, j));
+  }
+
+  @Override
+  public IMatrix<X> updateCol(List<X> newCol, int colNum) {
+    // is the desired column number valid?
+    Utils.intBetween(0, colNum, getWidth() - 1);
+    // does the specified new column have the right number of entries?
+    Utils.intBetween(getHeight(), newCol.size(), getHeight());
+
+    return map((i, j) -> j == colNum ? newCol.get(i) : getElement(i,j));
+  }
+
+  @Override
+  public IMatrix<X> fillWith(X uniformEntry)
+      throws IllegalArgumentException {
+    Utils.notNull(uniformEntry);
+    return map(x -> uniformEntry);
+  }
+
+  @Override
+  public IMatrix<X> findAndReplace(X toFind, X replaceWith)
+      throws IllegalArgumentException {
+    Utils.notNull(toFind);
+    Utils.notNull(replaceWith);
+
+    return replaceMap(x -> x.equals(toFind), replaceWith);
+  }
+
+  @Override
+  public boolean orMap(Predicate<X> condition) {
+    Utils.notNull(condition);
+    return stream().anyMatch(condition);
+  }
+
+  @Override
+  public boolean andMap(Predicate<X> condition) {
+    Utils.notNull(condition);
+    return stream().allMatch(condition);
+  }
+
+  @Override
+  public Optional<X> findFirst(Predicate<X> condition) {
+    Utils.notNull(condition);
+    return stream().filter(condition).findFirst();
+  }
+
+  @Override
+  public Optional<Cell<X>> indexOf(Predicate<X> condition) {
+    Utils.notNull(condition);
+    return indexedStream().filter(aCell -> condition.test(aCell.getValue())).findFirst();
+  }
+
+  @Override
+  public Stream<X> stream() {
+    return StreamSupport.stream(cellSpliterator(), isParallel());
+  }
+
+  @Override
+  public Stream<X> parallelStream() {
+    return StreamSupport.stream(cellSpliterator(), true);
+  }
+
+  @Override
+  public Stream<IMatrix<X>> rowStream() {
+    Stream<IMatrix<X>> rows = IntStream.range(0, getHeight()).mapToObj(this::row);
+    return isParallel() ? rows.parallel() : rows;
+  }
+
+  @Override
+  public Stream<Cell<X>> indexedStream() {
+    IntFunction<X> cells = cellsOf(this);
+    int width = getWidth();
+
+    return StreamSupport.stream(new MatrixSpliterator<>(k -> new Cell<>(k / width, k % width, cells.apply(k)), 0,
+        getHeight() * width), isParallel());
+  }
+
+  @Override
+  public Spliterator<X> cellSpliterator() {
+    return new MatrixSpliterator<>(cellsOf(this), 0, getHeight() * getWidth());
+  }
+
+  @Override
+  public IMatrix<X> subMatrix(int firstRowIncl, int lastRowIncl, int firstColIncl, int lastColIncl) {
+    return slice(firstRowIncl, lastRowIncl, 1, firstColIncl, lastColIncl, 1);
+  }
+
+  @Override
+  public IMatrix<X> subMatrix(int lastRowIncl, int lastColIncl) {
+    return subMatrix(0, lastRowIncl, 0, lastColIncl);
+  }
+
+  @Override
+  public IMatrix<X> slice(int firstRowIncl, int lastRowIncl, int rowStep,
+                          int firstColIncl, int lastColIncl, int colStep) {
+    Utils.intBetween(0, firstRowIncl, lastRowIncl);
+    Utils.intBetween(firstRowIncl, lastRowIncl, getHeight() - 1);
+    Utils.intBetween(1, rowStep, Integer.MAX_VALUE);
+    Utils.intBetween(0, firstColIncl, lastColIncl);
+    Utils.intBetween(firstColIncl, lastColIncl, getWidth() - 1);
+    Utils.intBetween(1, colStep, Integer.MAX_VALUE);
+
+    return new MatrixView<>(this, firstRowIncl, (lastRowIncl - firstRowIncl) / rowStep + 1, rowStep,
+        firstColIncl, (lastColIncl - firstColIncl) / colStep + 1, colStep, false);
+  }
+
+  @Override
+  public IMatrix<X> everyNthRow(int n) {
+    Utils.intBetween(1, n, Integer.MAX_VALUE);
+    return getHeight() == 0 ? this : slice(0, getHeight() - 1, n, 0, getWidth() - 1, 1);
+  }
+
+  @Override
+  public IMatrix<X> transpose() {
+    return new MatrixView<>(this, 0, getHeight(), 1, 0, getWidth(), 1, true);
+  }
+
+  @Override
+  public IMatrix<X> row(int rowNum) {
+    return subMatrix(rowNum, rowNum, 0, getWidth() - 1);
+  }
+
+  @Override
+  public IMatrix<X> col(int colNum) {
+    return subMatrix(0, getHeight() - 1, colNum, colNum);
+  }
+
+  @Override
+  public IMatrix<X> compact() {
+    return this;
+  }
+
+  @Override
+  public IMatrix<X> parallel() {
+    return parallel(ForkJoinPool.commonPool());
+  }
+
+  @Override
+  public IMatrix<X> parallel(ForkJoinPool pool) {
+    Utils.notNull(pool);
+    return this;
+  }
+
+  @Override
+  public IMatrix<X> sequential() {
+    return this;
+  }
+
+  @Override
+  public boolean isParallel() {
+    return false;
+  }
+
+  @Override
+  public IMatrix<X> lazy() {
+    return new LazyMatrix<>(this);
+  }
+
+  @Override
+  public IMatrix<X> materialize() {
+    return this;
+  }
+
+  @Override
+  public IMatrix<X> instrumented(MatrixMetrics metrics)
+      throws IllegalArgumentException {
+    return new InstrumentedMatrix<>(this, metrics);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    // fast path
+    if (this == o) {
+      return true;
+    }
+
+    // check instanceof
+    if ( !(o instanceof IMatrix) ) {
+      return false;
+    }
+
+    // safe cast
+    IMatrix anotherMatrix = (IMatrix) o;
+
+    // check sizes
+    if (this.getWidth() != anotherMatrix.getWidth() || this.getHeight() != anotherMatrix.getHeight()) {
+      return false;
+    }
+
+    // intensional equality check
+    return map( (i,j) -> Objects.equals(this.getElement(i,j), anotherMatrix.getElement(i,j)))
+        .foldNW( (b1, b2) -> (b1 && b2), true);
+
+  }
+
+  @Override
+  public int hashCode() {
+    return map(elem -> Objects.hashCode(elem)).foldNW((hash1, hash2) -> (hash1 + hash2), 0);
+  }
+
+  @Override
+  public String toString() {
+    return render(RenderOptions.DEFAULT);
+  }
+
+  @Override
+  public void render(Appendable out, RenderOptions options)
+      throws IOException, IllegalArgumentException {
+    Utils.notNull(options).render(this, Utils.notNull(out));
+  }
+
+  @Override
+  public String render(RenderOptions options)
+      throws IllegalArgumentException {
+    StringBuilder out = new StringBuilder();
+    try {
+      render(out, options);
+    }
+    catch (IOException e) {
+      // a StringBuilder never throws
+      throw new UncheckedIOException(e);
+    }
+    return out.toString();
+  }
+
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~protected methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * This matrix's elements in row-major order. Implementations backed by an <code>Object[]</code> may return that
+   * array itself, so callers must only ever read from it.
+   */
+  protected Object[] rowMajorEntries() {
+    return asList().toArray();
+  }
+
+  /**
+   * A densely packed copy of <code>view</code>, a view onto this matrix, as {@link MatrixView#compact()} returns
+   * it. Matrices with storage of their own, like {@link DoubleMatrix}, copy into that kind of storage.
+   */
+  protected IMatrix<X> compactView(IMatrix<X> view) {
+    return new FunMatrix<>(view.getHeight(), view.getWidth(), rowMajorEntries(view));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // reads cells of a matrix by row-major index, straight from its storage where possible
+  static <Y> IntFunction<Y> cellsOf(IMatrix<Y> aMatrix) {
+    if (aMatrix instanceof LazyMatrix) {
+      return ((LazyMatrix<Y>) aMatrix).cells;
+    }
+    int width = aMatrix.getWidth();
+    if (aMatrix instanceof FunMatrix) {
+      FunMatrix<Y> funMatrix = (FunMatrix<Y>) aMatrix;
+      if (funMatrix.isCompact()) {
+        Object[] entries = funMatrix.entries;
+        // every slot of a compact FunMatrix's entries holds a Y
+        @SuppressWarnings("unchecked")
+        IntFunction<Y> stored = k -> (Y) entries[k];
+        return stored;
+      }
+      return k -> funMatrix.elementAt(k / width, k % width);
+    }
+    return k -> aMatrix.getElement(k / width, k % width);
+  }
+
+  static void checkNeighborhood(int radius, BoundaryMode mode, Object outside, Function<?, ?> kernelFn)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, radius, 1 << 10);
+    Utils.notNull(mode);
+    Utils.notNull(kernelFn);
+    if (mode == BoundaryMode.CONSTANT && outside == null) {
+      throw new IllegalArgumentException("a CONSTANT boundary needs a value to read outside the matrix");
+    }
+  }
+
+  protected static Object[] rowMajorEntries(IMatrix<?> aMatrix) {
+    if (aMatrix instanceof AMatrix) {
+      return ((AMatrix<?>) aMatrix).rowMajorEntries();
+    }
+    return aMatrix.asList().toArray();
+  }
+}
@@ -0,0 +1,74 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MatrixMetrics} that keeps running totals per {@link MatrixMetrics.Operation}: how many times it ran, the
+ * cells it visited, the nanoseconds it took and the bytes it allocated. Safe to record into from many threads.
+ */
+public final class AggregatingMetrics implements MatrixMetrics {
+
+  private static final class Totals {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder cells = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // filled in up front and never changed, so it can be read without locking
+  private final Map<Operation, Totals> totals = new EnumMap<>(Operation.class);
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  public AggregatingMetrics() {
+    for (Operation operation : Operation.values()) {
+      totals.put(operation, new Totals());
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public void record(Operation operation, int rows, int cols, long cells, long nanos, long allocatedBytes) {
+    Totals forOperation = totals.get(operation);
+    forOperation.count.increment();
+    forOperation.cells.add(cells);
+    forOperation.nanos.add(nanos);
+    if (allocatedBytes > 0) {
+      forOperation.allocatedBytes.add(allocatedBytes);
+    }
+  }
+
+  public long getCount(Operation operation) {
+    return totals.get(Utils.notNull(operation)).count.sum();
+  }
+
+  public long getCells(Operation operation) {
+    return totals.get(Utils.notNull(operation)).cells.sum();
+  }
+
+  public long getNanos(Operation operation) {
+    return totals.get(Utils.notNull(operation)).nanos.sum();
+  }
+
+  public long getAllocatedBytes(Operation operation) {
+    return totals.get(Utils.notNull(operation)).allocatedBytes.sum();
+  }
+
+  /**
+   * One line per operation that ran: its count, cells, milliseconds and megabytes allocated.
+   */
+  @Override
+  public String toString() {
+    StringBuilder out = new StringBuilder();
+    for (Operation operation : Operation.values()) {
+      if (getCount(operation) > 0) {
+        out.append(operation).append(": count=").append(getCount(operation))
+            .append(" cells=").append(getCells(operation))
+            .append(" ms=").append(getNanos(operation) / 1_000_000)
+            .append(" allocatedMB=").append(getAllocatedBytes(operation) >> 20)
+            .append('\n');
+      }
+    }
+    return out.toString();
+  }
+}
@@ -0,0 +1,88 @@
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * The standard arithmetic combiners, for {@link DoubleMatrix#elementWiseCombineToDouble} and
+ * {@link IntMatrix#elementWiseCombineToInt}.
+ * <br>
+ * Any <code>DoubleBinaryOperator</code> works there, but passing one of these lets the matrix recognize the operation
+ * and run it as a SIMD loop (see {@link NumericKernels}) instead of calling a lambda once per cell.
+ */
+public enum Arithmetic implements DoubleBinaryOperator, IntBinaryOperator {
+
+  ADD {
+    @Override
+    public double applyAsDouble(double left, double right) {
+      return left + right;
+    }
+
+    @Override
+    public int applyAsInt(int left, int right) {
+      return left + right;
+    }
+  },
+
+  SUBTRACT {
+    @Override
+    public double applyAsDouble(double left, double right) {
+      return left - right;
+    }
+
+    @Override
+    public int applyAsInt(int left, int right) {
+      return left - right;
+    }
+  },
+
+  MULTIPLY {
+    @Override
+    public double applyAsDouble(double left, double right) {
+      return left * right;
+    }
+
+    @Override
+    public int applyAsInt(int left, int right) {
+      return left * right;
+    }
+  },
+
+  /**
+   * <code>left / right</code>; on <code>int</code>s, throws an <code>ArithmeticException</code> when
+   * <code>right</code> is 0.
+   */
+  DIVIDE {
+    @Override
+    public double applyAsDouble(double left, double right) {
+      return left / right;
+    }
+
+    @Override
+    public int applyAsInt(int left, int right) {
+      return left / right;
+    }
+  },
+
+  MIN {
+    @Override
+    public double applyAsDouble(double left, double right) {
+      return Math.min(left, right);
+    }
+
+    @Override
+    public int applyAsInt(int left, int right) {
+      return Math.min(left, right);
+    }
+  },
+
+  MAX {
+    @Override
+    public double applyAsDouble(double left, double right) {
+      return Math.max(left, right);
+    }
+
+    @Override
+    public int applyAsInt(int left, int right) {
+      return Math.max(left, right);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/**
+ * What a neighborhood operation ({@link IMatrix#mapNeighborhood}, {@link DoubleMatrix#convolve}) reads for the
+ * neighbors of an edge cell that fall outside the matrix.
+ */
+public enum BoundaryMode {
+
+  /**
+   * The nearest cell of the matrix: rows above the top read the top row, columns past the right edge read the right
+   * column, and so on.
+   */
+  CLAMP,
+
+  /**
+   * The matrix repeats like a torus: the row above the top is the bottom row, and the column past the right edge is
+   * the left column.
+   */
+  WRAP,
+
+  /**
+   * A single given value, the same for every neighbor outside the matrix.
+   */
+  CONSTANT;
+
+  /**
+   * The row (or column) that index <code>index</code> reads in a dimension of length <code>length</code>, or -1 if
+   * it reads the constant.
+   */
+  int resolve(int index, int length) {
+    if (index >= 0 && index < length) {
+      return index;
+    }
+    switch (this) {
+      case CLAMP:
+        return index < 0 ? 0 : length - 1;
+      case WRAP:
+        return Math.floorMod(index, length);
+      default:
+        return -1;
+    }
+  }
+}
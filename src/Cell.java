@@ -0,0 +1,57 @@
+import java.util.Objects;
+
+/**
+ * One entry of an {@link IMatrix} together with its position, as produced by {@link IMatrix#indexedStream()} and
+ * {@link IMatrix#indexOf}.
+ *
+ * @param <X> The type of the entry
+ */
+public final class Cell<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final int row;
+  private final int col;
+  private final X value;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  Cell(int _row, int _col, X _value) {
+    row = _row;
+    col = _col;
+    value = _value;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  public int getRow() {
+    return row;
+  }
+
+  public int getCol() {
+    return col;
+  }
+
+  public X getValue() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cell)) {
+      return false;
+    }
+    Cell<?> anotherCell = (Cell<?>) o;
+    return row == anotherCell.row && col == anotherCell.col && Objects.equals(value, anotherCell.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(row, col, value);
+  }
+
+  @Override
+  public String toString() {
+    return "(" + row + ", " + col + ") = " + value;
+  }
+}
@@ -0,0 +1,601 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * An {@link IMatrix} of <code>double</code>s kept unboxed in one flat, row-major <code>double[]</code>.
+ * <ul>
+ *     <li>The generic operations still work (boxing on the way in and out), so a <code>DoubleMatrix</code> can be
+ *     passed anywhere an <code>IMatrix&lt;Double&gt;</code> is expected</li>
+ *     <li>The primitive overloads ({@link #mapToDouble}, {@link #foldNW(DoubleBinaryOperator, double)},
+ *     {@link #foldSE(DoubleBinaryOperator, double)}, {@link #elementWiseCombineToDouble}) never box</li>
+ *     <li>{@link #scale}, {@link #offset}, {@link #clamp}, {@link #sum()}, {@link #min()}, {@link #max()},
+ *     {@link #dot}, {@link #multiply} and combining with an {@link Arithmetic} run on {@link NumericKernels}, as SIMD
+ *     loops when the Vector API is available</li>
+ * </ul>
+ */
+public class DoubleMatrix extends AMatrix<Double> {
+
+  // convolve splits its tiles across the common pool; there is no parallel mode to ask
+  private static final Parallelism TILES = Parallelism.on(ForkJoinPool.commonPool());
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final int rows;
+  protected final int cols;
+  protected final double[] entries;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  DoubleMatrix(double[][] elements)
+      throws IllegalArgumentException {
+    Utils.notNull(elements);
+    rows = elements.length;
+    cols = rows == 0 ? 0 : Utils.notNull(elements[0]).length;
+    entries = new double[rows * cols];
+
+    for (int i = 0; i < rows; i++) {
+      if (Utils.notNull(elements[i]).length != cols) {
+        throw new IllegalArgumentException("All rows must be of the same length when creating this matrix");
+      }
+      System.arraycopy(elements[i], 0, entries, i * cols, cols);
+    }
+  }
+
+  DoubleMatrix(double uniformEntry, int _rows, int _cols)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+
+    rows = _rows;
+    cols = _cols;
+    entries = new double[_rows * _cols];
+    Arrays.fill(entries, uniformEntry);
+  }
+
+  /**
+   * A <code>_rows</code> x <code>_cols</code> matrix whose entry at (i, j) is <code>generator(i, j)</code>, computed
+   * without boxing either the indices or the entries.
+   */
+  DoubleMatrix(IntIntToDoubleFunction generator, int _rows, int _cols)
+      throws IllegalArgumentException {
+    Utils.notNull(generator);
+    Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+
+    rows = _rows;
+    cols = _cols;
+    entries = new double[_rows * _cols];
+
+    for (int i = 0; i < _rows; i++) {
+      for (int j = 0; j < _cols; j++) {
+        entries[i * _cols + j] = generator.applyAsDouble(i, j);
+      }
+    }
+  }
+
+  DoubleMatrix(IMatrix<Double> toUnbox)
+      throws IllegalArgumentException {
+    rows = Utils.notNull(toUnbox).getHeight();
+    cols = toUnbox.getWidth();
+    entries = new double[rows * cols];
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        entries[i * cols + j] = Utils.notNull(toUnbox.getElement(i, j));
+      }
+    }
+  }
+
+  /**
+   * Wraps (does not copy) <code>_entries</code>, which must be laid out row-major and never be written to again.
+   */
+  DoubleMatrix(int _rows, int _cols, double[] _entries)
+      throws IllegalArgumentException {
+    Utils.intBetween(_rows * _cols, Utils.notNull(_entries).length, _rows * _cols);
+    rows = _rows;
+    cols = _cols;
+    entries = _entries;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~primitive operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * The unboxed entry at (<code>row</code>, <code>col</code>).
+   */
+  public double getDouble(int row, int col)
+      throws IllegalArgumentException {
+    return entries[Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)];
+  }
+
+  /**
+   * {@link IMatrix#map(java.util.function.Function)} without boxing.
+   *
+   * @param elementMapper a lambda abstraction with signature <code>elementMapper :: double -> double</code>
+   * @return a new <code>DoubleMatrix</code> of the same size where each entry is <code>elementMapper(x)</code>
+   */
+  public DoubleMatrix mapToDouble(DoubleUnaryOperator elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    double[] mapped = new double[entries.length];
+    for (int k = 0; k < entries.length; k++) {
+      mapped[k] = elementMapper.applyAsDouble(entries[k]);
+    }
+
+    return new DoubleMatrix(rows, cols, mapped);
+  }
+
+  /**
+   * {@link IMatrix#foldNW(java.util.function.BiFunction, Object)} without boxing.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: double double -> double</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing with
+   * @return the fully <code>fold</code>ed value, folding left to right and top to bottom
+   */
+  public double foldNW(DoubleBinaryOperator folder, double base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    double folded = base;
+
+    for (int k = 0; k < entries.length; k++) {
+      folded = folder.applyAsDouble(entries[k], folded);
+    }
+
+    return folded;
+  }
+
+  /**
+   * {@link IMatrix#foldSE(java.util.function.BiFunction, Object)} without boxing.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: double double -> double</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing with
+   * @return the fully <code>fold</code>ed value, folding right to left and bottom to top
+   */
+  public double foldSE(DoubleBinaryOperator folder, double base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    double folded = base;
+
+    for (int k = entries.length - 1; k >= 0; k--) {
+      folded = folder.applyAsDouble(entries[k], folded);
+    }
+
+    return folded;
+  }
+
+  /**
+   * {@link IMatrix#elementWiseCombine(java.util.function.BiFunction, IMatrix)} without boxing. An {@link Arithmetic}
+   * <code>combiner</code> runs as a SIMD loop when the Vector API is available.
+   *
+   * @param combiner    a lambda abstraction with signature <code>combiner :: double double -> double</code>
+   * @param combineWith the matrix to <code>combineWith</code>, of the same size as this one
+   * @return a new <code>DoubleMatrix</code> whose entries are <code>combiner(m1ij, m2ij)</code>
+   */
+  public DoubleMatrix elementWiseCombineToDouble(DoubleBinaryOperator combiner, DoubleMatrix combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+
+    if (rows != combineWith.rows || cols != combineWith.cols) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    double[] combined = new double[entries.length];
+    if (combiner instanceof Arithmetic) {
+      NumericKernels.BEST.combine((Arithmetic) combiner, entries, combineWith.entries, combined);
+    }
+    else {
+      for (int k = 0; k < entries.length; k++) {
+        combined[k] = combiner.applyAsDouble(entries[k], combineWith.entries[k]);
+      }
+    }
+
+    return new DoubleMatrix(rows, cols, combined);
+  }
+
+  /**
+   * Every entry times <code>factor</code>.
+   */
+  public DoubleMatrix scale(double factor) {
+    double[] scaled = new double[entries.length];
+    NumericKernels.BEST.scale(entries, factor, scaled);
+    return new DoubleMatrix(rows, cols, scaled);
+  }
+
+  /**
+   * Every entry plus <code>shift</code>.
+   */
+  public DoubleMatrix offset(double shift) {
+    double[] shifted = new double[entries.length];
+    NumericKernels.BEST.offset(entries, shift, shifted);
+    return new DoubleMatrix(rows, cols, shifted);
+  }
+
+  /**
+   * Every entry brought into <code>[lower, upper]</code>: entries below <code>lower</code> become
+   * <code>lower</code>, and entries above <code>upper</code> become <code>upper</code>.
+   *
+   * @throws IllegalArgumentException if <code>lower</code> is greater than <code>upper</code>
+   */
+  public DoubleMatrix clamp(double lower, double upper)
+      throws IllegalArgumentException {
+    if (!(lower <= upper)) {
+      throw new IllegalArgumentException("cannot clamp to [" + lower + "," + upper + "]");
+    }
+
+    double[] clamped = new double[entries.length];
+    NumericKernels.BEST.clamp(entries, lower, upper, clamped);
+    return new DoubleMatrix(rows, cols, clamped);
+  }
+
+  /**
+   * The sum of every entry.
+   */
+  public double sum() {
+    return NumericKernels.BEST.sum(entries);
+  }
+
+  /**
+   * The least entry, or positive infinity if this matrix is empty.
+   */
+  public double min() {
+    return NumericKernels.BEST.min(entries);
+  }
+
+  /**
+   * The greatest entry, or negative infinity if this matrix is empty.
+   */
+  public double max() {
+    return NumericKernels.BEST.max(entries);
+  }
+
+  /**
+   * The sum of the products of corresponding entries, as if both matrices were flattened into vectors.
+   *
+   * @param combineWith a matrix of the same size as this one
+   * @throws IllegalArgumentException if the dimensions differ
+   */
+  public double dot(DoubleMatrix combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combineWith);
+
+    if (rows != combineWith.rows || cols != combineWith.cols) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    return NumericKernels.BEST.dot(entries, combineWith.entries);
+  }
+
+  /**
+   * {@link IMatrix#reduce(Object, BinaryOperator)} without boxing.
+   *
+   * @param identity            the identity of <code>associativeCombiner</code>
+   * @param associativeCombiner an associative lambda abstraction with signature
+   *                            <code>associativeCombiner :: double double -> double</code>
+   * @return the combination of every element of this matrix in row-major order
+   */
+  public double reduce(double identity, DoubleBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return Reduction.pairwise(entries, 0, entries.length, identity, associativeCombiner);
+  }
+
+  /**
+   * {@link IMatrix#reduceRows(Object, BinaryOperator)} without boxing.
+   */
+  public DoubleMatrix reduceRows(double identity, DoubleBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+
+    double[] reduced = new double[rows];
+    for (int i = 0; i < rows; i++) {
+      reduced[i] = Reduction.pairwise(entries, i * cols, (i + 1) * cols, identity, associativeCombiner);
+    }
+
+    return new DoubleMatrix(rows, 1, reduced);
+  }
+
+  /**
+   * {@link IMatrix#reduceCols(Object, BinaryOperator)} without boxing.
+   */
+  public DoubleMatrix reduceCols(double identity, DoubleBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return new DoubleMatrix(1, cols, Reduction.columnwise(entries, cols, 0, rows, identity, associativeCombiner));
+  }
+
+  /**
+   * Ordinary matrix multiplication, i.e. {@link IMatrix#pseudoMultiply} with <code>*</code> and <code>+</code>,
+   * computed straight over both <code>double[]</code>s by the {@link MultiplyStrategy#AUTO} strategy.
+   *
+   * @param combineWith the matrix to multiply with, whose height must equal the width of this matrix
+   * @return a new <code>DoubleMatrix</code> of height <code>getHeight()</code> and width
+   * <code>combineWith.getWidth()</code>
+   */
+  public DoubleMatrix multiply(DoubleMatrix combineWith)
+      throws IllegalArgumentException {
+    return multiply(combineWith, MultiplyStrategy.AUTO);
+  }
+
+  /**
+   * {@link #multiply(DoubleMatrix)} by the given strategy.
+   *
+   * @param combineWith the matrix to multiply with, whose height must equal the width of this matrix
+   * @param strategy    how to compute the product
+   * @return a new <code>DoubleMatrix</code> of height <code>getHeight()</code> and width
+   * <code>combineWith.getWidth()</code>
+   */
+  public DoubleMatrix multiply(DoubleMatrix combineWith, MultiplyStrategy strategy)
+      throws IllegalArgumentException {
+    Utils.notNull(strategy);
+    MatrixMultiplication.checkDimensions(this, combineWith);
+
+    return new DoubleMatrix(rows, combineWith.cols,
+        strategy.multiply(entries, combineWith.entries, rows, cols, combineWith.cols));
+  }
+
+  /**
+   * {@link IMatrix#pseudoMultiply} without boxing.
+   *
+   * @param interMatrixOperation <i>⊗</i>, with signature <code>⊗ :: double double -> double</code>
+   * @param intraMatrixOperation <i>⊕</i>, with signature <code>⊕ :: double double -> double</code>, applied as
+   *                             <code>⊕(product, foldedSoFar)</code>
+   * @param combineWith          the matrix to multiply with, whose height must equal the width of this matrix
+   * @param identity             the value every accumulation starts from
+   * @return a new <code>DoubleMatrix</code> of height <code>getHeight()</code> and width
+   * <code>combineWith.getWidth()</code>
+   */
+  public DoubleMatrix pseudoMultiply(DoubleBinaryOperator interMatrixOperation,
+                                     DoubleBinaryOperator intraMatrixOperation,
+                                     DoubleMatrix combineWith, double identity)
+      throws IllegalArgumentException {
+    Utils.notNull(interMatrixOperation);
+    Utils.notNull(intraMatrixOperation);
+    MatrixMultiplication.checkDimensions(this, combineWith);
+
+    return new DoubleMatrix(rows, combineWith.cols, MatrixMultiplication.blocked(entries, combineWith.entries,
+        rows, cols, combineWith.cols, interMatrixOperation, intraMatrixOperation, identity));
+  }
+
+  /**
+   * The 2-D convolution of this matrix with <code>kernel</code>: the entry at (i, j) is the sum of
+   * <code>kernel(a, b) * this(i + r - a, j + c - b)</code> over every cell (a, b) of the kernel, where r and c are the
+   * kernel's half-height and half-width. The kernel is flipped, as in a true convolution; for the usual symmetric
+   * kernels (box and Gaussian blurs, the Laplacian) that makes no difference.
+   * <br>
+   * Runs in tiles whose borders are resolved once per tile by <code>mode</code>, with the inner loops as SIMD loops
+   * when the Vector API is available, and tiles split across the common <code>ForkJoinPool</code> once the matrix has
+   * {@link Parallelism#getThreshold()} cells. A <code>CONSTANT</code> boundary reads 0 outside this matrix.
+   *
+   * @param kernel a matrix of odd height and width
+   * @param mode   how to read cells outside this matrix
+   * @return a new <code>DoubleMatrix</code> of the same size as this one
+   * @throws IllegalArgumentException if either side of <code>kernel</code> is even
+   */
+  public DoubleMatrix convolve(DoubleMatrix kernel, BoundaryMode mode)
+      throws IllegalArgumentException {
+    return convolve(kernel, mode, 0);
+  }
+
+  /**
+   * {@link #convolve(DoubleMatrix, BoundaryMode)}, reading <code>outside</code> outside this matrix if
+   * <code>mode</code> is <code>CONSTANT</code>.
+   */
+  public DoubleMatrix convolve(DoubleMatrix kernel, BoundaryMode mode, double outside)
+      throws IllegalArgumentException {
+    Utils.notNull(kernel);
+    Utils.notNull(mode);
+    if (kernel.rows % 2 == 0 || kernel.cols % 2 == 0) {
+      throw new IllegalArgumentException("a kernel must have an odd height and width, so that it has a center");
+    }
+    Utils.intBetween(1, kernel.rows, (1 << 11) + 1);
+    Utils.intBetween(1, kernel.cols, (1 << 11) + 1);
+
+    return new DoubleMatrix(rows, cols, Stencils.convolve(entries, rows, cols, kernel.entries, kernel.rows,
+        kernel.cols, mode, outside, TILES));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~linear algebra~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * The LU decomposition with partial pivoting of this matrix, computed once over a copy of its entries.
+   *
+   * @throws IllegalArgumentException if this matrix is not square
+   */
+  public LUDecomposition lu()
+      throws IllegalArgumentException {
+    return new LUDecomposition(this);
+  }
+
+  /**
+   * The determinant of this matrix, through its {@link #lu()}.
+   *
+   * @throws IllegalArgumentException if this matrix is not square
+   */
+  public double determinant()
+      throws IllegalArgumentException {
+    return lu().determinant();
+  }
+
+  /**
+   * The inverse of this matrix, through its {@link #lu()}.
+   *
+   * @throws IllegalArgumentException if this matrix is not square, or is singular
+   */
+  public DoubleMatrix inverse()
+      throws IllegalArgumentException {
+    return lu().inverse();
+  }
+
+  /**
+   * The <i>X</i> with <code>this</code> <i>X</i> <code>= b</code>, through the {@link #lu()} of this matrix. To solve
+   * against the same matrix many times, keep its <code>lu()</code> and call {@link LUDecomposition#solve} on that.
+   *
+   * @param b the right-hand sides, one per column, of the same height as this matrix
+   * @throws IllegalArgumentException if this matrix is not square or is singular, or the heights differ
+   */
+  public DoubleMatrix solve(DoubleMatrix b)
+      throws IllegalArgumentException {
+    return lu().solve(b);
+  }
+
+  /**
+   * The reduced row echelon form of this matrix, by Gauss-Jordan elimination with partial pivoting over a copy of its
+   * entries. Entries that round-off leaves within <i>max(rows, cols) * ulp(1)</i> of the largest entry count as
+   * zero.
+   */
+  public DoubleMatrix rref() {
+    double[] reduced = entries.clone();
+    RowReduction.rref(reduced, rows, cols);
+    return new DoubleMatrix(rows, cols, reduced);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public Double getElement(int row, int col)
+      throws IllegalArgumentException {
+    return getDouble(row, col);
+  }
+
+  @Override
+  public int getWidth() {
+    return cols;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows;
+  }
+
+  @Override
+  public Double reduce(Double identity, BinaryOperator<Double> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduce((double) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public IMatrix<Double> reduceRows(Double identity, BinaryOperator<Double> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduceRows((double) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public IMatrix<Double> reduceCols(Double identity, BinaryOperator<Double> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduceCols((double) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public List<Double> asList() {
+    List<Double> _asList = new ArrayList<>(entries.length);
+
+    for (double anElement : entries) {
+      _asList.add(anElement);
+    }
+
+    return _asList;
+  }
+
+  @Override
+  public void forEachIndexed(IndexedConsumer<Double> action)
+      throws IllegalArgumentException {
+    Utils.notNull(action);
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        action.accept(i, j, entries[i * cols + j]);
+      }
+    }
+  }
+
+  @Override
+  public IMatrix<Double> replaceMap(Predicate<Double> replaceIf, Double replaceWith)
+      throws IllegalArgumentException {
+    Utils.notNull(replaceIf);
+    double _replaceWith = Utils.notNull(replaceWith);
+    return mapToDouble(x -> replaceIf.test(x) ? _replaceWith : x);
+  }
+
+  @Override
+  public IMatrix<Double> copy() {
+    return new DoubleMatrix(rows, cols, entries.clone());
+  }
+
+  @Override
+  public IMatrix<Double> updateEntry(Double newEntry, int row, int col)
+      throws IllegalArgumentException {
+    double[] updated = entries.clone();
+    updated[Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)] =
+        Utils.notNull(newEntry);
+
+    return new DoubleMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Double> updateRow(List<Double> newRow, int rowNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, rowNum, rows - 1);
+    Utils.intBetween(cols, Utils.notNull(newRow).size(), cols);
+
+    double[] updated = entries.clone();
+    for (int j = 0; j < cols; j++) {
+      updated[rowNum * cols + j] = Utils.notNull(newRow.get(j));
+    }
+
+    return new DoubleMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Double> updateCol(List<Double> newCol, int colNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, colNum, cols - 1);
+    Utils.intBetween(rows, Utils.notNull(newCol).size(), rows);
+
+    double[] updated = entries.clone();
+    for (int i = 0; i < rows; i++) {
+      updated[i * cols + colNum] = Utils.notNull(newCol.get(i));
+    }
+
+    return new DoubleMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Double> fillWith(Double uniformEntry)
+      throws IllegalArgumentException {
+    return new DoubleMatrix(Utils.notNull(uniformEntry), rows, cols);
+  }
+
+  @Override
+  protected IMatrix<Double> compactView(IMatrix<Double> view) {
+    return new DoubleMatrix(view);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof DoubleMatrix) {
+      DoubleMatrix anotherMatrix = (DoubleMatrix) o;
+      return rows == anotherMatrix.rows && cols == anotherMatrix.cols
+          && Arrays.equals(entries, anotherMatrix.entries);
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    // same value as the boxed sum of Double.hashCode in AMatrix, so equal matrices hash equally across types
+    int hash = 0;
+    for (double anElement : entries) {
+      hash += Double.hashCode(anElement);
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,145 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts the entries of an {@link IMatrix} to and from bytes, for {@link MatrixWriter} and {@link MatrixReader}.
+ * <br>
+ * Buffers handed to a codec are always little-endian, and always have room for the element being encoded (as given
+ * by {@link #sizeOf(Object)}) or hold the whole element being decoded.
+ *
+ * @param <X> the type of the elements this codec handles
+ */
+public interface ElementCodec<X> {
+
+    /**
+     * 8-byte IEEE 754 <code>double</code>s.
+     */
+    ElementCodec<Double> DOUBLES = new ElementCodec<Double>() {
+        @Override
+        public int fixedSize() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void encode(Double element, ByteBuffer out) {
+            out.putDouble(element);
+        }
+
+        @Override
+        public Double decode(ByteBuffer in) {
+            return in.getDouble();
+        }
+
+        @Override
+        public MatrixFileHeader.ElementType elementType() {
+            return MatrixFileHeader.ElementType.DOUBLE;
+        }
+    };
+
+    /**
+     * 8-byte two's complement <code>long</code>s.
+     */
+    ElementCodec<Long> LONGS = new ElementCodec<Long>() {
+        @Override
+        public int fixedSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long element, ByteBuffer out) {
+            out.putLong(element);
+        }
+
+        @Override
+        public Long decode(ByteBuffer in) {
+            return in.getLong();
+        }
+
+        @Override
+        public MatrixFileHeader.ElementType elementType() {
+            return MatrixFileHeader.ElementType.LONG;
+        }
+    };
+
+    /**
+     * 4-byte two's complement <code>int</code>s.
+     */
+    ElementCodec<Integer> INTS = new ElementCodec<Integer>() {
+        @Override
+        public int fixedSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer element, ByteBuffer out) {
+            out.putInt(element);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer in) {
+            return in.getInt();
+        }
+
+        @Override
+        public MatrixFileHeader.ElementType elementType() {
+            return MatrixFileHeader.ElementType.INT;
+        }
+    };
+
+    /**
+     * UTF-8 <code>String</code>s, each preceded by its length in bytes as an <code>int</code>.
+     */
+    ElementCodec<String> STRINGS = new ElementCodec<String>() {
+        @Override
+        public int fixedSize() {
+            return 0;
+        }
+
+        @Override
+        public int sizeOf(String element) {
+            return Integer.BYTES + element.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        @Override
+        public void encode(String element, ByteBuffer out) {
+            byte[] encoded = element.getBytes(StandardCharsets.UTF_8);
+            out.putInt(encoded.length).put(encoded);
+        }
+
+        @Override
+        public String decode(ByteBuffer in) {
+            byte[] encoded = new byte[in.getInt()];
+            in.get(encoded);
+            return new String(encoded, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * The number of bytes every element takes, or 0 if it varies from element to element.
+     */
+    int fixedSize();
+
+    /**
+     * The number of bytes {@link #encode} will write for <code>element</code>.
+     */
+    default int sizeOf(X element) {
+        return fixedSize();
+    }
+
+    /**
+     * Writes <code>element</code> at the position of <code>out</code>, advancing it by <code>sizeOf(element)</code>.
+     */
+    void encode(X element, ByteBuffer out);
+
+    /**
+     * Reads one element from the position of <code>in</code>, advancing it past that element.
+     */
+    X decode(ByteBuffer in);
+
+    /**
+     * The element type recorded in the file header; readers only accept a file with a codec of the same type.
+     */
+    default MatrixFileHeader.ElementType elementType() {
+        return MatrixFileHeader.ElementType.OBJECT;
+    }
+}
@@ -1,70 +1,99 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 
 // TODO: make sure that null args are checked everywhere later
-public class FunMatrix<X> implements IMatrix<X> {
+public class FunMatrix<X> extends AMatrix<X> {
 
   //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
   protected final int rows;
   protected final int cols;
-  protected final List<List<X>> entries;
+  // the element at (i, j) lives at entries[offset + i * rowStride + j * colStride]; a freshly built matrix is
+  // row-major with offset 0, while subMatrix, transpose, row, col and slice share their parent's array
+  protected final Object[] entries;
+  protected final int offset;
+  protected final int rowStride;
+  protected final int colStride;
+  // how bulk operations on this matrix, and on the matrices they produce, are run
+  protected final Parallelism parallelism;
 
   //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
   FunMatrix() {
+    parallelism = Parallelism.SEQUENTIAL;
     rows = 0;
     cols = 0;
-    entries = new ArrayList<>();
+    entries = new Object[0];
+    offset = 0;
+    rowStride = 0;
+    colStride = 1;
   }
 
   FunMatrix(List<List<X>> elements) {
     Utils.notNull(allRowsSameSize(elements));
+    parallelism = Parallelism.SEQUENTIAL;
+    offset = 0;
+    colStride = 1;
     if (elements.size() == 0) {
-      entries = Utils.notNull(elements);
+      entries = new Object[0];
       rows = 0;
       cols = 0;
+      rowStride = 0;
       return;
     }
     rows = Utils.intBetween(0, elements.size(), Integer.MAX_VALUE);
     cols = Utils.intBetween(0, elements.get(0).size(), Integer.MAX_VALUE);// guaranteed to exist
-    entries = Utils.notNull(elements);
+    rowStride = cols;
+    entries = new Object[rows * cols];
+
+    int rowStart = 0;
+    for (List<X> aRow : elements) {
+      copyRowInto(aRow, rowStart);
+      rowStart += cols;
+    }
   }
 
   FunMatrix(List<X>... elements) {
     Utils.notNull(allRowsSameSize(elements));
+    parallelism = Parallelism.SEQUENTIAL;
+    offset = 0;
+    colStride = 1;
 
     if (elements.length == 0) {
-      entries = new ArrayList<>();
+      entries = new Object[0];
       rows = 0;
       cols = 0;
+      rowStride = 0;
       return;
     }
 
     rows = Utils.intBetween(0, elements.length, Integer.MAX_VALUE);
-    cols = Utils.intBetween(0, elements[0].toArray().length, Integer.MAX_VALUE);// guaranteed to exist
-    entries = new ArrayList<>(Arrays.asList(elements));
+    cols = Utils.intBetween(0, elements[0].size(), Integer.MAX_VALUE);// guaranteed to exist
+    rowStride = cols;
+    entries = new Object[rows * cols];
+
+    for (int i = 0; i < rows; i++) {
+      copyRowInto(elements[i], i * cols);
+    }
   }
 
 
   FunMatrix(X uniformEntry, int _rows, int _cols)
       throws IllegalArgumentException {
-    List<List<X>> _entries = new ArrayList<>();
     Utils.intBetween(0, _cols, Integer.MAX_VALUE);
     Utils.intBetween(0, _rows, Integer.MAX_VALUE);
 
-    for (int i = 0; i < _rows; i++) {
-      List<X> thisRow = new ArrayList<>();
-      for (int j = 0; j < _cols; j++) {
-        thisRow.add(Utils.notNull(uniformEntry));
-      }
-      _entries.add(thisRow);
-    }
-
-    entries = _entries;
+    parallelism = Parallelism.SEQUENTIAL;
+    entries = new Object[_rows * _cols];
+    Arrays.fill(entries, Utils.notNull(uniformEntry));
     rows = _rows;
     cols = _cols;
+    offset = 0;
+    rowStride = _cols;
+    colStride = 1;
   }
 
   FunMatrix(List<X> oneRow, int numRows)
@@ -74,34 +103,66 @@ public class FunMatrix<X> implements IMatrix<X> {
     }
     Utils.intBetween(0, numRows, Integer.MAX_VALUE);
 
-    List<List<X>> _entries = new ArrayList<>();
-    for (int i = 0; i < numRows; i++) {
-      _entries.add(oneRow);
-    }
-
-    entries = _entries;
+    parallelism = Parallelism.SEQUENTIAL;
     rows = numRows;
     cols = oneRow.size();
+    entries = new Object[rows * cols];
+    offset = 0;
+    rowStride = cols;
+    colStride = 1;
+
+    // every row gets its own copy of the cells, so no two rows are backed by the same list
+    for (int i = 0; i < rows; i++) {
+      copyRowInto(oneRow, i * cols);
+    }
   }
 
-  FunMatrix(BiFunction<Integer, Integer, X> rowColDependentFunction, int _rows, int _cols)
+  FunMatrix(IntIntFunction<X> rowColDependentFunction, int _rows, int _cols)
       throws IllegalArgumentException {
     Utils.notNull(rowColDependentFunction);
     Utils.intBetween(0, _rows, Integer.MAX_VALUE);
     Utils.intBetween(0, _cols, Integer.MAX_VALUE);
-    List<List<X>> _entries = new ArrayList<>();
+
+    parallelism = Parallelism.SEQUENTIAL;
+    entries = new Object[_rows * _cols];
+    rows = _rows;
+    cols = _cols;
+    offset = 0;
+    rowStride = _cols;
+    colStride = 1;
 
     for (int i = 0; i < _rows; i++) {
-      List<X> thisRow = new ArrayList<>();
       for (int j = 0; j < _cols; j++) {
-        thisRow.add(rowColDependentFunction.apply(i, j));
+        entries[i * _cols + j] = rowColDependentFunction.apply(i, j);
       }
-      _entries.add(thisRow);
     }
+  }
 
-    entries = _entries;
+  /**
+   * Wraps (does not copy) <code>_entries</code>, which must be laid out row-major, hold only <code>X</code>s and
+   * never be written to again.
+   */
+  FunMatrix(int _rows, int _cols, Object[] _entries)
+      throws IllegalArgumentException {
+    this(_rows, _cols, _entries, Parallelism.SEQUENTIAL);
+  }
+
+  FunMatrix(int _rows, int _cols, Object[] _entries, Parallelism _parallelism)
+      throws IllegalArgumentException {
+    this(_rows, _cols, _entries, 0, _cols, 1, _parallelism);
+    Utils.intBetween(_rows * _cols, _entries.length, _rows * _cols);
+  }
+
+  // a view of _entries; the caller guarantees that every (i, j) in range lands inside the array
+  private FunMatrix(int _rows, int _cols, Object[] _entries, int _offset, int _rowStride, int _colStride,
+                    Parallelism _parallelism) {
     rows = _rows;
     cols = _cols;
+    entries = Utils.notNull(_entries);
+    offset = _offset;
+    rowStride = _rowStride;
+    colStride = _colStride;
+    parallelism = Utils.notNull(_parallelism);
   }
 
 
@@ -109,7 +170,7 @@ public class FunMatrix<X> implements IMatrix<X> {
   @Override
   public X getElement(int row, int col)
       throws IllegalArgumentException {
-    return entries.get(Utils.intBetween(0, row, rows)).get(Utils.intBetween(0, col, cols));
+    return at(indexOf(Utils.intBetween(0, row, rows - 1), Utils.intBetween(0, col, cols - 1)));
   }
 
   @Override
@@ -117,35 +178,59 @@ public class FunMatrix<X> implements IMatrix<X> {
       throws IllegalArgumentException {
     Utils.notNull(elementMapper);
 
-    List<List<Y>> mapped = new ArrayList<>();
+    Object[] mapped = new Object[rows * cols];
 
-    for (int i = 0; i < rows; i++) {
-      List<Y> mappedRow = new ArrayList<>();
-      for (int j = 0; j < cols; j++) {
-        mappedRow.add(elementMapper.apply(getElement(i, j)));
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        int rowStart = indexOf(i, 0);
+        for (int j = 0; j < cols; j++) {
+          mapped[i * cols + j] = elementMapper.apply(at(rowStart + j * colStride));
+        }
       }
-      mapped.add(mappedRow);
-    }
+    });
 
-    return new FunMatrix<Y>(mapped);
+    return new FunMatrix<Y>(rows, cols, mapped, parallelism);
   }
 
   @Override
-  public <Y> IMatrix<Y> map(BiFunction<Integer, Integer, Y> rowColMapper)
+  public <Y> IMatrix<Y> map(IntIntFunction<Y> rowColMapper)
       throws IllegalArgumentException {
     Utils.notNull(rowColMapper);
 
-    List<List<Y>> mapped = new ArrayList<>();
+    Object[] mapped = new Object[rows * cols];
+
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        for (int j = 0; j < cols; j++) {
+          mapped[i * cols + j] = rowColMapper.apply(i, j);
+        }
+      }
+    });
+
+    return new FunMatrix<Y>(rows, cols, mapped, parallelism);
+  }
+
+  @Override
+  public <Y> IMatrix<Y> mapNeighborhood(int radius, BoundaryMode mode, X outside,
+                                        Function<Neighborhood<X>, Y> kernelFn)
+      throws IllegalArgumentException {
+    checkNeighborhood(radius, mode, outside, kernelFn);
+    return new FunMatrix<Y>(rows, cols,
+        Stencils.mapNeighborhood(rowMajorEntries(), rows, cols, radius, mode, outside, kernelFn, parallelism),
+        parallelism);
+  }
+
+  @Override
+  public void forEachIndexed(IndexedConsumer<X> action)
+      throws IllegalArgumentException {
+    Utils.notNull(action);
 
     for (int i = 0; i < rows; i++) {
-      List<Y> mappedRow = new ArrayList<>();
+      int rowStart = indexOf(i, 0);
       for (int j = 0; j < cols; j++) {
-        mappedRow.add(rowColMapper.apply(i, j));
+        action.accept(i, j, at(rowStart + j * colStride));
       }
-      mapped.add(mappedRow);
     }
-
-    return new FunMatrix<Y>(mapped);
   }
 
   @Override
@@ -153,17 +238,22 @@ public class FunMatrix<X> implements IMatrix<X> {
       throws IllegalArgumentException {
     Utils.notNull(condition);
 
-    List<X> filtered = new ArrayList<>();
-
-    for (List<X> aRow : entries) {
-      for (X anElement : aRow) {
-        if (condition.test(anElement)) {
-          filtered.add(anElement);
+    return parallelism.mapRowBlocks(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      List<X> filtered = new ArrayList<>();
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        int rowStart = indexOf(i, 0);
+        for (int j = 0; j < cols; j++) {
+          X anElement = at(rowStart + j * colStride);
+          if (condition.test(anElement)) {
+            filtered.add(anElement);
+          }
         }
       }
-    }
-
-    return filtered;
+      return filtered;
+    }, (upperFiltered, lowerFiltered) -> {
+      upperFiltered.addAll(lowerFiltered);
+      return upperFiltered;
+    });
   }
 
   @Override
@@ -173,8 +263,9 @@ public class FunMatrix<X> implements IMatrix<X> {
     Y folded = Utils.notNull(base);
 
     for (int i = 0; i < rows; i++) {
+      int rowStart = indexOf(i, 0);
       for (int j = 0; j < cols; j++) {
-        folded = folder.apply(getElement(i, j), folded);
+        folded = folder.apply(at(rowStart + j * colStride), folded);
       }
     }
 
@@ -188,8 +279,9 @@ public class FunMatrix<X> implements IMatrix<X> {
     Y folded = Utils.notNull(base);
 
     for (int i = rows - 1; i >= 0; i--) {
+      int rowStart = indexOf(i, 0);
       for (int j = cols - 1; j >= 0; j--) {
-        folded = folder.apply(getElement(i, j), folded);
+        folded = folder.apply(at(rowStart + j * colStride), folded);
       }
     }
 
@@ -197,150 +289,229 @@ public class FunMatrix<X> implements IMatrix<X> {
   }
 
   @Override
-  public <Y, Z> IMatrix<Z> elementWiseCombine(BiFunction<X, Y, Z> combiner, IMatrix<Y> combineWith)
+  public X reduce(X identity, BinaryOperator<X> associativeCombiner)
       throws IllegalArgumentException {
-    Utils.notNull(combiner);
-    Utils.notNull(combineWith);
+    Utils.notNull(associativeCombiner);
+    Object[] flat = rowMajorEntries();
 
-    if (rows != combineWith.getHeight() || cols != combineWith.getWidth()) {
-      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
-    }
+    // each block is itself reduced as a tree, and the blocks are merged pairwise in row order
+    return parallelism.mapRowBlocks(rows, cols, (firstRowIncl, lastRowExcl) ->
+            Reduction.pairwise(flat, firstRowIncl * cols, lastRowExcl * cols, identity, associativeCombiner),
+        associativeCombiner);
+  }
 
-    List<List<Z>> combinedLst = new ArrayList<>();
+  @Override
+  public IMatrix<X> reduceRows(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    Object[] flat = rowMajorEntries();
 
-    for (int i = 0; i < rows; i++) {
-      List<Z> thisRow = new ArrayList<>();
-      for (int j = 0; j < cols; j++) {
-        thisRow.add(combiner.apply(getElement(i, j), combineWith.getElement(i, j)));
+    Object[] reduced = new Object[rows];
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        reduced[i] = Reduction.pairwise(flat, i * cols, (i + 1) * cols, identity, associativeCombiner);
       }
-      combinedLst.add(thisRow);
-    }
+    });
 
-    return new FunMatrix<>(combinedLst);
+    return new FunMatrix<>(rows, 1, reduced, parallelism);
   }
 
   @Override
-  public <Y, Z, α> IMatrix<α> pseudoMultiply(BiFunction<X, Y, Z> interMatrixOperation,
-                                             BiFunction<Z, Z, α> intraMatrixOperation, IMatrix<Y> combineWith,
-                                             α αIdentity) {
+  public IMatrix<X> reduceCols(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    Object[] flat = rowMajorEntries();
 
-    for (int i = 0; i < rows; i++) {
-      for (int j = 0; j < cols; j++) {
+    Object[] reduced = parallelism.mapRowBlocks(rows, cols, (firstRowIncl, lastRowExcl) ->
+            Reduction.columnwise(flat, cols, firstRowIncl, lastRowExcl, identity, associativeCombiner),
+        (upper, lower) -> Reduction.combineColumnwise(upper, lower, associativeCombiner));
 
-      }
-    }
+    return new FunMatrix<>(1, cols, reduced, parallelism);
+  }
 
-    return null;
+  @Override
+  public IMatrix<X> sort(Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.notNull(comparator);
+
+    return new FunMatrix<>(rows, cols, Sorting.sorted(rowMajorEntries(), comparator, parallelism), parallelism);
   }
 
   @Override
-  public IMatrix<X> sort(Comparator<X> comparator) {
-    return null;
+  public IMatrix<X> sortRows(Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.notNull(comparator);
+
+    return new FunMatrix<>(rows, cols,
+        Sorting.rowsSorted(rowMajorEntries(), rows, cols, comparator, parallelism), parallelism);
   }
 
   @Override
-  public IMatrix<X> replaceMap(Predicate<X> replaceIf, X replaceWith) {
-    return map(x -> replaceIf.test(x) ? replaceWith : x);
+  public List<Cell<X>> topK(int k, Comparator<X> comparator)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, k, Integer.MAX_VALUE);
+    Utils.notNull(comparator);
+    Object[] flat = rowMajorEntries();
+
+    // each block keeps its own k best, and the blocks' heaps are merged
+    return parallelism.mapRowBlocks(rows, cols, (firstRowIncl, lastRowExcl) ->
+            Sorting.topK(flat, cols, firstRowIncl, lastRowExcl, k, comparator),
+        Sorting.TopK::merge).toList();
   }
 
   @Override
-  public List<X> asList() {
-    List<X> _asList = new ArrayList<>();
+  public <Y, Z> IMatrix<Z> elementWiseCombine(BiFunction<X, Y, Z> combiner, IMatrix<Y> combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+
+    if (rows != combineWith.getHeight() || cols != combineWith.getWidth()) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    Object[] combined = new Object[rows * cols];
 
-    for (List<X> aRow : entries) {
-      _asList.addAll(aRow);
+    if (combineWith instanceof FunMatrix) {
+      FunMatrix<Y> other = (FunMatrix<Y>) combineWith;
+      parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+        for (int i = firstRowIncl; i < lastRowExcl; i++) {
+          for (int j = 0; j < cols; j++) {
+            combined[i * cols + j] = combiner.apply(at(indexOf(i, j)), other.at(other.indexOf(i, j)));
+          }
+        }
+      });
+    }
+    else {
+      parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+        for (int i = firstRowIncl; i < lastRowExcl; i++) {
+          for (int j = 0; j < cols; j++) {
+            combined[i * cols + j] = combiner.apply(at(indexOf(i, j)), combineWith.getElement(i, j));
+          }
+        }
+      });
     }
 
-    return _asList;
+    return new FunMatrix<>(rows, cols, combined, parallelism);
+  }
+
+  @Override
+  public List<X> asList() {
+    // every slot of entries holds an X
+    @SuppressWarnings("unchecked")
+    List<X> elements = (List<X>) Arrays.asList(rowMajorEntries());
+    return new ArrayList<>(elements);
   }
 
   @Override
   public IMatrix<X> copy() {
-    return map(x -> x);
+    return new FunMatrix<>(rows, cols, compactEntries(), parallelism);
   }
 
   @Override
   public IMatrix<X> updateEntry(X newEntry, int row, int col)
       throws IllegalArgumentException {
-    List<List<X>> newEntries = new ArrayList<>();
-    Collections.copy(newEntries, entries);
+    Object[] newEntries = compactEntries();
 
-    newEntries.get(Utils.intBetween(0, row, rows - 1)).
-        set(Utils.intBetween(0, col, cols - 1), Utils.notNull(newEntry));
+    newEntries[Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)] =
+        Utils.notNull(newEntry);
 
-    return new FunMatrix<>(newEntries);
+    return new FunMatrix<>(rows, cols, newEntries, parallelism);
   }
 
   @Override
   public IMatrix<X> updateRow(List<X> newRow, int rowNum)
       throws IllegalArgumentException {
-    List<List<X>> newEntries = new ArrayList<>();
-    Collections.copy(newEntries, entries);
+    Utils.intBetween(0, rowNum, rows - 1);
+    Utils.intBetween(cols, Utils.notNull(newRow).size(), cols);
 
-    newEntries.set(Utils.intBetween(0, rowNum, rows - 1), Utils.notNull(newRow));
+    Object[] newEntries = compactEntries();
+    System.arraycopy(newRow.toArray(), 0, newEntries, rowNum * cols, cols);
 
-    return new FunMatrix<>(newEntries);
+    return new FunMatrix<>(rows, cols, newEntries, parallelism);
   }
 
   @Override
-  public IMatrix<X> updateCol(List<X> newCol, int colNum) {
+  public IMatrix<X> updateCol(List<X> newCol, int colNum)
+      throws IllegalArgumentException {
     // is the desired column number valid?
-    Utils.intBetween(0, colNum, getWidth() - 1);
+    Utils.intBetween(0, colNum, cols - 1);
     // does the specified new column have the right number of entries?
-    Utils.intBetween(getHeight(), newCol.size(), getHeight());
+    Utils.intBetween(rows, Utils.notNull(newCol).size(), rows);
 
-    return map((i, j) -> j == colNum ? newCol.get(i) : getElement(i,j));
+    Object[] newEntries = compactEntries();
+    for (int i = 0; i < rows; i++) {
+      newEntries[i * cols + colNum] = newCol.get(i);
+    }
+
+    return new FunMatrix<>(rows, cols, newEntries, parallelism);
   }
 
   @Override
   public IMatrix<X> fillWith(X uniformEntry)
       throws IllegalArgumentException {
     Utils.notNull(uniformEntry);
-    return map(x -> uniformEntry);
-  }
 
-  @Override
-  public IMatrix<X> findAndReplace(X toFind, X replaceWith)
-      throws IllegalArgumentException {
-    Utils.notNull(toFind);
-    Utils.notNull(replaceWith);
+    Object[] filled = new Object[rows * cols];
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) ->
+        Arrays.fill(filled, firstRowIncl * cols, lastRowExcl * cols, uniformEntry));
 
-    return replaceMap(x -> x.equals(toFind), replaceWith);
+    return new FunMatrix<>(rows, cols, filled, parallelism);
   }
 
   @Override
-  public boolean orMap(Predicate<X> condition) {
-    return map(x -> condition.test(x)).foldNW((b1, b2) -> (b1 || b2), false);
+  public MatrixBuilder<X> toTransient() {
+    return new MatrixBuilder<>(this, parallelism);
   }
 
   @Override
-  public boolean andMap(Predicate<X> condition) {
-    return map(x -> condition.test(x)).foldNW((b1, b2) -> (b1 && b2), true);
+  public IMatrix<X> subMatrix(int firstRowIncl, int lastRowIncl, int firstColIncl, int lastColIncl) {
+    Utils.intBetween(0, firstRowIncl, lastRowIncl);
+    Utils.intBetween(firstRowIncl, lastRowIncl, rows - 1);
+    Utils.intBetween(0, firstColIncl, lastColIncl);
+    Utils.intBetween(firstColIncl, lastColIncl, cols - 1);
+
+    return new FunMatrix<>(lastRowIncl - firstRowIncl + 1, lastColIncl - firstColIncl + 1, entries,
+        indexOf(firstRowIncl, firstColIncl), rowStride, colStride, parallelism);
   }
 
   @Override
-  public IMatrix<X> subMatrix(int firstRowIncl, int lastRowIncl, int firstColIncl, int lastColIncl) {
+  public IMatrix<X> slice(int firstRowIncl, int lastRowIncl, int rowStep,
+                          int firstColIncl, int lastColIncl, int colStep) {
     Utils.intBetween(0, firstRowIncl, lastRowIncl);
-    Utils.intBetween(firstRowIncl, 0, rows);
+    Utils.intBetween(firstRowIncl, lastRowIncl, rows - 1);
+    Utils.intBetween(1, rowStep, Integer.MAX_VALUE);
     Utils.intBetween(0, firstColIncl, lastColIncl);
-    Utils.intBetween(firstColIncl, 0, cols);
+    Utils.intBetween(firstColIncl, lastColIncl, cols - 1);
+    Utils.intBetween(1, colStep, Integer.MAX_VALUE);
 
-    List<List<X>> subMatrixLst = new ArrayList<>();
+    return new FunMatrix<>((lastRowIncl - firstRowIncl) / rowStep + 1, (lastColIncl - firstColIncl) / colStep + 1,
+        entries, indexOf(firstRowIncl, firstColIncl), rowStride * rowStep, colStride * colStep, parallelism);
+  }
 
-    for (int i = firstRowIncl; i <= lastRowIncl; i++) {
-      List<X> thisRow = new ArrayList<>();
-      for (int j = firstColIncl; j <= lastColIncl; j++) {
-        thisRow.add(getElement(i, j));
-      }
-      subMatrixLst.add(thisRow);
-    }
+  @Override
+  public IMatrix<X> transpose() {
+    return new FunMatrix<>(cols, rows, entries, offset, colStride, rowStride, parallelism);
+  }
+
+  @Override
+  public IMatrix<X> compact() {
+    return isCompact() ? this : new FunMatrix<>(rows, cols, compactEntries(), parallelism);
+  }
 
-    return new FunMatrix<>(subMatrixLst);
+  @Override
+  public IMatrix<X> parallel(ForkJoinPool pool) {
+    return new FunMatrix<>(rows, cols, entries, offset, rowStride, colStride, Parallelism.on(pool));
   }
 
   @Override
-  public IMatrix<X> subMatrix(int lastRowIncl, int lastColIncl) {
-    return subMatrix(0, lastRowIncl, 0, lastColIncl);
+  public IMatrix<X> sequential() {
+    return parallelism.isParallel()
+        ? new FunMatrix<>(rows, cols, entries, offset, rowStride, colStride, Parallelism.SEQUENTIAL) : this;
+  }
+
+  @Override
+  public boolean isParallel() {
+    return parallelism.isParallel();
   }
 
   @Override
@@ -355,55 +526,82 @@ public class FunMatrix<X> implements IMatrix<X> {
 
   @Override
   public boolean equals(Object o) {
-    // fast path
-    if (this == o) {
-      return true;
+    if (o instanceof FunMatrix && isCompact() && ((FunMatrix<?>) o).isCompact()) {
+      FunMatrix<?> anotherMatrix = (FunMatrix<?>) o;
+      return rows == anotherMatrix.rows && cols == anotherMatrix.cols
+          && Arrays.equals(entries, anotherMatrix.entries);
     }
+    return super.equals(o);
+  }
 
-    // check instanceof
-    if ( !(o instanceof IMatrix) ) {
-      return false;
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = 0; i < rows; i++) {
+      int rowStart = indexOf(i, 0);
+      for (int j = 0; j < cols; j++) {
+        hash += Objects.hashCode(entries[rowStart + j * colStride]);
+      }
     }
+    return hash;
+  }
 
-    // safe cast
-    IMatrix anotherMatrix = (IMatrix) o;
 
-    // check sizes
-    if (this.getWidth() != anotherMatrix.getWidth() || this.getHeight() != anotherMatrix.getHeight()) {
-      return false;
-    }
 
-    // intensional equality check
-    return map( (i,j) -> this.getElement(i,j).equals(anotherMatrix.getElement(i,j)))
-        .foldNW( (b1, b2) -> (b1 && b2), true);
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~protected methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  protected Object[] rowMajorEntries() {
+    return isCompact() ? entries : compactEntries();
+  }
 
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // unchecked access by logical position, for loops whose bounds are already validated
+  X elementAt(int row, int col) {
+    return at(indexOf(row, col));
   }
 
-  @Override
-  public int hashCode() {
-    return map(elem -> Objects.hashCode(elem)).foldNW((hash1, hash2) -> (hash1 + hash2), 0);
+  // whether entries is exactly this matrix, row-major, with nothing else in it
+  boolean isCompact() {
+    return offset == 0 && colStride == 1 && rowStride == cols && entries.length == rows * cols;
   }
 
-  @Override
-  public String toString() {
-    return
-        map((i, j) -> {
-          String renderedElem = getElement(i,j).toString();
-          if (j == 0) {
-            return "[" + renderedElem + ", ";
-          }
-          else if (j == getWidth() - 1) {
-            return renderedElem + "]\n";
-          }
-          else {
-            return renderedElem + ", ";
-          }
-        }).foldSE((str1, str2) -> (str1 + str2), "");
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // unchecked access by index into entries; every slot of entries holds an X
+  @SuppressWarnings("unchecked")
+  private X at(int entriesIndex) {
+    return (X) entries[entriesIndex];
   }
 
+  private int indexOf(int row, int col) {
+    return offset + row * rowStride + col * colStride;
+  }
 
+  // a fresh row-major copy of this matrix's elements
+  private Object[] compactEntries() {
+    Object[] compacted = new Object[rows * cols];
+
+    for (int i = 0; i < rows; i++) {
+      int rowStart = indexOf(i, 0);
+      if (colStride == 1) {
+        System.arraycopy(entries, rowStart, compacted, i * cols, cols);
+      }
+      else {
+        for (int j = 0; j < cols; j++) {
+          compacted[i * cols + j] = entries[rowStart + j * colStride];
+        }
+      }
+    }
+
+    return compacted;
+  }
+
+  private void copyRowInto(List<X> aRow, int rowStart) {
+    int j = rowStart;
+    for (X anElement : aRow) {
+      entries[j++] = anElement;
+    }
+  }
 
-  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
   private final List<List<X>> allRowsSameSize(List<List<X>> toCheck)
       throws IllegalArgumentException {
     if (Utils.notNull(toCheck).size() == 0) {
@@ -1,8 +1,14 @@
+import java.io.IOException;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A matrix of values of type <code>X</code>.
@@ -34,20 +40,65 @@ public interface IMatrix<X> {
     /**
      * Produces a new <code>IMatrix</code> where for every element in the original matrix, it is transformed to a
      * new value based on the application of some well-defined binary function <code>elementMapper</code> with signature
-     * <code>rowColMapper :: Integer Integer -> Y</code>. This function produces an entry in the new matrix based on the
-     * <code>Integer</code> at which it lies.
+     * <code>rowColMapper :: int int -> Y</code>. This function produces an entry in the new matrix based on the
+     * position at which it lies. The indices are passed as <code>int</code>s, so they are never boxed.
      * <br>
      * Produces a new <code>IMatrix</code> of type <code>Y</code> and of the same size as the original matrix.
      *
-     * @param rowColMapper a well-defined lamda abstraction with signature <code>rowColMapper :: Integer Integer ->
+     * @param rowColMapper a well-defined lamda abstraction with signature <code>rowColMapper :: int int ->
      *                     Y</code>, for
      *                     abstract data type <code>Y</code>
      * @param <Y>          the output type of the <code>rowCol</code> lambda abstraction.
      * @return a new <code>IMatrix</code> of type <code>Y</code> of the same size as the original matrix where each
-     * entry is the result of <code>rowColMapper(i, j)</code>, where i and j are <code>Integer</code>s greater than or
+     * entry is the result of <code>rowColMapper(i, j)</code>, where i and j are <code>int</code>s greater than or
      * equal to 0 but less than the height and width dimensions of the matrix, respectively.
      */
-    <Y> IMatrix<Y> map(BiFunction<Integer, Integer, Y> rowColMapper);
+    <Y> IMatrix<Y> map(IntIntFunction<Y> rowColMapper);
+
+    /**
+     * Produces a new <code>IMatrix</code> of the same size where each entry is computed from the entries around the
+     * one at the same position in this matrix, as for a blur, a Laplacian or a step of the game of life.
+     * <br>
+     * <code>kernelFn</code> is passed a {@link Neighborhood} centered on each cell in turn, through which it reads any
+     * cell within <code>radius</code> rows and columns of the center by its offset. Neighbors that fall outside this
+     * matrix are read according to <code>mode</code>. The matrix is worked through in tiles whose borders are resolved
+     * once per tile, so reading a neighbor costs no bounds checks, and tiles run in parallel if this matrix is
+     * {@link #parallel()} and has at least {@link Parallelism#getThreshold()} cells.
+     *
+     * @param radius   how many rows and columns each neighborhood reaches out from its center, at most 1024
+     * @param mode     how to read neighbors outside this matrix
+     * @param outside  the value every neighbor outside this matrix reads if <code>mode</code> is
+     *                 {@link BoundaryMode#CONSTANT}, and otherwise ignored
+     * @param kernelFn a lambda abstraction with signature <code>kernelFn :: Neighborhood&lt;X&gt; -> Y</code>, which
+     *                 must not keep the neighborhood it is passed
+     * @param <Y>      the output type of <code>kernelFn</code>
+     * @return a new <code>IMatrix</code> of the same size whose entry at (i, j) is <code>kernelFn</code> of the
+     * neighborhood of (i, j)
+     * @throws IllegalArgumentException if <code>radius</code> is out of range, or <code>outside</code> is null for a
+     *                                  <code>CONSTANT</code> boundary
+     */
+    <Y> IMatrix<Y> mapNeighborhood(int radius, BoundaryMode mode, X outside, Function<Neighborhood<X>, Y> kernelFn)
+            throws IllegalArgumentException;
+
+    /**
+     * {@link #mapNeighborhood(int, BoundaryMode, Object, Function)} with a {@link BoundaryMode#CLAMP} or
+     * {@link BoundaryMode#WRAP} boundary, which need no value for outside this matrix.
+     *
+     * @throws IllegalArgumentException if <code>mode</code> is <code>CONSTANT</code>
+     */
+    <Y> IMatrix<Y> mapNeighborhood(int radius, BoundaryMode mode, Function<Neighborhood<X>, Y> kernelFn)
+            throws IllegalArgumentException;
+
+    /**
+     * Runs <code>action</code> on every element of this matrix with its position, in row-major order, on the calling
+     * thread. The loop bounds are the dimensions of this matrix, so elements are read straight from storage without
+     * the per-call bounds checks of {@link #getElement(int, int)}.
+     *
+     * @param action a lambda abstraction with signature <code>action :: int int X -> void</code>
+     * @throws IllegalArgumentException if <code>action</code> is null
+     */
+    void forEachIndexed(IndexedConsumer<X> action)
+            throws IllegalArgumentException;
 
     /**
      * Goes through this <code>IMatrix</code>, and outputs a <code>List</code> containing only elements <code>x</code>
@@ -109,6 +160,50 @@ public interface IMatrix<X> {
      */
     <Y> Y foldSE(BiFunction<X, Y, Y> folder, Y base);
 
+    /**
+     * <i>Reduces</i> the matrix into a single value by combining all of its elements, in row-major order, with a
+     * well-defined <b>associative</b> binary function <code>associativeCombiner</code> with signature
+     * <code>associativeCombiner :: X X -> X</code>, for which <code>identity</code> is an identity element (together,
+     * a monoid over <code>X</code>).
+     * <br>
+     * Unlike {@link #foldNW(BiFunction, Object)}, which must combine one element at a time, <code>reduce</code> is
+     * free to combine disjoint runs of elements independently and then combine the partial results pairwise, as a
+     * tree. For an associative <code>associativeCombiner</code> the result equals
+     * <code>foldNW((x, soFar) -> associativeCombiner.apply(soFar, x), identity)</code>; the combiner need not be
+     * commutative.
+     * <br>
+     * <strong>EXAMPLE:</strong> summing a matrix of integers is <code>reduce(0, Integer::sum)</code>, and its maximum
+     * is <code>reduce(Integer.MIN_VALUE, Math::max)</code>.
+     *
+     * @param identity            the identity of <code>associativeCombiner</code>, returned for an empty matrix
+     * @param associativeCombiner an associative binary lambda abstraction with signature
+     *                            <code>associativeCombiner :: X X -> X</code>
+     * @return the combination of every element of this matrix in row-major order
+     */
+    X reduce(X identity, BinaryOperator<X> associativeCombiner);
+
+    /**
+     * {@link #reduce(Object, BinaryOperator)}s each row of this matrix separately.
+     *
+     * @param identity            the identity of <code>associativeCombiner</code>
+     * @param associativeCombiner an associative binary lambda abstraction with signature
+     *                            <code>associativeCombiner :: X X -> X</code>
+     * @return a column vector (an <code>IMatrix</code> of width 1) of the same height as this matrix, whose
+     * <i>i</i>th entry is the reduction of the <i>i</i>th row
+     */
+    IMatrix<X> reduceRows(X identity, BinaryOperator<X> associativeCombiner);
+
+    /**
+     * {@link #reduce(Object, BinaryOperator)}s each column of this matrix separately, top to bottom.
+     *
+     * @param identity            the identity of <code>associativeCombiner</code>
+     * @param associativeCombiner an associative binary lambda abstraction with signature
+     *                            <code>associativeCombiner :: X X -> X</code>
+     * @return a row vector (an <code>IMatrix</code> of height 1) of the same width as this matrix, whose
+     * <i>j</i>th entry is the reduction of the <i>j</i>th column
+     */
+    IMatrix<X> reduceCols(X identity, BinaryOperator<X> associativeCombiner);
+
     /**
      * Let <i>M1</i> and <i>M2</i> be matrices of equal width <i>m</i> and height <i>n</i>, with
      * elements <i>m1ij</i> and <i>m2ij</i>, respectively, placed at logical zeroed indices
@@ -139,20 +234,175 @@ public interface IMatrix<X> {
      */
     <Y, Z> IMatrix<Z> elementWiseCombine(BiFunction<X, Y, Z> combiner, IMatrix<Y> combineWith);
 
-    <Y, Z, α> IMatrix<α> pseudoMultiply(BiFunction<X, Y, Z> interMatrixOperation, BiFunction<Z, Z, α> intraMatrixOperation,
+    /**
+     * Let <i>M1</i> be a matrix of height <i>n</i> and width <i>m</i>, and <i>M2</i> a matrix of height <i>m</i> and
+     * width <i>p</i>, with elements <i>m1ik</i> and <i>m2kj</i>, respectively.
+     * <br>
+     * Then, <code>pseudoMultiply(⊗, ⊕, combineWith, αIdentity)</code> produces a new matrix <i>M*</i> of height
+     * <i>n</i> and width <i>p</i> such that for all <i>m*ij</i> in <i>M*</i>: <i>m*ij</i> is the result of
+     * <code>fold</code>ing the products <i>m1ik ⊗ m2kj</i>, for <i>k = 0, 1, ..., m - 1</i> in that order, into
+     * <code>αIdentity</code> with <i>⊕</i>, where
+     * <ul>
+     *     <li><i>M* ≡ </i><code>pseudoMultiply(⊗, ⊕, combineWith, αIdentity)</code></li>
+     *     <li><i>M1 ≡ </i><code>this</code></li>
+     *     <li><i>M2 ≡ </i><code>combineWith</code></li>
+     *     <li><i>⊗ ≡ </i><code>interMatrixOperation</code></li>
+     *     <li><i>⊕ ≡ </i><code>intraMatrixOperation</code>, applied as <code>⊕(product, foldedSoFar)</code> just
+     *     like the <code>folder</code> of {@link #foldNW(BiFunction, Object)}</li>
+     * </ul>
+     *
+     * <br>
+     * <strong>EXAMPLE:</strong>
+     * <br>
+     * Ordinary matrix multiplication over integers is
+     * <code>pseudoMultiply((m1ik, m2kj) -> (m1ik * m2kj), (product, sum) -> (product + sum), m2, 0)</code>, and the
+     * shortest-path (min, +) product is
+     * <code>pseudoMultiply((m1ik, m2kj) -> (m1ik + m2kj), Math::min, m2, Integer.MAX_VALUE)</code>.
+     *
+     * @param interMatrixOperation the binary function <i>⊗</i> combining an element of this matrix with an element
+     *                             of <code>combineWith</code>
+     * @param intraMatrixOperation the binary function <i>⊕</i> accumulating the products of one row and one column
+     * @param combineWith          The matrix to multiply with, whose height must equal the width of this matrix
+     * @param αIdentity            the value every accumulation starts from, typically the identity of <i>⊕</i>
+     * @param <Y>                  the type of the elements of <code>combineWith</code>
+     * @param <Z>                  the output type of <i>⊗</i>
+     * @param <α>                  the type of the resultant matrix's entries, as well as the output type of <i>⊕</i>
+     * @return a new matrix of height <code>this.getHeight()</code> and width <code>combineWith.getWidth()</code>
+     * @throws IllegalArgumentException if the width of this matrix differs from the height of
+     *                                  <code>combineWith</code>
+     */
+    <Y, Z, α> IMatrix<α> pseudoMultiply(BiFunction<X, Y, Z> interMatrixOperation, BiFunction<Z, α, α> intraMatrixOperation,
                                         IMatrix<Y> combineWith, α αIdentity)
             throws IllegalArgumentException;
 
-    IMatrix<X> sort(Comparator<X> comparator);
+    /**
+     * Sorts all the elements of this matrix as one sequence and lays them back out in row-major order, so the least
+     * element ends up at (0, 0) and the greatest at the bottom right. The sort is stable, and runs in parallel if this
+     * matrix is {@link #parallel()} and has at least {@link Parallelism#getThreshold()} cells.
+     *
+     * @param comparator the order to sort in
+     * @return a new matrix of the same dimensions with this matrix's elements sorted in row-major order
+     * @throws IllegalArgumentException if <code>comparator</code> is null
+     */
+    IMatrix<X> sort(Comparator<X> comparator)
+            throws IllegalArgumentException;
+
+    /**
+     * Sorts the elements of each row on their own, stably.
+     *
+     * @param comparator the order to sort in
+     * @return a new matrix of the same dimensions whose rows are each sorted left to right
+     * @throws IllegalArgumentException if <code>comparator</code> is null
+     */
+    IMatrix<X> sortRows(Comparator<X> comparator)
+            throws IllegalArgumentException;
+
+    /**
+     * Sorts the elements of each column on their own, stably.
+     *
+     * @param comparator the order to sort in
+     * @return a new matrix of the same dimensions whose columns are each sorted top to bottom
+     * @throws IllegalArgumentException if <code>comparator</code> is null
+     */
+    IMatrix<X> sortCols(Comparator<X> comparator)
+            throws IllegalArgumentException;
+
+    /**
+     * Reorders whole rows by their element in column <code>keyCol</code>, like sorting the rows of a table by one of
+     * its columns. Rows with equal keys keep their order.
+     *
+     * @param keyCol     the column holding each row's key
+     * @param comparator the order to sort the keys in
+     * @return a new matrix holding the rows of this matrix, ordered by their keys
+     * @throws IllegalArgumentException if <code>keyCol</code> is not a column of this matrix, or
+     *                                  <code>comparator</code> is null
+     */
+    IMatrix<X> sortRowsBy(int keyCol, Comparator<X> comparator)
+            throws IllegalArgumentException;
+
+    /**
+     * The <code>k</code> greatest elements of this matrix with their positions, greatest first, found with a heap of
+     * at most <code>k</code> cells rather than by sorting the whole matrix. Of equal elements, the one earlier in
+     * row-major order ranks higher. If this matrix has fewer than <code>k</code> elements, all of them are returned.
+     *
+     * @param k          how many elements to keep
+     * @param comparator the order to rank elements in
+     * @return at most <code>k</code> cells, greatest first
+     * @throws IllegalArgumentException if <code>k</code> is negative, or <code>comparator</code> is null
+     */
+    List<Cell<X>> topK(int k, Comparator<X> comparator)
+            throws IllegalArgumentException;
+
+    /**
+     * The <code>k</code> least elements of this matrix with their positions, least first, as {@link #topK} finds
+     * them.
+     *
+     * @param k          how many elements to keep
+     * @param comparator the order to rank elements in
+     * @return at most <code>k</code> cells, least first
+     * @throws IllegalArgumentException if <code>k</code> is negative, or <code>comparator</code> is null
+     */
+    List<Cell<X>> bottomK(int k, Comparator<X> comparator)
+            throws IllegalArgumentException;
 
     IMatrix<X> replaceMap(Predicate<X> replaceIf, X replaceWith);
 
     //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~tweaked abstractions for convenience~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
     IMatrix<X> findAndReplace(X toFind, X replaceWith);
 
+    /**
+     * Whether <code>condition</code> holds for at least one element, testing elements in row-major order only until
+     * one passes.
+     */
     boolean orMap(Predicate<X> condition);
 
+    /**
+     * Whether <code>condition</code> holds for every element, testing elements in row-major order only until one
+     * fails.
+     */
     boolean andMap(Predicate<X> condition);
+
+    /**
+     * The first element in row-major order for which <code>condition</code> holds, without testing any element after
+     * it (when sequential), or nothing if there is none.
+     */
+    Optional<X> findFirst(Predicate<X> condition);
+
+    /**
+     * The position and value of the first element in row-major order for which <code>condition</code> holds, or
+     * nothing if there is none.
+     */
+    Optional<Cell<X>> indexOf(Predicate<X> condition);
+
+    //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~streams~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+    /**
+     * The elements of this matrix in row-major order, read one at a time as the stream consumes them, so that
+     * short-circuiting operations (<code>anyMatch</code>, <code>findFirst</code>, <code>limit</code>, ...) stop reading
+     * early. The stream is parallel, in the common pool, if this matrix is {@link #parallel()}.
+     */
+    Stream<X> stream();
+
+    /**
+     * {@link #stream()}, but always parallel.
+     */
+    Stream<X> parallelStream();
+
+    /**
+     * The rows of this matrix, top to bottom, each as a 1 x width {@link #row(int) view}.
+     */
+    Stream<IMatrix<X>> rowStream();
+
+    /**
+     * The elements of this matrix in row-major order, each paired with its position.
+     */
+    Stream<Cell<X>> indexedStream();
+
+    /**
+     * A spliterator over the elements of this matrix in row-major order. It is {@link Spliterator#SIZED} and
+     * {@link Spliterator#SUBSIZED}, splitting into exactly halved ranges of cells.
+     */
+    Spliterator<X> cellSpliterator();
     //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~getters~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
 
 
@@ -176,13 +426,176 @@ public interface IMatrix<X> {
 
     IMatrix<X> fillWith(X uniformEntry);
 
+    /**
+     * A {@link MatrixBuilder} holding a copy of this matrix's cells, for editing many of them in place; its
+     * {@link MatrixBuilder#freeze()} hands the edited cells over as a new matrix without copying them again. This
+     * matrix is left untouched.
+     * <br>
+     * <strong>EXAMPLE:</strong>
+     * <code>m.toTransient().set(x, 0, 0).setRow(r, 3).setBlock(b, 4, 4).freeze()</code> copies <code>m</code>'s
+     * cells once, where the same <code>update*</code>s would copy them three times.
+     *
+     * @return a new builder of this matrix's size, with every cell set
+     */
+    MatrixBuilder<X> toTransient();
+
 
+    //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~views~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+    /*
+     * Views share their parent's entries rather than copying them, and are built in O(1): reading a view reads
+     * through to the parent, which is safe because matrices are never mutated in place. A view keeps its whole
+     * parent reachable, so call compact() on a small view of a large matrix that is going to outlive it.
+     */
+
+    /**
+     * The rectangle of this matrix from <code>(firstRowIncl, firstColIncl)</code> to
+     * <code>(lastRowIncl, lastColIncl)</code>, as a view.
+     *
+     * @throws IllegalArgumentException if the rectangle is empty or does not lie inside this matrix
+     */
     IMatrix<X> subMatrix(int firstRowIncl, int lastRowIncl, int firstColIncl, int lastColIncl);
 
     IMatrix<X> subMatrix(int lastRowIncl, int lastColIncl);
 
-    // IMatrix<X> RREF(Comparator<X> comparator);
+    /**
+     * Every <code>rowStep</code>-th row from <code>firstRowIncl</code> up to <code>lastRowIncl</code>, and within
+     * them every <code>colStep</code>-th column from <code>firstColIncl</code> up to <code>lastColIncl</code>, as a
+     * view. <code>slice(a, b, 1, c, d, 1)</code> is <code>subMatrix(a, b, c, d)</code>.
+     *
+     * @throws IllegalArgumentException if either range is empty or out of bounds, or either step is less than 1
+     */
+    IMatrix<X> slice(int firstRowIncl, int lastRowIncl, int rowStep, int firstColIncl, int lastColIncl, int colStep);
+
+    /**
+     * Rows <code>0, n, 2n, ...</code> of this matrix, as a view.
+     *
+     * @throws IllegalArgumentException if <code>n</code> is less than 1
+     */
+    IMatrix<X> everyNthRow(int n);
+
+    /**
+     * This matrix with rows and columns swapped, as a view: element <code>(i, j)</code> of the result is element
+     * <code>(j, i)</code> of this matrix.
+     */
+    IMatrix<X> transpose();
+
+    /**
+     * Row <code>rowNum</code> of this matrix as a 1 x width view.
+     */
+    IMatrix<X> row(int rowNum);
+
+    /**
+     * Column <code>colNum</code> of this matrix as a height x 1 view.
+     */
+    IMatrix<X> col(int colNum);
+
+    /**
+     * A matrix equal to this one that owns densely packed storage of its own, so that it no longer keeps a larger
+     * parent reachable and reads its entries without indirection. Returns this matrix if it is not a view.
+     */
+    IMatrix<X> compact();
+
 
+    //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~execution mode~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+    /**
+     * Produces an <code>IMatrix</code> with the same entries as this one whose bulk operations (<code>map</code>,
+     * <code>elementWiseCombine</code>, <code>filter</code>, <code>replaceMap</code>, <code>fillWith</code>, ...) split
+     * their work into blocks of rows on the common {@link ForkJoinPool}. Results of those operations are parallel as
+     * well, and come out exactly as they would sequentially.
+     * <br>
+     * Matrices with fewer cells than {@link Parallelism#getThreshold()} still run sequentially. Implementations
+     * without a parallel mode may return <code>this</code>.
+     *
+     * @return a parallel <code>IMatrix</code> sharing this matrix's entries
+     */
+    IMatrix<X> parallel();
+
+    /**
+     * Just like {@link #parallel()}, but running on the given <code>pool</code> instead of the common pool.
+     *
+     * @param pool the <code>ForkJoinPool</code> to run bulk operations on
+     * @return a parallel <code>IMatrix</code> sharing this matrix's entries
+     */
+    IMatrix<X> parallel(ForkJoinPool pool);
+
+    /**
+     * Produces an <code>IMatrix</code> with the same entries as this one whose bulk operations run on the calling
+     * thread.
+     *
+     * @return a sequential <code>IMatrix</code> sharing this matrix's entries
+     */
+    IMatrix<X> sequential();
+
+    boolean isParallel();
+
+    /**
+     * Produces an <code>IMatrix</code> with the same entries as this one on which <code>map</code>,
+     * <code>elementWiseCombine</code>, <code>replaceMap</code>, <code>fillWith</code> and <code>subMatrix</code> are
+     * deferred: each of them only records its function, and a chain of them is fused into a single pass over the data
+     * once the result is consumed (by <code>foldNW</code>, <code>asList</code>, <code>getElement</code>,
+     * {@link #materialize()}, ...). No intermediate matrix is ever built.
+     * <br>
+     * <strong>EXAMPLE:</strong>
+     * <code>m.lazy().map(f).map(g).elementWiseCombine(h, n).foldNW(folder, base)</code> visits each cell of
+     * <code>m</code> and <code>n</code> exactly once, and allocates no matrices.
+     *
+     * @return a lazy view of this matrix
+     * @see LazyMatrix
+     */
+    IMatrix<X> lazy();
+
+    /**
+     * Computes and stores every entry of a {@link #lazy()} matrix. Matrices that already store their entries return
+     * themselves.
+     *
+     * @return an <code>IMatrix</code> with the same entries as this one that stores them
+     */
+    IMatrix<X> materialize();
+
+    /**
+     * Produces an <code>IMatrix</code> with the same entries as this one that records the count, cells visited, wall
+     * time, allocated bytes and shape of every <code>map</code>, fold, <code>elementWiseCombine</code>,
+     * <code>pseudoMultiply</code>, <code>subMatrix</code> and <code>update*</code> into <code>metrics</code>, and
+     * commits each as a JFR event. Matrices returned by its operations are instrumented as well.
+     * <br>
+     * <strong>EXAMPLE:</strong>
+     * <code>AggregatingMetrics metrics = new AggregatingMetrics(); m.instrumented(metrics).map(f).foldNW(g, 0)</code>
+     * counts one <code>MAP</code> and one <code>FOLD_NW</code> of <code>m</code>'s size.
+     *
+     * @param metrics where to record each operation
+     * @return an instrumented view of this matrix
+     * @see InstrumentedMatrix
+     */
+    IMatrix<X> instrumented(MatrixMetrics metrics);
+
+    //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~rendering~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+    /**
+     * Writes this matrix to <code>out</code> one row at a time, as <code>options</code> describes, without building
+     * the rendered text in memory first. Rows and columns past the limits of <code>options</code> are elided with
+     * "…", so even a huge matrix can be logged cheaply.
+     * <br>
+     * <strong>EXAMPLE:</strong>
+     * <code>m.render(writer, RenderOptions.DEFAULT.withMaxRows(10).withMaxCols(10).withPrecision(3))</code>
+     *
+     * @param out where to write the rendered matrix
+     * @param options the format, limits and precision to render with
+     * @throws IOException if <code>out</code> throws one
+     * @throws IllegalArgumentException if <code>out</code> or <code>options</code> is null
+     */
+    void render(Appendable out, RenderOptions options)
+        throws IOException, IllegalArgumentException;
+
+    /**
+     * {@link #render(Appendable, RenderOptions)} into a new <code>String</code>.
+     *
+     * @param options the format, limits and precision to render with
+     * @return this matrix rendered as <code>options</code> describes
+     * @throws IllegalArgumentException if <code>options</code> is null
+     */
+    String render(RenderOptions options)
+        throws IllegalArgumentException;
 
     //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~overriden from Object~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
     @Override
@@ -191,6 +604,10 @@ public interface IMatrix<X> {
     @Override
     int hashCode();
 
+    /**
+     * Each row as <code>[a, b, c]</code> on its own line, the same as rendering with {@link RenderOptions#DEFAULT}.
+     * Linear in the size of the result.
+     */
     @Override
     String toString();
 
@@ -0,0 +1,18 @@
+/**
+ * An action on one entry of an {@link IMatrix} together with its position, as run by
+ * {@link IMatrix#forEachIndexed(IndexedConsumer)}.
+ *
+ * @param <X> the type of the entry
+ */
+@FunctionalInterface
+public interface IndexedConsumer<X> {
+
+    /**
+     * Performs this action on the entry at (<code>row</code>, <code>col</code>).
+     *
+     * @param row   the row index of the entry
+     * @param col   the column index of the entry
+     * @param value the entry
+     */
+    void accept(int row, int col, X value);
+}
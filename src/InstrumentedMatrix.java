@@ -0,0 +1,446 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * An {@link IMatrix} that forwards every operation to another one, measuring <code>map</code>, the folds,
+ * <code>elementWiseCombine</code>, <code>pseudoMultiply</code>, <code>subMatrix</code> and the <code>update*</code>s
+ * as it goes. Each measured operation is recorded into a {@link MatrixMetrics} and committed as a
+ * {@link MatrixOperationEvent} to any running JFR recording.
+ * <ul>
+ *     <li>Every matrix an operation returns is instrumented into the same sink, so a whole chain of calls is
+ *     measured, and {@link #getDelegate()} gets the plain matrix back</li>
+ *     <li>Measuring costs two clock reads and two reads of the thread's allocation counter per operation. When the
+ *     sink is {@link MatrixMetrics#NONE} and no recording wants the event, operations are forwarded without being
+ *     measured at all; a matrix that was never instrumented pays nothing</li>
+ * </ul>
+ *
+ * @param <X> The type of the entry included in this matrix
+ */
+public class InstrumentedMatrix<X> implements IMatrix<X> {
+
+  // null when the JVM cannot count the bytes a thread allocates
+  private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationCounter();
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final IMatrix<X> delegate;
+  protected final MatrixMetrics metrics;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  InstrumentedMatrix(IMatrix<X> _delegate, MatrixMetrics _metrics)
+      throws IllegalArgumentException {
+    // instrumenting twice would record every operation twice
+    delegate = _delegate instanceof InstrumentedMatrix
+        ? ((InstrumentedMatrix<X>) _delegate).delegate : Utils.notNull(_delegate);
+    metrics = Utils.notNull(_metrics);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~measured operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public <Y> IMatrix<Y> map(Function<X, Y> elementMapper) {
+    return instrument(measure(MatrixMetrics.Operation.MAP, cells(), () -> delegate.map(elementMapper)));
+  }
+
+  @Override
+  public <Y> IMatrix<Y> map(IntIntFunction<Y> rowColMapper) {
+    return instrument(measure(MatrixMetrics.Operation.MAP, cells(), () -> delegate.map(rowColMapper)));
+  }
+
+  @Override
+  public <Y> IMatrix<Y> mapNeighborhood(int radius, BoundaryMode mode, X outside,
+                                        Function<Neighborhood<X>, Y> kernelFn) {
+    return instrument(measure(MatrixMetrics.Operation.MAP, cells(),
+        () -> delegate.mapNeighborhood(radius, mode, outside, kernelFn)));
+  }
+
+  @Override
+  public <Y> IMatrix<Y> mapNeighborhood(int radius, BoundaryMode mode, Function<Neighborhood<X>, Y> kernelFn) {
+    return instrument(measure(MatrixMetrics.Operation.MAP, cells(),
+        () -> delegate.mapNeighborhood(radius, mode, kernelFn)));
+  }
+
+  @Override
+  public <Y> Y foldNW(BiFunction<X, Y, Y> folder, Y base) {
+    return measure(MatrixMetrics.Operation.FOLD_NW, cells(), () -> delegate.foldNW(folder, base));
+  }
+
+  @Override
+  public <Y> Y foldSE(BiFunction<X, Y, Y> folder, Y base) {
+    return measure(MatrixMetrics.Operation.FOLD_SE, cells(), () -> delegate.foldSE(folder, base));
+  }
+
+  @Override
+  public <Y, Z> IMatrix<Z> elementWiseCombine(BiFunction<X, Y, Z> combiner, IMatrix<Y> combineWith) {
+    return instrument(measure(MatrixMetrics.Operation.ELEMENT_WISE_COMBINE, 2 * cells(),
+        () -> delegate.elementWiseCombine(combiner, unwrap(combineWith))));
+  }
+
+  @Override
+  public <Y, Z, α> IMatrix<α> pseudoMultiply(BiFunction<X, Y, Z> interMatrixOperation,
+                                             BiFunction<Z, α, α> intraMatrixOperation, IMatrix<Y> combineWith,
+                                             α αIdentity) {
+    long products = combineWith == null ? 0 : cells() * combineWith.getWidth();
+    return instrument(measure(MatrixMetrics.Operation.PSEUDO_MULTIPLY, products,
+        () -> delegate.pseudoMultiply(interMatrixOperation, intraMatrixOperation, unwrap(combineWith), αIdentity)));
+  }
+
+  @Override
+  public IMatrix<X> subMatrix(int firstRowIncl, int lastRowIncl, int firstColIncl, int lastColIncl) {
+    long window = (long) (lastRowIncl - firstRowIncl + 1) * (lastColIncl - firstColIncl + 1);
+    return instrument(measure(MatrixMetrics.Operation.SUB_MATRIX, Math.max(0, window),
+        () -> delegate.subMatrix(firstRowIncl, lastRowIncl, firstColIncl, lastColIncl)));
+  }
+
+  @Override
+  public IMatrix<X> subMatrix(int lastRowIncl, int lastColIncl) {
+    long window = (long) (lastRowIncl + 1) * (lastColIncl + 1);
+    return instrument(measure(MatrixMetrics.Operation.SUB_MATRIX, Math.max(0, window),
+        () -> delegate.subMatrix(lastRowIncl, lastColIncl)));
+  }
+
+  @Override
+  public IMatrix<X> updateEntry(X newEntry, int row, int col) {
+    return instrument(measure(MatrixMetrics.Operation.UPDATE_ENTRY, cells(),
+        () -> delegate.updateEntry(newEntry, row, col)));
+  }
+
+  @Override
+  public IMatrix<X> updateRow(List<X> newRow, int rowNum) {
+    return instrument(measure(MatrixMetrics.Operation.UPDATE_ROW, cells(), () -> delegate.updateRow(newRow, rowNum)));
+  }
+
+  @Override
+  public IMatrix<X> updateCol(List<X> newCol, int colNum) {
+    return instrument(measure(MatrixMetrics.Operation.UPDATE_COL, cells(), () -> delegate.updateCol(newCol, colNum)));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~forwarded operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public void forEachIndexed(IndexedConsumer<X> action) {
+    delegate.forEachIndexed(action);
+  }
+
+  @Override
+  public List<X> filter(Predicate<X> condition) {
+    return delegate.filter(condition);
+  }
+
+  @Override
+  public X reduce(X identity, BinaryOperator<X> associativeCombiner) {
+    return delegate.reduce(identity, associativeCombiner);
+  }
+
+  @Override
+  public IMatrix<X> reduceRows(X identity, BinaryOperator<X> associativeCombiner) {
+    return instrument(delegate.reduceRows(identity, associativeCombiner));
+  }
+
+  @Override
+  public IMatrix<X> reduceCols(X identity, BinaryOperator<X> associativeCombiner) {
+    return instrument(delegate.reduceCols(identity, associativeCombiner));
+  }
+
+  @Override
+  public IMatrix<X> sort(Comparator<X> comparator) {
+    return instrument(delegate.sort(comparator));
+  }
+
+  @Override
+  public IMatrix<X> sortRows(Comparator<X> comparator) {
+    return instrument(delegate.sortRows(comparator));
+  }
+
+  @Override
+  public IMatrix<X> sortCols(Comparator<X> comparator) {
+    return instrument(delegate.sortCols(comparator));
+  }
+
+  @Override
+  public IMatrix<X> sortRowsBy(int keyCol, Comparator<X> comparator) {
+    return instrument(delegate.sortRowsBy(keyCol, comparator));
+  }
+
+  @Override
+  public List<Cell<X>> topK(int k, Comparator<X> comparator) {
+    return delegate.topK(k, comparator);
+  }
+
+  @Override
+  public List<Cell<X>> bottomK(int k, Comparator<X> comparator) {
+    return delegate.bottomK(k, comparator);
+  }
+
+  @Override
+  public IMatrix<X> replaceMap(Predicate<X> replaceIf, X replaceWith) {
+    return instrument(delegate.replaceMap(replaceIf, replaceWith));
+  }
+
+  @Override
+  public IMatrix<X> findAndReplace(X toFind, X replaceWith) {
+    return instrument(delegate.findAndReplace(toFind, replaceWith));
+  }
+
+  @Override
+  public boolean orMap(Predicate<X> condition) {
+    return delegate.orMap(condition);
+  }
+
+  @Override
+  public boolean andMap(Predicate<X> condition) {
+    return delegate.andMap(condition);
+  }
+
+  @Override
+  public Optional<X> findFirst(Predicate<X> condition) {
+    return delegate.findFirst(condition);
+  }
+
+  @Override
+  public Optional<Cell<X>> indexOf(Predicate<X> condition) {
+    return delegate.indexOf(condition);
+  }
+
+  @Override
+  public Stream<X> stream() {
+    return delegate.stream();
+  }
+
+  @Override
+  public Stream<X> parallelStream() {
+    return delegate.parallelStream();
+  }
+
+  @Override
+  public Stream<IMatrix<X>> rowStream() {
+    return delegate.rowStream();
+  }
+
+  @Override
+  public Stream<Cell<X>> indexedStream() {
+    return delegate.indexedStream();
+  }
+
+  @Override
+  public Spliterator<X> cellSpliterator() {
+    return delegate.cellSpliterator();
+  }
+
+  @Override
+  public X getElement(int row, int col) {
+    return delegate.getElement(row, col);
+  }
+
+  @Override
+  public int getWidth() {
+    return delegate.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return delegate.getHeight();
+  }
+
+  @Override
+  public List<X> asList() {
+    return delegate.asList();
+  }
+
+  @Override
+  public IMatrix<X> copy() {
+    return instrument(delegate.copy());
+  }
+
+  @Override
+  public IMatrix<X> fillWith(X uniformEntry) {
+    return instrument(delegate.fillWith(uniformEntry));
+  }
+
+  @Override
+  public MatrixBuilder<X> toTransient() {
+    return delegate.toTransient();
+  }
+
+  @Override
+  public IMatrix<X> slice(int firstRowIncl, int lastRowIncl, int rowStep,
+                          int firstColIncl, int lastColIncl, int colStep) {
+    return instrument(delegate.slice(firstRowIncl, lastRowIncl, rowStep, firstColIncl, lastColIncl, colStep));
+  }
+
+  @Override
+  public IMatrix<X> everyNthRow(int n) {
+    return instrument(delegate.everyNthRow(n));
+  }
+
+  @Override
+  public IMatrix<X> transpose() {
+    return instrument(delegate.transpose());
+  }
+
+  @Override
+  public IMatrix<X> row(int rowNum) {
+    return instrument(delegate.row(rowNum));
+  }
+
+  @Override
+  public IMatrix<X> col(int colNum) {
+    return instrument(delegate.col(colNum));
+  }
+
+  @Override
+  public IMatrix<X> compact() {
+    return instrument(delegate.compact());
+  }
+
+  @Override
+  public IMatrix<X> parallel() {
+    return instrument(delegate.parallel());
+  }
+
+  @Override
+  public IMatrix<X> parallel(ForkJoinPool pool) {
+    return instrument(delegate.parallel(pool));
+  }
+
+  @Override
+  public IMatrix<X> sequential() {
+    return instrument(delegate.sequential());
+  }
+
+  @Override
+  public boolean isParallel() {
+    return delegate.isParallel();
+  }
+
+  @Override
+  public IMatrix<X> lazy() {
+    return instrument(delegate.lazy());
+  }
+
+  @Override
+  public IMatrix<X> materialize() {
+    return instrument(delegate.materialize());
+  }
+
+  /**
+   * This matrix's delegate instrumented into <code>_metrics</code> instead.
+   */
+  @Override
+  public IMatrix<X> instrumented(MatrixMetrics _metrics)
+      throws IllegalArgumentException {
+    return new InstrumentedMatrix<>(delegate, _metrics);
+  }
+
+  @Override
+  public void render(Appendable out, RenderOptions options)
+      throws IOException, IllegalArgumentException {
+    delegate.render(out, options);
+  }
+
+  @Override
+  public String render(RenderOptions options)
+      throws IllegalArgumentException {
+    return delegate.render(options);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return delegate.equals(o instanceof InstrumentedMatrix ? ((InstrumentedMatrix<?>) o).delegate : o);
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  /**
+   * The matrix this one forwards to, which is not instrumented.
+   */
+  public IMatrix<X> getDelegate() {
+    return delegate;
+  }
+
+  public MatrixMetrics getMetrics() {
+    return metrics;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private <R> R measure(MatrixMetrics.Operation operation, long cells, Supplier<R> body) {
+    boolean toJfr = MatrixOperationEvent.TYPE.isEnabled();
+    if (metrics == MatrixMetrics.NONE && !toJfr) {
+      return body.get();
+    }
+
+    MatrixOperationEvent event = toJfr ? new MatrixOperationEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    long allocatedBefore = allocatedBytes();
+    long start = System.nanoTime();
+
+    R result = body.get();
+
+    long nanos = System.nanoTime() - start;
+    long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+    int rows = delegate.getHeight();
+    int cols = delegate.getWidth();
+    metrics.record(operation, rows, cols, cells, nanos, allocated);
+    if (event != null) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.operation = operation.name();
+        event.rows = rows;
+        event.cols = cols;
+        event.cells = cells;
+        event.allocatedBytes = allocated;
+        event.commit();
+      }
+    }
+    return result;
+  }
+
+  private <Y> IMatrix<Y> instrument(IMatrix<Y> result) {
+    return new InstrumentedMatrix<>(result, metrics);
+  }
+
+  private long cells() {
+    return (long) delegate.getHeight() * delegate.getWidth();
+  }
+
+  // lets the delegate see its own kind of matrix, for the fast paths that check for one
+  private static <Y> IMatrix<Y> unwrap(IMatrix<Y> aMatrix) {
+    return aMatrix instanceof InstrumentedMatrix ? ((InstrumentedMatrix<Y>) aMatrix).delegate : aMatrix;
+  }
+
+  private static long allocatedBytes() {
+    return ALLOCATIONS == null ? -1 : ALLOCATIONS.getCurrentThreadAllocatedBytes();
+  }
+
+  private static com.sun.management.ThreadMXBean allocationCounter() {
+    try {
+      java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      if (threads instanceof com.sun.management.ThreadMXBean
+          && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled()) {
+        return (com.sun.management.ThreadMXBean) threads;
+      }
+    }
+    catch (LinkageError | UnsupportedOperationException e) {
+      // not a HotSpot-like JVM
+    }
+    return null;
+  }
+}
@@ -0,0 +1,18 @@
+/**
+ * A function of a (row, col) position that takes the indices as <code>int</code>s, so that
+ * {@link IMatrix#map(IntIntFunction)} and the generator constructors never box them.
+ *
+ * @param <Y> the type of the result of the function
+ */
+@FunctionalInterface
+public interface IntIntFunction<Y> {
+
+    /**
+     * Applies this function to a position.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the function result
+     */
+    Y apply(int row, int col);
+}
@@ -0,0 +1,16 @@
+/**
+ * A function of a (row, col) position that produces a <code>double</code>, the fully unboxed form of
+ * {@link IntIntFunction} used to generate a {@link DoubleMatrix}.
+ */
+@FunctionalInterface
+public interface IntIntToDoubleFunction {
+
+    /**
+     * Applies this function to a position.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the function result
+     */
+    double applyAsDouble(int row, int col);
+}
@@ -0,0 +1,502 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * An {@link IMatrix} of <code>int</code>s kept unboxed in one flat, row-major <code>int[]</code>.
+ * <ul>
+ *     <li>The generic operations still work (boxing on the way in and out), so a <code>IntMatrix</code> can be
+ *     passed anywhere an <code>IMatrix&lt;Integer&gt;</code> is expected</li>
+ *     <li>The primitive overloads ({@link #mapToInt}, {@link #mapToDouble}, {@link #foldNW(IntBinaryOperator, int)},
+ *     {@link #foldSE(IntBinaryOperator, int)}, {@link #elementWiseCombineToInt}) never box</li>
+ *     <li>{@link #scale}, {@link #offset}, {@link #clamp}, {@link #sum()}, {@link #min()}, {@link #max()},
+ *     {@link #dot}, {@link #multiply} and combining with an {@link Arithmetic} run on {@link NumericKernels}, as SIMD
+ *     loops when the Vector API is available</li>
+ * </ul>
+ */
+public class IntMatrix extends AMatrix<Integer> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final int rows;
+  protected final int cols;
+  protected final int[] entries;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  IntMatrix(int[][] elements)
+      throws IllegalArgumentException {
+    Utils.notNull(elements);
+    rows = elements.length;
+    cols = rows == 0 ? 0 : Utils.notNull(elements[0]).length;
+    entries = new int[rows * cols];
+
+    for (int i = 0; i < rows; i++) {
+      if (Utils.notNull(elements[i]).length != cols) {
+        throw new IllegalArgumentException("All rows must be of the same length when creating this matrix");
+      }
+      System.arraycopy(elements[i], 0, entries, i * cols, cols);
+    }
+  }
+
+  IntMatrix(int uniformEntry, int _rows, int _cols)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+
+    rows = _rows;
+    cols = _cols;
+    entries = new int[_rows * _cols];
+    Arrays.fill(entries, uniformEntry);
+  }
+
+  IntMatrix(IMatrix<Integer> toUnbox)
+      throws IllegalArgumentException {
+    rows = Utils.notNull(toUnbox).getHeight();
+    cols = toUnbox.getWidth();
+    entries = new int[rows * cols];
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        entries[i * cols + j] = Utils.notNull(toUnbox.getElement(i, j));
+      }
+    }
+  }
+
+  /**
+   * Wraps (does not copy) <code>_entries</code>, which must be laid out row-major and never be written to again.
+   */
+  IntMatrix(int _rows, int _cols, int[] _entries)
+      throws IllegalArgumentException {
+    Utils.intBetween(_rows * _cols, Utils.notNull(_entries).length, _rows * _cols);
+    rows = _rows;
+    cols = _cols;
+    entries = _entries;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~primitive operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * The unboxed entry at (<code>row</code>, <code>col</code>).
+   */
+  public int getInt(int row, int col)
+      throws IllegalArgumentException {
+    return entries[Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)];
+  }
+
+  /**
+   * {@link IMatrix#map(java.util.function.Function)} without boxing.
+   *
+   * @param elementMapper a lambda abstraction with signature <code>elementMapper :: int -> int</code>
+   * @return a new <code>IntMatrix</code> of the same size where each entry is <code>elementMapper(x)</code>
+   */
+  public IntMatrix mapToInt(IntUnaryOperator elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    int[] mapped = new int[entries.length];
+    for (int k = 0; k < entries.length; k++) {
+      mapped[k] = elementMapper.applyAsInt(entries[k]);
+    }
+
+    return new IntMatrix(rows, cols, mapped);
+  }
+
+  /**
+   * {@link IMatrix#map(java.util.function.Function)} into a {@link DoubleMatrix} without boxing.
+   *
+   * @param elementMapper a lambda abstraction with signature <code>elementMapper :: int -> double</code>
+   * @return a new <code>DoubleMatrix</code> of the same size where each entry is <code>elementMapper(x)</code>
+   */
+  public DoubleMatrix mapToDouble(IntToDoubleFunction elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    double[] mapped = new double[entries.length];
+    for (int k = 0; k < entries.length; k++) {
+      mapped[k] = elementMapper.applyAsDouble(entries[k]);
+    }
+
+    return new DoubleMatrix(rows, cols, mapped);
+  }
+
+  /**
+   * {@link IMatrix#foldNW(java.util.function.BiFunction, Object)} without boxing.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: int int -> int</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing with
+   * @return the fully <code>fold</code>ed value, folding left to right and top to bottom
+   */
+  public int foldNW(IntBinaryOperator folder, int base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    int folded = base;
+
+    for (int k = 0; k < entries.length; k++) {
+      folded = folder.applyAsInt(entries[k], folded);
+    }
+
+    return folded;
+  }
+
+  /**
+   * {@link IMatrix#foldSE(java.util.function.BiFunction, Object)} without boxing.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: int int -> int</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing with
+   * @return the fully <code>fold</code>ed value, folding right to left and bottom to top
+   */
+  public int foldSE(IntBinaryOperator folder, int base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    int folded = base;
+
+    for (int k = entries.length - 1; k >= 0; k--) {
+      folded = folder.applyAsInt(entries[k], folded);
+    }
+
+    return folded;
+  }
+
+  /**
+   * {@link IMatrix#elementWiseCombine(java.util.function.BiFunction, IMatrix)} without boxing. An {@link Arithmetic}
+   * <code>combiner</code> runs as a SIMD loop when the Vector API is available.
+   *
+   * @param combiner    a lambda abstraction with signature <code>combiner :: int int -> int</code>
+   * @param combineWith the matrix to <code>combineWith</code>, of the same size as this one
+   * @return a new <code>IntMatrix</code> whose entries are <code>combiner(m1ij, m2ij)</code>
+   */
+  public IntMatrix elementWiseCombineToInt(IntBinaryOperator combiner, IntMatrix combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+
+    if (rows != combineWith.rows || cols != combineWith.cols) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    int[] combined = new int[entries.length];
+    if (combiner instanceof Arithmetic) {
+      NumericKernels.BEST.combine((Arithmetic) combiner, entries, combineWith.entries, combined);
+    }
+    else {
+      for (int k = 0; k < entries.length; k++) {
+        combined[k] = combiner.applyAsInt(entries[k], combineWith.entries[k]);
+      }
+    }
+
+    return new IntMatrix(rows, cols, combined);
+  }
+
+  /**
+   * Every entry times <code>factor</code>.
+   */
+  public IntMatrix scale(int factor) {
+    int[] scaled = new int[entries.length];
+    NumericKernels.BEST.scale(entries, factor, scaled);
+    return new IntMatrix(rows, cols, scaled);
+  }
+
+  /**
+   * Every entry plus <code>shift</code>.
+   */
+  public IntMatrix offset(int shift) {
+    int[] shifted = new int[entries.length];
+    NumericKernels.BEST.offset(entries, shift, shifted);
+    return new IntMatrix(rows, cols, shifted);
+  }
+
+  /**
+   * Every entry brought into <code>[lower, upper]</code>: entries below <code>lower</code> become
+   * <code>lower</code>, and entries above <code>upper</code> become <code>upper</code>.
+   *
+   * @throws IllegalArgumentException if <code>lower</code> is greater than <code>upper</code>
+   */
+  public IntMatrix clamp(int lower, int upper)
+      throws IllegalArgumentException {
+    if (!(lower <= upper)) {
+      throw new IllegalArgumentException("cannot clamp to [" + lower + "," + upper + "]");
+    }
+
+    int[] clamped = new int[entries.length];
+    NumericKernels.BEST.clamp(entries, lower, upper, clamped);
+    return new IntMatrix(rows, cols, clamped);
+  }
+
+  /**
+   * The sum of every entry.
+   */
+  public int sum() {
+    return NumericKernels.BEST.sum(entries);
+  }
+
+  /**
+   * The least entry, or {@link Integer#MAX_VALUE} if this matrix is empty.
+   */
+  public int min() {
+    return NumericKernels.BEST.min(entries);
+  }
+
+  /**
+   * The greatest entry, or {@link Integer#MIN_VALUE} if this matrix is empty.
+   */
+  public int max() {
+    return NumericKernels.BEST.max(entries);
+  }
+
+  /**
+   * The sum of the products of corresponding entries, as if both matrices were flattened into vectors.
+   *
+   * @param combineWith a matrix of the same size as this one
+   * @throws IllegalArgumentException if the dimensions differ
+   */
+  public int dot(IntMatrix combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combineWith);
+
+    if (rows != combineWith.rows || cols != combineWith.cols) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    return NumericKernels.BEST.dot(entries, combineWith.entries);
+  }
+
+  /**
+   * {@link IMatrix#reduce(Object, BinaryOperator)} without boxing.
+   *
+   * @param identity            the identity of <code>associativeCombiner</code>
+   * @param associativeCombiner an associative lambda abstraction with signature
+   *                            <code>associativeCombiner :: int int -> int</code>
+   * @return the combination of every element of this matrix in row-major order
+   */
+  public int reduce(int identity, IntBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return Reduction.pairwise(entries, 0, entries.length, identity, associativeCombiner);
+  }
+
+  /**
+   * {@link IMatrix#reduceRows(Object, BinaryOperator)} without boxing.
+   */
+  public IntMatrix reduceRows(int identity, IntBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+
+    int[] reduced = new int[rows];
+    for (int i = 0; i < rows; i++) {
+      reduced[i] = Reduction.pairwise(entries, i * cols, (i + 1) * cols, identity, associativeCombiner);
+    }
+
+    return new IntMatrix(rows, 1, reduced);
+  }
+
+  /**
+   * {@link IMatrix#reduceCols(Object, BinaryOperator)} without boxing.
+   */
+  public IntMatrix reduceCols(int identity, IntBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return new IntMatrix(1, cols, Reduction.columnwise(entries, cols, 0, rows, identity, associativeCombiner));
+  }
+
+  /**
+   * Ordinary matrix multiplication, i.e. {@link IMatrix#pseudoMultiply} with <code>*</code> and <code>+</code>,
+   * computed straight over both <code>int[]</code>s by the {@link MultiplyStrategy#AUTO} strategy.
+   *
+   * @param combineWith the matrix to multiply with, whose height must equal the width of this matrix
+   * @return a new <code>IntMatrix</code> of height <code>getHeight()</code> and width
+   * <code>combineWith.getWidth()</code>
+   */
+  public IntMatrix multiply(IntMatrix combineWith)
+      throws IllegalArgumentException {
+    return multiply(combineWith, MultiplyStrategy.AUTO);
+  }
+
+  /**
+   * {@link #multiply(IntMatrix)} by the given strategy.
+   *
+   * @param combineWith the matrix to multiply with, whose height must equal the width of this matrix
+   * @param strategy    how to compute the product
+   * @return a new <code>IntMatrix</code> of height <code>getHeight()</code> and width
+   * <code>combineWith.getWidth()</code>
+   */
+  public IntMatrix multiply(IntMatrix combineWith, MultiplyStrategy strategy)
+      throws IllegalArgumentException {
+    Utils.notNull(strategy);
+    MatrixMultiplication.checkDimensions(this, combineWith);
+
+    return new IntMatrix(rows, combineWith.cols,
+        strategy.multiply(entries, combineWith.entries, rows, cols, combineWith.cols));
+  }
+
+  /**
+   * {@link IMatrix#pseudoMultiply} without boxing.
+   *
+   * @param interMatrixOperation <i>⊗</i>, with signature <code>⊗ :: int int -> int</code>
+   * @param intraMatrixOperation <i>⊕</i>, with signature <code>⊕ :: int int -> int</code>, applied as
+   *                             <code>⊕(product, foldedSoFar)</code>
+   * @param combineWith          the matrix to multiply with, whose height must equal the width of this matrix
+   * @param identity             the value every accumulation starts from
+   * @return a new <code>IntMatrix</code> of height <code>getHeight()</code> and width
+   * <code>combineWith.getWidth()</code>
+   */
+  public IntMatrix pseudoMultiply(IntBinaryOperator interMatrixOperation,
+                                  IntBinaryOperator intraMatrixOperation,
+                                  IntMatrix combineWith, int identity)
+      throws IllegalArgumentException {
+    Utils.notNull(interMatrixOperation);
+    Utils.notNull(intraMatrixOperation);
+    MatrixMultiplication.checkDimensions(this, combineWith);
+
+    return new IntMatrix(rows, combineWith.cols, MatrixMultiplication.blocked(entries, combineWith.entries,
+        rows, cols, combineWith.cols, interMatrixOperation, intraMatrixOperation, identity));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public Integer getElement(int row, int col)
+      throws IllegalArgumentException {
+    return getInt(row, col);
+  }
+
+  @Override
+  public int getWidth() {
+    return cols;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows;
+  }
+
+  @Override
+  public Integer reduce(Integer identity, BinaryOperator<Integer> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduce((int) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public IMatrix<Integer> reduceRows(Integer identity, BinaryOperator<Integer> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduceRows((int) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public IMatrix<Integer> reduceCols(Integer identity, BinaryOperator<Integer> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduceCols((int) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public List<Integer> asList() {
+    List<Integer> _asList = new ArrayList<>(entries.length);
+
+    for (int anElement : entries) {
+      _asList.add(anElement);
+    }
+
+    return _asList;
+  }
+
+  @Override
+  public void forEachIndexed(IndexedConsumer<Integer> action)
+      throws IllegalArgumentException {
+    Utils.notNull(action);
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        action.accept(i, j, entries[i * cols + j]);
+      }
+    }
+  }
+
+  @Override
+  public IMatrix<Integer> replaceMap(Predicate<Integer> replaceIf, Integer replaceWith)
+      throws IllegalArgumentException {
+    Utils.notNull(replaceIf);
+    int _replaceWith = Utils.notNull(replaceWith);
+    return mapToInt(x -> replaceIf.test(x) ? _replaceWith : x);
+  }
+
+  @Override
+  public IMatrix<Integer> copy() {
+    return new IntMatrix(rows, cols, entries.clone());
+  }
+
+  @Override
+  public IMatrix<Integer> updateEntry(Integer newEntry, int row, int col)
+      throws IllegalArgumentException {
+    int[] updated = entries.clone();
+    updated[Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)] =
+        Utils.notNull(newEntry);
+
+    return new IntMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Integer> updateRow(List<Integer> newRow, int rowNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, rowNum, rows - 1);
+    Utils.intBetween(cols, Utils.notNull(newRow).size(), cols);
+
+    int[] updated = entries.clone();
+    for (int j = 0; j < cols; j++) {
+      updated[rowNum * cols + j] = Utils.notNull(newRow.get(j));
+    }
+
+    return new IntMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Integer> updateCol(List<Integer> newCol, int colNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, colNum, cols - 1);
+    Utils.intBetween(rows, Utils.notNull(newCol).size(), rows);
+
+    int[] updated = entries.clone();
+    for (int i = 0; i < rows; i++) {
+      updated[i * cols + colNum] = Utils.notNull(newCol.get(i));
+    }
+
+    return new IntMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Integer> fillWith(Integer uniformEntry)
+      throws IllegalArgumentException {
+    return new IntMatrix(Utils.notNull(uniformEntry), rows, cols);
+  }
+
+  @Override
+  protected IMatrix<Integer> compactView(IMatrix<Integer> view) {
+    return new IntMatrix(view);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof IntMatrix) {
+      IntMatrix anotherMatrix = (IntMatrix) o;
+      return rows == anotherMatrix.rows && cols == anotherMatrix.cols
+          && Arrays.equals(entries, anotherMatrix.entries);
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    // same value as the boxed sum of Integer.hashCode in AMatrix, so equal matrices hash equally across types
+    int hash = 0;
+    for (int anElement : entries) {
+      hash += Integer.hashCode(anElement);
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,252 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The LU decomposition with partial pivoting of a square {@link DoubleMatrix} <i>A</i>: a permutation <i>P</i>, a
+ * unit lower triangular <i>L</i> and an upper triangular <i>U</i> with <i>PA = LU</i>.
+ * <ul>
+ *     <li>The factorization runs once, in place over one copy of <i>A</i>'s flat row-major array, which afterwards
+ *     holds <i>L</i> below the diagonal and <i>U</i> on and above it</li>
+ *     <li>It is right-looking and blocked: each panel of <code>BLOCK</code> columns is factored on its own, then the
+ *     whole trailing matrix is updated by one rank-<code>BLOCK</code> product, row by row through
+ *     {@link NumericKernels#axpy}. The trailing update is nearly all of the work, and its rows are split across the
+ *     common {@link ForkJoinPool} once they reach {@link Parallelism#getThreshold()} cells</li>
+ *     <li>Each column's pivot is the entry of greatest magnitude on or below the diagonal. A column with no non-zero
+ *     pivot is left as it is, so a singular matrix still decomposes, with a zero on the diagonal of <i>U</i></li>
+ * </ul>
+ * {@link #solve}, {@link #inverse} and {@link #determinant} reuse the factors, so decompose once to solve for many
+ * right-hand sides.
+ */
+public final class LUDecomposition {
+
+  // 64 columns of 8-byte cells per panel, as in MatrixMultiplication
+  static final int BLOCK = 64;
+
+  private static final Parallelism TRAILING = Parallelism.on(ForkJoinPool.commonPool());
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final int n;
+  // L strictly below the diagonal, U on and above it
+  private final double[] lu;
+  // row i of PA is row pivot[i] of A
+  private final int[] pivot;
+  // the sign of the permutation, +1 or -1
+  private final int pivotSign;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * Decomposes <code>toDecompose</code>, which is not changed.
+   *
+   * @throws IllegalArgumentException if <code>toDecompose</code> is not square
+   */
+  LUDecomposition(DoubleMatrix toDecompose)
+      throws IllegalArgumentException {
+    Utils.notNull(toDecompose);
+    if (toDecompose.rows != toDecompose.cols) {
+      throw new IllegalArgumentException("only a square matrix has an LU decomposition");
+    }
+
+    n = toDecompose.rows;
+    lu = toDecompose.entries.clone();
+    pivot = new int[n];
+    for (int i = 0; i < n; i++) {
+      pivot[i] = i;
+    }
+    pivotSign = factor();
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * The unit lower triangular factor <i>L</i>.
+   */
+  public DoubleMatrix getL() {
+    return new DoubleMatrix((i, j) -> i > j ? lu[i * n + j] : i == j ? 1 : 0, n, n);
+  }
+
+  /**
+   * The upper triangular factor <i>U</i>.
+   */
+  public DoubleMatrix getU() {
+    return new DoubleMatrix((i, j) -> i <= j ? lu[i * n + j] : 0, n, n);
+  }
+
+  /**
+   * The row permutation <i>P</i>: row <code>i</code> of <i>PA</i> is row <code>getPivot()[i]</code> of <i>A</i>.
+   */
+  public int[] getPivot() {
+    return pivot.clone();
+  }
+
+  /**
+   * Whether <i>U</i>, and so <i>A</i>, has a zero on its diagonal.
+   */
+  public boolean isSingular() {
+    for (int i = 0; i < n; i++) {
+      if (lu[i * n + i] == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The determinant of <i>A</i>, the product of the diagonal of <i>U</i> times the sign of <i>P</i>.
+   */
+  public double determinant() {
+    double determinant = pivotSign;
+    for (int i = 0; i < n; i++) {
+      determinant *= lu[i * n + i];
+    }
+    return determinant;
+  }
+
+  /**
+   * The <i>X</i> with <i>AX = B</i>, by forward substitution through <i>L</i> and back substitution through
+   * <i>U</i>, a whole row of <i>X</i> at a time.
+   *
+   * @param b the right-hand sides <i>B</i>, one per column, of the same height as <i>A</i>
+   * @return a new <code>DoubleMatrix</code> of the same size as <code>b</code>
+   * @throws IllegalArgumentException if the heights differ, or <i>A</i> is singular
+   */
+  public DoubleMatrix solve(DoubleMatrix b)
+      throws IllegalArgumentException {
+    Utils.notNull(b);
+    if (b.rows != n) {
+      throw new IllegalArgumentException("the right-hand side must be as tall as the decomposed matrix");
+    }
+    if (isSingular()) {
+      throw new IllegalArgumentException("cannot solve against a singular matrix");
+    }
+
+    int k = b.cols;
+    double[] x = new double[n * k];
+    for (int i = 0; i < n; i++) {
+      System.arraycopy(b.entries, pivot[i] * k, x, i * k, k);
+    }
+
+    // LY = PB
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < i; j++) {
+        double lij = lu[i * n + j];
+        if (lij != 0) {
+          NumericKernels.BEST.axpy(-lij, x, j * k, x, i * k, k);
+        }
+      }
+    }
+    // UX = Y
+    for (int i = n - 1; i >= 0; i--) {
+      for (int j = i + 1; j < n; j++) {
+        double uij = lu[i * n + j];
+        if (uij != 0) {
+          NumericKernels.BEST.axpy(-uij, x, j * k, x, i * k, k);
+        }
+      }
+      double uii = lu[i * n + i];
+      for (int c = i * k; c < (i + 1) * k; c++) {
+        x[c] /= uii;
+      }
+    }
+
+    return new DoubleMatrix(n, k, x);
+  }
+
+  /**
+   * The inverse of <i>A</i>, solving against the identity.
+   *
+   * @throws IllegalArgumentException if <i>A</i> is singular
+   */
+  public DoubleMatrix inverse()
+      throws IllegalArgumentException {
+    return solve(new DoubleMatrix((i, j) -> i == j ? 1 : 0, n, n));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // factors lu in place, returning the sign of the permutation
+  private int factor() {
+    int sign = 1;
+    for (int k0 = 0; k0 < n; k0 += BLOCK) {
+      int k1 = Math.min(k0 + BLOCK, n);
+      sign *= factorPanel(k0, k1);
+      solveBlockRow(k0, k1);
+      updateTrailing(k0, k1);
+    }
+    return sign;
+  }
+
+  // unblocked elimination of the columns [k0, k1) on and below the diagonal; row swaps move whole rows
+  private int factorPanel(int k0, int k1) {
+    int sign = 1;
+    for (int j = k0; j < k1; j++) {
+      int p = j;
+      double largest = Math.abs(lu[j * n + j]);
+      for (int i = j + 1; i < n; i++) {
+        double candidate = Math.abs(lu[i * n + j]);
+        if (candidate > largest) {
+          largest = candidate;
+          p = i;
+        }
+      }
+      if (p != j) {
+        swapRows(p, j);
+        sign = -sign;
+      }
+
+      double diagonal = lu[j * n + j];
+      if (diagonal == 0) {
+        continue;
+      }
+      for (int i = j + 1; i < n; i++) {
+        double lij = lu[i * n + j] /= diagonal;
+        if (lij != 0 && j + 1 < k1) {
+          NumericKernels.BEST.axpy(-lij, lu, j * n + j + 1, lu, i * n + j + 1, k1 - j - 1);
+        }
+      }
+    }
+    return sign;
+  }
+
+  // U12 = L11^-1 A12: the rows [k0, k1) to the right of the panel
+  private void solveBlockRow(int k0, int k1) {
+    int width = n - k1;
+    if (width == 0) {
+      return;
+    }
+    for (int i = k0 + 1; i < k1; i++) {
+      for (int j = k0; j < i; j++) {
+        double lij = lu[i * n + j];
+        if (lij != 0) {
+          NumericKernels.BEST.axpy(-lij, lu, j * n + k1, lu, i * n + k1, width);
+        }
+      }
+    }
+  }
+
+  // A22 -= L21 U12, split into blocks of rows
+  private void updateTrailing(int k0, int k1) {
+    int width = n - k1;
+    if (width == 0) {
+      return;
+    }
+    TRAILING.forEachRowBlock(n - k1, width, (firstRow, lastRow) -> {
+      for (int i = k1 + firstRow; i < k1 + lastRow; i++) {
+        for (int j = k0; j < k1; j++) {
+          double lij = lu[i * n + j];
+          if (lij != 0) {
+            NumericKernels.BEST.axpy(-lij, lu, j * n + k1, lu, i * n + k1, width);
+          }
+        }
+      }
+    });
+  }
+
+  private void swapRows(int r1, int r2) {
+    for (int c = 0; c < n; c++) {
+      double entry = lu[r1 * n + c];
+      lu[r1 * n + c] = lu[r2 * n + c];
+      lu[r2 * n + c] = entry;
+    }
+
+    int swapped = pivot[r1];
+    pivot[r1] = pivot[r2];
+    pivot[r2] = swapped;
+  }
+}
@@ -0,0 +1,262 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * An {@link IMatrix} whose entries are not stored, but computed on demand from a function of their row-major index.
+ * <ul>
+ *     <li><code>map</code>, <code>elementWiseCombine</code>, <code>replaceMap</code>, <code>fillWith</code> and
+ *     <code>subMatrix</code> do no work at all: they compose their argument onto that function and produce another
+ *     <code>LazyMatrix</code></li>
+ *     <li>Consuming the matrix (<code>foldNW</code>, <code>foldSE</code>, <code>filter</code>, <code>reduce</code>,
+ *     <code>asList</code>, <code>getElement</code>, {@link #materialize()}, ...) runs the whole chain in a single pass,
+ *     one cell at a time, without building any of the intermediate matrices</li>
+ *     <li><code>reduce</code>, <code>reduceRows</code> and <code>reduceCols</code> reduce each block of rows straight
+ *     from the chain, in parallel if this matrix is, and never hold more than one cell of it at a time</li>
+ *     <li>Cells are recomputed every time the matrix is consumed, so a chain that is consumed more than once should
+ *     be {@link #materialize()}d first</li>
+ * </ul>
+ * The functions passed along the chain must be pure, since they run later, possibly more than once, and possibly on
+ * other threads when the matrix is {@link #parallel()}.
+ *
+ * @param <X> The type of the entry included in this matrix
+ */
+public class LazyMatrix<X> extends AMatrix<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final int rows;
+  protected final int cols;
+  // computes the element at (i, j) from its row-major index i * cols + j
+  protected final IntFunction<X> cells;
+  protected final Parallelism parallelism;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  LazyMatrix(IMatrix<X> source) {
+    this(Utils.notNull(source).getHeight(), source.getWidth(), cellsOf(source),
+        source.isParallel() && source instanceof FunMatrix
+            ? ((FunMatrix<X>) source).parallelism : Parallelism.SEQUENTIAL);
+  }
+
+  LazyMatrix(int _rows, int _cols, IntFunction<X> _cells, Parallelism _parallelism)
+      throws IllegalArgumentException {
+    rows = Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    cols = Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+    cells = Utils.notNull(_cells);
+    parallelism = Utils.notNull(_parallelism);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~deferred operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public <Y> IMatrix<Y> map(Function<X, Y> elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+    IntFunction<X> _cells = cells;
+
+    return new LazyMatrix<>(rows, cols, k -> elementMapper.apply(_cells.apply(k)), parallelism);
+  }
+
+  @Override
+  public <Y> IMatrix<Y> map(IntIntFunction<Y> rowColMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(rowColMapper);
+    int _cols = cols;
+
+    return new LazyMatrix<>(rows, cols, k -> rowColMapper.apply(k / _cols, k % _cols), parallelism);
+  }
+
+  @Override
+  public <Y, Z> IMatrix<Z> elementWiseCombine(BiFunction<X, Y, Z> combiner, IMatrix<Y> combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+
+    if (rows != combineWith.getHeight() || cols != combineWith.getWidth()) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    IntFunction<X> _cells = cells;
+    IntFunction<Y> otherCells = cellsOf(combineWith);
+
+    return new LazyMatrix<>(rows, cols, k -> combiner.apply(_cells.apply(k), otherCells.apply(k)), parallelism);
+  }
+
+  @Override
+  public IMatrix<X> subMatrix(int firstRowIncl, int lastRowIncl, int firstColIncl, int lastColIncl) {
+    Utils.intBetween(0, firstRowIncl, lastRowIncl);
+    Utils.intBetween(firstRowIncl, lastRowIncl, rows - 1);
+    Utils.intBetween(0, firstColIncl, lastColIncl);
+    Utils.intBetween(firstColIncl, lastColIncl, cols - 1);
+
+    IntFunction<X> _cells = cells;
+    int _cols = cols;
+    int subCols = lastColIncl - firstColIncl + 1;
+
+    return new LazyMatrix<>(lastRowIncl - firstRowIncl + 1, subCols,
+        k -> _cells.apply((firstRowIncl + k / subCols) * _cols + firstColIncl + k % subCols), parallelism);
+  }
+
+  @Override
+  public IMatrix<X> lazy() {
+    return this;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~terminal operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public X getElement(int row, int col)
+      throws IllegalArgumentException {
+    return cells.apply(Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1));
+  }
+
+  @Override
+  public <Y> Y foldNW(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+
+    for (int k = 0; k < rows * cols; k++) {
+      folded = folder.apply(cells.apply(k), folded);
+    }
+
+    return folded;
+  }
+
+  @Override
+  public <Y> Y foldSE(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+
+    for (int k = rows * cols - 1; k >= 0; k--) {
+      folded = folder.apply(cells.apply(k), folded);
+    }
+
+    return folded;
+  }
+
+  @Override
+  public List<X> filter(Predicate<X> condition)
+      throws IllegalArgumentException {
+    Utils.notNull(condition);
+
+    return parallelism.mapRowBlocks(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      List<X> filtered = new ArrayList<>();
+      for (int k = firstRowIncl * cols; k < lastRowExcl * cols; k++) {
+        X anElement = cells.apply(k);
+        if (condition.test(anElement)) {
+          filtered.add(anElement);
+        }
+      }
+      return filtered;
+    }, (upperFiltered, lowerFiltered) -> {
+      upperFiltered.addAll(lowerFiltered);
+      return upperFiltered;
+    });
+  }
+
+  @Override
+  public X reduce(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+
+    return parallelism.mapRowBlocks(rows, cols, (firstRowIncl, lastRowExcl) ->
+            Reduction.pairwise(cells, firstRowIncl * cols, lastRowExcl * cols, identity, associativeCombiner),
+        associativeCombiner);
+  }
+
+  @Override
+  public IMatrix<X> reduceRows(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+
+    Object[] reduced = new Object[rows];
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        reduced[i] = Reduction.pairwise(cells, i * cols, (i + 1) * cols, identity, associativeCombiner);
+      }
+    });
+
+    return new FunMatrix<>(rows, 1, reduced, parallelism);
+  }
+
+  @Override
+  public IMatrix<X> reduceCols(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+
+    Object[] reduced = parallelism.mapRowBlocks(rows, cols, (firstRowIncl, lastRowExcl) ->
+            Reduction.columnwise(cells, cols, firstRowIncl, lastRowExcl, identity, associativeCombiner),
+        (upper, lower) -> Reduction.combineColumnwise(upper, lower, associativeCombiner));
+
+    return new FunMatrix<>(1, cols, reduced, parallelism);
+  }
+
+  @Override
+  public List<X> asList() {
+    // every cell evaluates to an X
+    @SuppressWarnings("unchecked")
+    List<X> entries = (List<X>) Arrays.asList(rowMajorEntries());
+    return new ArrayList<>(entries);
+  }
+
+  @Override
+  public IMatrix<X> copy() {
+    return materialize();
+  }
+
+  /**
+   * Runs the whole deferred chain once and stores the result.
+   *
+   * @return a {@link FunMatrix} holding every entry of this matrix, parallel if this matrix is
+   */
+  @Override
+  public IMatrix<X> materialize() {
+    return new FunMatrix<>(rows, cols, rowMajorEntries(), parallelism);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public int getWidth() {
+    return cols;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows;
+  }
+
+  @Override
+  public IMatrix<X> parallel(ForkJoinPool pool) {
+    return new LazyMatrix<>(rows, cols, cells, Parallelism.on(pool));
+  }
+
+  @Override
+  public IMatrix<X> sequential() {
+    return parallelism.isParallel() ? new LazyMatrix<>(rows, cols, cells, Parallelism.SEQUENTIAL) : this;
+  }
+
+  @Override
+  public boolean isParallel() {
+    return parallelism.isParallel();
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~protected methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // evaluates every cell exactly once, in parallel blocks of rows if this matrix is parallel
+  @Override
+  protected Object[] rowMajorEntries() {
+    Object[] evaluated = new Object[rows * cols];
+
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      for (int k = firstRowIncl * cols; k < lastRowExcl * cols; k++) {
+        evaluated[k] = cells.apply(k);
+      }
+    });
+
+    return evaluated;
+  }
+}
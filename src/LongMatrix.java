@@ -0,0 +1,406 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * An {@link IMatrix} of <code>long</code>s kept unboxed in one flat, row-major <code>long[]</code>.
+ * <ul>
+ *     <li>The generic operations still work (boxing on the way in and out), so a <code>LongMatrix</code> can be
+ *     passed anywhere an <code>IMatrix&lt;Long&gt;</code> is expected</li>
+ *     <li>The primitive overloads ({@link #mapToLong}, {@link #mapToDouble}, {@link #foldNW(LongBinaryOperator, long)},
+ *     {@link #foldSE(LongBinaryOperator, long)}, {@link #elementWiseCombineToLong}) never box</li>
+ * </ul>
+ */
+public class LongMatrix extends AMatrix<Long> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final int rows;
+  protected final int cols;
+  protected final long[] entries;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  LongMatrix(long[][] elements)
+      throws IllegalArgumentException {
+    Utils.notNull(elements);
+    rows = elements.length;
+    cols = rows == 0 ? 0 : Utils.notNull(elements[0]).length;
+    entries = new long[rows * cols];
+
+    for (int i = 0; i < rows; i++) {
+      if (Utils.notNull(elements[i]).length != cols) {
+        throw new IllegalArgumentException("All rows must be of the same length when creating this matrix");
+      }
+      System.arraycopy(elements[i], 0, entries, i * cols, cols);
+    }
+  }
+
+  LongMatrix(long uniformEntry, int _rows, int _cols)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+
+    rows = _rows;
+    cols = _cols;
+    entries = new long[_rows * _cols];
+    Arrays.fill(entries, uniformEntry);
+  }
+
+  LongMatrix(IMatrix<Long> toUnbox)
+      throws IllegalArgumentException {
+    rows = Utils.notNull(toUnbox).getHeight();
+    cols = toUnbox.getWidth();
+    entries = new long[rows * cols];
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        entries[i * cols + j] = Utils.notNull(toUnbox.getElement(i, j));
+      }
+    }
+  }
+
+  /**
+   * Wraps (does not copy) <code>_entries</code>, which must be laid out row-major and never be written to again.
+   */
+  LongMatrix(int _rows, int _cols, long[] _entries)
+      throws IllegalArgumentException {
+    Utils.intBetween(_rows * _cols, Utils.notNull(_entries).length, _rows * _cols);
+    rows = _rows;
+    cols = _cols;
+    entries = _entries;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~primitive operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * The unboxed entry at (<code>row</code>, <code>col</code>).
+   */
+  public long getLong(int row, int col)
+      throws IllegalArgumentException {
+    return entries[Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)];
+  }
+
+  /**
+   * {@link IMatrix#map(java.util.function.Function)} without boxing.
+   *
+   * @param elementMapper a lambda abstraction with signature <code>elementMapper :: long -> long</code>
+   * @return a new <code>LongMatrix</code> of the same size where each entry is <code>elementMapper(x)</code>
+   */
+  public LongMatrix mapToLong(LongUnaryOperator elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    long[] mapped = new long[entries.length];
+    for (int k = 0; k < entries.length; k++) {
+      mapped[k] = elementMapper.applyAsLong(entries[k]);
+    }
+
+    return new LongMatrix(rows, cols, mapped);
+  }
+
+  /**
+   * {@link IMatrix#map(java.util.function.Function)} into a {@link DoubleMatrix} without boxing.
+   *
+   * @param elementMapper a lambda abstraction with signature <code>elementMapper :: long -> double</code>
+   * @return a new <code>DoubleMatrix</code> of the same size where each entry is <code>elementMapper(x)</code>
+   */
+  public DoubleMatrix mapToDouble(LongToDoubleFunction elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    double[] mapped = new double[entries.length];
+    for (int k = 0; k < entries.length; k++) {
+      mapped[k] = elementMapper.applyAsDouble(entries[k]);
+    }
+
+    return new DoubleMatrix(rows, cols, mapped);
+  }
+
+  /**
+   * {@link IMatrix#foldNW(java.util.function.BiFunction, Object)} without boxing.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: long long -> long</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing with
+   * @return the fully <code>fold</code>ed value, folding left to right and top to bottom
+   */
+  public long foldNW(LongBinaryOperator folder, long base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    long folded = base;
+
+    for (int k = 0; k < entries.length; k++) {
+      folded = folder.applyAsLong(entries[k], folded);
+    }
+
+    return folded;
+  }
+
+  /**
+   * {@link IMatrix#foldSE(java.util.function.BiFunction, Object)} without boxing.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: long long -> long</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing with
+   * @return the fully <code>fold</code>ed value, folding right to left and bottom to top
+   */
+  public long foldSE(LongBinaryOperator folder, long base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    long folded = base;
+
+    for (int k = entries.length - 1; k >= 0; k--) {
+      folded = folder.applyAsLong(entries[k], folded);
+    }
+
+    return folded;
+  }
+
+  /**
+   * {@link IMatrix#elementWiseCombine(java.util.function.BiFunction, IMatrix)} without boxing.
+   *
+   * @param combiner    a lambda abstraction with signature <code>combiner :: long long -> long</code>
+   * @param combineWith the matrix to <code>combineWith</code>, of the same size as this one
+   * @return a new <code>LongMatrix</code> whose entries are <code>combiner(m1ij, m2ij)</code>
+   */
+  public LongMatrix elementWiseCombineToLong(LongBinaryOperator combiner, LongMatrix combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+
+    if (rows != combineWith.rows || cols != combineWith.cols) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    long[] combined = new long[entries.length];
+    for (int k = 0; k < entries.length; k++) {
+      combined[k] = combiner.applyAsLong(entries[k], combineWith.entries[k]);
+    }
+
+    return new LongMatrix(rows, cols, combined);
+  }
+
+  /**
+   * {@link IMatrix#reduce(Object, BinaryOperator)} without boxing.
+   *
+   * @param identity            the identity of <code>associativeCombiner</code>
+   * @param associativeCombiner an associative lambda abstraction with signature
+   *                            <code>associativeCombiner :: long long -> long</code>
+   * @return the combination of every element of this matrix in row-major order
+   */
+  public long reduce(long identity, LongBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return Reduction.pairwise(entries, 0, entries.length, identity, associativeCombiner);
+  }
+
+  /**
+   * {@link IMatrix#reduceRows(Object, BinaryOperator)} without boxing.
+   */
+  public LongMatrix reduceRows(long identity, LongBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+
+    long[] reduced = new long[rows];
+    for (int i = 0; i < rows; i++) {
+      reduced[i] = Reduction.pairwise(entries, i * cols, (i + 1) * cols, identity, associativeCombiner);
+    }
+
+    return new LongMatrix(rows, 1, reduced);
+  }
+
+  /**
+   * {@link IMatrix#reduceCols(Object, BinaryOperator)} without boxing.
+   */
+  public LongMatrix reduceCols(long identity, LongBinaryOperator associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return new LongMatrix(1, cols, Reduction.columnwise(entries, cols, 0, rows, identity, associativeCombiner));
+  }
+
+  /**
+   * Ordinary matrix multiplication, i.e. {@link IMatrix#pseudoMultiply} with <code>*</code> and <code>+</code>,
+   * computed by a cache-blocked kernel straight over both <code>long[]</code>s.
+   *
+   * @param combineWith the matrix to multiply with, whose height must equal the width of this matrix
+   * @return a new <code>LongMatrix</code> of height <code>getHeight()</code> and width
+   * <code>combineWith.getWidth()</code>
+   */
+  public LongMatrix multiply(LongMatrix combineWith)
+      throws IllegalArgumentException {
+    MatrixMultiplication.checkDimensions(this, combineWith);
+
+    return new LongMatrix(rows, combineWith.cols,
+        MatrixMultiplication.blocked(entries, combineWith.entries, rows, cols, combineWith.cols));
+  }
+
+  /**
+   * {@link IMatrix#pseudoMultiply} without boxing.
+   *
+   * @param interMatrixOperation <i>⊗</i>, with signature <code>⊗ :: long long -> long</code>
+   * @param intraMatrixOperation <i>⊕</i>, with signature <code>⊕ :: long long -> long</code>, applied as
+   *                             <code>⊕(product, foldedSoFar)</code>
+   * @param combineWith          the matrix to multiply with, whose height must equal the width of this matrix
+   * @param identity             the value every accumulation starts from
+   * @return a new <code>LongMatrix</code> of height <code>getHeight()</code> and width
+   * <code>combineWith.getWidth()</code>
+   */
+  public LongMatrix pseudoMultiply(LongBinaryOperator interMatrixOperation,
+                                   LongBinaryOperator intraMatrixOperation,
+                                   LongMatrix combineWith, long identity)
+      throws IllegalArgumentException {
+    Utils.notNull(interMatrixOperation);
+    Utils.notNull(intraMatrixOperation);
+    MatrixMultiplication.checkDimensions(this, combineWith);
+
+    return new LongMatrix(rows, combineWith.cols, MatrixMultiplication.blocked(entries, combineWith.entries,
+        rows, cols, combineWith.cols, interMatrixOperation, intraMatrixOperation, identity));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public Long getElement(int row, int col)
+      throws IllegalArgumentException {
+    return getLong(row, col);
+  }
+
+  @Override
+  public int getWidth() {
+    return cols;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows;
+  }
+
+  @Override
+  public Long reduce(Long identity, BinaryOperator<Long> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduce((long) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public IMatrix<Long> reduceRows(Long identity, BinaryOperator<Long> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduceRows((long) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public IMatrix<Long> reduceCols(Long identity, BinaryOperator<Long> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    return reduceCols((long) Utils.notNull(identity), (x, y) -> associativeCombiner.apply(x, y));
+  }
+
+  @Override
+  public List<Long> asList() {
+    List<Long> _asList = new ArrayList<>(entries.length);
+
+    for (long anElement : entries) {
+      _asList.add(anElement);
+    }
+
+    return _asList;
+  }
+
+  @Override
+  public void forEachIndexed(IndexedConsumer<Long> action)
+      throws IllegalArgumentException {
+    Utils.notNull(action);
+
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        action.accept(i, j, entries[i * cols + j]);
+      }
+    }
+  }
+
+  @Override
+  public IMatrix<Long> replaceMap(Predicate<Long> replaceIf, Long replaceWith)
+      throws IllegalArgumentException {
+    Utils.notNull(replaceIf);
+    long _replaceWith = Utils.notNull(replaceWith);
+    return mapToLong(x -> replaceIf.test(x) ? _replaceWith : x);
+  }
+
+  @Override
+  public IMatrix<Long> copy() {
+    return new LongMatrix(rows, cols, entries.clone());
+  }
+
+  @Override
+  public IMatrix<Long> updateEntry(Long newEntry, int row, int col)
+      throws IllegalArgumentException {
+    long[] updated = entries.clone();
+    updated[Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)] =
+        Utils.notNull(newEntry);
+
+    return new LongMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Long> updateRow(List<Long> newRow, int rowNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, rowNum, rows - 1);
+    Utils.intBetween(cols, Utils.notNull(newRow).size(), cols);
+
+    long[] updated = entries.clone();
+    for (int j = 0; j < cols; j++) {
+      updated[rowNum * cols + j] = Utils.notNull(newRow.get(j));
+    }
+
+    return new LongMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Long> updateCol(List<Long> newCol, int colNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, colNum, cols - 1);
+    Utils.intBetween(rows, Utils.notNull(newCol).size(), rows);
+
+    long[] updated = entries.clone();
+    for (int i = 0; i < rows; i++) {
+      updated[i * cols + colNum] = Utils.notNull(newCol.get(i));
+    }
+
+    return new LongMatrix(rows, cols, updated);
+  }
+
+  @Override
+  public IMatrix<Long> fillWith(Long uniformEntry)
+      throws IllegalArgumentException {
+    return new LongMatrix(Utils.notNull(uniformEntry), rows, cols);
+  }
+
+  @Override
+  protected IMatrix<Long> compactView(IMatrix<Long> view) {
+    return new LongMatrix(view);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof LongMatrix) {
+      LongMatrix anotherMatrix = (LongMatrix) o;
+      return rows == anotherMatrix.rows && cols == anotherMatrix.cols
+          && Arrays.equals(entries, anotherMatrix.entries);
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    // same value as the boxed sum of Long.hashCode in AMatrix, so equal matrices hash equally across types
+    int hash = 0;
+    for (long anElement : entries) {
+      hash += Long.hashCode(anElement);
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,130 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * The 8-byte cells of a matrix file, memory-mapped, backing {@link AMappedMatrix}.
+ * <br>
+ * A single <code>MappedByteBuffer</code> can span at most 2 GB, so the payload is mapped as consecutive chunks of
+ * <code>CHUNK_BYTES</code>; since that is a multiple of 8, no cell ever straddles two chunks. Nothing is read into the
+ * heap: the operating system pages cells in as they are touched, and shares the pages of a file mapped read-only
+ * between every process that maps it.
+ */
+final class MappedCells {
+
+  static final int CHUNK_BITS = 30;
+  static final long CHUNK_BYTES = 1L << CHUNK_BITS;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  final MatrixFileHeader header;
+  private final ByteBuffer[] chunks;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private MappedCells(MatrixFileHeader _header, ByteBuffer[] _chunks) {
+    header = _header;
+    chunks = _chunks;
+  }
+
+  /**
+   * Maps an existing matrix file read-only.
+   *
+   * @throws IllegalArgumentException if the file does not hold a matrix of <code>expectedType</code>
+   */
+  static MappedCells open(Path file, MatrixFileHeader.ElementType expectedType)
+      throws IOException, IllegalArgumentException {
+    try (FileChannel channel = FileChannel.open(Utils.notNull(file), StandardOpenOption.READ)) {
+      MatrixFileHeader header = MatrixFileHeader.readFrom(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), MatrixFileHeader.SIZE)));
+
+      if (header.elementType != expectedType || header.layout != MatrixFileHeader.ROW_MAJOR
+          || header.compression != MatrixFileHeader.UNCOMPRESSED) {
+        throw new IllegalArgumentException("cannot map " + file + " as an uncompressed row-major matrix of "
+            + expectedType);
+      }
+      if (channel.size() < MatrixFileHeader.SIZE + header.cellCount() * expectedType.bytes) {
+        throw new IllegalArgumentException(file + " is shorter than its header says");
+      }
+
+      return new MappedCells(header, map(channel, FileChannel.MapMode.READ_ONLY, header));
+    }
+  }
+
+  /**
+   * Creates (or replaces) an uncompressed row-major matrix file of <code>rows</code> x <code>cols</code> cells of
+   * <code>type</code>, setting each cell <code>k</code> by <code>fill.accept(cells, k)</code> in row-major order.
+   * <br>
+   * The cells are written to a temporary file next to <code>file</code>, which then atomically replaces it, so
+   * <code>fill</code> may read from a mapping of <code>file</code> itself: that mapping keeps the old contents.
+   */
+  static void write(Path file, MatrixFileHeader.ElementType type, int rows, int cols, ObjLongConsumer<MappedCells> fill)
+      throws IOException {
+    MatrixFileHeader header = new MatrixFileHeader(type, MatrixFileHeader.ROW_MAJOR, MatrixFileHeader.UNCOMPRESSED,
+        rows, cols);
+    Path target = Utils.notNull(file).toAbsolutePath();
+    Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    try {
+      MappedCells created;
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        header.writeTo(channel.map(FileChannel.MapMode.READ_WRITE, 0, MatrixFileHeader.SIZE));
+        created = new MappedCells(header, map(channel, FileChannel.MapMode.READ_WRITE, header));
+      }
+
+      for (long k = 0; k < header.cellCount(); k++) {
+        fill.accept(created, k);
+      }
+      created.force();
+      Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  double getDouble(long cell) {
+    return chunks[(int) (cell >>> (CHUNK_BITS - 3))].getDouble((int) (cell << 3 & (CHUNK_BYTES - 1)));
+  }
+
+  long getLong(long cell) {
+    return chunks[(int) (cell >>> (CHUNK_BITS - 3))].getLong((int) (cell << 3 & (CHUNK_BYTES - 1)));
+  }
+
+  void putDouble(long cell, double value) {
+    chunks[(int) (cell >>> (CHUNK_BITS - 3))].putDouble((int) (cell << 3 & (CHUNK_BYTES - 1)), value);
+  }
+
+  void putLong(long cell, long value) {
+    chunks[(int) (cell >>> (CHUNK_BITS - 3))].putLong((int) (cell << 3 & (CHUNK_BYTES - 1)), value);
+  }
+
+  /**
+   * Writes every modified cell back to the file.
+   */
+  void force() {
+    for (ByteBuffer aChunk : chunks) {
+      ((MappedByteBuffer) aChunk).force();
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // the mappings stay valid after the channel is closed
+  private static ByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, MatrixFileHeader header)
+      throws IOException {
+    long payloadBytes = header.cellCount() * header.elementType.bytes;
+    ByteBuffer[] chunks = new ByteBuffer[(int) ((payloadBytes + CHUNK_BYTES - 1) >>> CHUNK_BITS)];
+
+    for (int c = 0; c < chunks.length; c++) {
+      long from = (long) c << CHUNK_BITS;
+      chunks[c] = channel.map(mode, MatrixFileHeader.SIZE + from, Math.min(CHUNK_BYTES, payloadBytes - from))
+          .order(MatrixFileHeader.ORDER);
+    }
+
+    return chunks;
+  }
+}
@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * An {@link IMatrix} of <code>long</code>s that lives in a memory-mapped file rather than on the heap.
+ * <ul>
+ *     <li>{@link #open(Path)} maps an existing file in constant time, without reading or parsing it; the file is
+ *     mapped read-only, so any number of processes can share it</li>
+ *     <li>The matrix may hold more cells than the heap could: {@link #getLong}, the folds and {@link #mapToFile}
+ *     read straight from the mapping</li>
+ *     <li>Operations inherited from {@link AMatrix} that build a new matrix (<code>map</code>,
+ *     <code>update*</code>, ...) build it on the heap, so should only be used on matrices that fit there</li>
+ * </ul>
+ * The file layout is described in {@link MatrixFileHeader}.
+ */
+public class MappedLongMatrix extends AMappedMatrix<Long> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private MappedLongMatrix(MappedCells _cells) {
+    super(_cells);
+  }
+
+  /**
+   * Maps a matrix file written by {@link #write} or {@link #mapToFile}.
+   *
+   * @throws IllegalArgumentException if the file does not hold a matrix of <code>long</code>s
+   */
+  public static MappedLongMatrix open(Path file)
+      throws IOException, IllegalArgumentException {
+    return new MappedLongMatrix(MappedCells.open(file, MatrixFileHeader.ElementType.LONG));
+  }
+
+  /**
+   * Writes <code>toWrite</code> to <code>file</code>, replacing anything already there, and maps the result.
+   */
+  public static MappedLongMatrix write(Path file, IMatrix<Long> toWrite)
+      throws IOException, IllegalArgumentException {
+    Utils.notNull(toWrite);
+    int _cols = toWrite.getWidth();
+
+    MappedCells.write(file, MatrixFileHeader.ElementType.LONG, toWrite.getHeight(), _cols, (written, k) ->
+        written.putLong(k, Utils.notNull(toWrite.getElement((int) (k / _cols), (int) (k % _cols)))));
+
+    return open(file);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~primitive operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * The unboxed entry at (<code>row</code>, <code>col</code>).
+   */
+  public long getLong(int row, int col)
+      throws IllegalArgumentException {
+    return cells.getLong(indexOf(row, col));
+  }
+
+  /**
+   * {@link LongMatrix#mapToLong} into a new matrix file rather than onto the heap.
+   *
+   * @param elementMapper a lambda abstraction with signature <code>elementMapper :: long -> long</code>
+   * @param file          where to write the result, replacing anything already there
+   * @return the mapped result
+   */
+  public MappedLongMatrix mapToFile(LongUnaryOperator elementMapper, Path file)
+      throws IOException, IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    MappedCells.write(file, MatrixFileHeader.ElementType.LONG, rows, cols, (mapped, k) ->
+        mapped.putLong(k, elementMapper.applyAsLong(cells.getLong(k))));
+
+    return open(file);
+  }
+
+  /**
+   * {@link IMatrix#foldNW(java.util.function.BiFunction, Object)} without boxing.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: long long -> long</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing with
+   * @return the fully <code>fold</code>ed value, folding left to right and top to bottom
+   */
+  public long foldNW(LongBinaryOperator folder, long base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    long folded = base;
+
+    for (long k = 0; k < cells.header.cellCount(); k++) {
+      folded = folder.applyAsLong(cells.getLong(k), folded);
+    }
+
+    return folded;
+  }
+
+  /**
+   * {@link IMatrix#foldSE(java.util.function.BiFunction, Object)} without boxing.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: long long -> long</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing with
+   * @return the fully <code>fold</code>ed value, folding right to left and bottom to top
+   */
+  public long foldSE(LongBinaryOperator folder, long base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    long folded = base;
+
+    for (long k = cells.header.cellCount() - 1; k >= 0; k--) {
+      folded = folder.applyAsLong(cells.getLong(k), folded);
+    }
+
+    return folded;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~protected methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  protected Long cell(long k) {
+    return cells.getLong(k);
+  }
+}
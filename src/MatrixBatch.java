@@ -0,0 +1,368 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Many <code>double</code> matrices of the same shape (3 x 3 transforms, 4 x 4 covariance blocks, ...) kept together
+ * in one flat <code>double[]</code>, so that each matrix costs only its cells rather than an object graph of its own.
+ * <ul>
+ *     <li>The batch is laid out struct-of-arrays: all of the batch's entries at (0, 0) first, then all of those at
+ *     (0, 1), and so on in row-major order, so element <code>(row, col)</code> of matrix <code>item</code> is at
+ *     <code>(row * width + col) * size() + item</code></li>
+ *     <li>Every bulk operation ({@link #map}, {@link #elementWiseCombine}, the folds and {@link #multiply}) works on
+ *     the whole batch at once, with the innermost loop running across matrices. That loop is as long as the batch
+ *     rather than as the side of a matrix, so it stays busy (and vectorizes) however small the matrices are</li>
+ *     <li>A {@link #parallel()} batch splits its bulk operations into ranges of matrices on a {@link ForkJoinPool},
+ *     under the same {@link Parallelism#getThreshold()} as a parallel {@link IMatrix}</li>
+ *     <li>{@link #get(int)} is a read-only {@link IMatrix} view of one matrix in the batch, which copies nothing</li>
+ * </ul>
+ * Batches are immutable; every operation returns a new batch.
+ */
+public final class MatrixBatch {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final int size;
+  private final int rows;
+  private final int cols;
+  // cell-major: every matrix's (0, 0), then every matrix's (0, 1), ...
+  private final double[] entries;
+  private final Parallelism parallelism;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * <code>_size</code> matrices of <code>_rows</code> x <code>_cols</code>, every entry of which is
+   * <code>uniformEntry</code>.
+   */
+  MatrixBatch(double uniformEntry, int _size, int _rows, int _cols)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, _size, Integer.MAX_VALUE);
+    Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+
+    size = _size;
+    rows = _rows;
+    cols = _cols;
+    entries = new double[cellsOf(_size, _rows, _cols)];
+    Arrays.fill(entries, uniformEntry);
+    parallelism = Parallelism.SEQUENTIAL;
+  }
+
+  /**
+   * The matrices of <code>matrices</code>, in order, which must all have the same shape.
+   *
+   * @throws IllegalArgumentException if <code>matrices</code> is empty, or its matrices differ in shape
+   */
+  MatrixBatch(List<? extends IMatrix<Double>> matrices)
+      throws IllegalArgumentException {
+    Utils.notNull(matrices);
+    if (matrices.isEmpty()) {
+      throw new IllegalArgumentException("cannot take the shape of a batch from no matrices");
+    }
+
+    size = matrices.size();
+    rows = Utils.notNull(matrices.get(0)).getHeight();
+    cols = matrices.get(0).getWidth();
+    entries = new double[cellsOf(size, rows, cols)];
+    parallelism = Parallelism.SEQUENTIAL;
+
+    for (int item = 0; item < size; item++) {
+      IMatrix<Double> aMatrix = Utils.notNull(matrices.get(item));
+      if (aMatrix.getHeight() != rows || aMatrix.getWidth() != cols) {
+        throw new IllegalArgumentException("All matrices must be of the same shape when creating this batch");
+      }
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < cols; j++) {
+          entries[(i * cols + j) * size + item] = Utils.notNull(aMatrix.getElement(i, j));
+        }
+      }
+    }
+  }
+
+  /**
+   * Wraps (does not copy) <code>_entries</code>, which must be laid out cell-major and never be written to again.
+   */
+  private MatrixBatch(int _size, int _rows, int _cols, double[] _entries, Parallelism _parallelism) {
+    size = _size;
+    rows = _rows;
+    cols = _cols;
+    entries = _entries;
+    parallelism = _parallelism;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * The number of matrices in this batch.
+   */
+  public int size() {
+    return size;
+  }
+
+  public int getWidth() {
+    return cols;
+  }
+
+  public int getHeight() {
+    return rows;
+  }
+
+  /**
+   * The entry at (<code>row</code>, <code>col</code>) of matrix <code>item</code>.
+   */
+  public double getDouble(int item, int row, int col)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, item, size - 1);
+    return entries[(Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)) * size + item];
+  }
+
+  /**
+   * A read-only view of matrix <code>item</code>, reading straight from this batch. {@link IMatrix#compact()} copies
+   * it out into a {@link DoubleMatrix}.
+   */
+  public IMatrix<Double> get(int item)
+      throws IllegalArgumentException {
+    return new Item(Utils.intBetween(0, item, size - 1));
+  }
+
+  /**
+   * Views of every matrix in this batch, in order.
+   */
+  public List<IMatrix<Double>> asList() {
+    return new AbstractList<IMatrix<Double>>() {
+      @Override
+      public IMatrix<Double> get(int item) {
+        return MatrixBatch.this.get(item);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * {@link IMatrix#map(java.util.function.Function)} on every matrix of this batch.
+   *
+   * @param elementMapper a lambda abstraction with signature <code>elementMapper :: double -> double</code>
+   * @return a new batch of the same shape where each entry is <code>elementMapper(x)</code>
+   */
+  public MatrixBatch map(DoubleUnaryOperator elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    double[] mapped = new double[entries.length];
+    forEachItemBlock((firstItem, lastItem) -> {
+      for (int cell = 0; cell < rows * cols; cell++) {
+        int base = cell * size;
+        for (int k = base + firstItem; k < base + lastItem; k++) {
+          mapped[k] = elementMapper.applyAsDouble(entries[k]);
+        }
+      }
+    });
+
+    return new MatrixBatch(size, rows, cols, mapped, parallelism);
+  }
+
+  /**
+   * {@link IMatrix#elementWiseCombine(java.util.function.BiFunction, IMatrix)} on every pair of matrices at the same
+   * position in both batches. An {@link Arithmetic} <code>combiner</code> on a sequential batch runs as a SIMD loop
+   * when the Vector API is available.
+   *
+   * @param combiner    a lambda abstraction with signature <code>combiner :: double double -> double</code>
+   * @param combineWith a batch of as many matrices, of the same shape, as this one
+   * @return a new batch whose entries are <code>combiner(m1ij, m2ij)</code>
+   */
+  public MatrixBatch elementWiseCombine(DoubleBinaryOperator combiner, MatrixBatch combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+
+    if (size != combineWith.size || rows != combineWith.rows || cols != combineWith.cols) {
+      throw new IllegalArgumentException("cannot combine batches of unequal sizes or shapes");
+    }
+
+    double[] combined = new double[entries.length];
+    if (combiner instanceof Arithmetic && !parallelism.isParallel()) {
+      NumericKernels.BEST.combine((Arithmetic) combiner, entries, combineWith.entries, combined);
+    }
+    else {
+      forEachItemBlock((firstItem, lastItem) -> {
+        for (int cell = 0; cell < rows * cols; cell++) {
+          int base = cell * size;
+          for (int k = base + firstItem; k < base + lastItem; k++) {
+            combined[k] = combiner.applyAsDouble(entries[k], combineWith.entries[k]);
+          }
+        }
+      });
+    }
+
+    return new MatrixBatch(size, rows, cols, combined, parallelism);
+  }
+
+  /**
+   * {@link DoubleMatrix#foldNW(DoubleBinaryOperator, double)} of every matrix in this batch.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: double double -> double</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing each matrix with
+   * @return a <code>size()</code> x 1 matrix of the fully <code>fold</code>ed value of each matrix, folding left to
+   * right and top to bottom
+   */
+  public DoubleMatrix foldNW(DoubleBinaryOperator folder, double base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+
+    double[] folded = new double[size];
+    forEachItemBlock((firstItem, lastItem) -> {
+      Arrays.fill(folded, firstItem, lastItem, base);
+      for (int cell = 0; cell < rows * cols; cell++) {
+        int offset = cell * size;
+        for (int item = firstItem; item < lastItem; item++) {
+          folded[item] = folder.applyAsDouble(entries[offset + item], folded[item]);
+        }
+      }
+    });
+
+    return new DoubleMatrix(size, 1, folded);
+  }
+
+  /**
+   * {@link DoubleMatrix#foldSE(DoubleBinaryOperator, double)} of every matrix in this batch.
+   *
+   * @param folder a lambda abstraction with signature <code>folder :: double double -> double</code>, applied as
+   *               <code>folder(element, foldedSoFar)</code>
+   * @param base   the first value to start <code>fold</code>ing each matrix with
+   * @return a <code>size()</code> x 1 matrix of the fully <code>fold</code>ed value of each matrix, folding right to
+   * left and bottom to top
+   */
+  public DoubleMatrix foldSE(DoubleBinaryOperator folder, double base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+
+    double[] folded = new double[size];
+    forEachItemBlock((firstItem, lastItem) -> {
+      Arrays.fill(folded, firstItem, lastItem, base);
+      for (int cell = rows * cols - 1; cell >= 0; cell--) {
+        int offset = cell * size;
+        for (int item = firstItem; item < lastItem; item++) {
+          folded[item] = folder.applyAsDouble(entries[offset + item], folded[item]);
+        }
+      }
+    });
+
+    return new DoubleMatrix(size, 1, folded);
+  }
+
+  /**
+   * Ordinary matrix multiplication of every pair of matrices at the same position in both batches, computed
+   * straight over both arrays.
+   *
+   * @param combineWith a batch of as many matrices as this one, whose height equals the width of this batch
+   * @return a new batch of height <code>getHeight()</code> and width <code>combineWith.getWidth()</code>
+   */
+  public MatrixBatch multiply(MatrixBatch combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combineWith);
+
+    if (size != combineWith.size) {
+      throw new IllegalArgumentException("cannot multiply batches of unequal sizes");
+    }
+    if (cols != combineWith.rows) {
+      throw new IllegalArgumentException("the width of the first batch must equal the height of the second");
+    }
+
+    int inner = cols;
+    int outCols = combineWith.cols;
+    double[] right = combineWith.entries;
+    double[] product = new double[cellsOf(size, rows, outCols)];
+    forEachItemBlock((firstItem, lastItem) -> {
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < outCols; j++) {
+          int out = (i * outCols + j) * size;
+          for (int k = 0; k < inner; k++) {
+            int a = (i * inner + k) * size;
+            int b = (k * outCols + j) * size;
+            for (int item = firstItem; item < lastItem; item++) {
+              product[out + item] += entries[a + item] * right[b + item];
+            }
+          }
+        }
+      }
+    });
+
+    return new MatrixBatch(size, rows, outCols, product, parallelism);
+  }
+
+  /**
+   * A batch sharing this batch's entries whose bulk operations are split across the common {@link ForkJoinPool}.
+   */
+  public MatrixBatch parallel() {
+    return parallel(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Just like {@link #parallel()}, but running on the given <code>pool</code> instead of the common pool.
+   */
+  public MatrixBatch parallel(ForkJoinPool pool)
+      throws IllegalArgumentException {
+    return new MatrixBatch(size, rows, cols, entries, Parallelism.on(pool));
+  }
+
+  /**
+   * A batch sharing this batch's entries whose bulk operations run on the calling thread.
+   */
+  public MatrixBatch sequential() {
+    return parallelism.isParallel() ? new MatrixBatch(size, rows, cols, entries, Parallelism.SEQUENTIAL) : this;
+  }
+
+  public boolean isParallel() {
+    return parallelism.isParallel();
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // matrices play the part of rows, so that every block is a contiguous range of matrices
+  private void forEachItemBlock(Parallelism.RowBlock body) {
+    parallelism.forEachRowBlock(size, Math.max(1, rows * cols), body);
+  }
+
+  private static int cellsOf(int size, int rows, int cols) {
+    long cells = (long) size * rows * cols;
+    if (cells > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("a batch can hold at most " + Integer.MAX_VALUE + " cells");
+    }
+    return (int) cells;
+  }
+
+  // one matrix of the batch, read in place
+  private final class Item extends AMatrix<Double> {
+    private final int item;
+
+    private Item(int _item) {
+      item = _item;
+    }
+
+    @Override
+    public Double getElement(int row, int col)
+        throws IllegalArgumentException {
+      return getDouble(item, row, col);
+    }
+
+    @Override
+    public int getWidth() {
+      return cols;
+    }
+
+    @Override
+    public int getHeight() {
+      return rows;
+    }
+
+    @Override
+    public IMatrix<Double> compact() {
+      return new DoubleMatrix((i, j) -> entries[(i * cols + j) * size + item], rows, cols);
+    }
+  }
+}
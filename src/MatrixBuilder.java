@@ -0,0 +1,197 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A mutable, fixed-size grid of cells for filling in a matrix in place, then handing it over as an immutable
+ * {@link FunMatrix}.
+ * <ul>
+ *     <li>The cells are allocated once, row-major, up front; <code>set</code>, {@link #setRow}, {@link #setCol},
+ *     {@link #setBlock} and {@link #fill} write straight into them and allocate nothing</li>
+ *     <li>{@link #build()} wraps the cells in the new matrix without copying them. A builder stays usable after
+ *     building: its next write copies the cells first, so the built matrix never changes</li>
+ *     <li>{@link IMatrix#toTransient()} starts a builder from the cells of an existing matrix, for many edits at the
+ *     cost of one copy instead of one copy per <code>update*</code></li>
+ * </ul>
+ * A builder is not thread-safe; fill it on one thread, or hand it between threads with proper synchronization.
+ *
+ * @param <X> The type of the entry included in the built matrix
+ */
+public final class MatrixBuilder<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final int rows;
+  private final int cols;
+  private final Parallelism parallelism;
+  // row-major
+  private Object[] entries;
+  // the cells not set yet; a cell may also be set to null, by copying it from a matrix that holds nulls
+  private final BitSet unset = new BitSet();
+  // whether a built matrix wraps entries, so that the next write has to copy them first
+  private boolean shared;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * A builder of a <code>_rows</code> x <code>_cols</code> matrix with no cells set yet.
+   */
+  MatrixBuilder(int _rows, int _cols)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+    if ((long) _rows * _cols > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("cannot build a matrix of " + _rows + " x " + _cols + " cells");
+    }
+
+    rows = _rows;
+    cols = _cols;
+    parallelism = Parallelism.SEQUENTIAL;
+    entries = new Object[_rows * _cols];
+    unset.set(0, _rows * _cols);
+  }
+
+  /**
+   * A builder starting from a copy of the cells of <code>toCopy</code>.
+   */
+  MatrixBuilder(IMatrix<X> toCopy)
+      throws IllegalArgumentException {
+    this(toCopy, Parallelism.SEQUENTIAL);
+  }
+
+  MatrixBuilder(IMatrix<X> toCopy, Parallelism _parallelism)
+      throws IllegalArgumentException {
+    rows = Utils.notNull(toCopy).getHeight();
+    cols = toCopy.getWidth();
+    parallelism = Utils.notNull(_parallelism);
+    // rowMajorEntries may be toCopy's own storage, which must never be written to
+    entries = AMatrix.rowMajorEntries(toCopy).clone();
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * The cell at <code>(row, col)</code>, or <code>null</code> if it has not been set.
+   */
+  @SuppressWarnings("unchecked")
+  public X get(int row, int col)
+      throws IllegalArgumentException {
+    return (X) entries[Utils.intBetween(0, row, rows - 1) * cols + Utils.intBetween(0, col, cols - 1)];
+  }
+
+  public int getWidth() {
+    return cols;
+  }
+
+  public int getHeight() {
+    return rows;
+  }
+
+  public MatrixBuilder<X> set(X newEntry, int row, int col)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, row, rows - 1);
+    Utils.intBetween(0, col, cols - 1);
+    Utils.notNull(newEntry);
+
+    writable()[row * cols + col] = newEntry;
+    unset.clear(row * cols + col);
+    return this;
+  }
+
+  public MatrixBuilder<X> setRow(List<X> newRow, int rowNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, rowNum, rows - 1);
+    Utils.intBetween(cols, Utils.notNull(newRow).size(), cols);
+
+    Object[] cells = writable();
+    int j = rowNum * cols;
+    for (X newEntry : newRow) {
+      cells[j++] = Utils.notNull(newEntry);
+    }
+    unset.clear(rowNum * cols, (rowNum + 1) * cols);
+    return this;
+  }
+
+  public MatrixBuilder<X> setCol(List<X> newCol, int colNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, colNum, cols - 1);
+    Utils.intBetween(rows, Utils.notNull(newCol).size(), rows);
+
+    Object[] cells = writable();
+    int i = colNum;
+    for (X newEntry : newCol) {
+      cells[i] = Utils.notNull(newEntry);
+      unset.clear(i);
+      i += cols;
+    }
+    return this;
+  }
+
+  /**
+   * Copies every cell of <code>block</code> into this builder, with its top left cell landing on
+   * <code>(firstRow, firstCol)</code>.
+   *
+   * @throws IllegalArgumentException if <code>block</code> does not fit inside this builder from there
+   */
+  public MatrixBuilder<X> setBlock(IMatrix<X> block, int firstRow, int firstCol)
+      throws IllegalArgumentException {
+    Utils.notNull(block);
+    Utils.intBetween(0, firstRow, rows - block.getHeight());
+    Utils.intBetween(0, firstCol, cols - block.getWidth());
+
+    Object[] blockEntries = AMatrix.rowMajorEntries(block);
+    int blockCols = block.getWidth();
+    Object[] cells = writable();
+    for (int i = 0; i < block.getHeight(); i++) {
+      System.arraycopy(blockEntries, i * blockCols, cells, (firstRow + i) * cols + firstCol, blockCols);
+      unset.clear((firstRow + i) * cols + firstCol, (firstRow + i) * cols + firstCol + blockCols);
+    }
+    return this;
+  }
+
+  public MatrixBuilder<X> fill(X uniformEntry)
+      throws IllegalArgumentException {
+    Utils.notNull(uniformEntry);
+
+    if (shared) {
+      // every cell is about to be overwritten, so there is nothing to copy
+      entries = new Object[rows * cols];
+      shared = false;
+    }
+    Arrays.fill(entries, uniformEntry);
+    unset.clear();
+    return this;
+  }
+
+  /**
+   * An immutable matrix of the cells set so far, which takes this builder's storage over without copying it.
+   *
+   * @return a new {@link FunMatrix} of this builder's size and cells
+   * @throws IllegalArgumentException if some cell has not been set
+   */
+  public IMatrix<X> build()
+      throws IllegalArgumentException {
+    int firstUnset = unset.nextSetBit(0);
+    if (firstUnset >= 0) {
+      throw new IllegalArgumentException("cell (" + firstUnset / cols + ", " + firstUnset % cols + ") was never set");
+    }
+
+    shared = true;
+    return new FunMatrix<>(rows, cols, entries, parallelism);
+  }
+
+  /**
+   * {@link #build()}, the counterpart of {@link IMatrix#toTransient()}.
+   */
+  public IMatrix<X> freeze()
+      throws IllegalArgumentException {
+    return build();
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // entries, first copied if a built matrix still wraps them
+  private Object[] writable() {
+    if (shared) {
+      entries = entries.clone();
+      shared = false;
+    }
+    return entries;
+  }
+}
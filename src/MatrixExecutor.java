@@ -0,0 +1,292 @@
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Runs many small, independent jobs on matrices off the calling thread, handing back a {@link CompletableFuture} for
+ * each.
+ * <ul>
+ *     <li>Jobs run on virtual threads when the JVM has them (Java 21 and later), and otherwise on a pool of one
+ *     platform thread per processor; {@link #on(ExecutorService, int, int)} takes any other executor</li>
+ *     <li>Jobs on matrices of the same shape are queued together and run in batches of up to <code>batchSize</code>
+ *     on one thread, so that a burst of small jobs costs one hand-off per batch rather than one per job. Up to one
+ *     batch per thread of a shape runs at once, so a burst of one shape still spreads over every thread</li>
+ *     <li>At most <code>maxInFlight</code> jobs are queued or running at once. {@link #submit} blocks the caller until
+ *     one finishes, and {@link #trySubmit} fails fast with a {@link RejectedExecutionException}, so a burst of
+ *     requests queues up in front of the executor instead of inside it</li>
+ * </ul>
+ * Jobs are taken from each shape's queue in the order they were submitted, but as batches run side by side, jobs
+ * may finish in any order.
+ */
+public final class MatrixExecutor implements AutoCloseable {
+
+  // the queued jobs of one shape, each holding a permit, and how many batches of them are scheduled or running
+  private static final class Lane {
+    private final Queue<Runnable> jobs = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger batches = new AtomicInteger();
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final ExecutorService threads;
+  // whether close() shuts threads down
+  private final boolean ownsThreads;
+  // how many batches of one shape may run at once
+  private final int concurrency;
+  private final int batchSize;
+  private final int maxInFlight;
+  private final Semaphore inFlight;
+  // by (rows << 32 | cols); lanes are kept once made, as a service sees only a handful of shapes
+  private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+  private final LongAdder batchesRun = new LongAdder();
+  private final LongAdder jobsRun = new LongAdder();
+  private volatile boolean closed;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private MatrixExecutor(ExecutorService _threads, boolean _ownsThreads, int _concurrency, int _maxInFlight,
+                         int _batchSize) {
+    threads = _threads;
+    ownsThreads = _ownsThreads;
+    concurrency = Utils.intBetween(1, _concurrency, Integer.MAX_VALUE);
+    maxInFlight = Utils.intBetween(1, _maxInFlight, Integer.MAX_VALUE);
+    inFlight = new Semaphore(_maxInFlight);
+    batchSize = Utils.intBetween(1, _batchSize, Integer.MAX_VALUE);
+  }
+
+  /**
+   * An executor on virtual threads if there are any, and otherwise on its own pool of one daemon thread per
+   * processor, which {@link #close()} shuts down.
+   *
+   * @param maxInFlight how many jobs may be queued or running at once
+   * @param batchSize   how many jobs of one shape a thread runs before handing the rest on
+   */
+  public static MatrixExecutor create(int maxInFlight, int batchSize)
+      throws IllegalArgumentException {
+    Utils.intBetween(1, maxInFlight, Integer.MAX_VALUE);
+    Utils.intBetween(1, batchSize, Integer.MAX_VALUE);
+    int processors = Runtime.getRuntime().availableProcessors();
+    ExecutorService _threads = virtualThreads().orElseGet(() ->
+        Executors.newFixedThreadPool(processors, daemonThreads()));
+    return new MatrixExecutor(_threads, true, processors, maxInFlight, batchSize);
+  }
+
+  /**
+   * An executor that runs its batches on <code>_threads</code>, which {@link #close()} leaves running. Up to as many
+   * batches of one shape run at once as <code>_threads</code> has threads, if it is a {@link ThreadPoolExecutor} or
+   * a {@link ForkJoinPool}, and otherwise as there are processors.
+   */
+  public static MatrixExecutor on(ExecutorService _threads, int maxInFlight, int batchSize)
+      throws IllegalArgumentException {
+    Utils.notNull(_threads);
+    int _concurrency = _threads instanceof ThreadPoolExecutor
+        ? ((ThreadPoolExecutor) _threads).getMaximumPoolSize()
+        : _threads instanceof ForkJoinPool
+        ? ((ForkJoinPool) _threads).getParallelism()
+        : Runtime.getRuntime().availableProcessors();
+    return on(_threads, _concurrency, maxInFlight, batchSize);
+  }
+
+  /**
+   * An executor that runs its batches on <code>_threads</code>, which {@link #close()} leaves running, with at most
+   * <code>concurrency</code> batches of one shape running at once.
+   */
+  public static MatrixExecutor on(ExecutorService _threads, int concurrency, int maxInFlight, int batchSize)
+      throws IllegalArgumentException {
+    return new MatrixExecutor(Utils.notNull(_threads), false, concurrency, maxInFlight, batchSize);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * Runs <code>job(matrix)</code> in a batch with other jobs on matrices of the same shape, waiting for room first
+   * if <code>maxInFlight</code> jobs are already queued or running.
+   *
+   * @return a future of the result of <code>job</code>, completed exceptionally with whatever it throws, or with a
+   * {@link RejectedExecutionException} if this executor is closed or the caller is interrupted while waiting
+   */
+  public <X, R> CompletableFuture<R> submit(IMatrix<X> matrix, Function<IMatrix<X>, R> job)
+      throws IllegalArgumentException {
+    Utils.notNull(matrix);
+    Utils.notNull(job);
+    try {
+      inFlight.acquire();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.failedFuture(new RejectedExecutionException("interrupted waiting for room", e));
+    }
+    return admitted(matrix, job);
+  }
+
+  /**
+   * {@link #submit}, but failing the returned future with a {@link RejectedExecutionException} straight away rather
+   * than waiting if <code>maxInFlight</code> jobs are already queued or running.
+   */
+  public <X, R> CompletableFuture<R> trySubmit(IMatrix<X> matrix, Function<IMatrix<X>, R> job)
+      throws IllegalArgumentException {
+    Utils.notNull(matrix);
+    Utils.notNull(job);
+    if (!inFlight.tryAcquire()) {
+      return CompletableFuture.failedFuture(new RejectedExecutionException("too many matrix jobs in flight"));
+    }
+    return admitted(matrix, job);
+  }
+
+  public <X, Y> CompletableFuture<IMatrix<Y>> map(IMatrix<X> matrix, Function<X, Y> elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+    return submit(matrix, toMap -> toMap.map(elementMapper));
+  }
+
+  public <X, Y> CompletableFuture<Y> foldNW(IMatrix<X> matrix, BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    return submit(matrix, toFold -> toFold.foldNW(folder, base));
+  }
+
+  public <X, Y, Z> CompletableFuture<IMatrix<Z>> elementWiseCombine(IMatrix<X> matrix, BiFunction<X, Y, Z> combiner,
+                                                                    IMatrix<Y> combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+    return submit(matrix, toCombine -> toCombine.elementWiseCombine(combiner, combineWith));
+  }
+
+  /**
+   * The number of jobs that may still be submitted without waiting.
+   */
+  public int availableSlots() {
+    return inFlight.availablePermits();
+  }
+
+  /**
+   * Stops accepting jobs, waits for up to <code>timeout</code> for those already submitted to finish, then shuts
+   * down the threads this executor made itself.
+   *
+   * @return whether every submitted job has finished
+   */
+  public boolean close(long timeout, TimeUnit unit)
+      throws InterruptedException {
+    closed = true;
+    // every job holds a permit until it has run, so holding all of them means that nothing is left
+    boolean finished = inFlight.tryAcquire(maxInFlight, timeout, unit);
+    if (finished) {
+      inFlight.release(maxInFlight);
+    }
+    if (ownsThreads) {
+      threads.shutdown();
+    }
+    return finished;
+  }
+
+  @Override
+  public void close() {
+    try {
+      close(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  long batchesRun() {
+    return batchesRun.sum();
+  }
+
+  long jobsRun() {
+    return jobsRun.sum();
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // queues a job that already holds a permit, which is given back once the job has run
+  private <X, R> CompletableFuture<R> admitted(IMatrix<X> matrix, Function<IMatrix<X>, R> job) {
+    if (closed) {
+      inFlight.release();
+      return CompletableFuture.failedFuture(new RejectedExecutionException("this MatrixExecutor is closed"));
+    }
+
+    CompletableFuture<R> result = new CompletableFuture<>();
+    long shape = ((long) matrix.getHeight() << 32) | matrix.getWidth();
+    Lane lane = lanes.computeIfAbsent(shape, ignored -> new Lane());
+    lane.jobs.add(() -> {
+      try {
+        result.complete(job.apply(matrix));
+      }
+      catch (Throwable e) {
+        result.completeExceptionally(e);
+      }
+      finally {
+        inFlight.release();
+      }
+    });
+    schedule(lane);
+    return result;
+  }
+
+  private void schedule(Lane lane) {
+    int running;
+    do {
+      running = lane.batches.get();
+      if (lane.jobs.isEmpty() || running >= concurrency) {
+        return;
+      }
+    } while (!lane.batches.compareAndSet(running, running + 1));
+    try {
+      threads.execute(() -> runBatch(lane, batchSize));
+    }
+    catch (RejectedExecutionException e) {
+      // the threads have been shut down, so finish what was already submitted here rather than leave it hanging
+      runBatch(lane, Integer.MAX_VALUE);
+    }
+  }
+
+  private void runBatch(Lane lane, int maxJobs) {
+    int ran = 0;
+    Runnable job;
+    while (ran < maxJobs && (job = lane.jobs.poll()) != null) {
+      job.run();
+      ran++;
+    }
+    batchesRun.increment();
+    jobsRun.add(ran);
+
+    lane.batches.decrementAndGet();
+    // jobs queued while every batch of this shape was busy, or left over from a full batch, get a batch of their own
+    schedule(lane);
+  }
+
+  private static Optional<ExecutorService> virtualThreads() {
+    // Executors.newVirtualThreadPerTaskExecutor is Java 21, so it is looked up rather than linked against
+    try {
+      Method newExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return Optional.of((ExecutorService) newExecutor.invoke(null));
+    }
+    catch (ReflectiveOperationException | RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static ThreadFactory daemonThreads() {
+    AtomicInteger count = new AtomicInteger();
+    return task -> {
+      Thread thread = new Thread(task, "funmatrix-executor-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,123 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The fixed-size header at the start of every matrix file, describing the payload that follows it.
+ * <pre>
+ *   offset  size  field
+ *        0     4  magic, the ASCII bytes "FMAT"
+ *        4     2  format version
+ *        6     1  element type, see {@link ElementType}
+ *        7     1  layout: 0 for row-major cells back to back, 1 for row-major cells in framed blocks
+ *        8     1  compression: 0 for none, 1 for Deflate (only with framed blocks)
+ *        9     7  reserved, always 0
+ *       16     4  height
+ *       20     4  width
+ *       24     8  reserved, always 0
+ * </pre>
+ * Every multi-byte value, in the header and in the payload, is little-endian.
+ * <br>
+ * With framed blocks, the payload is a sequence of blocks, each an <code>int</code> stored length, an
+ * <code>int</code> raw length, then the stored bytes: the raw bytes themselves, or those bytes compressed. A block
+ * always holds whole cells. Only uncompressed files of fixed-size cells can be memory-mapped.
+ */
+final class MatrixFileHeader {
+
+  static final int MAGIC = 'F' | 'M' << 8 | 'A' << 16 | 'T' << 24;
+  static final short VERSION = 1;
+  static final int SIZE = 32;
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  static final byte ROW_MAJOR = 0;
+  static final byte ROW_BLOCKS = 1;
+  static final byte UNCOMPRESSED = 0;
+  static final byte DEFLATE = 1;
+
+  /**
+   * What each cell of the payload holds, and how many bytes it takes (0 if its size varies).
+   */
+  enum ElementType {
+    OBJECT(0, 0),
+    DOUBLE(1, Double.BYTES),
+    LONG(2, Long.BYTES),
+    INT(3, Integer.BYTES);
+
+    final byte tag;
+    final int bytes;
+
+    ElementType(int _tag, int _bytes) {
+      tag = (byte) _tag;
+      bytes = _bytes;
+    }
+
+    static ElementType ofTag(byte tag)
+        throws IllegalArgumentException {
+      for (ElementType aType : values()) {
+        if (aType.tag == tag) {
+          return aType;
+        }
+      }
+      throw new IllegalArgumentException("unknown element type " + tag);
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  final ElementType elementType;
+  final byte layout;
+  final byte compression;
+  final int rows;
+  final int cols;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  MatrixFileHeader(ElementType _elementType, byte _layout, byte _compression, int _rows, int _cols)
+      throws IllegalArgumentException {
+    elementType = Utils.notNull(_elementType);
+    layout = _layout;
+    compression = _compression;
+    rows = Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    cols = Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  long cellCount() {
+    return (long) rows * cols;
+  }
+
+  /**
+   * Writes this header at the position of <code>buffer</code>, advancing it by {@link #SIZE} bytes.
+   */
+  void writeTo(ByteBuffer buffer) {
+    ByteBuffer header = buffer.slice().order(ORDER);
+    header.putInt(MAGIC).putShort(VERSION).put(elementType.tag).put(layout).put(compression)
+        .put(new byte[7]).putInt(rows).putInt(cols).putLong(0);
+    buffer.position(buffer.position() + SIZE);
+  }
+
+  /**
+   * Reads a header from the position of <code>buffer</code>, advancing it by {@link #SIZE} bytes.
+   *
+   * @throws IllegalArgumentException if the bytes there are not a header this version can read
+   */
+  static MatrixFileHeader readFrom(ByteBuffer buffer)
+      throws IllegalArgumentException {
+    if (buffer.remaining() < SIZE) {
+      throw new IllegalArgumentException("not a matrix file: too short for a header");
+    }
+    ByteBuffer header = buffer.slice().order(ORDER);
+    buffer.position(buffer.position() + SIZE);
+
+    if (header.getInt() != MAGIC) {
+      throw new IllegalArgumentException("not a matrix file: bad magic number");
+    }
+    short version = header.getShort();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("unsupported matrix file version " + version);
+    }
+    ElementType _elementType = ElementType.ofTag(header.get());
+    byte _layout = header.get();
+    byte _compression = header.get();
+    header.position(16);
+
+    return new MatrixFileHeader(_elementType, _layout, _compression, header.getInt(), header.getInt());
+  }
+}
@@ -0,0 +1,47 @@
+/**
+ * A sink for the costs of the {@link IMatrix} operations an {@link IMatrix#instrumented(MatrixMetrics)} matrix runs.
+ * <br>
+ * {@link #record} is called once per operation, on the thread that ran it, with plain numbers, so a sink that only
+ * adds them up allocates nothing; {@link AggregatingMetrics} does exactly that. Sinks may be called from many threads
+ * at once.
+ */
+@FunctionalInterface
+public interface MatrixMetrics {
+
+    /**
+     * The operations that are measured.
+     */
+    enum Operation {
+        MAP,
+        FOLD_NW,
+        FOLD_SE,
+        ELEMENT_WISE_COMBINE,
+        PSEUDO_MULTIPLY,
+        SUB_MATRIX,
+        UPDATE_ENTRY,
+        UPDATE_ROW,
+        UPDATE_COL
+    }
+
+    /**
+     * Ignores every operation.
+     */
+    MatrixMetrics NONE = (operation, rows, cols, cells, nanos, allocatedBytes) -> {
+    };
+
+    /**
+     * Records one run of <code>operation</code>.
+     *
+     * @param operation      what was run
+     * @param rows           the height of the matrix it was run on
+     * @param cols           the width of the matrix it was run on
+     * @param cells          the cells a straightforward implementation visits: every cell for <code>map</code>, the
+     *                       folds and the <code>update*</code>s (which copy the whole matrix), both matrices'
+     *                       cells for <code>elementWiseCombine</code>, the window for <code>subMatrix</code>, and
+     *                       <i>n m p</i> for <code>pseudoMultiply</code>
+     * @param nanos          the wall time it took
+     * @param allocatedBytes the bytes the calling thread allocated meanwhile, or -1 if the JVM cannot tell; work
+     *                       forked onto a pool by a parallel matrix is not counted
+     */
+    void record(Operation operation, int rows, int cols, long cells, long nanos, long allocatedBytes);
+}
@@ -0,0 +1,251 @@
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Cache-blocked kernels behind {@link IMatrix#pseudoMultiply}.
+ * <br>
+ * Every kernel multiplies an <i>n</i> x <i>m</i> row-major matrix <code>a</code> by an <i>m</i> x <i>p</i>
+ * row-major matrix <code>b</code> into a fresh <i>n</i> x <i>p</i> row-major result. The loops are tiled into
+ * <code>BLOCK</code> x <code>BLOCK</code> squares and run in i-k-j order inside a tile, so the innermost loop walks a
+ * row of <code>b</code> and a row of the result contiguously while <code>a[i][k]</code> stays in a register.
+ * <br>
+ * Tiles along <i>k</i> are visited in increasing order, so every result cell still sees its products in the order
+ * <i>k = 0, 1, ..., m - 1</i>; a non-commutative accumulation produces the same value as the naive triple loop.
+ * <br>
+ * The <code>double</code> and <code>int</code> products run their innermost loop through
+ * {@link NumericKernels#axpy}, which is SIMD when the Vector API is available.
+ */
+final class MatrixMultiplication {
+
+  // 64 x 64 tiles of 8-byte cells: three tiles fit comfortably in a 256KB L2 cache
+  static final int BLOCK = 64;
+
+  private MatrixMultiplication() {
+  }
+
+  static <X, Y, Z, α> Object[] blocked(Object[] a, Object[] b, int n, int m, int p,
+                                       BiFunction<X, Y, Z> inter, BiFunction<Z, α, α> intra, α identity) {
+    Object[] c = new Object[n * p];
+    Arrays.fill(c, identity);
+
+    for (int ii = 0; ii < n; ii += BLOCK) {
+      int iEnd = Math.min(ii + BLOCK, n);
+      for (int kk = 0; kk < m; kk += BLOCK) {
+        int kEnd = Math.min(kk + BLOCK, m);
+        for (int jj = 0; jj < p; jj += BLOCK) {
+          int jEnd = Math.min(jj + BLOCK, p);
+          for (int i = ii; i < iEnd; i++) {
+            for (int k = kk; k < kEnd; k++) {
+              X aik = cellAt(a, i * m + k);
+              for (int j = jj; j < jEnd; j++) {
+                c[i * p + j] = intra.apply(inter.apply(aik, cellAt(b, k * p + j)), cellAt(c, i * p + j));
+              }
+            }
+          }
+        }
+      }
+    }
+
+    return c;
+  }
+
+  static double[] blocked(double[] a, double[] b, int n, int m, int p) {
+    double[] c = new double[n * p];
+    NumericKernels kernels = NumericKernels.BEST;
+
+    for (int ii = 0; ii < n; ii += BLOCK) {
+      int iEnd = Math.min(ii + BLOCK, n);
+      for (int kk = 0; kk < m; kk += BLOCK) {
+        int kEnd = Math.min(kk + BLOCK, m);
+        for (int jj = 0; jj < p; jj += BLOCK) {
+          int jEnd = Math.min(jj + BLOCK, p);
+          for (int i = ii; i < iEnd; i++) {
+            int cRow = i * p;
+            for (int k = kk; k < kEnd; k++) {
+              kernels.axpy(a[i * m + k], b, k * p + jj, c, cRow + jj, jEnd - jj);
+            }
+          }
+        }
+      }
+    }
+
+    return c;
+  }
+
+  static double[] blocked(double[] a, double[] b, int n, int m, int p,
+                          DoubleBinaryOperator inter, DoubleBinaryOperator intra, double identity) {
+    double[] c = new double[n * p];
+    Arrays.fill(c, identity);
+
+    for (int ii = 0; ii < n; ii += BLOCK) {
+      int iEnd = Math.min(ii + BLOCK, n);
+      for (int kk = 0; kk < m; kk += BLOCK) {
+        int kEnd = Math.min(kk + BLOCK, m);
+        for (int jj = 0; jj < p; jj += BLOCK) {
+          int jEnd = Math.min(jj + BLOCK, p);
+          for (int i = ii; i < iEnd; i++) {
+            for (int k = kk; k < kEnd; k++) {
+              double aik = a[i * m + k];
+              for (int j = jj; j < jEnd; j++) {
+                c[i * p + j] = intra.applyAsDouble(inter.applyAsDouble(aik, b[k * p + j]), c[i * p + j]);
+              }
+            }
+          }
+        }
+      }
+    }
+
+    return c;
+  }
+
+  static int[] blocked(int[] a, int[] b, int n, int m, int p) {
+    int[] c = new int[n * p];
+    NumericKernels kernels = NumericKernels.BEST;
+
+    for (int ii = 0; ii < n; ii += BLOCK) {
+      int iEnd = Math.min(ii + BLOCK, n);
+      for (int kk = 0; kk < m; kk += BLOCK) {
+        int kEnd = Math.min(kk + BLOCK, m);
+        for (int jj = 0; jj < p; jj += BLOCK) {
+          int jEnd = Math.min(jj + BLOCK, p);
+          for (int i = ii; i < iEnd; i++) {
+            int cRow = i * p;
+            for (int k = kk; k < kEnd; k++) {
+              kernels.axpy(a[i * m + k], b, k * p + jj, c, cRow + jj, jEnd - jj);
+            }
+          }
+        }
+      }
+    }
+
+    return c;
+  }
+
+  static int[] blocked(int[] a, int[] b, int n, int m, int p,
+                       IntBinaryOperator inter, IntBinaryOperator intra, int identity) {
+    int[] c = new int[n * p];
+    Arrays.fill(c, identity);
+
+    for (int ii = 0; ii < n; ii += BLOCK) {
+      int iEnd = Math.min(ii + BLOCK, n);
+      for (int kk = 0; kk < m; kk += BLOCK) {
+        int kEnd = Math.min(kk + BLOCK, m);
+        for (int jj = 0; jj < p; jj += BLOCK) {
+          int jEnd = Math.min(jj + BLOCK, p);
+          for (int i = ii; i < iEnd; i++) {
+            for (int k = kk; k < kEnd; k++) {
+              int aik = a[i * m + k];
+              for (int j = jj; j < jEnd; j++) {
+                c[i * p + j] = intra.applyAsInt(inter.applyAsInt(aik, b[k * p + j]), c[i * p + j]);
+              }
+            }
+          }
+        }
+      }
+    }
+
+    return c;
+  }
+
+  static long[] blocked(long[] a, long[] b, int n, int m, int p) {
+    long[] c = new long[n * p];
+
+    for (int ii = 0; ii < n; ii += BLOCK) {
+      int iEnd = Math.min(ii + BLOCK, n);
+      for (int kk = 0; kk < m; kk += BLOCK) {
+        int kEnd = Math.min(kk + BLOCK, m);
+        for (int jj = 0; jj < p; jj += BLOCK) {
+          int jEnd = Math.min(jj + BLOCK, p);
+          for (int i = ii; i < iEnd; i++) {
+            int cRow = i * p;
+            for (int k = kk; k < kEnd; k++) {
+              long aik = a[i * m + k];
+              int bRow = k * p;
+              for (int j = jj; j < jEnd; j++) {
+                c[cRow + j] += aik * b[bRow + j];
+              }
+            }
+          }
+        }
+      }
+    }
+
+    return c;
+  }
+
+  static long[] blocked(long[] a, long[] b, int n, int m, int p,
+                        LongBinaryOperator inter, LongBinaryOperator intra, long identity) {
+    long[] c = new long[n * p];
+    Arrays.fill(c, identity);
+
+    for (int ii = 0; ii < n; ii += BLOCK) {
+      int iEnd = Math.min(ii + BLOCK, n);
+      for (int kk = 0; kk < m; kk += BLOCK) {
+        int kEnd = Math.min(kk + BLOCK, m);
+        for (int jj = 0; jj < p; jj += BLOCK) {
+          int jEnd = Math.min(jj + BLOCK, p);
+          for (int i = ii; i < iEnd; i++) {
+            for (int k = kk; k < kEnd; k++) {
+              long aik = a[i * m + k];
+              for (int j = jj; j < jEnd; j++) {
+                c[i * p + j] = intra.applyAsLong(inter.applyAsLong(aik, b[k * p + j]), c[i * p + j]);
+              }
+            }
+          }
+        }
+      }
+    }
+
+    return c;
+  }
+
+  // the textbook i-j-k loop, one dot product per cell; only there to compare the other kernels against
+  static double[] naive(double[] a, double[] b, int n, int m, int p) {
+    double[] c = new double[n * p];
+
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < p; j++) {
+        double cij = 0;
+        for (int k = 0; k < m; k++) {
+          cij += a[i * m + k] * b[k * p + j];
+        }
+        c[i * p + j] = cij;
+      }
+    }
+
+    return c;
+  }
+
+  static int[] naive(int[] a, int[] b, int n, int m, int p) {
+    int[] c = new int[n * p];
+
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < p; j++) {
+        int cij = 0;
+        for (int k = 0; k < m; k++) {
+          cij += a[i * m + k] * b[k * p + j];
+        }
+        c[i * p + j] = cij;
+      }
+    }
+
+    return c;
+  }
+
+  static void checkDimensions(IMatrix<?> left, IMatrix<?> right)
+      throws IllegalArgumentException {
+    if (left.getWidth() != Utils.notNull(right).getHeight()) {
+      throw new IllegalArgumentException("cannot multiply a matrix of width " + left.getWidth()
+          + " by a matrix of height " + right.getHeight());
+    }
+  }
+
+  // cell k of a row-major array, which only ever holds elements of the type it is read as
+  @SuppressWarnings("unchecked")
+  private static <T> T cellAt(Object[] cells, int k) {
+    return (T) cells[k];
+  }
+}
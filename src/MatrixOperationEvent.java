@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR event an {@link IMatrix#instrumented(MatrixMetrics)} matrix commits for each operation it measures, with
+ * the same numbers as {@link MatrixMetrics#record}. It is recorded with its stack trace, which points at the call
+ * site, and is on in every recording unless <code>funmatrix.MatrixOperation#enabled=false</code>.
+ */
+@Name("funmatrix.MatrixOperation")
+@Label("Matrix Operation")
+@Category("FunMatrix")
+@Description("An IMatrix operation run on an instrumented matrix")
+@StackTrace
+final class MatrixOperationEvent extends Event {
+
+  static final EventType TYPE = EventType.getEventType(MatrixOperationEvent.class);
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Rows")
+  int rows;
+
+  @Label("Columns")
+  int cols;
+
+  @Label("Cells")
+  long cells;
+
+  @Label("Allocated")
+  @DataAmount
+  long allocatedBytes;
+}
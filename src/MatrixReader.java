@@ -0,0 +1,215 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads matrices written by {@link MatrixWriter} back from a channel.
+ * <ul>
+ *     <li>The payload is read one block at a time into a reusable buffer, and decoded from there straight into the
+ *     storage of the new matrix, so it is never held in memory twice</li>
+ *     <li>{@link #readDoubles()}, {@link #readLongs()} and {@link #readInts()} unpack into a {@link DoubleMatrix},
+ *     {@link LongMatrix} or {@link IntMatrix} without boxing</li>
+ *     <li>Exactly one matrix is consumed per call, so matrices written one after another to the same channel are
+ *     read back one after another</li>
+ * </ul>
+ * The channel is not closed.
+ */
+public final class MatrixReader {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final ReadableByteChannel channel;
+  private ByteBuffer block = ByteBuffer.allocate(MatrixWriter.BLOCK_BYTES).order(MatrixFileHeader.ORDER);
+  private byte[] compressed = new byte[0];
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  MatrixReader(ReadableByteChannel _channel)
+      throws IllegalArgumentException {
+    channel = Utils.notNull(_channel);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * Reads the next matrix, decoding each entry with <code>codec</code>.
+   *
+   * @throws IllegalArgumentException if the next bytes are not a matrix written with a codec of the same
+   *                                  {@link ElementCodec#elementType()}
+   * @throws EOFException             if the channel ends before the matrix does
+   */
+  public <X> IMatrix<X> read(ElementCodec<X> codec)
+      throws IOException, IllegalArgumentException {
+    Utils.notNull(codec);
+    MatrixFileHeader header = readHeader(codec.elementType());
+    Object[] entries = new Object[(int) header.cellCount()];
+
+    readPayload(header, codec.fixedSize(), (aBlock, from) -> {
+      int k = from;
+      while (aBlock.hasRemaining()) {
+        entries[k++] = Utils.notNull(codec.decode(aBlock));
+      }
+      return k;
+    });
+
+    return new FunMatrix<>(header.rows, header.cols, entries);
+  }
+
+  /**
+   * Reads the next matrix, which must have been written with {@link ElementCodec#DOUBLES}.
+   */
+  public DoubleMatrix readDoubles()
+      throws IOException, IllegalArgumentException {
+    MatrixFileHeader header = readHeader(MatrixFileHeader.ElementType.DOUBLE);
+    double[] entries = new double[(int) header.cellCount()];
+
+    readPayload(header, Double.BYTES, (aBlock, from) -> {
+      int n = aBlock.remaining() / Double.BYTES;
+      aBlock.asDoubleBuffer().get(entries, from, n);
+      return from + n;
+    });
+
+    return new DoubleMatrix(header.rows, header.cols, entries);
+  }
+
+  /**
+   * Reads the next matrix, which must have been written with {@link ElementCodec#LONGS}.
+   */
+  public LongMatrix readLongs()
+      throws IOException, IllegalArgumentException {
+    MatrixFileHeader header = readHeader(MatrixFileHeader.ElementType.LONG);
+    long[] entries = new long[(int) header.cellCount()];
+
+    readPayload(header, Long.BYTES, (aBlock, from) -> {
+      int n = aBlock.remaining() / Long.BYTES;
+      aBlock.asLongBuffer().get(entries, from, n);
+      return from + n;
+    });
+
+    return new LongMatrix(header.rows, header.cols, entries);
+  }
+
+  /**
+   * Reads the next matrix, which must have been written with {@link ElementCodec#INTS}.
+   */
+  public IntMatrix readInts()
+      throws IOException, IllegalArgumentException {
+    MatrixFileHeader header = readHeader(MatrixFileHeader.ElementType.INT);
+    int[] entries = new int[(int) header.cellCount()];
+
+    readPayload(header, Integer.BYTES, (aBlock, from) -> {
+      int n = aBlock.remaining() / Integer.BYTES;
+      aBlock.asIntBuffer().get(entries, from, n);
+      return from + n;
+    });
+
+    return new IntMatrix(header.rows, header.cols, entries);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  // decodes the whole cells in aBlock into the matrix being read, starting at row-major index from, and returns the
+  // index after the last cell decoded
+  private interface BlockDecoder {
+    int decode(ByteBuffer aBlock, int from);
+  }
+
+  private MatrixFileHeader readHeader(MatrixFileHeader.ElementType expectedType)
+      throws IOException, IllegalArgumentException {
+    ByteBuffer headerBytes = ByteBuffer.allocate(MatrixFileHeader.SIZE);
+    readFully(headerBytes);
+    headerBytes.flip();
+    MatrixFileHeader header = MatrixFileHeader.readFrom(headerBytes);
+
+    if (header.elementType != expectedType) {
+      throw new IllegalArgumentException("cannot read a matrix of " + header.elementType + " as one of "
+          + expectedType);
+    }
+    if (header.cellCount() > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("a matrix of " + header.cellCount() + " cells does not fit in an array");
+    }
+
+    return header;
+  }
+
+  private void readPayload(MatrixFileHeader header, int cellBytes, BlockDecoder decoder)
+      throws IOException, IllegalArgumentException {
+    int decoded = 0;
+
+    if (header.layout == MatrixFileHeader.ROW_MAJOR) {
+      if (cellBytes == 0 || header.compression != MatrixFileHeader.UNCOMPRESSED) {
+        throw new IllegalArgumentException("cells of varying size or compressed cells must be framed in blocks");
+      }
+      // read as many whole cells as fit in a block, and never past the end of this matrix
+      long remainingBytes = header.cellCount() * cellBytes;
+      while (remainingBytes > 0) {
+        block.clear().limit((int) Math.min(remainingBytes, MatrixWriter.BLOCK_BYTES / cellBytes * cellBytes));
+        readFully(block);
+        block.flip();
+        remainingBytes -= block.remaining();
+        decoded = decoder.decode(block, decoded);
+      }
+    }
+    else if (header.layout == MatrixFileHeader.ROW_BLOCKS) {
+      ByteBuffer frame = ByteBuffer.allocate(2 * Integer.BYTES).order(MatrixFileHeader.ORDER);
+      while (decoded < header.cellCount()) {
+        frame.clear();
+        readFully(frame);
+        readBlock(header.compression, frame.getInt(0), frame.getInt(Integer.BYTES));
+        decoded = decoder.decode(block, decoded);
+      }
+    }
+    else {
+      throw new IllegalArgumentException("unknown layout " + header.layout);
+    }
+  }
+
+  // leaves the raw bytes of the next framed block between the position and limit of block
+  private void readBlock(byte compression, int storedLength, int rawLength)
+      throws IOException, IllegalArgumentException {
+    if (storedLength < 0 || rawLength <= 0) {
+      throw new IllegalArgumentException("corrupt block of " + storedLength + " stored bytes");
+    }
+    if (block.capacity() < rawLength) {
+      block = ByteBuffer.allocate(rawLength).order(MatrixFileHeader.ORDER);
+    }
+
+    if (compression == MatrixFileHeader.UNCOMPRESSED) {
+      block.clear().limit(storedLength);
+      readFully(block);
+      block.flip();
+    }
+    else if (compression == MatrixFileHeader.DEFLATE) {
+      compressed = compressed.length < storedLength ? new byte[storedLength] : compressed;
+      readFully(ByteBuffer.wrap(compressed, 0, storedLength));
+
+      Inflater inflater = new Inflater();
+      inflater.setInput(compressed, 0, storedLength);
+      try {
+        if (inflater.inflate(block.array(), 0, rawLength) != rawLength || !inflater.finished()) {
+          throw new IllegalArgumentException("corrupt block: wrong decompressed length");
+        }
+      }
+      catch (DataFormatException e) {
+        throw new IllegalArgumentException("corrupt block: " + e.getMessage());
+      }
+      finally {
+        inflater.end();
+      }
+      block.clear().limit(rawLength);
+    }
+    else {
+      throw new IllegalArgumentException("unknown compression " + compression);
+    }
+  }
+
+  private void readFully(ByteBuffer into)
+      throws IOException {
+    while (into.hasRemaining()) {
+      if (channel.read(into) < 0) {
+        throw new EOFException("the channel ended in the middle of a matrix");
+      }
+    }
+  }
+}
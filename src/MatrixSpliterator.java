@@ -0,0 +1,70 @@
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A {@link Spliterator} over a range of row-major indices of a matrix, backing {@link IMatrix#cellSpliterator()} and
+ * the streams of {@link AMatrix}.
+ * <br>
+ * Each index is turned into an element by <code>cells</code> only when it is reached, so a short-circuiting stream
+ * operation stops reading the matrix as soon as it has its answer. Splitting halves the remaining range, which keeps
+ * every half exactly sized, so parallel streams divide the work evenly and can place results without buffering.
+ *
+ * @param <T> the type of the elements produced, e.g. the entries themselves or {@link Cell}s
+ */
+final class MatrixSpliterator<T> implements Spliterator<T> {
+
+  static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final IntFunction<T> cells;
+  private int fromIncl;
+  private final int toExcl;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  MatrixSpliterator(IntFunction<T> _cells, int _fromIncl, int _toExcl) {
+    cells = _cells;
+    fromIncl = _fromIncl;
+    toExcl = _toExcl;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (fromIncl >= toExcl) {
+      return false;
+    }
+    action.accept(cells.apply(fromIncl++));
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    int k = fromIncl;
+    fromIncl = toExcl;
+    for (; k < toExcl; k++) {
+      action.accept(cells.apply(k));
+    }
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    int middle = (fromIncl + toExcl) >>> 1;
+    if (middle <= fromIncl) {
+      return null;
+    }
+    Spliterator<T> prefix = new MatrixSpliterator<>(cells, fromIncl, middle);
+    fromIncl = middle;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return toExcl - fromIncl;
+  }
+
+  @Override
+  public int characteristics() {
+    return CHARACTERISTICS;
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * A strided window onto another {@link IMatrix}, backing the views of {@link AMatrix}: <code>subMatrix</code>,
+ * <code>slice</code>, <code>everyNthRow</code>, <code>transpose</code>, <code>row</code> and <code>col</code>.
+ * <br>
+ * Nothing is copied; element <code>(i, j)</code> is read from the parent on demand, and {@link #compact()} copies
+ * into the parent's kind of storage. Matrices that know their own storage, like {@link FunMatrix}, build their views
+ * directly over it instead.
+ *
+ * @param <X> The type of the entry included in this matrix
+ */
+class MatrixView<X> extends AMatrix<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final IMatrix<X> parent;
+  // the window, in the parent's coordinates
+  protected final int firstRow;
+  protected final int numRows;
+  protected final int rowStep;
+  protected final int firstCol;
+  protected final int numCols;
+  protected final int colStep;
+  // whether rows of this view are columns of the window
+  protected final boolean transposed;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  MatrixView(IMatrix<X> _parent, int _firstRow, int _numRows, int _rowStep,
+             int _firstCol, int _numCols, int _colStep, boolean _transposed) {
+    parent = Utils.notNull(_parent);
+    firstRow = _firstRow;
+    numRows = _numRows;
+    rowStep = _rowStep;
+    firstCol = _firstCol;
+    numCols = _numCols;
+    colStep = _colStep;
+    transposed = _transposed;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public X getElement(int row, int col)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, row, getHeight() - 1);
+    Utils.intBetween(0, col, getWidth() - 1);
+
+    return transposed
+        ? parent.getElement(firstRow + col * rowStep, firstCol + row * colStep)
+        : parent.getElement(firstRow + row * rowStep, firstCol + col * colStep);
+  }
+
+  @Override
+  public int getWidth() {
+    return transposed ? numRows : numCols;
+  }
+
+  @Override
+  public int getHeight() {
+    return transposed ? numCols : numRows;
+  }
+
+  @Override
+  public IMatrix<X> transpose() {
+    return new MatrixView<>(parent, firstRow, numRows, rowStep, firstCol, numCols, colStep, !transposed);
+  }
+
+  @Override
+  protected IMatrix<X> compactView(IMatrix<X> view) {
+    // a view of this view is a view of the parent, so it copies into the parent's storage too
+    return parent instanceof AMatrix ? ((AMatrix<X>) parent).compactView(view) : super.compactView(view);
+  }
+
+  @Override
+  public IMatrix<X> compact() {
+    return parent instanceof AMatrix
+        ? ((AMatrix<X>) parent).compactView(this) : new FunMatrix<>(getHeight(), getWidth(), rowMajorEntries());
+  }
+}
@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Writes matrices to a channel in the binary format described in {@link MatrixFileHeader}, for
+ * {@link MatrixReader} to read back.
+ * <ul>
+ *     <li>Entries are encoded into one reusable buffer of <code>BLOCK_BYTES</code>, which is written out (and
+ *     compressed, if asked to) whenever it fills up, so a matrix is never copied whole</li>
+ *     <li>{@link DoubleMatrix}, {@link LongMatrix} and {@link IntMatrix} are packed straight from their arrays,
+ *     without boxing</li>
+ *     <li>Uncompressed matrices of fixed-size entries are written as plain row-major cells, so the files of
+ *     <code>double</code>s and <code>long</code>s can also be opened by {@link MappedDoubleMatrix} and
+ *     {@link MappedLongMatrix}</li>
+ * </ul>
+ * Several matrices can be written one after another to the same channel. The channel is not closed.
+ */
+public final class MatrixWriter {
+
+  static final int BLOCK_BYTES = 1 << 20;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final WritableByteChannel channel;
+  private final boolean deflate;
+  private ByteBuffer block = ByteBuffer.allocate(BLOCK_BYTES).order(MatrixFileHeader.ORDER);
+  private byte[] compressed = new byte[0];
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * @param _channel where to write
+   * @param _deflate whether to compress the entries with Deflate
+   */
+  MatrixWriter(WritableByteChannel _channel, boolean _deflate)
+      throws IllegalArgumentException {
+    channel = Utils.notNull(_channel);
+    deflate = _deflate;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * Writes the header and every entry of <code>toWrite</code>, in row-major order, each encoded by
+   * <code>codec</code>.
+   *
+   * @throws IllegalArgumentException if either argument is null, or an entry is
+   */
+  public <X> void write(IMatrix<X> toWrite, ElementCodec<X> codec)
+      throws IOException, IllegalArgumentException {
+    Utils.notNull(toWrite);
+    Utils.notNull(codec);
+    boolean framed = deflate || codec.fixedSize() == 0;
+    writeHeader(codec.elementType(), framed, toWrite.getHeight(), toWrite.getWidth());
+
+    if (codec == ElementCodec.DOUBLES && toWrite instanceof DoubleMatrix) {
+      writeDoubles(((DoubleMatrix) toWrite).entries, framed);
+    }
+    else if (codec == ElementCodec.LONGS && toWrite instanceof LongMatrix) {
+      writeLongs(((LongMatrix) toWrite).entries, framed);
+    }
+    else if (codec == ElementCodec.INTS && toWrite instanceof IntMatrix) {
+      writeInts(((IntMatrix) toWrite).entries, framed);
+    }
+    else {
+      for (int i = 0; i < toWrite.getHeight(); i++) {
+        for (int j = 0; j < toWrite.getWidth(); j++) {
+          X anElement = Utils.notNull(toWrite.getElement(i, j));
+          int size = codec.sizeOf(anElement);
+          if (block.remaining() < size) {
+            flush(framed);
+            if (block.capacity() < size) {
+              // the rare entry bigger than a whole block gets a block of its own
+              block = ByteBuffer.allocate(size).order(MatrixFileHeader.ORDER);
+            }
+          }
+          codec.encode(anElement, block);
+        }
+      }
+    }
+
+    flush(framed);
+    if (block.capacity() != BLOCK_BYTES) {
+      block = ByteBuffer.allocate(BLOCK_BYTES).order(MatrixFileHeader.ORDER);
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private void writeHeader(MatrixFileHeader.ElementType elementType, boolean framed, int rows, int cols)
+      throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(MatrixFileHeader.SIZE);
+    new MatrixFileHeader(elementType, framed ? MatrixFileHeader.ROW_BLOCKS : MatrixFileHeader.ROW_MAJOR,
+        deflate ? MatrixFileHeader.DEFLATE : MatrixFileHeader.UNCOMPRESSED, rows, cols).writeTo(header);
+    header.flip();
+    writeFully(header);
+  }
+
+  private void writeDoubles(double[] entries, boolean framed)
+      throws IOException {
+    for (int k = 0; k < entries.length; ) {
+      int n = Math.min(entries.length - k, block.remaining() / Double.BYTES);
+      block.asDoubleBuffer().put(entries, k, n);
+      block.position(block.position() + n * Double.BYTES);
+      k += n;
+      flush(framed);
+    }
+  }
+
+  private void writeLongs(long[] entries, boolean framed)
+      throws IOException {
+    for (int k = 0; k < entries.length; ) {
+      int n = Math.min(entries.length - k, block.remaining() / Long.BYTES);
+      block.asLongBuffer().put(entries, k, n);
+      block.position(block.position() + n * Long.BYTES);
+      k += n;
+      flush(framed);
+    }
+  }
+
+  private void writeInts(int[] entries, boolean framed)
+      throws IOException {
+    for (int k = 0; k < entries.length; ) {
+      int n = Math.min(entries.length - k, block.remaining() / Integer.BYTES);
+      block.asIntBuffer().put(entries, k, n);
+      block.position(block.position() + n * Integer.BYTES);
+      k += n;
+      flush(framed);
+    }
+  }
+
+  // writes out whatever has been encoded into the block, framed and compressed as configured, and empties it
+  private void flush(boolean framed)
+      throws IOException {
+    block.flip();
+    if (!block.hasRemaining()) {
+      block.clear();
+      return;
+    }
+
+    if (!framed) {
+      writeFully(block);
+    }
+    else if (!deflate) {
+      writeFully(frame(block.remaining(), block.remaining()));
+      writeFully(block);
+    }
+    else {
+      int rawLength = block.remaining();
+      Deflater deflater = new Deflater();
+      deflater.setInput(block.array(), 0, rawLength);
+      deflater.finish();
+
+      int storedLength = 0;
+      compressed = compressed.length < rawLength + 64 ? new byte[rawLength + 64] : compressed;
+      while (!deflater.finished()) {
+        if (storedLength == compressed.length) {
+          compressed = Arrays.copyOf(compressed, compressed.length * 2);
+        }
+        storedLength += deflater.deflate(compressed, storedLength, compressed.length - storedLength);
+      }
+      deflater.end();
+
+      writeFully(frame(storedLength, rawLength));
+      writeFully(ByteBuffer.wrap(compressed, 0, storedLength));
+    }
+
+    block.clear();
+  }
+
+  private static ByteBuffer frame(int storedLength, int rawLength) {
+    return ByteBuffer.allocate(2 * Integer.BYTES).order(MatrixFileHeader.ORDER)
+        .putInt(storedLength).putInt(rawLength).flip();
+  }
+
+  private void writeFully(ByteBuffer toWrite)
+      throws IOException {
+    while (toWrite.hasRemaining()) {
+      channel.write(toWrite);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/**
+ * How {@link DoubleMatrix#multiply(DoubleMatrix, MultiplyStrategy)} and
+ * {@link IntMatrix#multiply(IntMatrix, MultiplyStrategy)} compute an ordinary matrix product.
+ * <ul>
+ *     <li>{@link #NAIVE}, {@link #BLOCKED} and {@link #RECURSIVE} add up the products of every result cell in the
+ *     same order, <i>k = 0, 1, ..., m - 1</i>, so they give bit-for-bit the same <code>double</code>s</li>
+ *     <li>{@link #STRASSEN} does fewer multiplications but adds them up differently, so its <code>double</code>s may
+ *     differ in the last bits (its <code>int</code>s are exact, wrapping around on overflow like <code>*</code> and
+ *     <code>+</code>)</li>
+ *     <li>{@link #RECURSIVE} and {@link #STRASSEN} run their sub-products in the common {@link
+ *     java.util.concurrent.ForkJoinPool}</li>
+ * </ul>
+ */
+public enum MultiplyStrategy {
+
+  /**
+   * The textbook triple loop, one dot product per result cell.
+   */
+  NAIVE {
+    @Override
+    double[] multiply(double[] a, double[] b, int n, int m, int p) {
+      return MatrixMultiplication.naive(a, b, n, m, p);
+    }
+
+    @Override
+    int[] multiply(int[] a, int[] b, int n, int m, int p) {
+      return MatrixMultiplication.naive(a, b, n, m, p);
+    }
+  },
+
+  /**
+   * Loops tiled into cache-sized blocks, on the calling thread.
+   */
+  BLOCKED {
+    @Override
+    double[] multiply(double[] a, double[] b, int n, int m, int p) {
+      return MatrixMultiplication.blocked(a, b, n, m, p);
+    }
+
+    @Override
+    int[] multiply(int[] a, int[] b, int n, int m, int p) {
+      return MatrixMultiplication.blocked(a, b, n, m, p);
+    }
+  },
+
+  /**
+   * Cache-oblivious: the largest of the three dimensions is halved until a sub-product fits in cache, with the row
+   * and column halves computed in parallel.
+   */
+  RECURSIVE {
+    @Override
+    double[] multiply(double[] a, double[] b, int n, int m, int p) {
+      return RecursiveMultiplication.recursive(a, b, n, m, p);
+    }
+
+    @Override
+    int[] multiply(int[] a, int[] b, int n, int m, int p) {
+      return RecursiveMultiplication.recursive(a, b, n, m, p);
+    }
+  },
+
+  /**
+   * Strassen-Winograd: 7 half-size products and 15 additions per level instead of 8 products, down to squares of at
+   * most {@link #getCrossover()}, which are multiplied {@link #BLOCKED}. The operands are zero-padded to a square, so
+   * this suits products whose three dimensions are close.
+   */
+  STRASSEN {
+    @Override
+    double[] multiply(double[] a, double[] b, int n, int m, int p) {
+      return RecursiveMultiplication.strassen(a, b, n, m, p, crossover);
+    }
+
+    @Override
+    int[] multiply(int[] a, int[] b, int n, int m, int p) {
+      return RecursiveMultiplication.strassen(a, b, n, m, p, crossover);
+    }
+  },
+
+  /**
+   * {@link #BLOCKED} unless every dimension reaches {@link #getCrossover()}, since a product that is thin in any
+   * dimension gains nothing from recursion. Once all three do, {@link #RECURSIVE} for <code>double</code>s, which
+   * keeps their results exact, and {@link #STRASSEN} for <code>int</code>s.
+   */
+  AUTO {
+    @Override
+    double[] multiply(double[] a, double[] b, int n, int m, int p) {
+      return (isLarge(n, m, p) ? RECURSIVE : BLOCKED).multiply(a, b, n, m, p);
+    }
+
+    @Override
+    int[] multiply(int[] a, int[] b, int n, int m, int p) {
+      return (isLarge(n, m, p) ? STRASSEN : BLOCKED).multiply(a, b, n, m, p);
+    }
+  };
+
+  private static volatile int crossover = Integer.getInteger("funmatrix.multiply.crossover", 256);
+
+  /**
+   * The size every dimension must reach for {@link #AUTO} to leave {@link #BLOCKED}, and the largest square
+   * {@link #STRASSEN} multiplies directly. Defaults to the <code>funmatrix.multiply.crossover</code> system property,
+   * or 256.
+   */
+  public static int getCrossover() {
+    return crossover;
+  }
+
+  public static void setCrossover(int size)
+      throws IllegalArgumentException {
+    crossover = Utils.intBetween(1, size, Integer.MAX_VALUE);
+  }
+
+  /**
+   * The product of the <i>n</i> x <i>m</i> row-major <code>a</code> and the <i>m</i> x <i>p</i> row-major
+   * <code>b</code>, as a fresh <i>n</i> x <i>p</i> row-major array.
+   */
+  abstract double[] multiply(double[] a, double[] b, int n, int m, int p);
+
+  abstract int[] multiply(int[] a, int[] b, int n, int m, int p);
+
+  private static boolean isLarge(int n, int m, int p) {
+    return Math.min(n, Math.min(m, p)) >= crossover;
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * The cells within <code>radius</code> rows and columns of one cell of a matrix, as {@link IMatrix#mapNeighborhood}
+ * hands them to its kernel.
+ * <br>
+ * Neighbors are read by their offset from the center, from a tile of the matrix that already has its border filled
+ * in by the {@link BoundaryMode}, so reading one costs an array access whether or not the center is near an edge.
+ * The same <code>Neighborhood</code> is moved from cell to cell, so it is only valid during the call it is passed to
+ * and must not be kept.
+ *
+ * @param <X> The type of the entry included in the matrix
+ */
+public final class Neighborhood<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final int radius;
+  // a tile and its border, row-major, stride cells per row
+  private final Object[] tile;
+  private final int stride;
+  private int center;
+  private int row;
+  private int col;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  Neighborhood(int _radius, Object[] _tile, int _stride) {
+    radius = _radius;
+    tile = _tile;
+    stride = _stride;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * The neighbor <code>rowOffset</code> rows below and <code>colOffset</code> columns to the right of the center;
+   * <code>get(0, 0)</code> is the center itself.
+   *
+   * @throws IllegalArgumentException if either offset is further than the radius from 0
+   */
+  @SuppressWarnings("unchecked")
+  public X get(int rowOffset, int colOffset)
+      throws IllegalArgumentException {
+    if (rowOffset < -radius || rowOffset > radius || colOffset < -radius || colOffset > radius) {
+      throw new IllegalArgumentException("offset (" + rowOffset + ", " + colOffset + ") is outside a radius of "
+          + radius);
+    }
+    return (X) tile[center + rowOffset * stride + colOffset];
+  }
+
+  /**
+   * The row of the center in the matrix.
+   */
+  public int getRow() {
+    return row;
+  }
+
+  /**
+   * The column of the center in the matrix.
+   */
+  public int getCol() {
+    return col;
+  }
+
+  public int getRadius() {
+    return radius;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  void moveTo(int _center, int _row, int _col) {
+    center = _center;
+    row = _row;
+    col = _col;
+  }
+}
@@ -0,0 +1,105 @@
+import java.util.Optional;
+
+/**
+ * The inner loops of the numeric operations of {@link DoubleMatrix} and {@link IntMatrix}, over flat primitive
+ * arrays. There are two implementations:
+ * <ul>
+ *     <li>{@link ScalarKernels}: plain Java loops, always available</li>
+ *     <li><code>VectorKernels</code>: the same loops written against the JDK Vector API
+ *     (<code>jdk.incubator.vector</code>), so that each iteration works on a whole SIMD register of lanes</li>
+ * </ul>
+ * {@link #BEST} is the vectorized implementation when the JVM was started with
+ * <code>--add-modules jdk.incubator.vector</code>, and the scalar one otherwise, or when the
+ * <code>funmatrix.vector</code> system property is <code>false</code>. Both give exactly the same results, except that
+ * {@link #sum(double[])} and {@link #dot(double[], double[])} may add in a different order, and so differ in the last
+ * bits.
+ * <br>
+ * Every method writes to (or reads) the whole of its arrays, which must all be of the same length.
+ */
+interface NumericKernels {
+
+    NumericKernels BEST = vectorized().orElse(ScalarKernels.INSTANCE);
+
+    /**
+     * The vectorized kernels, if the <code>jdk.incubator.vector</code> module is present and
+     * <code>funmatrix.vector</code> is not <code>false</code>.
+     */
+    static Optional<NumericKernels> vectorized() {
+        if (!Boolean.parseBoolean(System.getProperty("funmatrix.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return Optional.empty();
+        }
+        // loaded by name, so that nothing links against the Vector API unless the module is there
+        try {
+            String className = NumericKernels.class.getName().replace("NumericKernels", "VectorKernels");
+            return Optional.of((NumericKernels) Class.forName(className).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~element-wise~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+    void combine(Arithmetic op, double[] left, double[] right, double[] out);
+
+    void combine(Arithmetic op, int[] left, int[] right, int[] out);
+
+    void scale(double[] entries, double factor, double[] out);
+
+    void scale(int[] entries, int factor, int[] out);
+
+    void offset(double[] entries, double shift, double[] out);
+
+    void offset(int[] entries, int shift, int[] out);
+
+    /**
+     * <code>out[k] = min(max(entries[k], lower), upper)</code>.
+     */
+    void clamp(double[] entries, double lower, double upper, double[] out);
+
+    void clamp(int[] entries, int lower, int upper, int[] out);
+
+    //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~reductions~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+    double sum(double[] entries);
+
+    /**
+     * The sum of <code>entries</code>, wrapping around on overflow like <code>+</code>.
+     */
+    int sum(int[] entries);
+
+    /**
+     * The least of <code>entries</code> as {@link Math#min(double, double)} finds it, or positive infinity if there
+     * are none.
+     */
+    double min(double[] entries);
+
+    /**
+     * The least of <code>entries</code>, or {@link Integer#MAX_VALUE} if there are none.
+     */
+    int min(int[] entries);
+
+    /**
+     * The greatest of <code>entries</code> as {@link Math#max(double, double)} finds it, or negative infinity if
+     * there are none.
+     */
+    double max(double[] entries);
+
+    /**
+     * The greatest of <code>entries</code>, or {@link Integer#MIN_VALUE} if there are none.
+     */
+    int max(int[] entries);
+
+    double dot(double[] left, double[] right);
+
+    int dot(int[] left, int[] right);
+
+    //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~multiplication~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+    /**
+     * The microkernel of {@link MatrixMultiplication}:
+     * <code>y[yFrom + j] += alpha * x[xFrom + j]</code> for every <code>j</code> in <code>[0, length)</code>, with
+     * the product rounded before the sum as in the scalar loop.
+     */
+    void axpy(double alpha, double[] x, int xFrom, double[] y, int yFrom, int length);
+
+    void axpy(int alpha, int[] x, int xFrom, int[] y, int yFrom, int length);
+}
@@ -0,0 +1,189 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * How a matrix runs its bulk operations: either on the calling thread, or split into blocks of whole rows that run
+ * on a {@link ForkJoinPool}.
+ * <ul>
+ *     <li>Rows are split by recursive halving, so every block is a contiguous run of rows and writes a contiguous
+ *     range of a row-major result; results come out in the same order as a sequential run</li>
+ *     <li>Matrices with fewer cells than {@link #getThreshold()} always run sequentially, since forking costs more
+ *     than it saves on small inputs</li>
+ * </ul>
+ */
+public final class Parallelism {
+
+  /**
+   * The body of a bulk operation over the rows <code>[firstRowIncl, lastRowExcl)</code>.
+   */
+  interface RowBlock {
+    void run(int firstRowIncl, int lastRowExcl);
+  }
+
+  /**
+   * A bulk operation over the rows <code>[firstRowIncl, lastRowExcl)</code> that produces a partial result.
+   */
+  interface RowBlockFunction<R> {
+    R apply(int firstRowIncl, int lastRowExcl);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  static final Parallelism SEQUENTIAL = new Parallelism(null);
+
+  // no block is ever made smaller than this many cells
+  private static final int MIN_BLOCK_CELLS = 1 << 12;
+
+  private static volatile int threshold = Integer.getInteger("funmatrix.parallel.threshold", 1 << 15);
+
+  private final ForkJoinPool pool;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private Parallelism(ForkJoinPool _pool) {
+    pool = _pool;
+  }
+
+  static Parallelism on(ForkJoinPool pool) {
+    return new Parallelism(Utils.notNull(pool));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * The number of cells a parallel matrix must have before its bulk operations are actually split across threads.
+   * Defaults to the <code>funmatrix.parallel.threshold</code> system property, or 32768.
+   */
+  public static int getThreshold() {
+    return threshold;
+  }
+
+  public static void setThreshold(int cells)
+      throws IllegalArgumentException {
+    threshold = Utils.intBetween(0, cells, Integer.MAX_VALUE);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  boolean isParallel() {
+    return pool != null;
+  }
+
+  ForkJoinPool pool() {
+    return pool;
+  }
+
+  /**
+   * Runs <code>body</code> over every row of a <code>rows</code> x <code>cols</code> matrix, in blocks that may run
+   * concurrently. Returns once every block has finished.
+   */
+  void forEachRowBlock(int rows, int cols, RowBlock body) {
+    if (!splits(rows, cols)) {
+      body.run(0, rows);
+      return;
+    }
+    pool.invoke(new RowBlockAction(body, 0, rows, cols, blockCells(rows, cols)));
+  }
+
+  /**
+   * Applies <code>leaf</code> to blocks of rows of a <code>rows</code> x <code>cols</code> matrix and merges the
+   * partial results with <code>merge(upperBlock, lowerBlock)</code>, keeping row order.
+   */
+  <R> R mapRowBlocks(int rows, int cols, RowBlockFunction<R> leaf, BinaryOperator<R> merge) {
+    if (!splits(rows, cols)) {
+      return leaf.apply(0, rows);
+    }
+    return pool.invoke(new RowBlockTask<>(leaf, merge, 0, rows, cols, blockCells(rows, cols)));
+  }
+
+  /**
+   * Sorts <code>entries</code> stably, with {@link Arrays#parallelSort} on this pool when there are at least
+   * {@link #getThreshold()} of them, and with {@link Arrays#sort} otherwise.
+   */
+  <X> void sort(X[] entries, Comparator<? super X> comparator) {
+    if (pool == null || entries.length < threshold) {
+      Arrays.sort(entries, comparator);
+      return;
+    }
+    // parallelSort forks into the pool of the thread that calls it
+    pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(entries, comparator)));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private boolean splits(int rows, int cols) {
+    return pool != null && rows > 1 && (long) rows * cols >= threshold;
+  }
+
+  // aim for a few blocks per worker so that uneven blocks still balance out
+  private int blockCells(int rows, int cols) {
+    long cells = (long) rows * cols;
+    return (int) Math.max(MIN_BLOCK_CELLS, cells / (4L * pool.getParallelism()));
+  }
+
+  private static final class RowBlockAction extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final RowBlock body;
+    private final int firstRowIncl;
+    private final int lastRowExcl;
+    private final int cols;
+    private final int blockCells;
+
+    RowBlockAction(RowBlock _body, int _firstRowIncl, int _lastRowExcl, int _cols, int _blockCells) {
+      body = _body;
+      firstRowIncl = _firstRowIncl;
+      lastRowExcl = _lastRowExcl;
+      cols = _cols;
+      blockCells = _blockCells;
+    }
+
+    @Override
+    protected void compute() {
+      int numRows = lastRowExcl - firstRowIncl;
+      if (numRows <= 1 || (long) numRows * cols <= blockCells) {
+        body.run(firstRowIncl, lastRowExcl);
+        return;
+      }
+      int middleRow = firstRowIncl + numRows / 2;
+      invokeAll(new RowBlockAction(body, firstRowIncl, middleRow, cols, blockCells),
+          new RowBlockAction(body, middleRow, lastRowExcl, cols, blockCells));
+    }
+  }
+
+  private static final class RowBlockTask<R> extends RecursiveTask<R> {
+    private static final long serialVersionUID = 1L;
+
+    private final RowBlockFunction<R> leaf;
+    private final BinaryOperator<R> merge;
+    private final int firstRowIncl;
+    private final int lastRowExcl;
+    private final int cols;
+    private final int blockCells;
+
+    RowBlockTask(RowBlockFunction<R> _leaf, BinaryOperator<R> _merge, int _firstRowIncl, int _lastRowExcl,
+                 int _cols, int _blockCells) {
+      leaf = _leaf;
+      merge = _merge;
+      firstRowIncl = _firstRowIncl;
+      lastRowExcl = _lastRowExcl;
+      cols = _cols;
+      blockCells = _blockCells;
+    }
+
+    @Override
+    protected R compute() {
+      int numRows = lastRowExcl - firstRowIncl;
+      if (numRows <= 1 || (long) numRows * cols <= blockCells) {
+        return leaf.apply(firstRowIncl, lastRowExcl);
+      }
+      int middleRow = firstRowIncl + numRows / 2;
+      RowBlockTask<R> upper = new RowBlockTask<>(leaf, merge, firstRowIncl, middleRow, cols, blockCells);
+      RowBlockTask<R> lower = new RowBlockTask<>(leaf, merge, middleRow, lastRowExcl, cols, blockCells);
+      lower.fork();
+      R upperResult = upper.compute();
+      return merge.apply(upperResult, lower.join());
+    }
+  }
+}
@@ -0,0 +1,108 @@
+import java.util.List;
+
+/**
+ * An {@link IMatrix} built for frequent <code>update*</code>s: a {@link PersistentVector} of rows, each row itself a
+ * <code>PersistentVector</code> of cells.
+ * <ul>
+ *     <li>{@link #updateEntry} costs O(log rows + log cols) and {@link #updateRow} O(cols + log rows); the new
+ *     matrix shares every untouched row, and every untouched part of the updated row, with this one</li>
+ *     <li>{@link #updateCol} touches one path in each row, O(rows * log cols), instead of copying every cell</li>
+ *     <li>Every other operation behaves as in {@link AMatrix}, reading through the tries</li>
+ * </ul>
+ *
+ * @param <X> The type of the entry included in this matrix
+ */
+public class PersistentMatrix<X> extends AMatrix<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final int rows;
+  protected final int cols;
+  protected final PersistentVector<PersistentVector<X>> rowVectors;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  PersistentMatrix(IMatrix<X> toCopy)
+      throws IllegalArgumentException {
+    rows = Utils.notNull(toCopy).getHeight();
+    cols = toCopy.getWidth();
+
+    Object[] flat = rowMajorEntries(toCopy);
+    Object[] _rowVectors = new Object[rows];
+    for (int i = 0; i < rows; i++) {
+      _rowVectors[i] = PersistentVector.of(flat, i * cols, cols);
+    }
+    rowVectors = PersistentVector.of(_rowVectors, 0, rows);
+  }
+
+  private PersistentMatrix(int _rows, int _cols, PersistentVector<PersistentVector<X>> _rowVectors) {
+    rows = _rows;
+    cols = _cols;
+    rowVectors = _rowVectors;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public X getElement(int row, int col)
+      throws IllegalArgumentException {
+    return rowVectors.get(Utils.intBetween(0, row, rows - 1)).get(Utils.intBetween(0, col, cols - 1));
+  }
+
+  @Override
+  public int getWidth() {
+    return cols;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows;
+  }
+
+  @Override
+  public IMatrix<X> copy() {
+    // nothing here is ever mutated, so a copy can share all of it
+    return new PersistentMatrix<>(rows, cols, rowVectors);
+  }
+
+  @Override
+  public IMatrix<X> updateEntry(X newEntry, int row, int col)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, row, rows - 1);
+    Utils.intBetween(0, col, cols - 1);
+    Utils.notNull(newEntry);
+
+    return new PersistentMatrix<>(rows, cols, rowVectors.set(row, rowVectors.get(row).set(col, newEntry)));
+  }
+
+  @Override
+  public IMatrix<X> updateRow(List<X> newRow, int rowNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, rowNum, rows - 1);
+    Utils.intBetween(cols, Utils.notNull(newRow).size(), cols);
+
+    return new PersistentMatrix<>(rows, cols, rowVectors.set(rowNum, PersistentVector.of(newRow.toArray(), 0, cols)));
+  }
+
+  @Override
+  public IMatrix<X> updateCol(List<X> newCol, int colNum)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, colNum, cols - 1);
+    Utils.intBetween(rows, Utils.notNull(newCol).size(), rows);
+
+    // every row changes, so rebuild the trie of rows outright rather than path-copying it once per row
+    Object[] updatedRows = new Object[rows];
+    for (int i = 0; i < rows; i++) {
+      updatedRows[i] = rowVectors.get(i).set(colNum, newCol.get(i));
+    }
+
+    return new PersistentMatrix<>(rows, cols, PersistentVector.of(updatedRows, 0, rows));
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~protected methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  protected Object[] rowMajorEntries() {
+    Object[] flat = new Object[rows * cols];
+    for (int i = 0; i < rows; i++) {
+      rowVectors.get(i).copyInto(flat, i * cols);
+    }
+    return flat;
+  }
+}
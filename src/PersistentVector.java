@@ -0,0 +1,122 @@
+/**
+ * A fixed-size immutable array with O(log<sub>32</sub> n) updates, backing {@link PersistentMatrix}.
+ * <br>
+ * Elements live in the leaves of a trie whose nodes have up to 32 children; the index of an element, read five bits
+ * at a time from the most significant end, is its path from the root. {@link #set(int, Object)} copies only the
+ * nodes on that path (at most 7 arrays of 32 slots, for any <code>int</code> size) and shares every other node with
+ * the original vector.
+ *
+ * @param <E> the type of the elements
+ */
+final class PersistentVector<E> {
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final int size;
+  // number of index bits consumed below the root: 0 when the root is itself a leaf
+  private final int shift;
+  private final Object[] root;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private PersistentVector(int _size, int _shift, Object[] _root) {
+    size = _size;
+    shift = _shift;
+    root = _root;
+  }
+
+  /**
+   * A vector holding <code>elements[from]</code> through <code>elements[from + length - 1]</code>. The array is
+   * copied, so it may be reused afterwards.
+   */
+  static <E> PersistentVector<E> of(Object[] elements, int from, int length) {
+    Utils.intBetween(0, length, Utils.notNull(elements).length - Utils.intBetween(0, from, elements.length));
+
+    // build the leaves, then each level of parents, until one node is left
+    int numNodes = Math.max(1, (length + MASK) >>> BITS);
+    Object[] level = new Object[numNodes];
+    for (int n = 0; n < numNodes; n++) {
+      int leafLength = Math.min(WIDTH, length - n * WIDTH);
+      Object[] leaf = new Object[WIDTH];
+      System.arraycopy(elements, from + n * WIDTH, leaf, 0, Math.max(0, leafLength));
+      level[n] = leaf;
+    }
+
+    int _shift = 0;
+    while (level.length > 1) {
+      Object[] parents = new Object[(level.length + MASK) >>> BITS];
+      for (int n = 0; n < parents.length; n++) {
+        Object[] parent = new Object[WIDTH];
+        System.arraycopy(level, n * WIDTH, parent, 0, Math.min(WIDTH, level.length - n * WIDTH));
+        parents[n] = parent;
+      }
+      level = parents;
+      _shift += BITS;
+    }
+
+    return new PersistentVector<>(length, _shift, (Object[]) level[0]);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  int size() {
+    return size;
+  }
+
+  // every leaf slot holds an E
+  @SuppressWarnings("unchecked")
+  E get(int index)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, index, size - 1);
+
+    Object[] node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Object[]) node[(index >>> level) & MASK];
+    }
+
+    return (E) node[index & MASK];
+  }
+
+  /**
+   * A new vector equal to this one except at <code>index</code>, sharing every untouched node with this one.
+   */
+  PersistentVector<E> set(int index, E element)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, index, size - 1);
+    return new PersistentVector<>(size, shift, set(root, shift, index, element));
+  }
+
+  /**
+   * Copies the elements into <code>destination</code>, starting at <code>destinationFrom</code>.
+   */
+  void copyInto(Object[] destination, int destinationFrom) {
+    copyInto(root, shift, 0, destination, destinationFrom);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private static Object[] set(Object[] node, int level, int index, Object element) {
+    Object[] copied = node.clone();
+    if (level == 0) {
+      copied[index & MASK] = element;
+    }
+    else {
+      int child = (index >>> level) & MASK;
+      copied[child] = set((Object[]) node[child], level - BITS, index, element);
+    }
+    return copied;
+  }
+
+  // visits the leaves left to right, copying the slots that lie inside [0, size)
+  private int copyInto(Object[] node, int level, int copied, Object[] destination, int destinationFrom) {
+    if (level == 0) {
+      int leafLength = Math.min(WIDTH, size - copied);
+      System.arraycopy(node, 0, destination, destinationFrom + copied, leafLength);
+      return copied + leafLength;
+    }
+    for (int child = 0; child < WIDTH && node[child] != null && copied < size; child++) {
+      copied = copyInto((Object[]) node[child], level - BITS, copied, destination, destinationFrom);
+    }
+    return copied;
+  }
+}
@@ -0,0 +1,408 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The divide-and-conquer kernels behind {@link MultiplyStrategy#RECURSIVE} and {@link MultiplyStrategy#STRASSEN},
+ * over the same row-major arrays as {@link MatrixMultiplication}.
+ * <ul>
+ *     <li><code>recursive</code> halves the largest of <i>n</i>, <i>m</i> and <i>p</i> until a sub-product is at most
+ *     <code>LEAF_WORK</code> multiply-adds. Halves along <i>n</i> or <i>p</i> write disjoint parts of the result and
+ *     run in parallel; halves along <i>m</i> run one after the other, lower <i>k</i> first, so every cell still sees
+ *     its products in increasing <i>k</i></li>
+ *     <li><code>strassen</code> zero-pads both operands to a square whose side halves evenly down to at most the
+ *     crossover, and forks the 7 sub-products of each level</li>
+ * </ul>
+ */
+final class RecursiveMultiplication {
+
+  // 64 x 64 x 64: the three blocks of a leaf fit in a 256KB L2 cache, like MatrixMultiplication.BLOCK
+  static final long LEAF_WORK = 1L << 18;
+
+  private RecursiveMultiplication() {
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~recursive~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  static double[] recursive(double[] a, double[] b, int n, int m, int p) {
+    double[] c = new double[n * p];
+    ForkJoinPool.commonPool().invoke(new DoubleProduct(a, b, c, m, p, 0, n, 0, p, 0, m));
+    return c;
+  }
+
+  static int[] recursive(int[] a, int[] b, int n, int m, int p) {
+    int[] c = new int[n * p];
+    ForkJoinPool.commonPool().invoke(new IntProduct(a, b, c, m, p, 0, n, 0, p, 0, m));
+    return c;
+  }
+
+  // adds a[i0:i1, k0:k1] * b[k0:k1, j0:j1] into c[i0:i1, j0:j1]
+  private static final class DoubleProduct extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final double[] a;
+    private final double[] b;
+    private final double[] c;
+    private final int m;
+    private final int p;
+    private final int i0;
+    private final int i1;
+    private final int j0;
+    private final int j1;
+    private final int k0;
+    private final int k1;
+
+    DoubleProduct(double[] _a, double[] _b, double[] _c, int _m, int _p,
+                  int _i0, int _i1, int _j0, int _j1, int _k0, int _k1) {
+      a = _a;
+      b = _b;
+      c = _c;
+      m = _m;
+      p = _p;
+      i0 = _i0;
+      i1 = _i1;
+      j0 = _j0;
+      j1 = _j1;
+      k0 = _k0;
+      k1 = _k1;
+    }
+
+    @Override
+    protected void compute() {
+      int rows = i1 - i0;
+      int cols = j1 - j0;
+      int depth = k1 - k0;
+
+      if ((long) rows * cols * depth <= LEAF_WORK) {
+        NumericKernels kernels = NumericKernels.BEST;
+        for (int i = i0; i < i1; i++) {
+          for (int k = k0; k < k1; k++) {
+            kernels.axpy(a[i * m + k], b, k * p + j0, c, i * p + j0, cols);
+          }
+        }
+      }
+      else if (depth >= rows && depth >= cols) {
+        int kMid = (k0 + k1) >>> 1;
+        new DoubleProduct(a, b, c, m, p, i0, i1, j0, j1, k0, kMid).compute();
+        new DoubleProduct(a, b, c, m, p, i0, i1, j0, j1, kMid, k1).compute();
+      }
+      else if (rows >= cols) {
+        int iMid = (i0 + i1) >>> 1;
+        invokeAll(new DoubleProduct(a, b, c, m, p, i0, iMid, j0, j1, k0, k1),
+            new DoubleProduct(a, b, c, m, p, iMid, i1, j0, j1, k0, k1));
+      }
+      else {
+        int jMid = (j0 + j1) >>> 1;
+        invokeAll(new DoubleProduct(a, b, c, m, p, i0, i1, j0, jMid, k0, k1),
+            new DoubleProduct(a, b, c, m, p, i0, i1, jMid, j1, k0, k1));
+      }
+    }
+  }
+
+  private static final class IntProduct extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] a;
+    private final int[] b;
+    private final int[] c;
+    private final int m;
+    private final int p;
+    private final int i0;
+    private final int i1;
+    private final int j0;
+    private final int j1;
+    private final int k0;
+    private final int k1;
+
+    IntProduct(int[] _a, int[] _b, int[] _c, int _m, int _p,
+               int _i0, int _i1, int _j0, int _j1, int _k0, int _k1) {
+      a = _a;
+      b = _b;
+      c = _c;
+      m = _m;
+      p = _p;
+      i0 = _i0;
+      i1 = _i1;
+      j0 = _j0;
+      j1 = _j1;
+      k0 = _k0;
+      k1 = _k1;
+    }
+
+    @Override
+    protected void compute() {
+      int rows = i1 - i0;
+      int cols = j1 - j0;
+      int depth = k1 - k0;
+
+      if ((long) rows * cols * depth <= LEAF_WORK) {
+        NumericKernels kernels = NumericKernels.BEST;
+        for (int i = i0; i < i1; i++) {
+          for (int k = k0; k < k1; k++) {
+            kernels.axpy(a[i * m + k], b, k * p + j0, c, i * p + j0, cols);
+          }
+        }
+      }
+      else if (depth >= rows && depth >= cols) {
+        int kMid = (k0 + k1) >>> 1;
+        new IntProduct(a, b, c, m, p, i0, i1, j0, j1, k0, kMid).compute();
+        new IntProduct(a, b, c, m, p, i0, i1, j0, j1, kMid, k1).compute();
+      }
+      else if (rows >= cols) {
+        int iMid = (i0 + i1) >>> 1;
+        invokeAll(new IntProduct(a, b, c, m, p, i0, iMid, j0, j1, k0, k1),
+            new IntProduct(a, b, c, m, p, iMid, i1, j0, j1, k0, k1));
+      }
+      else {
+        int jMid = (j0 + j1) >>> 1;
+        invokeAll(new IntProduct(a, b, c, m, p, i0, i1, j0, jMid, k0, k1),
+            new IntProduct(a, b, c, m, p, i0, i1, jMid, j1, k0, k1));
+      }
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~strassen~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  static double[] strassen(double[] a, double[] b, int n, int m, int p, int crossover) {
+    int leaf = Math.max(n, Math.max(m, p));
+    int levels = 0;
+    while (leaf > crossover) {
+      leaf = (leaf + 1) / 2;
+      levels++;
+    }
+    if (levels == 0) {
+      return MatrixMultiplication.blocked(a, b, n, m, p);
+    }
+
+    int size = leaf << levels;
+    double[] c = ForkJoinPool.commonPool().invoke(
+        new DoubleStrassen(padded(a, n, m, size), padded(b, m, p, size), size, leaf));
+    return unpadded(c, size, n, p);
+  }
+
+  static int[] strassen(int[] a, int[] b, int n, int m, int p, int crossover) {
+    int leaf = Math.max(n, Math.max(m, p));
+    int levels = 0;
+    while (leaf > crossover) {
+      leaf = (leaf + 1) / 2;
+      levels++;
+    }
+    if (levels == 0) {
+      return MatrixMultiplication.blocked(a, b, n, m, p);
+    }
+
+    int size = leaf << levels;
+    int[] c = ForkJoinPool.commonPool().invoke(
+        new IntStrassen(padded(a, n, m, size), padded(b, m, p, size), size, leaf));
+    return unpadded(c, size, n, p);
+  }
+
+  /*
+   * One level of Strassen-Winograd over size x size squares, with quadrants A11..A22 and B11..B22:
+   *   S1 = A21 + A22   S2 = S1 - A11   S3 = A11 - A21   S4 = A12 - S2
+   *   T1 = B12 - B11   T2 = B22 - T1   T3 = B22 - B12   T4 = T2 - B21
+   *   P1 = A11 B11   P2 = A12 B21   P3 = S4 B22   P4 = A22 T4   P5 = S1 T1   P6 = S2 T2   P7 = S3 T3
+   *   U2 = P1 + P6   U3 = U2 + P7   U4 = U2 + P5
+   *   C11 = P1 + P2   C12 = U4 + P3   C21 = U3 - P4   C22 = U3 + P5
+   */
+  private static final class DoubleStrassen extends RecursiveTask<double[]> {
+    private static final long serialVersionUID = 1L;
+
+    private final double[] a;
+    private final double[] b;
+    private final int size;
+    private final int leaf;
+
+    DoubleStrassen(double[] _a, double[] _b, int _size, int _leaf) {
+      a = _a;
+      b = _b;
+      size = _size;
+      leaf = _leaf;
+    }
+
+    @Override
+    protected double[] compute() {
+      if (size <= leaf) {
+        return MatrixMultiplication.blocked(a, b, size, size, size);
+      }
+      int half = size / 2;
+      double[] a11 = quadrant(a, size, 0, 0);
+      double[] a12 = quadrant(a, size, 0, half);
+      double[] a21 = quadrant(a, size, half, 0);
+      double[] a22 = quadrant(a, size, half, half);
+      double[] b11 = quadrant(b, size, 0, 0);
+      double[] b12 = quadrant(b, size, 0, half);
+      double[] b21 = quadrant(b, size, half, 0);
+      double[] b22 = quadrant(b, size, half, half);
+
+      double[] s1 = combined(Arithmetic.ADD, a21, a22);
+      double[] s2 = combined(Arithmetic.SUBTRACT, s1, a11);
+      double[] s3 = combined(Arithmetic.SUBTRACT, a11, a21);
+      double[] s4 = combined(Arithmetic.SUBTRACT, a12, s2);
+      double[] t1 = combined(Arithmetic.SUBTRACT, b12, b11);
+      double[] t2 = combined(Arithmetic.SUBTRACT, b22, t1);
+      double[] t3 = combined(Arithmetic.SUBTRACT, b22, b12);
+      double[] t4 = combined(Arithmetic.SUBTRACT, t2, b21);
+
+      DoubleStrassen p1 = new DoubleStrassen(a11, b11, half, leaf);
+      DoubleStrassen p2 = new DoubleStrassen(a12, b21, half, leaf);
+      DoubleStrassen p3 = new DoubleStrassen(s4, b22, half, leaf);
+      DoubleStrassen p4 = new DoubleStrassen(a22, t4, half, leaf);
+      DoubleStrassen p5 = new DoubleStrassen(s1, t1, half, leaf);
+      DoubleStrassen p6 = new DoubleStrassen(s2, t2, half, leaf);
+      DoubleStrassen p7 = new DoubleStrassen(s3, t3, half, leaf);
+      ForkJoinTask.invokeAll(p1, p2, p3, p4, p5, p6, p7);
+
+      double[] u2 = combined(Arithmetic.ADD, p1.join(), p6.join());
+      double[] u3 = combined(Arithmetic.ADD, u2, p7.join());
+      double[] u4 = combined(Arithmetic.ADD, u2, p5.join());
+
+      double[] c = new double[size * size];
+      place(combined(Arithmetic.ADD, p1.join(), p2.join()), c, size, 0, 0);
+      place(combined(Arithmetic.ADD, u4, p3.join()), c, size, 0, half);
+      place(combined(Arithmetic.SUBTRACT, u3, p4.join()), c, size, half, 0);
+      place(combined(Arithmetic.ADD, u3, p5.join()), c, size, half, half);
+      return c;
+    }
+  }
+
+  private static final class IntStrassen extends RecursiveTask<int[]> {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] a;
+    private final int[] b;
+    private final int size;
+    private final int leaf;
+
+    IntStrassen(int[] _a, int[] _b, int _size, int _leaf) {
+      a = _a;
+      b = _b;
+      size = _size;
+      leaf = _leaf;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (size <= leaf) {
+        return MatrixMultiplication.blocked(a, b, size, size, size);
+      }
+      int half = size / 2;
+      int[] a11 = quadrant(a, size, 0, 0);
+      int[] a12 = quadrant(a, size, 0, half);
+      int[] a21 = quadrant(a, size, half, 0);
+      int[] a22 = quadrant(a, size, half, half);
+      int[] b11 = quadrant(b, size, 0, 0);
+      int[] b12 = quadrant(b, size, 0, half);
+      int[] b21 = quadrant(b, size, half, 0);
+      int[] b22 = quadrant(b, size, half, half);
+
+      int[] s1 = combined(Arithmetic.ADD, a21, a22);
+      int[] s2 = combined(Arithmetic.SUBTRACT, s1, a11);
+      int[] s3 = combined(Arithmetic.SUBTRACT, a11, a21);
+      int[] s4 = combined(Arithmetic.SUBTRACT, a12, s2);
+      int[] t1 = combined(Arithmetic.SUBTRACT, b12, b11);
+      int[] t2 = combined(Arithmetic.SUBTRACT, b22, t1);
+      int[] t3 = combined(Arithmetic.SUBTRACT, b22, b12);
+      int[] t4 = combined(Arithmetic.SUBTRACT, t2, b21);
+
+      IntStrassen p1 = new IntStrassen(a11, b11, half, leaf);
+      IntStrassen p2 = new IntStrassen(a12, b21, half, leaf);
+      IntStrassen p3 = new IntStrassen(s4, b22, half, leaf);
+      IntStrassen p4 = new IntStrassen(a22, t4, half, leaf);
+      IntStrassen p5 = new IntStrassen(s1, t1, half, leaf);
+      IntStrassen p6 = new IntStrassen(s2, t2, half, leaf);
+      IntStrassen p7 = new IntStrassen(s3, t3, half, leaf);
+      ForkJoinTask.invokeAll(p1, p2, p3, p4, p5, p6, p7);
+
+      int[] u2 = combined(Arithmetic.ADD, p1.join(), p6.join());
+      int[] u3 = combined(Arithmetic.ADD, u2, p7.join());
+      int[] u4 = combined(Arithmetic.ADD, u2, p5.join());
+
+      int[] c = new int[size * size];
+      place(combined(Arithmetic.ADD, p1.join(), p2.join()), c, size, 0, 0);
+      place(combined(Arithmetic.ADD, u4, p3.join()), c, size, 0, half);
+      place(combined(Arithmetic.SUBTRACT, u3, p4.join()), c, size, half, 0);
+      place(combined(Arithmetic.ADD, u3, p5.join()), c, size, half, half);
+      return c;
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  // the rows x cols row-major x in the top left of a size x size square of zeros
+  private static double[] padded(double[] x, int rows, int cols, int size) {
+    double[] square = new double[size * size];
+    for (int i = 0; i < rows; i++) {
+      System.arraycopy(x, i * cols, square, i * size, cols);
+    }
+    return square;
+  }
+
+  private static int[] padded(int[] x, int rows, int cols, int size) {
+    int[] square = new int[size * size];
+    for (int i = 0; i < rows; i++) {
+      System.arraycopy(x, i * cols, square, i * size, cols);
+    }
+    return square;
+  }
+
+  private static double[] unpadded(double[] square, int size, int rows, int cols) {
+    double[] x = new double[rows * cols];
+    for (int i = 0; i < rows; i++) {
+      System.arraycopy(square, i * size, x, i * cols, cols);
+    }
+    return x;
+  }
+
+  private static int[] unpadded(int[] square, int size, int rows, int cols) {
+    int[] x = new int[rows * cols];
+    for (int i = 0; i < rows; i++) {
+      System.arraycopy(square, i * size, x, i * cols, cols);
+    }
+    return x;
+  }
+
+  // a copy of the size / 2 square of x whose top left is (row0, col0)
+  private static double[] quadrant(double[] x, int size, int row0, int col0) {
+    int half = size / 2;
+    double[] quadrant = new double[half * half];
+    for (int i = 0; i < half; i++) {
+      System.arraycopy(x, (row0 + i) * size + col0, quadrant, i * half, half);
+    }
+    return quadrant;
+  }
+
+  private static int[] quadrant(int[] x, int size, int row0, int col0) {
+    int half = size / 2;
+    int[] quadrant = new int[half * half];
+    for (int i = 0; i < half; i++) {
+      System.arraycopy(x, (row0 + i) * size + col0, quadrant, i * half, half);
+    }
+    return quadrant;
+  }
+
+  private static void place(double[] quadrant, double[] x, int size, int row0, int col0) {
+    int half = size / 2;
+    for (int i = 0; i < half; i++) {
+      System.arraycopy(quadrant, i * half, x, (row0 + i) * size + col0, half);
+    }
+  }
+
+  private static void place(int[] quadrant, int[] x, int size, int row0, int col0) {
+    int half = size / 2;
+    for (int i = 0; i < half; i++) {
+      System.arraycopy(quadrant, i * half, x, (row0 + i) * size + col0, half);
+    }
+  }
+
+  private static double[] combined(Arithmetic op, double[] left, double[] right) {
+    double[] out = new double[left.length];
+    NumericKernels.BEST.combine(op, left, right, out);
+    return out;
+  }
+
+  private static int[] combined(Arithmetic op, int[] left, int[] right) {
+    int[] out = new int[left.length];
+    NumericKernels.BEST.combine(op, left, right, out);
+    return out;
+  }
+}
@@ -0,0 +1,236 @@
+import java.util.Arrays;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Tree reductions behind {@link IMatrix#reduce}, {@link IMatrix#reduceRows} and {@link IMatrix#reduceCols}.
+ * <br>
+ * A range is halved until it is at most <code>LEAF</code> cells long, each leaf is folded left to right starting
+ * from the identity, and the halves are combined as <code>combiner(left, right)</code>. With an associative
+ * <code>combiner</code> this gives the same value as a left fold in row-major order, but with a combine depth of
+ * <i>log n</i>, which keeps floating point round-off growing with <i>log n</i> instead of <i>n</i> and lets halves run
+ * independently.
+ */
+final class Reduction {
+
+  static final int LEAF = 128;
+
+  private Reduction() {
+  }
+
+  static <X> X pairwise(Object[] entries, int fromIncl, int toExcl, X identity, BinaryOperator<X> combiner) {
+    if (toExcl - fromIncl <= LEAF) {
+      X reduced = identity;
+      for (int k = fromIncl; k < toExcl; k++) {
+        reduced = combiner.apply(reduced, cellAt(entries, k));
+      }
+      return reduced;
+    }
+    int middle = (fromIncl + toExcl) >>> 1;
+    return combiner.apply(pairwise(entries, fromIncl, middle, identity, combiner),
+        pairwise(entries, middle, toExcl, identity, combiner));
+  }
+
+  // the same as above, over cells computed from their row-major index instead of stored
+  static <X> X pairwise(IntFunction<X> cells, int fromIncl, int toExcl, X identity, BinaryOperator<X> combiner) {
+    if (toExcl - fromIncl <= LEAF) {
+      X reduced = identity;
+      for (int k = fromIncl; k < toExcl; k++) {
+        reduced = combiner.apply(reduced, cells.apply(k));
+      }
+      return reduced;
+    }
+    int middle = (fromIncl + toExcl) >>> 1;
+    return combiner.apply(pairwise(cells, fromIncl, middle, identity, combiner),
+        pairwise(cells, middle, toExcl, identity, combiner));
+  }
+
+  static double pairwise(double[] entries, int fromIncl, int toExcl, double identity, DoubleBinaryOperator combiner) {
+    if (toExcl - fromIncl <= LEAF) {
+      double reduced = identity;
+      for (int k = fromIncl; k < toExcl; k++) {
+        reduced = combiner.applyAsDouble(reduced, entries[k]);
+      }
+      return reduced;
+    }
+    int middle = (fromIncl + toExcl) >>> 1;
+    return combiner.applyAsDouble(pairwise(entries, fromIncl, middle, identity, combiner),
+        pairwise(entries, middle, toExcl, identity, combiner));
+  }
+
+  static int pairwise(int[] entries, int fromIncl, int toExcl, int identity, IntBinaryOperator combiner) {
+    if (toExcl - fromIncl <= LEAF) {
+      int reduced = identity;
+      for (int k = fromIncl; k < toExcl; k++) {
+        reduced = combiner.applyAsInt(reduced, entries[k]);
+      }
+      return reduced;
+    }
+    int middle = (fromIncl + toExcl) >>> 1;
+    return combiner.applyAsInt(pairwise(entries, fromIncl, middle, identity, combiner),
+        pairwise(entries, middle, toExcl, identity, combiner));
+  }
+
+  static long pairwise(long[] entries, int fromIncl, int toExcl, long identity, LongBinaryOperator combiner) {
+    if (toExcl - fromIncl <= LEAF) {
+      long reduced = identity;
+      for (int k = fromIncl; k < toExcl; k++) {
+        reduced = combiner.applyAsLong(reduced, entries[k]);
+      }
+      return reduced;
+    }
+    int middle = (fromIncl + toExcl) >>> 1;
+    return combiner.applyAsLong(pairwise(entries, fromIncl, middle, identity, combiner),
+        pairwise(entries, middle, toExcl, identity, combiner));
+  }
+
+  /**
+   * Reduces every column of the rows <code>[firstRowIncl, lastRowExcl)</code> of a row-major matrix
+   * <code>cols</code> wide, by halving the row range just like {@link #pairwise} halves a range of cells, so each
+   * column is reduced exactly as {@link #pairwise} would reduce it on its own.
+   * <br>
+   * A leaf of up to <code>LEAF</code> rows is folded into the accumulator handed down to it, so the only arrays
+   * allocated are the one returned and one per pair of halves, one per <code>LEAF</code> rows in all.
+   */
+  static <X> Object[] columnwise(Object[] entries, int cols, int firstRowIncl, int lastRowExcl,
+                                 X identity, BinaryOperator<X> combiner) {
+    Object[] reduced = new Object[cols];
+    Arrays.fill(reduced, identity);
+    columnwiseInto(reduced, entries, cols, firstRowIncl, lastRowExcl, identity, combiner);
+    return reduced;
+  }
+
+  // folds the rows into reduced, which holds the identity in every column
+  private static <X> void columnwiseInto(Object[] reduced, Object[] entries, int cols, int firstRowIncl,
+                                         int lastRowExcl, X identity, BinaryOperator<X> combiner) {
+    if (lastRowExcl - firstRowIncl <= LEAF) {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        for (int j = 0; j < cols; j++) {
+          reduced[j] = combiner.apply(cellAt(reduced, j), cellAt(entries, i * cols + j));
+        }
+      }
+      return;
+    }
+    int middleRow = (firstRowIncl + lastRowExcl) >>> 1;
+    columnwiseInto(reduced, entries, cols, firstRowIncl, middleRow, identity, combiner);
+    combineColumnwise(reduced, columnwise(entries, cols, middleRow, lastRowExcl, identity, combiner), combiner);
+  }
+
+  // the same as above, over cells computed from their row-major index instead of stored
+  static <X> Object[] columnwise(IntFunction<X> cells, int cols, int firstRowIncl, int lastRowExcl,
+                                 X identity, BinaryOperator<X> combiner) {
+    Object[] reduced = new Object[cols];
+    Arrays.fill(reduced, identity);
+    columnwiseInto(reduced, cells, cols, firstRowIncl, lastRowExcl, identity, combiner);
+    return reduced;
+  }
+
+  private static <X> void columnwiseInto(Object[] reduced, IntFunction<X> cells, int cols, int firstRowIncl,
+                                         int lastRowExcl, X identity, BinaryOperator<X> combiner) {
+    if (lastRowExcl - firstRowIncl <= LEAF) {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        for (int j = 0; j < cols; j++) {
+          reduced[j] = combiner.apply(cellAt(reduced, j), cells.apply(i * cols + j));
+        }
+      }
+      return;
+    }
+    int middleRow = (firstRowIncl + lastRowExcl) >>> 1;
+    columnwiseInto(reduced, cells, cols, firstRowIncl, middleRow, identity, combiner);
+    combineColumnwise(reduced, columnwise(cells, cols, middleRow, lastRowExcl, identity, combiner), combiner);
+  }
+
+  static <X> Object[] combineColumnwise(Object[] upper, Object[] lower, BinaryOperator<X> combiner) {
+    for (int j = 0; j < upper.length; j++) {
+      upper[j] = combiner.apply(cellAt(upper, j), cellAt(lower, j));
+    }
+    return upper;
+  }
+
+  static double[] columnwise(double[] entries, int cols, int firstRowIncl, int lastRowExcl,
+                             double identity, DoubleBinaryOperator combiner) {
+    double[] reduced = new double[cols];
+    Arrays.fill(reduced, identity);
+    columnwiseInto(reduced, entries, cols, firstRowIncl, lastRowExcl, identity, combiner);
+    return reduced;
+  }
+
+  private static void columnwiseInto(double[] reduced, double[] entries, int cols, int firstRowIncl, int lastRowExcl,
+                                     double identity, DoubleBinaryOperator combiner) {
+    if (lastRowExcl - firstRowIncl <= LEAF) {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        for (int j = 0; j < cols; j++) {
+          reduced[j] = combiner.applyAsDouble(reduced[j], entries[i * cols + j]);
+        }
+      }
+      return;
+    }
+    int middleRow = (firstRowIncl + lastRowExcl) >>> 1;
+    columnwiseInto(reduced, entries, cols, firstRowIncl, middleRow, identity, combiner);
+    double[] lower = columnwise(entries, cols, middleRow, lastRowExcl, identity, combiner);
+    for (int j = 0; j < cols; j++) {
+      reduced[j] = combiner.applyAsDouble(reduced[j], lower[j]);
+    }
+  }
+
+  static int[] columnwise(int[] entries, int cols, int firstRowIncl, int lastRowExcl,
+                          int identity, IntBinaryOperator combiner) {
+    int[] reduced = new int[cols];
+    Arrays.fill(reduced, identity);
+    columnwiseInto(reduced, entries, cols, firstRowIncl, lastRowExcl, identity, combiner);
+    return reduced;
+  }
+
+  private static void columnwiseInto(int[] reduced, int[] entries, int cols, int firstRowIncl, int lastRowExcl,
+                                     int identity, IntBinaryOperator combiner) {
+    if (lastRowExcl - firstRowIncl <= LEAF) {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        for (int j = 0; j < cols; j++) {
+          reduced[j] = combiner.applyAsInt(reduced[j], entries[i * cols + j]);
+        }
+      }
+      return;
+    }
+    int middleRow = (firstRowIncl + lastRowExcl) >>> 1;
+    columnwiseInto(reduced, entries, cols, firstRowIncl, middleRow, identity, combiner);
+    int[] lower = columnwise(entries, cols, middleRow, lastRowExcl, identity, combiner);
+    for (int j = 0; j < cols; j++) {
+      reduced[j] = combiner.applyAsInt(reduced[j], lower[j]);
+    }
+  }
+
+  static long[] columnwise(long[] entries, int cols, int firstRowIncl, int lastRowExcl,
+                           long identity, LongBinaryOperator combiner) {
+    long[] reduced = new long[cols];
+    Arrays.fill(reduced, identity);
+    columnwiseInto(reduced, entries, cols, firstRowIncl, lastRowExcl, identity, combiner);
+    return reduced;
+  }
+
+  private static void columnwiseInto(long[] reduced, long[] entries, int cols, int firstRowIncl, int lastRowExcl,
+                                     long identity, LongBinaryOperator combiner) {
+    if (lastRowExcl - firstRowIncl <= LEAF) {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        for (int j = 0; j < cols; j++) {
+          reduced[j] = combiner.applyAsLong(reduced[j], entries[i * cols + j]);
+        }
+      }
+      return;
+    }
+    int middleRow = (firstRowIncl + lastRowExcl) >>> 1;
+    columnwiseInto(reduced, entries, cols, firstRowIncl, middleRow, identity, combiner);
+    long[] lower = columnwise(entries, cols, middleRow, lastRowExcl, identity, combiner);
+    for (int j = 0; j < cols; j++) {
+      reduced[j] = combiner.applyAsLong(reduced[j], lower[j]);
+    }
+  }
+
+  // cell k of an array of Xs, held as Objects
+  @SuppressWarnings("unchecked")
+  private static <T> T cellAt(Object[] cells, int k) {
+    return (T) cells[k];
+  }
+}
@@ -0,0 +1,197 @@
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * How {@link IMatrix#render(Appendable, RenderOptions)} writes a matrix out: in which {@link Format}, how many rows
+ * and columns before eliding the rest with "…", and how many decimal places to give floating point entries.
+ * <br>
+ * Options are immutable; each <code>with*</code> method returns a new <code>RenderOptions</code>, so they can be
+ * shared and built up from {@link #DEFAULT}.
+ */
+public final class RenderOptions {
+
+  /**
+   * The layout of one rendered row: what comes before it, between its entries and after it, and how an entry is
+   * escaped.
+   */
+  public enum Format {
+    /**
+     * <code>[a, b, c]</code>, one row per line, as {@link IMatrix#toString()} renders.
+     */
+    MATRIX("[", ", ", "]\n") {
+      @Override
+      void appendEscaped(String entry, Appendable out)
+          throws IOException {
+        out.append(entry);
+      }
+    },
+
+    /**
+     * Comma-separated values, quoting entries that contain a comma, a quote or a line break (RFC 4180).
+     */
+    CSV("", ",", "\n") {
+      @Override
+      void appendEscaped(String entry, Appendable out)
+          throws IOException {
+        if (entry.indexOf(',') < 0 && entry.indexOf('"') < 0 && entry.indexOf('\n') < 0 && entry.indexOf('\r') < 0) {
+          out.append(entry);
+          return;
+        }
+        out.append('"').append(entry.replace("\"", "\"\"")).append('"');
+      }
+    },
+
+    /**
+     * Tab-separated values, writing tabs, line breaks and backslashes inside entries as <code>\t</code>,
+     * <code>\n</code>, <code>\r</code> and <code>\\</code>.
+     */
+    TSV("", "\t", "\n") {
+      @Override
+      void appendEscaped(String entry, Appendable out)
+          throws IOException {
+        for (int c = 0; c < entry.length(); c++) {
+          char aChar = entry.charAt(c);
+          switch (aChar) {
+            case '\t':
+              out.append("\\t");
+              break;
+            case '\n':
+              out.append("\\n");
+              break;
+            case '\r':
+              out.append("\\r");
+              break;
+            case '\\':
+              out.append("\\\\");
+              break;
+            default:
+              out.append(aChar);
+          }
+        }
+      }
+    };
+
+    final String rowStart;
+    final String separator;
+    final String rowEnd;
+
+    Format(String _rowStart, String _separator, String _rowEnd) {
+      rowStart = _rowStart;
+      separator = _separator;
+      rowEnd = _rowEnd;
+    }
+
+    abstract void appendEscaped(String entry, Appendable out)
+        throws IOException;
+  }
+
+  /**
+   * What stands in for the rows or columns left out.
+   */
+  public static final String ELISION = "…";
+
+  /**
+   * Every row and column, in the {@link Format#MATRIX} format, with entries as their own <code>toString</code>.
+   */
+  public static final RenderOptions DEFAULT =
+      new RenderOptions(Format.MATRIX, Integer.MAX_VALUE, Integer.MAX_VALUE, -1);
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final Format format;
+  private final int maxRows;
+  private final int maxCols;
+  // decimal places for Doubles and Floats, or -1 to use their toString
+  private final int precision;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private RenderOptions(Format _format, int _maxRows, int _maxCols, int _precision) {
+    format = _format;
+    maxRows = _maxRows;
+    maxCols = _maxCols;
+    precision = _precision;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  public RenderOptions withFormat(Format _format)
+      throws IllegalArgumentException {
+    return new RenderOptions(Utils.notNull(_format), maxRows, maxCols, precision);
+  }
+
+  /**
+   * Render at most the first <code>_maxRows</code> rows, followed by a row of "…" if there are more.
+   */
+  public RenderOptions withMaxRows(int _maxRows)
+      throws IllegalArgumentException {
+    return new RenderOptions(format, Utils.intBetween(0, _maxRows, Integer.MAX_VALUE), maxCols, precision);
+  }
+
+  /**
+   * Render at most the first <code>_maxCols</code> entries of each row, followed by "…" if there are more.
+   */
+  public RenderOptions withMaxCols(int _maxCols)
+      throws IllegalArgumentException {
+    return new RenderOptions(format, maxRows, Utils.intBetween(0, _maxCols, Integer.MAX_VALUE), precision);
+  }
+
+  /**
+   * Render <code>Double</code> and <code>Float</code> entries with exactly <code>_precision</code> decimal places.
+   */
+  public RenderOptions withPrecision(int _precision)
+      throws IllegalArgumentException {
+    return new RenderOptions(format, maxRows, maxCols, Utils.intBetween(0, _precision, 20));
+  }
+
+  public Format getFormat() {
+    return format;
+  }
+
+  public int getMaxRows() {
+    return maxRows;
+  }
+
+  public int getMaxCols() {
+    return maxCols;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * Writes the first <code>maxRows</code> by <code>maxCols</code> entries of <code>toRender</code> to
+   * <code>out</code>, one row at a time, with the elisions this needs.
+   */
+  void render(IMatrix<?> toRender, Appendable out)
+      throws IOException {
+    int shownRows = Math.min(toRender.getHeight(), maxRows);
+    int shownCols = Math.min(toRender.getWidth(), maxCols);
+    boolean colsElided = shownCols < toRender.getWidth();
+
+    for (int i = 0; i < shownRows; i++) {
+      out.append(format.rowStart);
+      for (int j = 0; j < shownCols; j++) {
+        if (j > 0) {
+          out.append(format.separator);
+        }
+        format.appendEscaped(entryToString(toRender.getElement(i, j)), out);
+      }
+      if (colsElided) {
+        out.append(shownCols > 0 ? format.separator : "").append(ELISION);
+      }
+      out.append(format.rowEnd);
+    }
+
+    if (shownRows < toRender.getHeight()) {
+      out.append(format.rowStart).append(ELISION).append(format.rowEnd);
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private String entryToString(Object entry) {
+    if (precision >= 0 && (entry instanceof Double || entry instanceof Float)) {
+      double value = ((Number) entry).doubleValue();
+      if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+        return String.format(Locale.ROOT, "%." + precision + "f", value);
+      }
+    }
+    return String.valueOf(entry);
+  }
+}
@@ -0,0 +1,74 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Gauss-Jordan elimination behind {@link DoubleMatrix#rref()}, in place over a flat row-major array.
+ * <br>
+ * Each column's pivot is the entry of greatest magnitude in the rows not yet reduced. Entries no bigger than
+ * <i>max(rows, cols) * ulp(1) * |A|</i>, with <i>|A|</i> the greatest magnitude in the matrix, count as zero, so that
+ * round-off does not turn a dependent column into a pivot column. Once a pivot row has been scaled, eliminating its
+ * column from every other row touches each row independently, so those rows are split across the common
+ * {@link ForkJoinPool} once they reach {@link Parallelism#getThreshold()} cells.
+ */
+final class RowReduction {
+
+  private static final Parallelism ELIMINATION = Parallelism.on(ForkJoinPool.commonPool());
+
+  private RowReduction() {
+  }
+
+  static void rref(double[] a, int rows, int cols) {
+    double largest = 0;
+    for (double entry : a) {
+      largest = Math.max(largest, Math.abs(entry));
+    }
+    double tolerance = Math.max(rows, cols) * Math.ulp(1.0) * largest;
+
+    int r = 0;
+    for (int c = 0; c < cols && r < rows; c++) {
+      int p = r;
+      for (int i = r + 1; i < rows; i++) {
+        if (Math.abs(a[i * cols + c]) > Math.abs(a[p * cols + c])) {
+          p = i;
+        }
+      }
+      if (Math.abs(a[p * cols + c]) <= tolerance) {
+        for (int i = r; i < rows; i++) {
+          a[i * cols + c] = 0;
+        }
+        continue;
+      }
+      swapRows(a, cols, p, r);
+
+      int pivotRow = r;
+      int pivotCol = c;
+      double scale = 1 / a[pivotRow * cols + pivotCol];
+      for (int j = pivotCol + 1; j < cols; j++) {
+        a[pivotRow * cols + j] *= scale;
+      }
+      a[pivotRow * cols + pivotCol] = 1;
+
+      ELIMINATION.forEachRowBlock(rows, cols, (firstRow, lastRow) -> {
+        for (int i = firstRow; i < lastRow; i++) {
+          double factor = a[i * cols + pivotCol];
+          if (i != pivotRow && factor != 0) {
+            NumericKernels.BEST.axpy(-factor, a, pivotRow * cols + pivotCol + 1, a, i * cols + pivotCol + 1,
+                cols - pivotCol - 1);
+            a[i * cols + pivotCol] = 0;
+          }
+        }
+      });
+      r++;
+    }
+  }
+
+  private static void swapRows(double[] a, int cols, int r1, int r2) {
+    if (r1 == r2) {
+      return;
+    }
+    for (int j = 0; j < cols; j++) {
+      double entry = a[r1 * cols + j];
+      a[r1 * cols + j] = a[r2 * cols + j];
+      a[r2 * cols + j] = entry;
+    }
+  }
+}
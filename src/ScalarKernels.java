@@ -0,0 +1,155 @@
+/**
+ * {@link NumericKernels} as plain Java loops, for JVMs without the Vector API.
+ */
+final class ScalarKernels implements NumericKernels {
+
+  static final ScalarKernels INSTANCE = new ScalarKernels();
+
+  private ScalarKernels() {
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~element-wise~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public void combine(Arithmetic op, double[] left, double[] right, double[] out) {
+    for (int k = 0; k < out.length; k++) {
+      out[k] = op.applyAsDouble(left[k], right[k]);
+    }
+  }
+
+  @Override
+  public void combine(Arithmetic op, int[] left, int[] right, int[] out) {
+    for (int k = 0; k < out.length; k++) {
+      out[k] = op.applyAsInt(left[k], right[k]);
+    }
+  }
+
+  @Override
+  public void scale(double[] entries, double factor, double[] out) {
+    for (int k = 0; k < out.length; k++) {
+      out[k] = entries[k] * factor;
+    }
+  }
+
+  @Override
+  public void scale(int[] entries, int factor, int[] out) {
+    for (int k = 0; k < out.length; k++) {
+      out[k] = entries[k] * factor;
+    }
+  }
+
+  @Override
+  public void offset(double[] entries, double shift, double[] out) {
+    for (int k = 0; k < out.length; k++) {
+      out[k] = entries[k] + shift;
+    }
+  }
+
+  @Override
+  public void offset(int[] entries, int shift, int[] out) {
+    for (int k = 0; k < out.length; k++) {
+      out[k] = entries[k] + shift;
+    }
+  }
+
+  @Override
+  public void clamp(double[] entries, double lower, double upper, double[] out) {
+    for (int k = 0; k < out.length; k++) {
+      out[k] = Math.min(Math.max(entries[k], lower), upper);
+    }
+  }
+
+  @Override
+  public void clamp(int[] entries, int lower, int upper, int[] out) {
+    for (int k = 0; k < out.length; k++) {
+      out[k] = Math.min(Math.max(entries[k], lower), upper);
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~reductions~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public double sum(double[] entries) {
+    double sum = 0;
+    for (double anEntry : entries) {
+      sum += anEntry;
+    }
+    return sum;
+  }
+
+  @Override
+  public int sum(int[] entries) {
+    int sum = 0;
+    for (int anEntry : entries) {
+      sum += anEntry;
+    }
+    return sum;
+  }
+
+  @Override
+  public double min(double[] entries) {
+    double min = Double.POSITIVE_INFINITY;
+    for (double anEntry : entries) {
+      min = Math.min(min, anEntry);
+    }
+    return min;
+  }
+
+  @Override
+  public int min(int[] entries) {
+    int min = Integer.MAX_VALUE;
+    for (int anEntry : entries) {
+      min = Math.min(min, anEntry);
+    }
+    return min;
+  }
+
+  @Override
+  public double max(double[] entries) {
+    double max = Double.NEGATIVE_INFINITY;
+    for (double anEntry : entries) {
+      max = Math.max(max, anEntry);
+    }
+    return max;
+  }
+
+  @Override
+  public int max(int[] entries) {
+    int max = Integer.MIN_VALUE;
+    for (int anEntry : entries) {
+      max = Math.max(max, anEntry);
+    }
+    return max;
+  }
+
+  @Override
+  public double dot(double[] left, double[] right) {
+    double dot = 0;
+    for (int k = 0; k < left.length; k++) {
+      dot += left[k] * right[k];
+    }
+    return dot;
+  }
+
+  @Override
+  public int dot(int[] left, int[] right) {
+    int dot = 0;
+    for (int k = 0; k < left.length; k++) {
+      dot += left[k] * right[k];
+    }
+    return dot;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~multiplication~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public void axpy(double alpha, double[] x, int xFrom, double[] y, int yFrom, int length) {
+    for (int j = 0; j < length; j++) {
+      y[yFrom + j] += alpha * x[xFrom + j];
+    }
+  }
+
+  @Override
+  public void axpy(int alpha, int[] x, int xFrom, int[] y, int yFrom, int length) {
+    for (int j = 0; j < length; j++) {
+      y[yFrom + j] += alpha * x[xFrom + j];
+    }
+  }
+}
@@ -0,0 +1,137 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts and selections behind {@link IMatrix#sort}, {@link IMatrix#sortRows}, {@link IMatrix#sortRowsBy} and
+ * {@link IMatrix#topK}, over row-major <code>Object[]</code>s.
+ * <br>
+ * Every sort here is stable, so entries that compare equal keep their row-major order.
+ */
+final class Sorting {
+
+  private Sorting() {
+  }
+
+  /**
+   * A sorted copy of <code>entries</code>, sorted in parallel on <code>parallelism</code>'s pool when it is large
+   * enough.
+   */
+  @SuppressWarnings("unchecked")
+  static <X> Object[] sorted(Object[] entries, Comparator<X> comparator, Parallelism parallelism) {
+    Object[] sorted = entries.clone();
+    parallelism.sort((X[]) sorted, comparator);
+    return sorted;
+  }
+
+  /**
+   * A copy of the row-major <code>entries</code> of a <code>rows</code> x <code>cols</code> matrix with each row
+   * sorted on its own.
+   */
+  @SuppressWarnings("unchecked")
+  static <X> Object[] rowsSorted(Object[] entries, int rows, int cols, Comparator<X> comparator,
+                                 Parallelism parallelism) {
+    Object[] sorted = entries.clone();
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      for (int i = firstRowIncl; i < lastRowExcl; i++) {
+        Arrays.sort((X[]) sorted, i * cols, (i + 1) * cols, comparator);
+      }
+    });
+    return sorted;
+  }
+
+  /**
+   * A copy of the row-major <code>entries</code> of a <code>rows</code> x <code>cols</code> matrix with whole rows
+   * reordered by their entry in column <code>keyCol</code>.
+   */
+  @SuppressWarnings("unchecked")
+  static <X> Object[] rowsSortedBy(Object[] entries, int rows, int cols, int keyCol, Comparator<X> comparator) {
+    Integer[] order = new Integer[rows];
+    for (int i = 0; i < rows; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (i1, i2) ->
+        comparator.compare((X) entries[i1 * cols + keyCol], (X) entries[i2 * cols + keyCol]));
+
+    Object[] sorted = new Object[entries.length];
+    for (int i = 0; i < rows; i++) {
+      System.arraycopy(entries, order[i] * cols, sorted, i * cols, cols);
+    }
+    return sorted;
+  }
+
+  /**
+   * The greatest <code>k</code> of the rows <code>[firstRowIncl, lastRowExcl)</code> of a row-major matrix
+   * <code>cols</code> wide.
+   */
+  @SuppressWarnings("unchecked")
+  static <X> TopK<X> topK(Object[] entries, int cols, int firstRowIncl, int lastRowExcl, int k,
+                          Comparator<X> comparator) {
+    TopK<X> top = new TopK<>(k, cols, comparator);
+    for (int idx = firstRowIncl * cols; idx < lastRowExcl * cols; idx++) {
+      top.offer((X) entries[idx], idx);
+    }
+    return top;
+  }
+
+  /**
+   * The greatest <code>k</code> cells offered so far, in a heap whose root is the least of them. Of two cells that
+   * compare equal, the one earlier in row-major order is the greater, so the result does not depend on how the cells
+   * were split up between <code>TopK</code>s before being {@link #merge merged}.
+   */
+  static final class TopK<X> {
+    private final int k;
+    private final int cols;
+    private final Comparator<X> comparator;
+    private final PriorityQueue<Cell<X>> heap;
+
+    TopK(int _k, int _cols, Comparator<X> _comparator) {
+      k = _k;
+      cols = _cols;
+      comparator = _comparator;
+      // least value first, then latest position first
+      heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1 << 16)), (cell1, cell2) -> {
+        int byValue = comparator.compare(cell1.getValue(), cell2.getValue());
+        return byValue != 0 ? byValue : Integer.compare(indexOf(cell2), indexOf(cell1));
+      });
+    }
+
+    void offer(X value, int idx) {
+      if (heap.size() < k) {
+        heap.add(new Cell<>(idx / cols, idx % cols, value));
+        return;
+      }
+      if (k == 0) {
+        return;
+      }
+      Cell<X> least = heap.peek();
+      int byValue = comparator.compare(value, least.getValue());
+      if (byValue > 0 || (byValue == 0 && idx < indexOf(least))) {
+        heap.poll();
+        heap.add(new Cell<>(idx / cols, idx % cols, value));
+      }
+    }
+
+    TopK<X> merge(TopK<X> other) {
+      for (Cell<X> cell : other.heap) {
+        offer(cell.getValue(), indexOf(cell));
+      }
+      return this;
+    }
+
+    /**
+     * The cells kept, greatest first.
+     */
+    List<Cell<X>> toList() {
+      List<Cell<X>> top = new ArrayList<>(heap);
+      top.sort(heap.comparator().reversed());
+      return top;
+    }
+
+    private int indexOf(Cell<X> cell) {
+      return cell.getRow() * cols + cell.getCol();
+    }
+  }
+}
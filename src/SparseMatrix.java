@@ -0,0 +1,549 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An {@link IMatrix} for matrices that are mostly one value: it stores that <i>default value</i> once, and every
+ * other entry in compressed sparse row (CSR) form.
+ * <ul>
+ *     <li>Memory, and the cost of <code>map</code>, <code>replaceMap</code>, <code>findAndReplace</code>,
+ *     <code>fillWith</code> and <code>transpose</code>, grow with the number of stored entries rather than with
+ *     height * width: the function is applied once to the default value and once to each stored entry</li>
+ *     <li><code>filter</code> only visits stored entries when the default value fails the condition</li>
+ *     <li>{@link #reduce} skips default entries entirely when the default value is the identity, e.g. a sum over a
+ *     matrix of mostly 0s</li>
+ *     <li><code>elementWiseCombine</code> with another <code>SparseMatrix</code> visits the union of the two sets of
+ *     stored entries</li>
+ *     <li><code>pseudoMultiply</code> by another <code>SparseMatrix</code> runs in time proportional to the number of
+ *     non-trivial products when every product involving a default entry equals <code>αIdentity</code>, as with
+ *     default 0s, * and +; this path relies on <code>αIdentity</code> really being an identity of the intra-matrix
+ *     operation</li>
+ *     <li>Every other operation behaves as in {@link AMatrix}</li>
+ * </ul>
+ * Build one from coordinate (COO) lists with {@link #SparseMatrix(int, int, Object, int[], int[], List)}, or from a
+ * dense matrix with {@link #SparseMatrix(IMatrix, Object)}; {@link #toDense()} converts back.
+ *
+ * @param <X> The type of the entry included in this matrix
+ */
+public class SparseMatrix<X> extends AMatrix<X> {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final int rows;
+  protected final int cols;
+  protected final X defaultValue;
+  // the stored entries of row i are values[rowStarts[i]] to values[rowStarts[i + 1] - 1], in the columns
+  // colIndices[rowStarts[i]] to colIndices[rowStarts[i + 1] - 1], which ascend; no stored entry equals defaultValue
+  protected final int[] rowStarts;
+  protected final int[] colIndices;
+  protected final Object[] values;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * A matrix holding <code>cooValues.get(k)</code> at <code>(rowIndices[k], colIndices[k])</code> for every
+   * <code>k</code>, and <code>_defaultValue</code> everywhere else. The coordinates may come in any order; when the
+   * same cell appears more than once, the last value given for it wins.
+   *
+   * @throws IllegalArgumentException if any argument is null, the three lists differ in length, or a coordinate lies
+   *                                  outside the matrix
+   */
+  SparseMatrix(int _rows, int _cols, X _defaultValue, int[] rowIndices, int[] _colIndices, List<X> cooValues)
+      throws IllegalArgumentException {
+    rows = Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    cols = Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+    defaultValue = Utils.notNull(_defaultValue);
+    int count = Utils.notNull(rowIndices).length;
+    Utils.intBetween(count, Utils.notNull(_colIndices).length, count);
+    Utils.intBetween(count, Utils.notNull(cooValues).size(), count);
+
+    // a stable sort by (row, col) keeps repeated coordinates in the order they were given
+    Integer[] order = new Integer[count];
+    for (int k = 0; k < count; k++) {
+      Utils.intBetween(0, rowIndices[k], rows - 1);
+      Utils.intBetween(0, _colIndices[k], cols - 1);
+      Utils.notNull(cooValues.get(k));
+      order[k] = k;
+    }
+    Arrays.sort(order, (k1, k2) -> rowIndices[k1] != rowIndices[k2]
+        ? Integer.compare(rowIndices[k1], rowIndices[k2]) : Integer.compare(_colIndices[k1], _colIndices[k2]));
+
+    int[] _rowStarts = new int[rows + 1];
+    int[] sortedCols = new int[count];
+    Object[] sortedValues = new Object[count];
+    int stored = 0;
+    for (int n = 0; n < count; n++) {
+      int k = order[n];
+      boolean lastForItsCell = n + 1 == count || rowIndices[order[n + 1]] != rowIndices[k]
+          || _colIndices[order[n + 1]] != _colIndices[k];
+      if (lastForItsCell && !cooValues.get(k).equals(defaultValue)) {
+        _rowStarts[rowIndices[k] + 1]++;
+        sortedCols[stored] = _colIndices[k];
+        sortedValues[stored++] = cooValues.get(k);
+      }
+    }
+    for (int i = 0; i < rows; i++) {
+      _rowStarts[i + 1] += _rowStarts[i];
+    }
+
+    rowStarts = _rowStarts;
+    colIndices = Arrays.copyOf(sortedCols, stored);
+    values = Arrays.copyOf(sortedValues, stored);
+  }
+
+  /**
+   * A sparse copy of <code>dense</code>, storing only its entries that are not equal to <code>_defaultValue</code>.
+   *
+   * @throws IllegalArgumentException if either argument is null, or <code>dense</code> holds a null entry
+   */
+  SparseMatrix(IMatrix<X> dense, X _defaultValue)
+      throws IllegalArgumentException {
+    rows = Utils.notNull(dense).getHeight();
+    cols = dense.getWidth();
+    defaultValue = Utils.notNull(_defaultValue);
+
+    Object[] flat = rowMajorEntries(dense);
+    int stored = 0;
+    for (Object anElement : flat) {
+      if (!Utils.notNull(anElement).equals(defaultValue)) {
+        stored++;
+      }
+    }
+
+    rowStarts = new int[rows + 1];
+    colIndices = new int[stored];
+    values = new Object[stored];
+    int next = 0;
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        if (!flat[i * cols + j].equals(defaultValue)) {
+          colIndices[next] = j;
+          values[next++] = flat[i * cols + j];
+        }
+      }
+      rowStarts[i + 1] = next;
+    }
+  }
+
+  // wraps CSR arrays that already satisfy the invariants on the fields, without copying them
+  private SparseMatrix(int _rows, int _cols, X _defaultValue, int[] _rowStarts, int[] _colIndices, Object[] _values) {
+    rows = _rows;
+    cols = _cols;
+    defaultValue = _defaultValue;
+    rowStarts = _rowStarts;
+    colIndices = _colIndices;
+    values = _values;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~sparse-specific methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  public X getDefaultValue() {
+    return defaultValue;
+  }
+
+  /**
+   * How many entries are stored explicitly, i.e. are not equal to the default value.
+   */
+  public int getStoredCount() {
+    return values.length;
+  }
+
+  /**
+   * This matrix with every entry stored densely.
+   */
+  public IMatrix<X> toDense() {
+    return new FunMatrix<>(rows, cols, rowMajorEntries());
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public X getElement(int row, int col)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, row, rows - 1);
+    Utils.intBetween(0, col, cols - 1);
+
+    int found = Arrays.binarySearch(colIndices, rowStarts[row], rowStarts[row + 1], col);
+    return found >= 0 ? cellAt(values, found) : defaultValue;
+  }
+
+  @Override
+  public int getWidth() {
+    return cols;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows;
+  }
+
+  @Override
+  public <Y> IMatrix<Y> map(Function<X, Y> elementMapper)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+
+    Object[] mapped = new Object[values.length];
+    for (int k = 0; k < values.length; k++) {
+      mapped[k] = Utils.notNull(elementMapper.apply(cellAt(values, k)));
+    }
+
+    return withoutDefaults(rows, cols, Utils.notNull(elementMapper.apply(defaultValue)), rowStarts, colIndices, mapped);
+  }
+
+  @Override
+  public List<X> filter(Predicate<X> condition)
+      throws IllegalArgumentException {
+    Utils.notNull(condition);
+
+    if (!condition.test(defaultValue)) {
+      List<X> filtered = new ArrayList<>();
+      for (int k = 0; k < values.length; k++) {
+        X aValue = cellAt(values, k);
+        if (condition.test(aValue)) {
+          filtered.add(aValue);
+        }
+      }
+      return filtered;
+    }
+
+    return super.filter(condition);
+  }
+
+  @Override
+  public void forEachIndexed(IndexedConsumer<X> action)
+      throws IllegalArgumentException {
+    Utils.notNull(action);
+
+    for (int i = 0; i < rows; i++) {
+      int k = rowStarts[i];
+      for (int j = 0; j < cols; j++) {
+        if (k < rowStarts[i + 1] && colIndices[k] == j) {
+          action.accept(i, j, cellAt(values, k++));
+        }
+        else {
+          action.accept(i, j, defaultValue);
+        }
+      }
+    }
+  }
+
+  @Override
+  public <Y> Y foldNW(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+
+    // walk each row alongside its stored entries instead of searching for every cell
+    for (int i = 0; i < rows; i++) {
+      int k = rowStarts[i];
+      for (int j = 0; j < cols; j++) {
+        if (k < rowStarts[i + 1] && colIndices[k] == j) {
+          folded = folder.apply(cellAt(values, k++), folded);
+        }
+        else {
+          folded = folder.apply(defaultValue, folded);
+        }
+      }
+    }
+
+    return folded;
+  }
+
+  @Override
+  public <Y> Y foldSE(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+
+    for (int i = rows - 1; i >= 0; i--) {
+      int k = rowStarts[i + 1] - 1;
+      for (int j = cols - 1; j >= 0; j--) {
+        if (k >= rowStarts[i] && colIndices[k] == j) {
+          folded = folder.apply(cellAt(values, k--), folded);
+        }
+        else {
+          folded = folder.apply(defaultValue, folded);
+        }
+      }
+    }
+
+    return folded;
+  }
+
+  @Override
+  public X reduce(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+
+    // combining with the identity changes nothing, so default entries can be left out
+    if (defaultValue.equals(identity)) {
+      return Reduction.pairwise(values, 0, values.length, identity, associativeCombiner);
+    }
+
+    return super.reduce(identity, associativeCombiner);
+  }
+
+  @Override
+  public <Y, Z> IMatrix<Z> elementWiseCombine(BiFunction<X, Y, Z> combiner, IMatrix<Y> combineWith)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+
+    if (!(combineWith instanceof SparseMatrix)) {
+      return super.elementWiseCombine(combiner, combineWith);
+    }
+
+    if (rows != combineWith.getHeight() || cols != combineWith.getWidth()) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+
+    SparseMatrix<Y> other = (SparseMatrix<Y>) combineWith;
+    int[] _rowStarts = new int[rows + 1];
+    int[] _colIndices = new int[values.length + other.values.length];
+    Object[] combined = new Object[values.length + other.values.length];
+    int next = 0;
+
+    // merge the stored columns of each pair of rows; a cell stored in neither is the combined defaults
+    for (int i = 0; i < rows; i++) {
+      int k = rowStarts[i];
+      int l = other.rowStarts[i];
+      while (k < rowStarts[i + 1] || l < other.rowStarts[i + 1]) {
+        int j = Math.min(k < rowStarts[i + 1] ? colIndices[k] : cols,
+            l < other.rowStarts[i + 1] ? other.colIndices[l] : cols);
+        X left = k < rowStarts[i + 1] && colIndices[k] == j ? cellAt(values, k++) : defaultValue;
+        Y right = l < other.rowStarts[i + 1] && other.colIndices[l] == j
+            ? cellAt(other.values, l++) : other.defaultValue;
+        _colIndices[next] = j;
+        combined[next++] = Utils.notNull(combiner.apply(left, right));
+      }
+      _rowStarts[i + 1] = next;
+    }
+
+    return withoutDefaults(rows, cols, Utils.notNull(combiner.apply(defaultValue, other.defaultValue)), _rowStarts,
+        Arrays.copyOf(_colIndices, next), Arrays.copyOf(combined, next));
+  }
+
+  @Override
+  public <Y, Z, α> IMatrix<α> pseudoMultiply(BiFunction<X, Y, Z> interMatrixOperation,
+                                             BiFunction<Z, α, α> intraMatrixOperation, IMatrix<Y> combineWith,
+                                             α αIdentity)
+      throws IllegalArgumentException {
+    Utils.notNull(interMatrixOperation);
+    Utils.notNull(intraMatrixOperation);
+    Utils.notNull(αIdentity);
+    MatrixMultiplication.checkDimensions(this, combineWith);
+
+    if (!(combineWith instanceof SparseMatrix)
+        || !defaultProductsAreIdentity(interMatrixOperation, (SparseMatrix<Y>) combineWith, αIdentity)) {
+      return super.pseudoMultiply(interMatrixOperation, intraMatrixOperation, combineWith, αIdentity);
+    }
+
+    SparseMatrix<Y> other = (SparseMatrix<Y>) combineWith;
+    int resultCols = other.cols;
+    List<Integer> _colIndices = new ArrayList<>();
+    List<Object> products = new ArrayList<>();
+    int[] _rowStarts = new int[rows + 1];
+
+    // Gustavson's algorithm: row i of the product accumulates, for each stored (i, k) in ascending k, that entry times
+    // each stored entry of row k of the other matrix. Skipped products are the identity, so each cell still folds
+    // its products in the same ascending-k order as the dense product.
+    Object[] accumulated = new Object[resultCols];
+    int[] touchedInRow = new int[resultCols];
+    int[] touchedCols = new int[resultCols];
+    Arrays.fill(touchedInRow, -1);
+    for (int i = 0; i < rows; i++) {
+      int touched = 0;
+      for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+        int inner = colIndices[k];
+        for (int l = other.rowStarts[inner]; l < other.rowStarts[inner + 1]; l++) {
+          int j = other.colIndices[l];
+          if (touchedInRow[j] != i) {
+            touchedInRow[j] = i;
+            touchedCols[touched++] = j;
+            accumulated[j] = αIdentity;
+          }
+          accumulated[j] = intraMatrixOperation.apply(
+              interMatrixOperation.apply(cellAt(values, k), cellAt(other.values, l)), cellAt(accumulated, j));
+        }
+      }
+
+      Arrays.sort(touchedCols, 0, touched);
+      for (int t = 0; t < touched; t++) {
+        Object product = Utils.notNull(accumulated[touchedCols[t]]);
+        if (!product.equals(αIdentity)) {
+          _colIndices.add(touchedCols[t]);
+          products.add(product);
+        }
+      }
+      _rowStarts[i + 1] = products.size();
+    }
+
+    return new SparseMatrix<>(rows, resultCols, αIdentity, _rowStarts,
+        _colIndices.stream().mapToInt(Integer::intValue).toArray(), products.toArray());
+  }
+
+  @Override
+  public IMatrix<X> transpose() {
+    int[] _rowStarts = new int[cols + 1];
+    int[] _colIndices = new int[values.length];
+    Object[] transposed = new Object[values.length];
+
+    // count the entries of each column, then scatter them; rows are visited in order, so columns stay ascending
+    for (int k = 0; k < values.length; k++) {
+      _rowStarts[colIndices[k] + 1]++;
+    }
+    for (int j = 0; j < cols; j++) {
+      _rowStarts[j + 1] += _rowStarts[j];
+    }
+    int[] next = Arrays.copyOf(_rowStarts, cols);
+    for (int i = 0; i < rows; i++) {
+      for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+        int to = next[colIndices[k]]++;
+        _colIndices[to] = i;
+        transposed[to] = values[k];
+      }
+    }
+
+    return new SparseMatrix<>(cols, rows, defaultValue, _rowStarts, _colIndices, transposed);
+  }
+
+  @Override
+  public IMatrix<X> copy() {
+    // nothing here is ever mutated, so a copy can share all of it
+    return new SparseMatrix<>(rows, cols, defaultValue, rowStarts, colIndices, values);
+  }
+
+  @Override
+  public IMatrix<X> updateEntry(X newEntry, int row, int col)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, row, rows - 1);
+    Utils.intBetween(0, col, cols - 1);
+    Utils.notNull(newEntry);
+
+    int found = Arrays.binarySearch(colIndices, rowStarts[row], rowStarts[row + 1], col);
+    boolean storeIt = !newEntry.equals(defaultValue);
+
+    if (found >= 0 && storeIt) {
+      Object[] _values = values.clone();
+      _values[found] = newEntry;
+      return new SparseMatrix<>(rows, cols, defaultValue, rowStarts, colIndices, _values);
+    }
+    if (found < 0 && !storeIt) {
+      return this;
+    }
+
+    // insert at, or remove from, position k, and shift the starts of every later row by one
+    int k = found >= 0 ? found : -found - 1;
+    int delta = storeIt ? 1 : -1;
+    int[] _colIndices = new int[colIndices.length + delta];
+    Object[] _values = new Object[values.length + delta];
+    System.arraycopy(colIndices, 0, _colIndices, 0, k);
+    System.arraycopy(values, 0, _values, 0, k);
+    if (storeIt) {
+      _colIndices[k] = col;
+      _values[k] = newEntry;
+      System.arraycopy(colIndices, k, _colIndices, k + 1, colIndices.length - k);
+      System.arraycopy(values, k, _values, k + 1, values.length - k);
+    }
+    else {
+      System.arraycopy(colIndices, k + 1, _colIndices, k, colIndices.length - k - 1);
+      System.arraycopy(values, k + 1, _values, k, values.length - k - 1);
+    }
+    int[] _rowStarts = rowStarts.clone();
+    for (int i = row + 1; i <= rows; i++) {
+      _rowStarts[i] += delta;
+    }
+
+    return new SparseMatrix<>(rows, cols, defaultValue, _rowStarts, _colIndices, _values);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof SparseMatrix && defaultValue.equals(((SparseMatrix<?>) o).defaultValue)) {
+      // with equal defaults, equal matrices store exactly the same entries
+      SparseMatrix<?> anotherMatrix = (SparseMatrix<?>) o;
+      return rows == anotherMatrix.rows && cols == anotherMatrix.cols
+          && Arrays.equals(rowStarts, anotherMatrix.rowStarts)
+          && Arrays.equals(colIndices, anotherMatrix.colIndices)
+          && Arrays.equals(values, anotherMatrix.values);
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = (rows * cols - values.length) * Objects.hashCode(defaultValue);
+    for (Object aValue : values) {
+      hash += Objects.hashCode(aValue);
+    }
+    return hash;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~protected methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  protected Object[] rowMajorEntries() {
+    Object[] flat = new Object[rows * cols];
+    Arrays.fill(flat, defaultValue);
+
+    for (int i = 0; i < rows; i++) {
+      for (int k = rowStarts[i]; k < rowStarts[i + 1]; k++) {
+        flat[i * cols + colIndices[k]] = values[k];
+      }
+    }
+
+    return flat;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // the matrix with the given CSR entries, minus any that are equal to _defaultValue
+  private static <Y> SparseMatrix<Y> withoutDefaults(int _rows, int _cols, Y _defaultValue,
+                                                     int[] _rowStarts, int[] _colIndices, Object[] _values) {
+    int[] keptStarts = new int[_rows + 1];
+    int[] keptCols = new int[_values.length];
+    Object[] keptValues = new Object[_values.length];
+    int kept = 0;
+
+    for (int i = 0; i < _rows; i++) {
+      for (int k = _rowStarts[i]; k < _rowStarts[i + 1]; k++) {
+        if (!_values[k].equals(_defaultValue)) {
+          keptCols[kept] = _colIndices[k];
+          keptValues[kept++] = _values[k];
+        }
+      }
+      keptStarts[i + 1] = kept;
+    }
+
+    return kept == _values.length
+        ? new SparseMatrix<>(_rows, _cols, _defaultValue, _rowStarts, _colIndices, _values)
+        : new SparseMatrix<>(_rows, _cols, _defaultValue, keptStarts,
+            Arrays.copyOf(keptCols, kept), Arrays.copyOf(keptValues, kept));
+  }
+
+  // whether every product that the sparse multiply skips, i.e. every one with a default operand, is the identity;
+  // this costs one product per stored entry of either matrix, far less than the multiply itself
+  private <Y, Z, α> boolean defaultProductsAreIdentity(BiFunction<X, Y, Z> interMatrixOperation,
+                                                      SparseMatrix<Y> other, α αIdentity) {
+    if (!αIdentity.equals(interMatrixOperation.apply(defaultValue, other.defaultValue))) {
+      return false;
+    }
+    for (int k = 0; k < values.length; k++) {
+      if (!αIdentity.equals(interMatrixOperation.apply(cellAt(values, k), other.defaultValue))) {
+        return false;
+      }
+    }
+    for (int l = 0; l < other.values.length; l++) {
+      if (!αIdentity.equals(interMatrixOperation.apply(defaultValue, cellAt(other.values, l)))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // stored value k, which only ever holds elements of the type it is read as
+  @SuppressWarnings("unchecked")
+  private static <T> T cellAt(Object[] cells, int k) {
+    return (T) cells[k];
+  }
+}
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Tiled neighborhood kernels behind {@link IMatrix#mapNeighborhood} and {@link DoubleMatrix#convolve}, over row-major
+ * arrays.
+ * <br>
+ * The matrix is cut into <code>TILE</code> x <code>TILE</code> tiles. Each tile is copied into a buffer with a border
+ * (a halo) of <code>radius</code> cells on every side, and only the halo cells that fall outside the matrix go
+ * through the {@link BoundaryMode}; the rest are copied row by row. Every neighbor of every cell of the tile is then
+ * in the buffer, so the loops over the tile never check an index or branch on an edge.
+ * <br>
+ * Each block of rows that {@link Parallelism#forEachRowBlock} hands out fills its own buffer and writes its own rows
+ * of the result, so blocks run independently.
+ */
+final class Stencils {
+
+  static final int TILE = 64;
+
+  private Stencils() {
+  }
+
+  static <X, Y> Object[] mapNeighborhood(Object[] entries, int rows, int cols, int radius, BoundaryMode mode,
+                                         X outside, Function<Neighborhood<X>, Y> kernelFn,
+                                         Parallelism parallelism) {
+    Object[] mapped = new Object[rows * cols];
+    int stride = TILE + 2 * radius;
+
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      Object[] tile = new Object[stride * stride];
+      Neighborhood<X> neighborhood = new Neighborhood<>(radius, tile, stride);
+      for (int ti = firstRowIncl; ti < lastRowExcl; ti += TILE) {
+        int tileRows = Math.min(TILE, lastRowExcl - ti);
+        for (int tj = 0; tj < cols; tj += TILE) {
+          int tileCols = Math.min(TILE, cols - tj);
+          fillHalo(entries, rows, cols, ti, tj, tileRows + 2 * radius, tileCols + 2 * radius, radius, radius,
+              mode, outside, tile, stride);
+          for (int i = 0; i < tileRows; i++) {
+            int center = (i + radius) * stride + radius;
+            int out = (ti + i) * cols + tj;
+            for (int j = 0; j < tileCols; j++) {
+              neighborhood.moveTo(center + j, ti + i, tj + j);
+              mapped[out + j] = kernelFn.apply(neighborhood);
+            }
+          }
+        }
+      }
+    });
+
+    return mapped;
+  }
+
+  /**
+   * The convolution of a <code>rows</code> x <code>cols</code> matrix with a <code>kernelRows</code> x
+   * <code>kernelCols</code> kernel whose sides are odd. Each product is added into a whole row of a tile at once by
+   * {@link NumericKernels#axpy}, in row-major order over the kernel.
+   */
+  static double[] convolve(double[] entries, int rows, int cols, double[] kernel, int kernelRows, int kernelCols,
+                           BoundaryMode mode, double outside, Parallelism parallelism) {
+    double[] convolved = new double[rows * cols];
+    int rowRadius = kernelRows / 2;
+    int colRadius = kernelCols / 2;
+    int stride = TILE + 2 * colRadius;
+
+    parallelism.forEachRowBlock(rows, cols, (firstRowIncl, lastRowExcl) -> {
+      double[] tile = new double[(TILE + 2 * rowRadius) * stride];
+      for (int ti = firstRowIncl; ti < lastRowExcl; ti += TILE) {
+        int tileRows = Math.min(TILE, lastRowExcl - ti);
+        for (int tj = 0; tj < cols; tj += TILE) {
+          int tileCols = Math.min(TILE, cols - tj);
+          fillHalo(entries, rows, cols, ti, tj, tileRows + 2 * rowRadius, tileCols + 2 * colRadius,
+              rowRadius, colRadius, mode, outside, tile, stride);
+          // out(i, j) += k(a, b) * in(i + rowRadius - a, j + colRadius - b), so the flipped kernel slides over the tile
+          for (int a = 0; a < kernelRows; a++) {
+            for (int b = 0; b < kernelCols; b++) {
+              double weight = kernel[a * kernelCols + b];
+              if (weight == 0) {
+                continue;
+              }
+              for (int i = 0; i < tileRows; i++) {
+                NumericKernels.BEST.axpy(weight, tile, (i + 2 * rowRadius - a) * stride + 2 * colRadius - b,
+                    convolved, (ti + i) * cols + tj, tileCols);
+              }
+            }
+          }
+        }
+      }
+    });
+
+    return convolved;
+  }
+
+  // copies the tile at (ti, tj) and its border into the top left of buffer
+  private static <X> void fillHalo(Object[] entries, int rows, int cols, int ti, int tj, int haloRows, int haloCols,
+                                   int rowRadius, int colRadius, BoundaryMode mode, X outside, Object[] buffer,
+                                   int stride) {
+    int firstCol = tj - colRadius;
+    int copyFrom = Math.max(0, firstCol);
+    int copyTo = Math.min(cols, firstCol + haloCols);
+    for (int bi = 0; bi < haloRows; bi++) {
+      int srcRow = mode.resolve(ti - rowRadius + bi, rows);
+      int bufferRow = bi * stride;
+      if (srcRow < 0) {
+        Arrays.fill(buffer, bufferRow, bufferRow + haloCols, outside);
+        continue;
+      }
+      System.arraycopy(entries, srcRow * cols + copyFrom, buffer, bufferRow + copyFrom - firstCol,
+          copyTo - copyFrom);
+      // only the left and right borders can fall outside the matrix
+      for (int bj = 0; bj < copyFrom - firstCol; bj++) {
+        int srcCol = mode.resolve(firstCol + bj, cols);
+        buffer[bufferRow + bj] = srcCol < 0 ? outside : entries[srcRow * cols + srcCol];
+      }
+      for (int bj = copyTo - firstCol; bj < haloCols; bj++) {
+        int srcCol = mode.resolve(firstCol + bj, cols);
+        buffer[bufferRow + bj] = srcCol < 0 ? outside : entries[srcRow * cols + srcCol];
+      }
+    }
+  }
+
+  // the same as above, over doubles
+  private static void fillHalo(double[] entries, int rows, int cols, int ti, int tj, int haloRows, int haloCols,
+                               int rowRadius, int colRadius, BoundaryMode mode, double outside, double[] buffer,
+                               int stride) {
+    int firstCol = tj - colRadius;
+    int copyFrom = Math.max(0, firstCol);
+    int copyTo = Math.min(cols, firstCol + haloCols);
+    for (int bi = 0; bi < haloRows; bi++) {
+      int srcRow = mode.resolve(ti - rowRadius + bi, rows);
+      int bufferRow = bi * stride;
+      if (srcRow < 0) {
+        Arrays.fill(buffer, bufferRow, bufferRow + haloCols, outside);
+        continue;
+      }
+      System.arraycopy(entries, srcRow * cols + copyFrom, buffer, bufferRow + copyFrom - firstCol,
+          copyTo - copyFrom);
+      // only the left and right borders can fall outside the matrix
+      for (int bj = 0; bj < copyFrom - firstCol; bj++) {
+        int srcCol = mode.resolve(firstCol + bj, cols);
+        buffer[bufferRow + bj] = srcCol < 0 ? outside : entries[srcRow * cols + srcCol];
+      }
+      for (int bj = copyTo - firstCol; bj < haloCols; bj++) {
+        int srcCol = mode.resolve(firstCol + bj, cols);
+        buffer[bufferRow + bj] = srcCol < 0 ? outside : entries[srcRow * cols + srcCol];
+      }
+    }
+  }
+}
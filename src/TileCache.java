@@ -0,0 +1,261 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+/**
+ * The tiles of one {@link TiledMatrix}, at most <code>maxResident</code> of them on the heap and the rest in a spill
+ * directory of their own.
+ * <ul>
+ *     <li>Tiles are never changed once {@link #put}, so a tile is written to disk at most once, the first time it is
+ *     evicted, and reading it back never makes it dirty</li>
+ *     <li>The least recently used tile is evicted first</li>
+ *     <li>Tiles can be read and put from several threads; a tile handed out stays valid after it is evicted. The
+ *     lock guards only the bookkeeping: the victim of an eviction is picked under it, but encoded and written after
+ *     it is released, and is served from memory until its file is complete</li>
+ *     <li>A miss is loaded through a future of its own, so the first thread to miss a tile reads it while the others
+ *     that want the same tile wait for that read, and threads after other tiles are not held up at all</li>
+ * </ul>
+ * Each spill file holds the number of cells as an <code>int</code>, then every cell in row-major order as
+ * <code>codec</code> encodes it, little-endian.
+ */
+final class TileCache<X> implements Closeable {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final Path directory;
+  private final ElementCodec<X> codec;
+  private final int maxResident;
+  // by tile index, least recently used first
+  private final LinkedHashMap<Integer, Object[]> resident = new LinkedHashMap<>(16, 0.75f, true);
+  // evicted tiles whose files are being written
+  private final Map<Integer, Object[]> spilling = new HashMap<>();
+  // missed tiles being read back, by the thread that missed first
+  private final Map<Integer, CompletableFuture<Object[]>> loading = new HashMap<>();
+  private final BitSet onDisk = new BitSet();
+  private long reads;
+  private long writes;
+  private boolean closed;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  TileCache(ElementCodec<X> _codec, TileOptions options)
+      throws IOException, IllegalArgumentException {
+    codec = Utils.notNull(_codec);
+    maxResident = options.getMaxResidentTiles();
+    Path spillRoot = Files.createDirectories(options.getSpillDirectory());
+    directory = Files.createTempDirectory(spillRoot, "funmatrix-tiles");
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * The cells of tile <code>tile</code>, read back from disk if they were spilled.
+   */
+  Object[] get(int tile) {
+    Object[] cells;
+    Map.Entry<Integer, Object[]> evicted = null;
+    CompletableFuture<Object[]> load;
+    boolean missedFirst = false;
+    synchronized (this) {
+      checkOpen();
+      cells = resident.get(tile);
+      if (cells != null) {
+        return cells;
+      }
+      cells = spilling.get(tile);
+      if (cells != null) {
+        evicted = admit(tile, cells);
+        load = null;
+      }
+      else {
+        load = loading.get(tile);
+        if (load == null) {
+          load = new CompletableFuture<>();
+          loading.put(tile, load);
+          missedFirst = true;
+        }
+      }
+    }
+
+    if (load == null) {
+      spill(evicted);
+      return cells;
+    }
+    if (!missedFirst) {
+      return await(load);
+    }
+    try {
+      cells = read(tile);
+    }
+    catch (RuntimeException e) {
+      synchronized (this) {
+        loading.remove(tile);
+      }
+      load.completeExceptionally(e);
+      throw e;
+    }
+    synchronized (this) {
+      loading.remove(tile);
+      reads++;
+      evicted = admit(tile, cells);
+    }
+    load.complete(cells);
+    spill(evicted);
+    return cells;
+  }
+
+  /**
+   * Hands <code>cells</code>, which must never be written to again, over as tile <code>tile</code>.
+   */
+  void put(int tile, Object[] cells) {
+    Map.Entry<Integer, Object[]> evicted;
+    synchronized (this) {
+      checkOpen();
+      evicted = admit(tile, cells);
+    }
+    spill(evicted);
+  }
+
+  synchronized int residentTiles() {
+    return resident.size();
+  }
+
+  synchronized long tilesRead() {
+    return reads;
+  }
+
+  synchronized long tilesWritten() {
+    return writes;
+  }
+
+  ElementCodec<X> codec() {
+    return codec;
+  }
+
+  /**
+   * Drops every resident tile and deletes the spill directory.
+   */
+  @Override
+  public synchronized void close()
+      throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    resident.clear();
+    spilling.clear();
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path aFile : (Iterable<Path>) files::iterator) {
+        Files.delete(aFile);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  // under the lock: makes cells resident, returning the tile evicted for it if that tile still has to be written
+  private Map.Entry<Integer, Object[]> admit(int tile, Object[] cells) {
+    resident.put(tile, cells);
+    if (resident.size() <= maxResident) {
+      return null;
+    }
+    Iterator<Map.Entry<Integer, Object[]>> leastRecent = resident.entrySet().iterator();
+    Map.Entry<Integer, Object[]> evicted = leastRecent.next();
+    leastRecent.remove();
+    int evictedTile = evicted.getKey();
+    if (onDisk.get(evictedTile) || spilling.containsKey(evictedTile)) {
+      return null;
+    }
+    spilling.put(evictedTile, evicted.getValue());
+    return evicted;
+  }
+
+  // outside the lock: writes a tile evicted by admit. If the write fails, the tile stays in spilling, and so readable
+  private void spill(Map.Entry<Integer, Object[]> evicted) {
+    if (evicted == null) {
+      return;
+    }
+    write(evicted.getKey(), evicted.getValue());
+    synchronized (this) {
+      onDisk.set(evicted.getKey());
+      spilling.remove(evicted.getKey());
+      writes++;
+    }
+  }
+
+  private void write(int tile, Object[] cells) {
+    long size = Integer.BYTES;
+    for (int k = 0; k < cells.length; k++) {
+      size += codec.sizeOf(cellAt(cells, k));
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("tile " + tile + " takes more than 2GB to encode");
+    }
+
+    ByteBuffer out = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    out.putInt(cells.length);
+    for (int k = 0; k < cells.length; k++) {
+      codec.encode(cellAt(cells, k), out);
+    }
+    try {
+      Files.write(fileOf(tile), out.array());
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Object[] read(int tile) {
+    ByteBuffer in;
+    try {
+      in = ByteBuffer.wrap(Files.readAllBytes(fileOf(tile))).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    Object[] cells = new Object[in.getInt()];
+    for (int k = 0; k < cells.length; k++) {
+      cells[k] = codec.decode(in);
+    }
+    return cells;
+  }
+
+  // the cells another thread is reading back, rethrowing what that read threw
+  private static Object[] await(CompletableFuture<Object[]> load) {
+    try {
+      return load.join();
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private Path fileOf(int tile) {
+    return directory.resolve(tile + ".tile");
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("the tiles of this matrix have been closed");
+    }
+  }
+
+  // cell k of a tile, which only ever holds Xs
+  @SuppressWarnings("unchecked")
+  private static <T> T cellAt(Object[] cells, int k) {
+    return (T) cells[k];
+  }
+}
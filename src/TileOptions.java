@@ -0,0 +1,70 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * How a {@link TiledMatrix} lays out and caches its cells: the side of its square tiles, how many tiles it keeps on
+ * the heap at once, and the directory it spills the others to.
+ * <br>
+ * Options are immutable; each <code>with*</code> method returns a new <code>TileOptions</code>, so they can be
+ * shared and built up from {@link #DEFAULT}.
+ */
+public final class TileOptions {
+
+  /**
+   * 256 x 256 tiles, at most 64 of them resident, spilled under <code>java.io.tmpdir</code>.
+   */
+  public static final TileOptions DEFAULT =
+      new TileOptions(256, 64, Paths.get(System.getProperty("java.io.tmpdir")));
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private final int tileSize;
+  private final int maxResidentTiles;
+  private final Path spillDirectory;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private TileOptions(int _tileSize, int _maxResidentTiles, Path _spillDirectory) {
+    tileSize = _tileSize;
+    maxResidentTiles = _maxResidentTiles;
+    spillDirectory = _spillDirectory;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  /**
+   * Split matrices into <code>_tileSize</code> x <code>_tileSize</code> tiles; the tiles along the bottom and right
+   * edges may be smaller.
+   */
+  public TileOptions withTileSize(int _tileSize)
+      throws IllegalArgumentException {
+    return new TileOptions(Utils.intBetween(1, _tileSize, 1 << 15), maxResidentTiles, spillDirectory);
+  }
+
+  /**
+   * Keep at most <code>_maxResidentTiles</code> tiles of each matrix on the heap, spilling the least recently used.
+   * A row of tiles of the left operand of a multiply is read once for every column of tiles of the result, so
+   * multiplying reads back the fewest tiles when the cache holds a row of tiles.
+   */
+  public TileOptions withMaxResidentTiles(int _maxResidentTiles)
+      throws IllegalArgumentException {
+    return new TileOptions(tileSize, Utils.intBetween(1, _maxResidentTiles, Integer.MAX_VALUE), spillDirectory);
+  }
+
+  /**
+   * Spill tiles to a fresh directory under <code>_spillDirectory</code>, which is created if it does not exist.
+   */
+  public TileOptions withSpillDirectory(Path _spillDirectory)
+      throws IllegalArgumentException {
+    return new TileOptions(tileSize, maxResidentTiles, Utils.notNull(_spillDirectory));
+  }
+
+  public int getTileSize() {
+    return tileSize;
+  }
+
+  public int getMaxResidentTiles() {
+    return maxResidentTiles;
+  }
+
+  public Path getSpillDirectory() {
+    return spillDirectory;
+  }
+}
@@ -0,0 +1,441 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * An {@link IMatrix} split into square tiles, only a bounded number of which are on the heap at once; the rest are
+ * spilled to disk through an {@link ElementCodec} and read back when next needed. A matrix can so hold many times
+ * more cells than the heap could.
+ * <ul>
+ *     <li>Tiles are laid out and cached as the {@link TileOptions} of {@link #generate} or {@link #of} say. Every
+ *     matrix built from a tiled one is tiled the same way and spills into the same directory</li>
+ *     <li>{@link #map(Function, ElementCodec)}, {@link #elementWiseCombine(BiFunction, IMatrix, ElementCodec)},
+ *     {@link #pseudoMultiply(BiFunction, BiFunction, IMatrix, Object, ElementCodec)} and {@link #reduce} work one
+ *     tile at a time, and a {@link #parallel()} tiled matrix runs its tiles concurrently. They only ever hold the
+ *     tiles they are working on, on top of the cache</li>
+ *     <li>{@link #foldNW}, {@link #foldSE} and {@link #forEachIndexed} visit cells in row-major order, so they hold
+ *     one whole row of tiles at a time, on top of the cache, and read each tile once</li>
+ *     <li>Operations inherited from {@link AMatrix} that build a new matrix (<code>map</code> without a codec,
+ *     <code>update*</code>, <code>sort</code>, ...) build it on the heap, so should only be used on matrices that
+ *     fit there</li>
+ * </ul>
+ * {@link #close()} deletes the spilled tiles; it is shared with the matrices {@link #parallel()} and
+ * {@link #sequential()} return, but not with the matrices built from this one, which must be closed on their own.
+ *
+ * @param <X> The type of the entry included in this matrix
+ */
+public class TiledMatrix<X> extends AMatrix<X> implements AutoCloseable {
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~fields~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  protected final int rows;
+  protected final int cols;
+  protected final TileOptions options;
+  // tile (tr, tc) is row-major, covers rows [tr * size, ...) and cols [tc * size, ...), and has index
+  // tr * tileCols + tc
+  protected final int tileRows;
+  protected final int tileCols;
+  protected final TileCache<X> tiles;
+  protected final Parallelism parallelism;
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ctors~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private TiledMatrix(int _rows, int _cols, TileOptions _options, TileCache<X> _tiles, Parallelism _parallelism) {
+    rows = _rows;
+    cols = _cols;
+    options = _options;
+    tileRows = (_rows + _options.getTileSize() - 1) / _options.getTileSize();
+    tileCols = (_cols + _options.getTileSize() - 1) / _options.getTileSize();
+    tiles = _tiles;
+    parallelism = _parallelism;
+  }
+
+  /**
+   * A matrix whose entry at <code>(i, j)</code> is <code>generator(i, j)</code>, computed one tile at a time, so
+   * that no more than one tile beyond the cache is ever on the heap.
+   *
+   * @throws IOException if the spill directory cannot be created
+   */
+  public static <X> TiledMatrix<X> generate(IntIntFunction<X> generator, int _rows, int _cols,
+                                            ElementCodec<X> codec, TileOptions _options)
+      throws IOException, IllegalArgumentException {
+    Utils.notNull(generator);
+    Utils.intBetween(0, _rows, Integer.MAX_VALUE);
+    Utils.intBetween(0, _cols, Integer.MAX_VALUE);
+
+    TiledMatrix<X> generated =
+        new TiledMatrix<>(_rows, _cols, Utils.notNull(_options), new TileCache<>(codec, _options),
+            Parallelism.SEQUENTIAL);
+    generated.forEachTile(tile -> {
+      int firstRow = generated.firstRowOf(tile);
+      int firstCol = generated.firstColOf(tile);
+      int height = generated.heightOf(tile);
+      int width = generated.widthOf(tile);
+      Object[] cells = new Object[height * width];
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          cells[i * width + j] = Utils.notNull(generator.apply(firstRow + i, firstCol + j));
+        }
+      }
+      generated.tiles.put(tile, cells);
+    });
+    return generated;
+  }
+
+  /**
+   * The cells of <code>source</code>, tiled. <code>source</code> is read one tile at a time through
+   * {@link IMatrix#getElement}, so it may be a {@link MappedDoubleMatrix} or anything else too big for the heap.
+   *
+   * @throws IOException if the spill directory cannot be created
+   */
+  public static <X> TiledMatrix<X> of(IMatrix<X> source, ElementCodec<X> codec, TileOptions _options)
+      throws IOException, IllegalArgumentException {
+    Utils.notNull(source);
+    return generate(source::getElement, source.getHeight(), source.getWidth(), codec, _options);
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~tiled operations~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  /**
+   * {@link IMatrix#map(Function)} into a new tiled matrix, whose tiles <code>codec</code> spills.
+   */
+  public <Y> TiledMatrix<Y> map(Function<X, Y> elementMapper, ElementCodec<Y> codec)
+      throws IllegalArgumentException {
+    Utils.notNull(elementMapper);
+    TiledMatrix<Y> mapped = sameShape(rows, cols, codec);
+
+    forEachTile(tile -> {
+      Object[] source = tiles.get(tile);
+      Object[] cells = new Object[source.length];
+      for (int k = 0; k < cells.length; k++) {
+        cells[k] = elementMapper.apply(cellAt(source, k));
+      }
+      mapped.tiles.put(tile, cells);
+    });
+    return mapped;
+  }
+
+  /**
+   * {@link IMatrix#elementWiseCombine(BiFunction, IMatrix)} into a new tiled matrix, whose tiles <code>codec</code>
+   * spills. <code>combineWith</code> is read tile by tile too, straight from its tiles if it is tiled the same way.
+   */
+  public <Y, Z> TiledMatrix<Z> elementWiseCombine(BiFunction<X, Y, Z> combiner, IMatrix<Y> combineWith,
+                                                  ElementCodec<Z> codec)
+      throws IllegalArgumentException {
+    Utils.notNull(combiner);
+    Utils.notNull(combineWith);
+    if (rows != combineWith.getHeight() || cols != combineWith.getWidth()) {
+      throw new IllegalArgumentException("cannot combine matrices with unequal dimensions");
+    }
+    TiledMatrix<Z> combined = sameShape(rows, cols, codec);
+
+    forEachTile(tile -> {
+      Object[] left = tiles.get(tile);
+      Object[] right = tileOf(combineWith, firstRowOf(tile), firstColOf(tile), heightOf(tile), widthOf(tile));
+      Object[] cells = new Object[left.length];
+      for (int k = 0; k < cells.length; k++) {
+        cells[k] = combiner.apply(cellAt(left, k), cellAt(right, k));
+      }
+      combined.tiles.put(tile, cells);
+    });
+    return combined;
+  }
+
+  /**
+   * {@link IMatrix#pseudoMultiply} into a new tiled matrix, whose tiles <code>codec</code> spills. Each tile of the
+   * result folds the products of a row of this matrix's tiles and a column of <code>combineWith</code>'s, in
+   * increasing order, so every cell accumulates exactly as in {@link IMatrix#pseudoMultiply}. Tiles of the result
+   * are computed concurrently on a {@link #parallel()} matrix.
+   */
+  public <Y, Z, α> TiledMatrix<α> pseudoMultiply(BiFunction<X, Y, Z> interMatrixOperation,
+                                                 BiFunction<Z, α, α> intraMatrixOperation, IMatrix<Y> combineWith,
+                                                 α αIdentity, ElementCodec<α> codec)
+      throws IllegalArgumentException {
+    Utils.notNull(interMatrixOperation);
+    Utils.notNull(intraMatrixOperation);
+    MatrixMultiplication.checkDimensions(this, combineWith);
+    TiledMatrix<α> product = sameShape(rows, combineWith.getWidth(), codec);
+    int size = options.getTileSize();
+
+    product.forEachTile(tile -> {
+      int firstRow = product.firstRowOf(tile);
+      int firstCol = product.firstColOf(tile);
+      int height = product.heightOf(tile);
+      int width = product.widthOf(tile);
+      Object[] cells = new Object[height * width];
+      Arrays.fill(cells, αIdentity);
+
+      for (int tk = 0; tk < tileCols; tk++) {
+        Object[] left = tiles.get((firstRow / size) * tileCols + tk);
+        int depth = Math.min(size, cols - tk * size);
+        Object[] right = tileOf(combineWith, tk * size, firstCol, depth, width);
+        for (int i = 0; i < height; i++) {
+          for (int k = 0; k < depth; k++) {
+            X aik = cellAt(left, i * depth + k);
+            for (int j = 0; j < width; j++) {
+              cells[i * width + j] =
+                  intraMatrixOperation.apply(interMatrixOperation.apply(aik, cellAt(right, k * width + j)),
+                      cellAt(cells, i * width + j));
+            }
+          }
+        }
+      }
+      product.tiles.put(tile, cells);
+    });
+    return product;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~public methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public X getElement(int row, int col)
+      throws IllegalArgumentException {
+    Utils.intBetween(0, row, rows - 1);
+    Utils.intBetween(0, col, cols - 1);
+    int size = options.getTileSize();
+    int tile = (row / size) * tileCols + col / size;
+
+    return cellAt(tiles.get(tile), (row % size) * widthOf(tile) + col % size);
+  }
+
+  @Override
+  public int getWidth() {
+    return cols;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows;
+  }
+
+  @Override
+  public void forEachIndexed(IndexedConsumer<X> action)
+      throws IllegalArgumentException {
+    Utils.notNull(action);
+    int size = options.getTileSize();
+
+    for (int tr = 0; tr < tileRows; tr++) {
+      Object[][] rowOfTiles = rowOfTiles(tr);
+      for (int i = tr * size; i < Math.min(rows, (tr + 1) * size); i++) {
+        for (int tc = 0; tc < tileCols; tc++) {
+          int width = widthOf(tc);
+          int rowStart = (i % size) * width;
+          for (int j = 0; j < width; j++) {
+            action.accept(i, tc * size + j, cellAt(rowOfTiles[tc], rowStart + j));
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public <Y> Y foldNW(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+    int size = options.getTileSize();
+
+    for (int tr = 0; tr < tileRows; tr++) {
+      Object[][] rowOfTiles = rowOfTiles(tr);
+      for (int i = tr * size; i < Math.min(rows, (tr + 1) * size); i++) {
+        for (int tc = 0; tc < tileCols; tc++) {
+          int width = widthOf(tc);
+          int rowStart = (i % size) * width;
+          for (int j = 0; j < width; j++) {
+            folded = folder.apply(cellAt(rowOfTiles[tc], rowStart + j), folded);
+          }
+        }
+      }
+    }
+
+    return folded;
+  }
+
+  @Override
+  public <Y> Y foldSE(BiFunction<X, Y, Y> folder, Y base)
+      throws IllegalArgumentException {
+    Utils.notNull(folder);
+    Y folded = Utils.notNull(base);
+    int size = options.getTileSize();
+
+    for (int tr = tileRows - 1; tr >= 0; tr--) {
+      Object[][] rowOfTiles = rowOfTiles(tr);
+      for (int i = Math.min(rows, (tr + 1) * size) - 1; i >= tr * size; i--) {
+        for (int tc = tileCols - 1; tc >= 0; tc--) {
+          int width = widthOf(tc);
+          int rowStart = (i % size) * width;
+          for (int j = width - 1; j >= 0; j--) {
+            folded = folder.apply(cellAt(rowOfTiles[tc], rowStart + j), folded);
+          }
+        }
+      }
+    }
+
+    return folded;
+  }
+
+  /**
+   * Reduces each row of tiles one tile at a time, keeping a partial result per row, then the rows in order. Rows of
+   * tiles run concurrently on a {@link #parallel()} matrix.
+   */
+  @Override
+  public X reduce(X identity, BinaryOperator<X> associativeCombiner)
+      throws IllegalArgumentException {
+    Utils.notNull(associativeCombiner);
+    int size = options.getTileSize();
+    if (tileRows == 0 || tileCols == 0) {
+      return identity;
+    }
+
+    // tiles are the unit of work, so weigh a row of them by its cells
+    int rowOfTilesCells = (int) Math.min(Integer.MAX_VALUE, (long) size * cols);
+    return parallelism.mapRowBlocks(tileRows, rowOfTilesCells, (firstTileRow, lastTileRow) -> {
+      X reduced = identity;
+      for (int tr = firstTileRow; tr < lastTileRow; tr++) {
+        int height = heightOf(tr * tileCols);
+        Object[] partials = new Object[height];
+        Arrays.fill(partials, identity);
+        for (int tc = 0; tc < tileCols; tc++) {
+          int tile = tr * tileCols + tc;
+          Object[] cells = tiles.get(tile);
+          int width = widthOf(tile);
+          for (int i = 0; i < height; i++) {
+            partials[i] = associativeCombiner.apply(cellAt(partials, i),
+                Reduction.pairwise(cells, i * width, (i + 1) * width, identity, associativeCombiner));
+          }
+        }
+        reduced = associativeCombiner.apply(reduced,
+            Reduction.pairwise(partials, 0, height, identity, associativeCombiner));
+      }
+      return reduced;
+    }, associativeCombiner);
+  }
+
+  @Override
+  public IMatrix<X> copy() {
+    // tiles are never changed, so a copy can share them
+    return this;
+  }
+
+  @Override
+  public IMatrix<X> parallel(ForkJoinPool pool) {
+    return new TiledMatrix<>(rows, cols, options, tiles, Parallelism.on(pool));
+  }
+
+  @Override
+  public IMatrix<X> sequential() {
+    return parallelism.isParallel() ? new TiledMatrix<>(rows, cols, options, tiles, Parallelism.SEQUENTIAL) : this;
+  }
+
+  @Override
+  public boolean isParallel() {
+    return parallelism.isParallel();
+  }
+
+  /**
+   * Deletes this matrix's spilled tiles and drops its resident ones. Reading this matrix afterwards throws an
+   * {@link IllegalStateException}.
+   */
+  @Override
+  public void close()
+      throws IOException {
+    tiles.close();
+  }
+
+  public TileOptions getOptions() {
+    return options;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~protected methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  protected Object[] rowMajorEntries() {
+    Object[] flat = new Object[rows * cols];
+    forEachTile(tile -> {
+      Object[] cells = tiles.get(tile);
+      int width = widthOf(tile);
+      int start = firstRowOf(tile) * cols + firstColOf(tile);
+      for (int i = 0; i < heightOf(tile); i++) {
+        System.arraycopy(cells, i * width, flat, start + i * cols, width);
+      }
+    });
+    return flat;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~package-private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  TileCache<X> tiles() {
+    return tiles;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~private methods~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  private interface TileBody {
+    void run(int tile);
+  }
+
+  // runs body on every tile, in blocks of tiles that may run concurrently
+  private void forEachTile(TileBody body) {
+    int size = options.getTileSize();
+    parallelism.forEachRowBlock(tileRows * tileCols, size * size, (firstTile, lastTile) -> {
+      for (int tile = firstTile; tile < lastTile; tile++) {
+        body.run(tile);
+      }
+    });
+  }
+
+  // the tiles of row tr of tiles, read once each and held for as long as the caller walks their rows
+  private Object[][] rowOfTiles(int tr) {
+    Object[][] rowOfTiles = new Object[tileCols][];
+    for (int tc = 0; tc < tileCols; tc++) {
+      rowOfTiles[tc] = tiles.get(tr * tileCols + tc);
+    }
+    return rowOfTiles;
+  }
+
+  // an empty _rows x _cols matrix tiled and cached like this one, run the same way
+  private <Y> TiledMatrix<Y> sameShape(int _rows, int _cols, ElementCodec<Y> codec) {
+    try {
+      return new TiledMatrix<>(_rows, _cols, options, new TileCache<>(codec, options), parallelism);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // the height x width rectangle of aMatrix from (firstRow, firstCol), row-major
+  private Object[] tileOf(IMatrix<?> aMatrix, int firstRow, int firstCol, int height, int width) {
+    int size = options.getTileSize();
+    if (aMatrix instanceof TiledMatrix && ((TiledMatrix<?>) aMatrix).options.getTileSize() == size) {
+      TiledMatrix<?> tiled = (TiledMatrix<?>) aMatrix;
+      return tiled.tiles.get((firstRow / size) * tiled.tileCols + firstCol / size);
+    }
+    Object[] cells = new Object[height * width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        cells[i * width + j] = aMatrix.getElement(firstRow + i, firstCol + j);
+      }
+    }
+    return cells;
+  }
+
+  private int firstRowOf(int tile) {
+    return (tile / tileCols) * options.getTileSize();
+  }
+
+  private int firstColOf(int tile) {
+    return (tile % tileCols) * options.getTileSize();
+  }
+
+  private int heightOf(int tile) {
+    return Math.min(options.getTileSize(), rows - firstRowOf(tile));
+  }
+
+  private int widthOf(int tile) {
+    return Math.min(options.getTileSize(), cols - firstColOf(tile));
+  }
+
+  // cell k of a tile, which only ever holds elements of the type it is read as
+  @SuppressWarnings("unchecked")
+  private static <T> T cellAt(Object[] cells, int k) {
+    return (T) cells[k];
+  }
+}
@@ -3,7 +3,7 @@ public class Utils {
   public static <X> X notNull(X toCheck)
       throws IllegalArgumentException {
     if (toCheck == null) {
-      throw new IllegalArgumentException("null parameter passed: " + toCheck.getClass().toString());
+      throw new IllegalArgumentException("null parameter passed");
     }
     return toCheck;
   }
@@ -0,0 +1,321 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link NumericKernels} written against the JDK Vector API, in the widest species the CPU supports (4 doubles with
+ * AVX2, 8 with AVX-512). Each loop runs over whole vectors up to {@link VectorSpecies#loopBound(int)} and finishes
+ * the remaining few cells with the scalar loop.
+ * <br>
+ * Only ever loaded by {@link NumericKernels#vectorized()}, once it has checked that <code>jdk.incubator.vector</code>
+ * is present.
+ */
+final class VectorKernels implements NumericKernels {
+
+  private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+  VectorKernels() {
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~element-wise~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public void combine(Arithmetic op, double[] left, double[] right, double[] out) {
+    int k = 0;
+    int bound = DOUBLES.loopBound(out.length);
+    // one loop per operator: the JIT only compiles a vector operation to a single instruction when the operator is
+    // a constant at the call site
+    switch (op) {
+      case ADD:
+        for (; k < bound; k += DOUBLES.length()) {
+          DoubleVector.fromArray(DOUBLES, left, k).add(DoubleVector.fromArray(DOUBLES, right, k)).intoArray(out, k);
+        }
+        break;
+      case SUBTRACT:
+        for (; k < bound; k += DOUBLES.length()) {
+          DoubleVector.fromArray(DOUBLES, left, k).sub(DoubleVector.fromArray(DOUBLES, right, k)).intoArray(out, k);
+        }
+        break;
+      case MULTIPLY:
+        for (; k < bound; k += DOUBLES.length()) {
+          DoubleVector.fromArray(DOUBLES, left, k).mul(DoubleVector.fromArray(DOUBLES, right, k)).intoArray(out, k);
+        }
+        break;
+      case DIVIDE:
+        for (; k < bound; k += DOUBLES.length()) {
+          DoubleVector.fromArray(DOUBLES, left, k).div(DoubleVector.fromArray(DOUBLES, right, k)).intoArray(out, k);
+        }
+        break;
+      case MIN:
+        for (; k < bound; k += DOUBLES.length()) {
+          DoubleVector.fromArray(DOUBLES, left, k).min(DoubleVector.fromArray(DOUBLES, right, k)).intoArray(out, k);
+        }
+        break;
+      case MAX:
+        for (; k < bound; k += DOUBLES.length()) {
+          DoubleVector.fromArray(DOUBLES, left, k).max(DoubleVector.fromArray(DOUBLES, right, k)).intoArray(out, k);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("unknown operation " + op);
+    }
+    for (; k < out.length; k++) {
+      out[k] = op.applyAsDouble(left[k], right[k]);
+    }
+  }
+
+  @Override
+  public void combine(Arithmetic op, int[] left, int[] right, int[] out) {
+    int k = 0;
+    int bound = INTS.loopBound(out.length);
+    // one loop per operator: the JIT only compiles a vector operation to a single instruction when the operator is
+    // a constant at the call site
+    switch (op) {
+      case ADD:
+        for (; k < bound; k += INTS.length()) {
+          IntVector.fromArray(INTS, left, k).add(IntVector.fromArray(INTS, right, k)).intoArray(out, k);
+        }
+        break;
+      case SUBTRACT:
+        for (; k < bound; k += INTS.length()) {
+          IntVector.fromArray(INTS, left, k).sub(IntVector.fromArray(INTS, right, k)).intoArray(out, k);
+        }
+        break;
+      case MULTIPLY:
+        for (; k < bound; k += INTS.length()) {
+          IntVector.fromArray(INTS, left, k).mul(IntVector.fromArray(INTS, right, k)).intoArray(out, k);
+        }
+        break;
+      case DIVIDE:
+        // there is no SIMD integer division on x86; the scalar tail below does the whole array, and throws on a zero
+        // divisor where the scalar loop would
+        break;
+      case MIN:
+        for (; k < bound; k += INTS.length()) {
+          IntVector.fromArray(INTS, left, k).min(IntVector.fromArray(INTS, right, k)).intoArray(out, k);
+        }
+        break;
+      case MAX:
+        for (; k < bound; k += INTS.length()) {
+          IntVector.fromArray(INTS, left, k).max(IntVector.fromArray(INTS, right, k)).intoArray(out, k);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("unknown operation " + op);
+    }
+    for (; k < out.length; k++) {
+      out[k] = op.applyAsInt(left[k], right[k]);
+    }
+  }
+
+  @Override
+  public void scale(double[] entries, double factor, double[] out) {
+    int k = 0;
+    for (int bound = DOUBLES.loopBound(out.length); k < bound; k += DOUBLES.length()) {
+      DoubleVector.fromArray(DOUBLES, entries, k).mul(factor).intoArray(out, k);
+    }
+    for (; k < out.length; k++) {
+      out[k] = entries[k] * factor;
+    }
+  }
+
+  @Override
+  public void scale(int[] entries, int factor, int[] out) {
+    int k = 0;
+    for (int bound = INTS.loopBound(out.length); k < bound; k += INTS.length()) {
+      IntVector.fromArray(INTS, entries, k).mul(factor).intoArray(out, k);
+    }
+    for (; k < out.length; k++) {
+      out[k] = entries[k] * factor;
+    }
+  }
+
+  @Override
+  public void offset(double[] entries, double shift, double[] out) {
+    int k = 0;
+    for (int bound = DOUBLES.loopBound(out.length); k < bound; k += DOUBLES.length()) {
+      DoubleVector.fromArray(DOUBLES, entries, k).add(shift).intoArray(out, k);
+    }
+    for (; k < out.length; k++) {
+      out[k] = entries[k] + shift;
+    }
+  }
+
+  @Override
+  public void offset(int[] entries, int shift, int[] out) {
+    int k = 0;
+    for (int bound = INTS.loopBound(out.length); k < bound; k += INTS.length()) {
+      IntVector.fromArray(INTS, entries, k).add(shift).intoArray(out, k);
+    }
+    for (; k < out.length; k++) {
+      out[k] = entries[k] + shift;
+    }
+  }
+
+  @Override
+  public void clamp(double[] entries, double lower, double upper, double[] out) {
+    int k = 0;
+    for (int bound = DOUBLES.loopBound(out.length); k < bound; k += DOUBLES.length()) {
+      DoubleVector.fromArray(DOUBLES, entries, k).max(lower).min(upper).intoArray(out, k);
+    }
+    for (; k < out.length; k++) {
+      out[k] = Math.min(Math.max(entries[k], lower), upper);
+    }
+  }
+
+  @Override
+  public void clamp(int[] entries, int lower, int upper, int[] out) {
+    int k = 0;
+    for (int bound = INTS.loopBound(out.length); k < bound; k += INTS.length()) {
+      IntVector.fromArray(INTS, entries, k).max(lower).min(upper).intoArray(out, k);
+    }
+    for (; k < out.length; k++) {
+      out[k] = Math.min(Math.max(entries[k], lower), upper);
+    }
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~reductions~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+
+  // each reduction keeps one accumulator per lane and only folds the lanes together at the end
+
+  @Override
+  public double sum(double[] entries) {
+    DoubleVector sums = DoubleVector.zero(DOUBLES);
+    int k = 0;
+    for (int bound = DOUBLES.loopBound(entries.length); k < bound; k += DOUBLES.length()) {
+      sums = sums.add(DoubleVector.fromArray(DOUBLES, entries, k));
+    }
+    double sum = sums.reduceLanes(VectorOperators.ADD);
+    for (; k < entries.length; k++) {
+      sum += entries[k];
+    }
+    return sum;
+  }
+
+  @Override
+  public int sum(int[] entries) {
+    IntVector sums = IntVector.zero(INTS);
+    int k = 0;
+    for (int bound = INTS.loopBound(entries.length); k < bound; k += INTS.length()) {
+      sums = sums.add(IntVector.fromArray(INTS, entries, k));
+    }
+    int sum = sums.reduceLanes(VectorOperators.ADD);
+    for (; k < entries.length; k++) {
+      sum += entries[k];
+    }
+    return sum;
+  }
+
+  @Override
+  public double min(double[] entries) {
+    DoubleVector mins = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+    int k = 0;
+    for (int bound = DOUBLES.loopBound(entries.length); k < bound; k += DOUBLES.length()) {
+      mins = mins.min(DoubleVector.fromArray(DOUBLES, entries, k));
+    }
+    double min = mins.reduceLanes(VectorOperators.MIN);
+    for (; k < entries.length; k++) {
+      min = Math.min(min, entries[k]);
+    }
+    return min;
+  }
+
+  @Override
+  public int min(int[] entries) {
+    IntVector mins = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+    int k = 0;
+    for (int bound = INTS.loopBound(entries.length); k < bound; k += INTS.length()) {
+      mins = mins.min(IntVector.fromArray(INTS, entries, k));
+    }
+    int min = mins.reduceLanes(VectorOperators.MIN);
+    for (; k < entries.length; k++) {
+      min = Math.min(min, entries[k]);
+    }
+    return min;
+  }
+
+  @Override
+  public double max(double[] entries) {
+    DoubleVector maxes = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+    int k = 0;
+    for (int bound = DOUBLES.loopBound(entries.length); k < bound; k += DOUBLES.length()) {
+      maxes = maxes.max(DoubleVector.fromArray(DOUBLES, entries, k));
+    }
+    double max = maxes.reduceLanes(VectorOperators.MAX);
+    for (; k < entries.length; k++) {
+      max = Math.max(max, entries[k]);
+    }
+    return max;
+  }
+
+  @Override
+  public int max(int[] entries) {
+    IntVector maxes = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+    int k = 0;
+    for (int bound = INTS.loopBound(entries.length); k < bound; k += INTS.length()) {
+      maxes = maxes.max(IntVector.fromArray(INTS, entries, k));
+    }
+    int max = maxes.reduceLanes(VectorOperators.MAX);
+    for (; k < entries.length; k++) {
+      max = Math.max(max, entries[k]);
+    }
+    return max;
+  }
+
+  @Override
+  public double dot(double[] left, double[] right) {
+    DoubleVector sums = DoubleVector.zero(DOUBLES);
+    int k = 0;
+    for (int bound = DOUBLES.loopBound(left.length); k < bound; k += DOUBLES.length()) {
+      sums = sums.add(DoubleVector.fromArray(DOUBLES, left, k).mul(DoubleVector.fromArray(DOUBLES, right, k)));
+    }
+    double dot = sums.reduceLanes(VectorOperators.ADD);
+    for (; k < left.length; k++) {
+      dot += left[k] * right[k];
+    }
+    return dot;
+  }
+
+  @Override
+  public int dot(int[] left, int[] right) {
+    IntVector sums = IntVector.zero(INTS);
+    int k = 0;
+    for (int bound = INTS.loopBound(left.length); k < bound; k += INTS.length()) {
+      sums = sums.add(IntVector.fromArray(INTS, left, k).mul(IntVector.fromArray(INTS, right, k)));
+    }
+    int dot = sums.reduceLanes(VectorOperators.ADD);
+    for (; k < left.length; k++) {
+      dot += left[k] * right[k];
+    }
+    return dot;
+  }
+
+  //!~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~multiplication~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~!
+  @Override
+  public void axpy(double alpha, double[] x, int xFrom, double[] y, int yFrom, int length) {
+    int j = 0;
+    // mul then add rather than fma, so every cell is rounded exactly as in the scalar loop
+    for (int bound = DOUBLES.loopBound(length); j < bound; j += DOUBLES.length()) {
+      DoubleVector.fromArray(DOUBLES, x, xFrom + j).mul(alpha)
+          .add(DoubleVector.fromArray(DOUBLES, y, yFrom + j))
+          .intoArray(y, yFrom + j);
+    }
+    for (; j < length; j++) {
+      y[yFrom + j] += alpha * x[xFrom + j];
+    }
+  }
+
+  @Override
+  public void axpy(int alpha, int[] x, int xFrom, int[] y, int yFrom, int length) {
+    int j = 0;
+    for (int bound = INTS.loopBound(length); j < bound; j += INTS.length()) {
+      IntVector.fromArray(INTS, x, xFrom + j).mul(alpha)
+          .add(IntVector.fromArray(INTS, y, yFrom + j))
+          .intoArray(y, yFrom + j);
+    }
+    for (; j < length; j++) {
+      y[yFrom + j] += alpha * x[xFrom + j];
+    }
+  }
+}
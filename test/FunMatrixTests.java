@@ -3,9 +3,18 @@ import org.junit.Test;
 
 import javax.net.ssl.X509KeyManager;
 import java.awt.image.AreaAveragingScaleFilter;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -37,7 +46,7 @@ public class FunMatrixTests {
             )
     ));
 
-    private final IMatrix<Boolean> m4x1_bools = new FunMatrix<>(new ArrayList<>( // FIXME (toString() for column vector)
+    private final IMatrix<Boolean> m4x1_bools = new FunMatrix<>(new ArrayList<>(
             Arrays.asList(
                     new ArrayList<>(Arrays.asList(true)),
                     new ArrayList<>(Arrays.asList(false)),
@@ -140,6 +149,40 @@ public class FunMatrixTests {
         );
     }
 
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~forEachIndexed tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testMapIndexedWithMethodReference() {
+        assertEquals(new FunMatrix<>((i, j) -> i + j, 3, 3), m3x3_ints.map(Integer::sum));
+    }
+
+    @Test
+    public void testForEachIndexedIsRowMajor() {
+        List<String> visited = new ArrayList<>();
+        m2x3_strings.forEachIndexed((i, j, x) -> visited.add(i + "," + j + "=" + x));
+
+        assertEquals(Arrays.asList("0,0=You're", "0,1=gonna", "0,2=need", "1,0=a", "1,1=bigger", "1,2=boat"),
+                visited);
+    }
+
+    @Test
+    public void testForEachIndexedMatchesGetElement() {
+        for (IMatrix<Integer> aMatrix : Arrays.asList(m300x200_ints, m300x200_ints.transpose(),
+                m300x200_ints.slice(3, 200, 3, 7, 150, 5), m300x200_ints.lazy().map(x -> -x),
+                new PersistentMatrix<>(m3x3_ints))) {
+            AtomicInteger count = new AtomicInteger();
+            aMatrix.forEachIndexed((i, j, x) -> {
+                assertEquals(aMatrix.getElement(i, j), x);
+                count.incrementAndGet();
+            });
+            assertEquals(aMatrix.getHeight() * aMatrix.getWidth(), count.get());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForEachIndexedNull() {
+        m3x3_ints.forEachIndexed(null);
+    }
+
     //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~foldNW, foldSE tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
     @Test
     public void testFoldNWSumInts() {
@@ -171,6 +214,418 @@ public class FunMatrixTests {
         // TODO
     }
 
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~pseudoMultiply tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testPseudoMultiplyIntsIsMatrixProduct() {
+        assertEquals(new FunMatrix<Integer>(
+                        new ArrayList<>(Arrays.asList(30, 36, 42)),
+                        new ArrayList<>(Arrays.asList(66, 81, 96)),
+                        new ArrayList<>(Arrays.asList(102, 126, 150))),
+                m3x3_ints.pseudoMultiply((x, y) -> x * y, (product, sum) -> product + sum, m3x3_ints, 0));
+    }
+
+    @Test
+    public void testPseudoMultiplyMinPlus() {
+        IMatrix<Integer> distances = new FunMatrix<Integer>(
+                new ArrayList<>(Arrays.asList(0, 4, 1)),
+                new ArrayList<>(Arrays.asList(4, 0, 2)),
+                new ArrayList<>(Arrays.asList(1, 2, 0)));
+
+        assertEquals(new FunMatrix<Integer>(
+                        new ArrayList<>(Arrays.asList(0, 3, 1)),
+                        new ArrayList<>(Arrays.asList(3, 0, 2)),
+                        new ArrayList<>(Arrays.asList(1, 2, 0))),
+                distances.pseudoMultiply((x, y) -> x + y, Math::min, distances, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testPseudoMultiplyAccumulatesInColumnOrder() {
+        IMatrix<String> row = new FunMatrix<>(Arrays.asList("a", "b", "c"), 1);
+        IMatrix<String> col = new FunMatrix<String>(
+                new ArrayList<>(Arrays.asList("1")),
+                new ArrayList<>(Arrays.asList("2")),
+                new ArrayList<>(Arrays.asList("3")));
+
+        assertEquals(new FunMatrix<>("a1b2c3", 1, 1),
+                row.pseudoMultiply((x, y) -> x + y, (product, soFar) -> soFar + product, col, ""));
+    }
+
+    @Test
+    public void testPseudoMultiplyAcrossManyBlocksMatchesNaiveProduct() {
+        IMatrix<Integer> left = new FunMatrix<>((i, j) -> (i * 31 + j * 17) % 13 - 6, 70, 130);
+        IMatrix<Integer> right = new FunMatrix<>((i, j) -> (i * 7 + j * 11) % 5 - 2, 130, 67);
+
+        IMatrix<Integer> naive = new FunMatrix<>((i, j) -> {
+            int sum = 0;
+            for (int k = 0; k < 130; k++) {
+                sum += left.getElement(i, k) * right.getElement(k, j);
+            }
+            return sum;
+        }, 70, 67);
+
+        assertEquals(naive, left.pseudoMultiply((x, y) -> x * y, (product, sum) -> product + sum, right, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPseudoMultiplyMismatchedDimensionsThrows() {
+        m2x3_strings.pseudoMultiply((x, y) -> x + y, (product, soFar) -> soFar + product, m2x3_strings, "");
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~parallel tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    private final IMatrix<Integer> m300x200_ints = new FunMatrix<>((i, j) -> i * 200 + j, 300, 200);
+
+    @Test
+    public void testParallelMapEqualsSequentialMap() {
+        IMatrix<Integer> parallelInts = m300x200_ints.parallel();
+
+        assertTrue(parallelInts.isParallel());
+        assertEquals(m300x200_ints.map(x -> x % 7), parallelInts.map(x -> x % 7));
+        assertEquals(m300x200_ints.map((i, j) -> i - j), parallelInts.map((i, j) -> i - j));
+        assertTrue(parallelInts.map(x -> x % 7).isParallel());
+    }
+
+    @Test
+    public void testParallelFilterKeepsRowMajorOrder() {
+        assertEquals(m300x200_ints.filter(x -> x % 3 == 0), m300x200_ints.parallel().filter(x -> x % 3 == 0));
+    }
+
+    @Test
+    public void testParallelCombineReplaceAndFillEqualSequential() {
+        IMatrix<Integer> parallelInts = m300x200_ints.parallel(new ForkJoinPool(3));
+
+        assertEquals(m300x200_ints.elementWiseCombine((x, y) -> x * y, m300x200_ints),
+                parallelInts.elementWiseCombine((x, y) -> x * y, m300x200_ints));
+        assertEquals(m300x200_ints.replaceMap(x -> x % 2 == 0, -1), parallelInts.replaceMap(x -> x % 2 == 0, -1));
+        assertEquals(m300x200_ints.fillWith(4), parallelInts.fillWith(4));
+        assertFalse(parallelInts.sequential().isParallel());
+    }
+
+    @Test
+    public void testSmallParallelMatrixRunsBelowThreshold() {
+        int oldThreshold = Parallelism.getThreshold();
+        try {
+            Parallelism.setThreshold(Integer.MAX_VALUE);
+            assertEquals(m3x3_ints.map(x -> 2 * x), m3x3_ints.parallel().map(x -> 2 * x));
+        } finally {
+            Parallelism.setThreshold(oldThreshold);
+        }
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~storage tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testAsListIsRowMajor() {
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), m3x3_ints.asList());
+    }
+
+    @Test
+    public void testOneRowCopiesDoNotShareRows() {
+        List<Integer> oneRow = new ArrayList<>(Arrays.asList(1, 2));
+        IMatrix<Integer> copies = new FunMatrix<>(oneRow, 2);
+        IMatrix<Integer> updated = copies.updateEntry(9, 0, 0);
+        oneRow.set(1, 7);
+
+        assertEquals(new FunMatrix<Integer>(
+                        new ArrayList<>(Arrays.asList(9, 2)),
+                        new ArrayList<>(Arrays.asList(1, 2))),
+                updated);
+        assertEquals(new FunMatrix<Integer>(Arrays.asList(1, 2), 2), copies);
+    }
+
+    @Test
+    public void testUpdateRowLeavesOriginalUntouched() {
+        IMatrix<String> updated = m2x3_strings.updateRow(Arrays.asList("a", "smaller", "shark"), 1);
+
+        assertEquals("[You're, gonna, need]\n" +
+                "[a, smaller, shark]\n", updated.toString());
+        assertEquals("bigger", m2x3_strings.getElement(1, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetElementOnePastLastRowThrows() {
+        m3x3_ints.getElement(3, 0);
+    }
+
+    @Test
+    public void testSubMatrixOfInts() {
+        assertEquals(new FunMatrix<Integer>(
+                        new ArrayList<>(Arrays.asList(5, 6)),
+                        new ArrayList<>(Arrays.asList(8, 9))),
+                m3x3_ints.subMatrix(1, 2, 1, 2));
+        assertEquals(new FunMatrix<Integer>(
+                        new ArrayList<>(Arrays.asList(1, 2))),
+                m3x3_ints.subMatrix(0, 1));
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~view tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testTransposeOfInts() {
+        assertEquals(new FunMatrix<Integer>(
+                        new ArrayList<>(Arrays.asList(1, 4, 7)),
+                        new ArrayList<>(Arrays.asList(2, 5, 8)),
+                        new ArrayList<>(Arrays.asList(3, 6, 9))),
+                m3x3_ints.transpose());
+        assertEquals(m2x3_strings, m2x3_strings.transpose().transpose());
+        assertEquals("bigger", m2x3_strings.transpose().getElement(1, 1));
+        assertEquals(3, m2x3_strings.transpose().getHeight());
+    }
+
+    @Test
+    public void testRowAndColViews() {
+        assertEquals(new FunMatrix<Integer>(new ArrayList<>(Arrays.asList(4, 5, 6))), m3x3_ints.row(1));
+        assertEquals(new FunMatrix<Integer>(Arrays.asList(3), Arrays.asList(6), Arrays.asList(9)), m3x3_ints.col(2));
+        assertEquals(m3x3_ints.col(2), m3x3_ints.transpose().row(2).transpose());
+    }
+
+    @Test
+    public void testSliceAndEveryNthRow() {
+        IMatrix<Integer> everyThird = m300x200_ints.everyNthRow(3);
+
+        assertEquals(100, everyThird.getHeight());
+        assertEquals(Integer.valueOf(3 * 200 * 7 + 5), everyThird.getElement(7, 5));
+        assertEquals(new FunMatrix<Integer>(Arrays.asList(1, 3), Arrays.asList(7, 9)),
+                m3x3_ints.slice(0, 2, 2, 0, 2, 2));
+        assertEquals(m3x3_ints.subMatrix(1, 2, 0, 1), m3x3_ints.slice(1, 2, 1, 0, 1, 1));
+    }
+
+    @Test
+    public void testViewsOfViewsAndOperationsOnViews() {
+        IMatrix<Integer> window = m300x200_ints.subMatrix(10, 59, 20, 99).transpose().subMatrix(5, 14, 0, 9);
+
+        assertEquals(m300x200_ints.map((i, j) -> i * 200 + j).subMatrix(10, 19, 25, 34).transpose(), window);
+        assertEquals(window.compact(), window.map(x -> x));
+        assertEquals(window.asList(), window.compact().asList());
+        assertEquals(window.foldNW((x, sum) -> x + sum, 0), window.reduce(0, Integer::sum));
+        assertEquals(window.foldSE((x, sum) -> x + sum, 0), window.parallel().reduce(0, Integer::sum));
+        assertEquals(window.compact().hashCode(), window.hashCode());
+        assertEquals(window.compact().elementWiseCombine(Integer::sum, window),
+                window.elementWiseCombine(Integer::sum, window.compact()));
+        assertEquals(window.compact().lazy().map(x -> -x).materialize(), window.lazy().map(x -> -x).materialize());
+    }
+
+    @Test
+    public void testUpdatingAViewLeavesTheParentUntouched() {
+        IMatrix<Integer> updated = m3x3_ints.transpose().updateEntry(0, 0, 1);
+
+        assertEquals(Integer.valueOf(0), updated.getElement(0, 1));
+        assertEquals(Integer.valueOf(4), m3x3_ints.getElement(1, 0));
+        assertEquals(m3x3_ints, updated.transpose().updateEntry(4, 1, 0));
+    }
+
+    @Test
+    public void testGenericViewsMatchFunMatrixViews() {
+        IMatrix<Integer> persistent = new PersistentMatrix<>(m300x200_ints);
+
+        assertEquals(m300x200_ints.slice(3, 299, 4, 1, 199, 3).transpose(),
+                persistent.slice(3, 299, 4, 1, 199, 3).transpose());
+        assertEquals(m300x200_ints.col(1), persistent.col(1).compact());
+        assertTrue(persistent.row(0).compact() instanceof FunMatrix);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSliceWithZeroStepThrows() {
+        m3x3_ints.slice(0, 2, 0, 0, 2, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTransposedViewChecksItsOwnBounds() {
+        m2x3_strings.transpose().getElement(0, 2);
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~stream tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testStreamIsRowMajorAndSized() {
+        assertEquals(m3x3_ints.asList(), m3x3_ints.stream().collect(Collectors.toList()));
+        assertEquals(m300x200_ints.asList(), m300x200_ints.parallelStream().collect(Collectors.toList()));
+        assertEquals(60000, m300x200_ints.cellSpliterator().getExactSizeIfKnown());
+        assertTrue(m300x200_ints.cellSpliterator().hasCharacteristics(Spliterator.SUBSIZED));
+        assertEquals(m3x3_ints.transpose().asList(), m3x3_ints.transpose().stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testStreamOfNullEntries() {
+        IMatrix<String> withNulls = m3x3_ints.map(x -> x % 2 == 0 ? null : "odd");
+        assertFalse(withNulls.cellSpliterator().hasCharacteristics(Spliterator.NONNULL));
+        assertEquals(4, withNulls.stream().filter(Objects::isNull).count());
+    }
+
+    @Test
+    public void testOrMapAndAndMapStopAtTheDecidingCell() {
+        AtomicInteger tested = new AtomicInteger();
+
+        assertTrue(m300x200_ints.orMap(x -> tested.incrementAndGet() > 0 && x == 5));
+        assertEquals(6, tested.get());
+        assertFalse(m300x200_ints.andMap(x -> tested.incrementAndGet() > 0 && x < 2));
+        assertEquals(9, tested.get());
+        assertTrue(m3x3_ints.andMap(x -> x > 0));
+        assertFalse(m3x3_ints.orMap(x -> x > 9));
+        assertFalse(emptyMatrix.orMap(x -> true));
+        assertTrue(emptyMatrix.andMap(x -> false));
+    }
+
+    @Test
+    public void testFindFirstAndIndexOf() {
+        assertEquals(Optional.of("bigger"), m2x3_strings.findFirst(s -> s.length() > 5 && !s.contains("'")));
+        assertEquals(Optional.empty(), m2x3_strings.findFirst(String::isEmpty));
+        assertEquals(Optional.of(new Cell<>(1, 2, 6)), m3x3_ints.indexOf(x -> x > 5));
+        assertEquals(Optional.of(new Cell<>(250, 3, 50003)), m300x200_ints.parallel().indexOf(x -> x > 50002));
+    }
+
+    @Test
+    public void testRowAndIndexedStreams() {
+        assertEquals(Arrays.asList(6, 15, 24),
+                m3x3_ints.rowStream().map(row -> row.reduce(0, Integer::sum)).collect(Collectors.toList()));
+        assertEquals("(0, 0) = You're,(0, 1) = gonna,(0, 2) = need,(1, 0) = a,(1, 1) = bigger,(1, 2) = boat",
+                m2x3_strings.indexedStream().map(Cell::toString).collect(Collectors.joining(",")));
+    }
+
+    @Test
+    public void testFilterOfGenericMatrixGoesThroughStream() {
+        IMatrix<Integer> persistent = new PersistentMatrix<>(m300x200_ints);
+
+        assertEquals(m300x200_ints.filter(x -> x % 7 == 0), persistent.filter(x -> x % 7 == 0));
+        assertEquals(m300x200_ints.filter(x -> x % 7 == 0), persistent.parallel().filter(x -> x % 7 == 0));
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~sort tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testSortIsRowMajor() {
+        assertEquals(m3x3_ints, m3x3_ints.sort(Comparator.reverseOrder()).sort(Comparator.naturalOrder()));
+        assertEquals(new FunMatrix<>((i, j) -> 9 - (i * 3 + j), 3, 3), m3x3_ints.sort(Comparator.reverseOrder()));
+        assertEquals(new FunMatrix<String>(
+                        new ArrayList<>(Arrays.asList("You're", "a", "bigger")),
+                        new ArrayList<>(Arrays.asList("boat", "gonna", "need"))),
+                m2x3_strings.sort(Comparator.naturalOrder()));
+    }
+
+    @Test
+    public void testSortIsStable() {
+        IMatrix<String> words = new FunMatrix<>(new ArrayList<>(Arrays.asList("bb", "a", "cc", "d", "ee")));
+
+        assertEquals(new FunMatrix<>(new ArrayList<>(Arrays.asList("a", "d", "bb", "cc", "ee"))),
+                words.sort(Comparator.comparing(String::length)));
+    }
+
+    @Test
+    public void testParallelSortEqualsSequentialSort() {
+        Comparator<Integer> byLastDigit = Comparator.comparing(x -> x % 10);
+        IMatrix<Integer> sorted = m300x200_ints.sort(byLastDigit);
+
+        assertEquals(sorted, m300x200_ints.parallel(new ForkJoinPool(3)).sort(byLastDigit));
+        assertEquals(sorted, m300x200_ints.transpose().transpose().parallel().sort(byLastDigit));
+        assertEquals(sorted, new PersistentMatrix<>(m300x200_ints).sort(byLastDigit));
+        assertEquals(Integer.valueOf(0), sorted.getElement(0, 0));
+        assertEquals(Integer.valueOf(59999), sorted.getElement(299, 199));
+    }
+
+    @Test
+    public void testSortRowsAndCols() {
+        IMatrix<Integer> reversed = m3x3_ints.sort(Comparator.reverseOrder());
+
+        assertEquals(new FunMatrix<>((i, j) -> 9 - (i * 3 + (2 - j)), 3, 3), reversed.sortRows(Comparator.naturalOrder()));
+        assertEquals(new FunMatrix<>((i, j) -> 9 - ((2 - i) * 3 + j), 3, 3), reversed.sortCols(Comparator.naturalOrder()));
+        assertEquals(m300x200_ints.sortRows(Comparator.reverseOrder()),
+                m300x200_ints.parallel().sortRows(Comparator.reverseOrder()));
+        assertEquals(m300x200_ints.sortRows(Comparator.reverseOrder()).transpose(),
+                m300x200_ints.transpose().sortCols(Comparator.reverseOrder()));
+    }
+
+    @Test
+    public void testSortRowsBy() {
+        IMatrix<String> byLastCol = m2x3_strings.sortRowsBy(2, Comparator.naturalOrder());
+
+        assertEquals(m2x3_strings.row(1), byLastCol.row(0));
+        assertEquals(m2x3_strings.row(0), byLastCol.row(1));
+        assertEquals(m2x3_strings, m2x3_strings.sortRowsBy(0, Comparator.naturalOrder()));
+        assertEquals(m300x200_ints.sortRowsBy(7, Comparator.reverseOrder()).row(0),
+                m300x200_ints.row(299));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortRowsByOutOfBounds() {
+        m3x3_ints.sortRowsBy(3, Comparator.naturalOrder());
+    }
+
+    @Test
+    public void testTopKAndBottomK() {
+        assertEquals(Arrays.asList(new Cell<>(2, 2, 9), new Cell<>(2, 1, 8)),
+                m3x3_ints.topK(2, Comparator.naturalOrder()));
+        assertEquals(Arrays.asList(new Cell<>(0, 0, 1), new Cell<>(0, 1, 2), new Cell<>(0, 2, 3)),
+                m3x3_ints.bottomK(3, Comparator.naturalOrder()));
+        assertEquals(9, m3x3_ints.topK(20, Comparator.naturalOrder()).size());
+        assertTrue(m3x3_ints.topK(0, Comparator.naturalOrder()).isEmpty());
+    }
+
+    @Test
+    public void testTopKTiesGoToEarlierCells() {
+        Comparator<Integer> byLastDigit = Comparator.comparing(x -> x % 10);
+        List<Cell<Integer>> top = m300x200_ints.topK(5, byLastDigit);
+
+        assertEquals(Arrays.asList(9, 19, 29, 39, 49), top.stream().map(Cell::getValue).collect(Collectors.toList()));
+        assertEquals(top, m300x200_ints.parallel(new ForkJoinPool(3)).topK(5, byLastDigit));
+        assertEquals(top, new PersistentMatrix<>(m300x200_ints).topK(5, byLastDigit));
+    }
+
+    @Test
+    public void testTopKEqualsSortedPrefix() {
+        IMatrix<Integer> scores = m300x200_ints.map(x -> (x * 7919) % 10007);
+        List<Integer> sorted = scores.sort(Comparator.reverseOrder()).asList().subList(0, 300);
+
+        assertEquals(sorted, scores.parallel().topK(300, Comparator.naturalOrder()).stream()
+                .map(Cell::getValue).collect(Collectors.toList()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopKNegative() {
+        m3x3_ints.topK(-1, Comparator.naturalOrder());
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~reduce tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testReduceSumIntsEqualToFoldNWSum() {
+        assertEquals(Integer.valueOf(45), m3x3_ints.reduce(0, Integer::sum));
+        assertEquals(m300x200_ints.foldNW((x, sum) -> x + sum, 0), m300x200_ints.reduce(0, Integer::sum));
+    }
+
+    @Test
+    public void testReduceKeepsRowMajorOrderForNonCommutativeCombiner() {
+        IMatrix<String> digits = m300x200_ints.map(x -> Integer.toString(x % 10));
+
+        assertEquals(digits.foldNW((x, soFar) -> soFar + x, ""), digits.reduce("", String::concat));
+        assertEquals(digits.foldNW((x, soFar) -> soFar + x, ""), digits.parallel().reduce("", String::concat));
+    }
+
+    @Test
+    public void testReduceEmptyMatrixIsIdentity() {
+        assertEquals("none", emptyMatrix.reduce("none", (x, y) -> x));
+    }
+
+    @Test
+    public void testReduceRowsAndCols() {
+        assertEquals(new FunMatrix<Integer>(
+                        new ArrayList<>(Arrays.asList(6)),
+                        new ArrayList<>(Arrays.asList(15)),
+                        new ArrayList<>(Arrays.asList(24))),
+                m3x3_ints.reduceRows(0, Integer::sum));
+        assertEquals(new FunMatrix<>(Arrays.asList(7, 8, 9), 1), m3x3_ints.reduceCols(Integer.MIN_VALUE, Math::max));
+        assertEquals(new FunMatrix<>(Arrays.asList("You'rea", "gonnabigger", "needboat"), 1),
+                m2x3_strings.reduceCols("", String::concat));
+    }
+
+    @Test
+    public void testReduceColsOfAWideMatrixReducesEachColumnInOrder() {
+        IMatrix<String> digits = new FunMatrix<>((i, j) -> (i * 7 + j) % 10 + ",", 300, 200);
+        IMatrix<String> expected = new FunMatrix<>((i, j) -> digits.col(j).reduce("", String::concat), 1, 200);
+
+        assertEquals(expected, digits.reduceCols("", String::concat));
+        assertEquals(expected, digits.parallel().reduceCols("", String::concat));
+    }
+
+    @Test
+    public void testParallelReduceColsEqualsSequential() {
+        assertEquals(m300x200_ints.reduceCols(0, Integer::sum), m300x200_ints.parallel().reduceCols(0, Integer::sum));
+        assertEquals(m300x200_ints.reduceRows(0, Integer::sum), m300x200_ints.parallel().reduceRows(0, Integer::sum));
+    }
+
     //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~toString tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
     @Test
     public void testEmptyToString() {
@@ -192,7 +647,7 @@ public class FunMatrixTests {
 
     @Test
     public void testBoolsToString() {
-        assertEquals("", m4x1_bools.toString());
+        assertEquals("[true]\n[false]\n[false]\n[true]\n", m4x1_bools.toString());
     }
 
     @Test
@@ -206,5 +661,87 @@ public class FunMatrixTests {
                 "[[h], [i, j, k, l, m, n, o, p]]\n", m2x2_lochars.toString());
     }
 
+    @Test
+    public void testLargeToStringIsLinear() {
+        IMatrix<Integer> big = new FunMatrix<>((i, j) -> i * 2000 + j, 2000, 2000);
+        String rendered = big.toString();
+        assertTrue(rendered.startsWith("[0, 1, 2, "));
+        assertTrue(rendered.endsWith(", 3999999]\n"));
+        assertEquals(2000, rendered.chars().filter(c -> c == '\n').count());
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~render tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+    @Test
+    public void testRenderDefaultIsToString() {
+        assertEquals(m2x3_strings.toString(), m2x3_strings.render(RenderOptions.DEFAULT));
+        assertEquals(m2x2_lochars.toString(), m2x2_lochars.render(RenderOptions.DEFAULT));
+    }
+
+    @Test
+    public void testRenderElidesRowsAndCols() {
+        assertEquals("[1, 2, …]\n" +
+                "[4, 5, …]\n" +
+                "[…]\n", m3x3_ints.render(RenderOptions.DEFAULT.withMaxRows(2).withMaxCols(2)));
+        assertEquals("[…]\n", m3x3_ints.render(RenderOptions.DEFAULT.withMaxRows(0)));
+        assertEquals("[…]\n[…]\n[…]\n", m3x3_ints.render(RenderOptions.DEFAULT.withMaxCols(0)));
+        assertEquals(m3x3_ints.toString(), m3x3_ints.render(RenderOptions.DEFAULT.withMaxRows(3).withMaxCols(3)));
+    }
+
+    @Test
+    public void testRenderHugeMatrixOnlyVisitsShownCells() {
+        AtomicInteger visited = new AtomicInteger();
+        // all zeros, so only the shown cells are ever computed
+        IMatrix<Integer> huge = new SparseMatrix<>(5000, 5000, 0, new int[0], new int[0], new ArrayList<Integer>())
+                .lazy().map(x -> {
+                    visited.incrementAndGet();
+                    return x;
+                });
+        assertEquals("[0, 0, …]\n[0, 0, …]\n[…]\n", huge.render(RenderOptions.DEFAULT.withMaxRows(2).withMaxCols(2)));
+        assertEquals(4, visited.get());
+    }
+
+    @Test
+    public void testRenderPrecision() {
+        assertEquals("[3.14, 2.72]\n", m1x2_doubles.render(RenderOptions.DEFAULT.withPrecision(2)));
+        assertEquals("[3, 3]\n", m1x2_doubles.render(RenderOptions.DEFAULT.withPrecision(0)));
+        // only floating point entries are affected
+        assertEquals(m3x3_ints.toString(), m3x3_ints.render(RenderOptions.DEFAULT.withPrecision(2)));
+    }
+
+    @Test
+    public void testRenderCsv() {
+        RenderOptions csv = RenderOptions.DEFAULT.withFormat(RenderOptions.Format.CSV);
+        assertEquals("1,2,3\n4,5,6\n7,8,9\n", m3x3_ints.render(csv));
+        assertEquals("a,\"b,c\",\"say \"\"hi\"\"\"\n", new FunMatrix<>(
+                new ArrayList<>(Arrays.asList("a", "b,c", "say \"hi\""))).render(csv));
+        assertEquals("1,2,…\n…\n", m3x3_ints.render(csv.withMaxRows(1).withMaxCols(2)));
+    }
+
+    @Test
+    public void testRenderTsv() {
+        RenderOptions tsv = RenderOptions.DEFAULT.withFormat(RenderOptions.Format.TSV);
+        assertEquals("You're\tgonna\tneed\na\tbigger\tboat\n", m2x3_strings.render(tsv));
+        assertEquals("a\\tb\tc\\nd\n", new FunMatrix<>(
+                new ArrayList<>(Arrays.asList("a\tb", "c\nd"))).render(tsv));
+    }
+
+    @Test
+    public void testRenderToWriter() throws IOException {
+        StringWriter out = new StringWriter();
+        m3x3_ints.render(out, RenderOptions.DEFAULT);
+        assertEquals(m3x3_ints.toString(), out.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRenderNullOptions() {
+        m3x3_ints.render(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRenderNegativeMaxRows() {
+        RenderOptions.DEFAULT.withMaxRows(-1);
+    }
+
 
 }
@@ -0,0 +1,96 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class InstrumentedMatrixTests {
+
+    private final IMatrix<Integer> m30x20_ints = new FunMatrix<>((i, j) -> i * 20 + j, 30, 20);
+
+    @Test
+    public void testOperationsAreCountedWithTheirCells() {
+        AggregatingMetrics metrics = new AggregatingMetrics();
+        IMatrix<Integer> instrumented = m30x20_ints.instrumented(metrics);
+
+        instrumented.map(x -> x + 1).foldNW((x, sum) -> x + sum, 0);
+        instrumented.elementWiseCombine((Integer x, Integer y) -> x - y, m30x20_ints);
+        instrumented.subMatrix(0, 9, 0, 4).updateEntry(0, 0, 0);
+        instrumented.pseudoMultiply((Integer x, Integer y) -> x * y, Integer::sum, m30x20_ints.transpose(), 0);
+
+        assertEquals(1, metrics.getCount(MatrixMetrics.Operation.MAP));
+        assertEquals(600, metrics.getCells(MatrixMetrics.Operation.MAP));
+        // the fold ran on the instrumented result of map
+        assertEquals(1, metrics.getCount(MatrixMetrics.Operation.FOLD_NW));
+        assertEquals(1200, metrics.getCells(MatrixMetrics.Operation.ELEMENT_WISE_COMBINE));
+        assertEquals(50, metrics.getCells(MatrixMetrics.Operation.SUB_MATRIX));
+        assertEquals(50, metrics.getCells(MatrixMetrics.Operation.UPDATE_ENTRY));
+        assertEquals(30 * 20 * 30, metrics.getCells(MatrixMetrics.Operation.PSEUDO_MULTIPLY));
+        assertEquals(0, metrics.getCount(MatrixMetrics.Operation.UPDATE_ROW));
+        assertTrue(metrics.getNanos(MatrixMetrics.Operation.MAP) > 0);
+        assertTrue(metrics.getAllocatedBytes(MatrixMetrics.Operation.MAP) > 0);
+    }
+
+    @Test
+    public void testInstrumentedResultsEqualPlainResults() {
+        IMatrix<Integer> instrumented = m30x20_ints.instrumented(new AggregatingMetrics());
+
+        assertEquals(m30x20_ints, instrumented);
+        assertEquals(instrumented, m30x20_ints);
+        assertEquals(m30x20_ints.hashCode(), instrumented.hashCode());
+        assertEquals(m30x20_ints.map(x -> x * 3), instrumented.map(x -> x * 3));
+        assertEquals(m30x20_ints.updateRow(Collections.nCopies(20, 7), 4),
+                instrumented.updateRow(Collections.nCopies(20, 7), 4));
+        assertEquals(m30x20_ints.toString(), instrumented.toString());
+    }
+
+    @Test
+    public void testInstrumentingTwiceRecordsOnce() {
+        AggregatingMetrics metrics = new AggregatingMetrics();
+        IMatrix<Integer> twice = m30x20_ints.instrumented(new AggregatingMetrics()).instrumented(metrics);
+
+        twice.map(x -> x);
+
+        assertEquals(1, metrics.getCount(MatrixMetrics.Operation.MAP));
+        assertSame(m30x20_ints, ((InstrumentedMatrix<Integer>) twice).getDelegate());
+    }
+
+    @Test
+    public void testOperationsAreCommittedAsJfrEvents() throws IOException {
+        Path dump = Files.createTempFile("instrumented-matrix-tests", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("funmatrix.MatrixOperation");
+            recording.start();
+            m30x20_ints.instrumented(MatrixMetrics.NONE).map(x -> x).updateCol(m30x20_ints.col(0).asList(), 3);
+            recording.stop();
+            recording.dump(dump);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> event.getEventType().getName().equals("funmatrix.MatrixOperation"))
+                    .collect(Collectors.toList());
+
+            assertEquals(Arrays.asList("MAP", "UPDATE_COL"),
+                    events.stream().map(event -> event.getString("operation")).collect(Collectors.toList()));
+            assertEquals(30, events.get(0).getInt("rows"));
+            assertEquals(20, events.get(0).getInt("cols"));
+            assertEquals(600L, events.get(1).getLong("cells"));
+        }
+        finally {
+            Files.delete(dump);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullMetricsThrows() {
+        m30x20_ints.instrumented(null);
+    }
+}
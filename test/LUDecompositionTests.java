@@ -0,0 +1,181 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LUDecompositionTests {
+
+    private final DoubleMatrix m3x3_doubles = new DoubleMatrix(new double[][]{
+            {2, 1, 1},
+            {4, -6, 0},
+            {-2, 7, 2}});
+
+    private final DoubleMatrix m3x3_singular = new DoubleMatrix(new double[][]{
+            {1, 2, 3},
+            {2, 4, 6},
+            {1, 0, 1}});
+
+    //~~~~ decomposition tests ~~~~
+    @Test
+    public void testFactorsMultiplyBackToPermutedMatrix() {
+        LUDecomposition lu = m3x3_doubles.lu();
+        int[] pivot = lu.getPivot();
+        DoubleMatrix permuted = new DoubleMatrix((i, j) -> m3x3_doubles.getDouble(pivot[i], j), 3, 3);
+
+        assertClose(permuted, lu.getL().multiply(lu.getU()), 1e-12);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, lu.getL().getDouble(i, i), 0);
+            for (int j = i + 1; j < 3; j++) {
+                assertEquals(0, lu.getL().getDouble(i, j), 0);
+                assertEquals(0, lu.getU().getDouble(j, i), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testBlockedFactorsOfALargeMatrix() {
+        // several panels, with a ragged last one
+        DoubleMatrix a = random(150, 150, 1);
+        LUDecomposition lu = a.lu();
+        int[] pivot = lu.getPivot();
+        DoubleMatrix permuted = new DoubleMatrix((i, j) -> a.getDouble(pivot[i], j), 150, 150);
+
+        assertClose(permuted, lu.getL().multiply(lu.getU()), 1e-9);
+        for (int i = 0; i < 150; i++) {
+            for (int j = 0; j < i; j++) {
+                assertTrue(Math.abs(lu.getL().getDouble(i, j)) <= 1);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelTrailingUpdateMatchesSequential() {
+        DoubleMatrix a = random(150, 150, 4);
+        LUDecomposition sequential = a.lu();
+        DoubleMatrix sequentialRref = a.rref();
+        int threshold = Parallelism.getThreshold();
+        Parallelism.setThreshold(0);
+        try {
+            LUDecomposition parallel = a.lu();
+            assertEquals(sequential.getL(), parallel.getL());
+            assertEquals(sequential.getU(), parallel.getU());
+            assertEquals(sequentialRref, a.rref());
+        }
+        finally {
+            Parallelism.setThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testDeterminant() {
+        assertEquals(-16, m3x3_doubles.determinant(), 1e-12);
+        assertEquals(0, m3x3_singular.determinant(), 0);
+        assertEquals(-6, new DoubleMatrix(new double[][]{{0, 2}, {3, 1}}).determinant(), 0);
+        assertEquals(1, new DoubleMatrix(new double[0][0]).determinant(), 0);
+    }
+
+    @Test
+    public void testSolve() {
+        DoubleMatrix b = new DoubleMatrix(new double[][]{{5, 1}, {-2, 0}, {9, 0}});
+        DoubleMatrix x = m3x3_doubles.solve(b);
+
+        assertClose(new DoubleMatrix(new double[][]{{1, 0.75}, {1, 0.5}, {2, -1}}), x, 1e-12);
+        assertClose(b, m3x3_doubles.multiply(x), 1e-12);
+    }
+
+    @Test
+    public void testSolveLargeSystem() {
+        DoubleMatrix a = random(200, 200, 2);
+        DoubleMatrix b = random(200, 3, 3);
+        assertClose(b, a.multiply(a.solve(b)), 1e-8);
+    }
+
+    @Test
+    public void testInverse() {
+        DoubleMatrix inverse = m3x3_doubles.inverse();
+        assertClose(new DoubleMatrix((i, j) -> i == j ? 1 : 0, 3, 3), m3x3_doubles.multiply(inverse), 1e-12);
+        assertClose(new DoubleMatrix((i, j) -> i == j ? 1 : 0, 3, 3), inverse.multiply(m3x3_doubles), 1e-12);
+    }
+
+    @Test
+    public void testSingular() {
+        assertTrue(m3x3_singular.lu().isSingular());
+        assertFalse(m3x3_doubles.lu().isSingular());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInverseOfSingularThrows() {
+        m3x3_singular.inverse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonSquareThrows() {
+        new DoubleMatrix(1.0, 2, 3).lu();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSolveWrongHeightThrows() {
+        m3x3_doubles.solve(new DoubleMatrix(1.0, 2, 1));
+    }
+
+    //~~~~ rref tests ~~~~
+    @Test
+    public void testRREF() {
+        DoubleMatrix augmented = new DoubleMatrix(new double[][]{
+                {2, 1, -1, 8},
+                {-3, -1, 2, -11},
+                {-2, 1, 2, -3}});
+        assertClose(new DoubleMatrix(new double[][]{
+                {1, 0, 0, 2},
+                {0, 1, 0, 3},
+                {0, 0, 1, -1}}), augmented.rref(), 1e-12);
+    }
+
+    @Test
+    public void testRREFOfRankDeficientMatrix() {
+        assertClose(new DoubleMatrix(new double[][]{
+                {1, 0, 1},
+                {0, 1, 1},
+                {0, 0, 0}}), m3x3_singular.rref(), 1e-12);
+        assertEquals(new DoubleMatrix(0.0, 2, 3), new DoubleMatrix(0.0, 2, 3).rref());
+    }
+
+    @Test
+    public void testRREFOfWideAndTallMatrices() {
+        DoubleMatrix wide = new DoubleMatrix(new double[][]{{0, 0, 2, 4}, {0, 3, 3, 0}});
+        assertClose(new DoubleMatrix(new double[][]{{0, 1, 0, -2}, {0, 0, 1, 2}}), wide.rref(), 1e-12);
+
+        DoubleMatrix tall = new DoubleMatrix(new double[][]{{1, 2}, {3, 4}, {5, 6}});
+        assertClose(new DoubleMatrix(new double[][]{{1, 0}, {0, 1}, {0, 0}}), tall.rref(), 1e-12);
+    }
+
+    @Test
+    public void testRREFDoesNotChangeTheMatrix() {
+        DoubleMatrix before = m3x3_doubles.mapToDouble(x -> x);
+        m3x3_doubles.rref();
+        m3x3_doubles.lu();
+        assertEquals(before, m3x3_doubles);
+    }
+
+    private static DoubleMatrix random(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        double[][] entries = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                entries[i][j] = random.nextDouble() * 2 - 1;
+            }
+        }
+        return new DoubleMatrix(entries);
+    }
+
+    private static void assertClose(DoubleMatrix expected, DoubleMatrix actual, double tolerance) {
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(expected.getWidth(), actual.getWidth());
+        for (int i = 0; i < expected.getHeight(); i++) {
+            for (int j = 0; j < expected.getWidth(); j++) {
+                assertEquals(expected.getDouble(i, j), actual.getDouble(i, j), tolerance);
+            }
+        }
+    }
+}
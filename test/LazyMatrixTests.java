@@ -0,0 +1,96 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LazyMatrixTests {
+
+    private final IMatrix<Integer> m3x3_ints = new FunMatrix<>(new ArrayList<>(
+            Arrays.asList(
+                    new ArrayList<>(Arrays.asList(1, 2, 3)),
+                    new ArrayList<>(Arrays.asList(4, 5, 6)),
+                    new ArrayList<>(Arrays.asList(7, 8, 9))
+            )));
+
+    private final IMatrix<Integer> m300x200_ints = new FunMatrix<>((i, j) -> i * 200 + j, 300, 200);
+
+    @Test
+    public void testFusedChainEqualsEagerChain() {
+        IMatrix<Integer> eager = m3x3_ints.map(x -> x * 2).map(x -> x + 1).elementWiseCombine((x, y) -> x * y, m3x3_ints);
+        IMatrix<Integer> lazy = m3x3_ints.lazy().map(x -> x * 2).map(x -> x + 1)
+                .elementWiseCombine((x, y) -> x * y, m3x3_ints);
+
+        assertEquals(eager, lazy);
+        assertEquals(eager.foldNW((x, sum) -> x + sum, 0), lazy.foldNW((x, sum) -> x + sum, 0));
+        assertEquals(eager.asList(), lazy.asList());
+    }
+
+    @Test
+    public void testNothingRunsUntilConsumed() {
+        AtomicInteger calls = new AtomicInteger();
+        IMatrix<Integer> chained = m3x3_ints.lazy().map(x -> {
+            calls.incrementAndGet();
+            return x * 10;
+        }).map(x -> x + 1);
+
+        assertEquals(0, calls.get());
+        assertEquals(Integer.valueOf(51), chained.getElement(1, 1));
+        assertEquals(1, calls.get());
+        chained.materialize();
+        assertEquals(10, calls.get());
+    }
+
+    @Test
+    public void testMaterializeStoresEntries() {
+        IMatrix<String> materialized = m3x3_ints.lazy().map(x -> "#" + x).materialize();
+
+        assertTrue(materialized instanceof FunMatrix);
+        assertEquals(m3x3_ints.map(x -> "#" + x), materialized);
+        assertSame(materialized, materialized.materialize());
+    }
+
+    @Test
+    public void testLazySubMatrixAndIndexMap() {
+        assertEquals(m3x3_ints.subMatrix(1, 2, 0, 1).map((i, j) -> i * j),
+                m3x3_ints.lazy().subMatrix(1, 2, 0, 1).map((i, j) -> i * j));
+        assertEquals(m3x3_ints.subMatrix(1, 2, 0, 1), m3x3_ints.lazy().map(x -> x).subMatrix(1, 2, 0, 1));
+    }
+
+    @Test
+    public void testParallelLazyChainEqualsSequential() {
+        IMatrix<Integer> sequential = m300x200_ints.lazy().map(x -> x % 11).elementWiseCombine(Integer::sum, m300x200_ints);
+        IMatrix<Integer> parallel = m300x200_ints.parallel().lazy().map(x -> x % 11)
+                .elementWiseCombine(Integer::sum, m300x200_ints);
+
+        assertTrue(parallel.isParallel());
+        assertEquals(sequential.materialize(), parallel.materialize());
+        assertEquals(sequential.filter(x -> x % 5 == 0), parallel.filter(x -> x % 5 == 0));
+        assertEquals(sequential.reduce(0, Integer::sum), parallel.reduce(0, Integer::sum));
+    }
+
+    @Test
+    public void testReductionsMatchEagerAndRunEachCellOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        IMatrix<String> lazy = m300x200_ints.lazy().map(x -> {
+            calls.incrementAndGet();
+            return x % 7 + ",";
+        });
+        IMatrix<String> eager = m300x200_ints.map(x -> x % 7 + ",");
+
+        // associative but not commutative, so the order of cells matters
+        assertEquals(eager.reduce("", String::concat), lazy.reduce("", String::concat));
+        assertEquals(60000, calls.get());
+        assertEquals(eager.reduceRows("", String::concat), lazy.reduceRows("", String::concat));
+        assertEquals(eager.reduceCols("", String::concat), lazy.reduceCols("", String::concat));
+        assertEquals(eager.reduceCols("", String::concat), lazy.parallel().reduceCols("", String::concat));
+        assertEquals(eager.reduceRows("", String::concat), lazy.parallel().reduceRows("", String::concat));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLazyCombineUnequalDimensionsThrowsEagerly() {
+        m3x3_ints.lazy().elementWiseCombine(Integer::sum, m300x200_ints);
+    }
+}
@@ -0,0 +1,83 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MappedMatrixTests {
+
+    private final DoubleMatrix m2x3_doubles = new DoubleMatrix(new double[][]{{1.5, -2, 3}, {4, 5.25, 6}});
+    private final IMatrix<Long> m300x200_longs = new FunMatrix<>((i, j) -> (long) i * 200 + j, 300, 200);
+
+    private Path dir;
+
+    @Before
+    public void makeDir() throws IOException {
+        dir = Files.createTempDirectory("mapped-matrix-tests");
+    }
+
+    @After
+    public void removeDir() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path aFile : (Iterable<Path>) files::iterator) {
+                Files.delete(aFile);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testWriteThenOpenDoubles() throws IOException {
+        MappedDoubleMatrix written = MappedDoubleMatrix.write(dir.resolve("m.fmat"), m2x3_doubles);
+        MappedDoubleMatrix opened = MappedDoubleMatrix.open(dir.resolve("m.fmat"));
+
+        assertEquals(m2x3_doubles, written);
+        assertEquals(m2x3_doubles, opened);
+        assertEquals(5.25, opened.getDouble(1, 1), 0);
+        assertEquals(Files.size(dir.resolve("m.fmat")), MatrixFileHeader.SIZE + 6 * Double.BYTES);
+    }
+
+    @Test
+    public void testMapToFileAndFoldLongs() throws IOException {
+        MappedLongMatrix longs = MappedLongMatrix.write(dir.resolve("longs.fmat"), m300x200_longs);
+        MappedLongMatrix squared = longs.mapToFile(x -> x * x, dir.resolve("squared.fmat"));
+
+        assertEquals(m300x200_longs.map(x -> x * x), squared);
+        assertEquals(m300x200_longs.foldNW((x, sum) -> x + sum, 0L).longValue(), longs.foldNW(Long::sum, 0L));
+        assertEquals(m300x200_longs.foldSE((x, h) -> h * 31 + x, 0L).longValue(), longs.foldSE((x, h) -> h * 31 + x, 0L));
+        assertEquals(Long.valueOf(299L * 200 + 7), longs.getElement(299, 7));
+    }
+
+    @Test
+    public void testMapToFileOntoItsOwnFile() throws IOException {
+        Path file = dir.resolve("m.fmat");
+        MappedDoubleMatrix source = MappedDoubleMatrix.write(file, m2x3_doubles);
+        MappedDoubleMatrix mapped = source.mapToFile(x -> x * 10, file);
+
+        assertEquals(m2x3_doubles.map(x -> x * 10), mapped);
+        assertEquals(m2x3_doubles.map(x -> x * 10), MappedDoubleMatrix.open(file));
+        // the source keeps the mapping of the file it replaced
+        assertEquals(m2x3_doubles, source);
+        assertEquals(m2x3_doubles, MappedDoubleMatrix.write(file, source));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpeningLongsAsDoublesThrows() throws IOException {
+        MappedLongMatrix.write(dir.resolve("longs.fmat"), m300x200_longs);
+        MappedDoubleMatrix.open(dir.resolve("longs.fmat"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpeningAnythingElseThrows() throws IOException {
+        Files.write(dir.resolve("not-a-matrix.txt"), "[1, 2, 3]\n".getBytes());
+        MappedDoubleMatrix.open(dir.resolve("not-a-matrix.txt"));
+    }
+}
@@ -0,0 +1,140 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class MatrixBatchTests {
+
+    private final List<DoubleMatrix> threeByThrees = matrices(5, 3, 3, 0);
+    private final MatrixBatch batch = new MatrixBatch(threeByThrees);
+
+    //~~~~ construction tests ~~~~
+    @Test
+    public void testBatchHoldsEveryMatrix() {
+        assertEquals(5, batch.size());
+        assertEquals(3, batch.getHeight());
+        assertEquals(3, batch.getWidth());
+        for (int item = 0; item < 5; item++) {
+            assertEquals(threeByThrees.get(item), batch.get(item));
+            assertEquals(threeByThrees.get(item), batch.get(item).compact());
+            assertEquals(threeByThrees.get(item).getDouble(2, 1), batch.getDouble(item, 2, 1), 0);
+        }
+        assertEquals(threeByThrees, batch.asList());
+    }
+
+    @Test
+    public void testUniformBatch() {
+        MatrixBatch sevens = new MatrixBatch(7.0, 4, 2, 3);
+        assertEquals(4, sevens.size());
+        assertEquals(new DoubleMatrix(7.0, 2, 3), sevens.get(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMixedShapesThrow() {
+        new MatrixBatch(Arrays.asList(new DoubleMatrix(1.0, 2, 2), new DoubleMatrix(1.0, 2, 3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyListThrows() {
+        new MatrixBatch(new ArrayList<DoubleMatrix>());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testItemOutOfRangeThrows() {
+        batch.get(5);
+    }
+
+    //~~~~ bulk operation tests ~~~~
+    @Test
+    public void testMap() {
+        MatrixBatch mapped = batch.map(x -> x * x - 1);
+        for (int item = 0; item < 5; item++) {
+            assertEquals(threeByThrees.get(item).mapToDouble(x -> x * x - 1), mapped.get(item));
+        }
+    }
+
+    @Test
+    public void testElementWiseCombine() {
+        MatrixBatch others = new MatrixBatch(matrices(5, 3, 3, 100));
+        MatrixBatch added = batch.elementWiseCombine(Arithmetic.ADD, others);
+        MatrixBatch lambda = batch.elementWiseCombine((x, y) -> x - 2 * y, others);
+        for (int item = 0; item < 5; item++) {
+            DoubleMatrix other = (DoubleMatrix) others.get(item).compact();
+            assertEquals(threeByThrees.get(item).elementWiseCombineToDouble(Arithmetic.ADD, other), added.get(item));
+            assertEquals(threeByThrees.get(item).elementWiseCombineToDouble((x, y) -> x - 2 * y, other),
+                    lambda.get(item));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCombineUnequalSizesThrows() {
+        batch.elementWiseCombine(Arithmetic.ADD, new MatrixBatch(0.0, 4, 3, 3));
+    }
+
+    @Test
+    public void testFolds() {
+        DoubleMatrix foldedNW = batch.foldNW((x, soFar) -> soFar * 2 + x, 1);
+        DoubleMatrix foldedSE = batch.foldSE((x, soFar) -> soFar * 2 + x, 1);
+        assertEquals(5, foldedNW.getHeight());
+        assertEquals(1, foldedNW.getWidth());
+        for (int item = 0; item < 5; item++) {
+            assertEquals(threeByThrees.get(item).foldNW((x, soFar) -> soFar * 2 + x, 1),
+                    foldedNW.getDouble(item, 0), 0);
+            assertEquals(threeByThrees.get(item).foldSE((x, soFar) -> soFar * 2 + x, 1),
+                    foldedSE.getDouble(item, 0), 0);
+        }
+    }
+
+    @Test
+    public void testMultiply() {
+        List<DoubleMatrix> lefts = matrices(6, 2, 3, 0);
+        List<DoubleMatrix> rights = matrices(6, 3, 4, 50);
+        MatrixBatch product = new MatrixBatch(lefts).multiply(new MatrixBatch(rights));
+        assertEquals(2, product.getHeight());
+        assertEquals(4, product.getWidth());
+        for (int item = 0; item < 6; item++) {
+            assertEquals(lefts.get(item).multiply(rights.get(item), MultiplyStrategy.NAIVE), product.get(item));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiplyMismatchedShapesThrows() {
+        batch.multiply(new MatrixBatch(0.0, 5, 2, 3));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        int threshold = Parallelism.getThreshold();
+        Parallelism.setThreshold(0);
+        try {
+            List<DoubleMatrix> many = matrices(2000, 4, 4, 0);
+            MatrixBatch sequential = new MatrixBatch(many);
+            MatrixBatch parallel = sequential.parallel(new ForkJoinPool(4));
+            assertTrue(parallel.isParallel());
+            assertFalse(parallel.sequential().isParallel());
+
+            assertEquals(sequential.map(x -> x / 3).asList(), parallel.map(x -> x / 3).asList());
+            assertEquals(sequential.elementWiseCombine(Arithmetic.MULTIPLY, sequential).asList(),
+                    parallel.elementWiseCombine(Arithmetic.MULTIPLY, sequential).asList());
+            assertEquals(sequential.foldNW((x, soFar) -> x - soFar, 0),
+                    parallel.foldNW((x, soFar) -> x - soFar, 0));
+            assertEquals(sequential.multiply(sequential).asList(), parallel.multiply(sequential).asList());
+        }
+        finally {
+            Parallelism.setThreshold(threshold);
+        }
+    }
+
+    private static List<DoubleMatrix> matrices(int count, int rows, int cols, int seed) {
+        List<DoubleMatrix> matrices = new ArrayList<>();
+        for (int item = 0; item < count; item++) {
+            int offset = item + seed;
+            matrices.add(new DoubleMatrix((i, j) -> (offset * 7 + i * 3 - j) * 0.25, rows, cols));
+        }
+        return matrices;
+    }
+}
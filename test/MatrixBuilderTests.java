@@ -0,0 +1,132 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MatrixBuilderTests {
+
+    private final IMatrix<Integer> m3x3_ints = new FunMatrix<>(new ArrayList<>(
+            Arrays.asList(
+                    new ArrayList<>(Arrays.asList(1, 2, 3)),
+                    new ArrayList<>(Arrays.asList(4, 5, 6)),
+                    new ArrayList<>(Arrays.asList(7, 8, 9))
+            )));
+
+    @Test
+    public void testCellByCellMatchesGenerator() {
+        MatrixBuilder<Integer> builder = new MatrixBuilder<>(40, 30);
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 30; j++) {
+                builder.set(i * 30 + j, i, j);
+            }
+        }
+
+        assertEquals(new FunMatrix<>((i, j) -> i * 30 + j, 40, 30), builder.build());
+    }
+
+    @Test
+    public void testSetRowColAndBlockMatchUpdates() {
+        IMatrix<Integer> built = new MatrixBuilder<Integer>(3, 3)
+                .fill(0)
+                .setRow(Arrays.asList(1, 2, 3), 0)
+                .setCol(Arrays.asList(1, 4, 7), 0)
+                .setBlock(m3x3_ints.subMatrix(1, 2, 1, 2), 1, 1)
+                .build();
+
+        assertEquals(m3x3_ints, built);
+    }
+
+    @Test
+    public void testToTransientLeavesSourceUntouched() {
+        IMatrix<Integer> edited = m3x3_ints.toTransient()
+                .set(-1, 1, 1)
+                .setRow(Arrays.asList(0, 0, 0), 2)
+                .freeze();
+
+        assertEquals(m3x3_ints.updateEntry(-1, 1, 1).updateRow(Arrays.asList(0, 0, 0), 2), edited);
+        assertEquals(Integer.valueOf(5), m3x3_ints.getElement(1, 1));
+    }
+
+    @Test
+    public void testToTransientOfTransposedView() {
+        assertEquals(m3x3_ints.transpose().updateEntry(0, 0, 2),
+                m3x3_ints.transpose().toTransient().set(0, 0, 2).freeze());
+        assertEquals(new SparseMatrix<>(m3x3_ints, 0).updateCol(Arrays.asList(0, 0, 0), 1),
+                new SparseMatrix<>(m3x3_ints, 0).toTransient().setCol(Arrays.asList(0, 0, 0), 1).freeze());
+    }
+
+    @Test
+    public void testWritesAfterBuildDoNotChangeBuiltMatrix() {
+        MatrixBuilder<Integer> builder = m3x3_ints.toTransient();
+        IMatrix<Integer> first = builder.build();
+        IMatrix<Integer> second = builder.set(100, 0, 0).build();
+        IMatrix<Integer> third = builder.fill(7).build();
+
+        assertEquals(m3x3_ints, first);
+        assertEquals(m3x3_ints.updateEntry(100, 0, 0), second);
+        assertEquals(m3x3_ints.fillWith(7), third);
+    }
+
+    @Test
+    public void testToTransientKeepsParallelism() {
+        assertTrue(m3x3_ints.parallel().toTransient().freeze().isParallel());
+        assertFalse(m3x3_ints.toTransient().freeze().isParallel());
+    }
+
+    @Test
+    public void testEmptyBuilderBuilds() {
+        assertEquals(new FunMatrix<>(), new MatrixBuilder<>(0, 0).build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildWithUnsetCellThrows() {
+        new MatrixBuilder<Integer>(2, 2).set(1, 0, 0).build();
+    }
+
+    @Test
+    public void testNullCellsRoundTrip() {
+        IMatrix<String> withNulls = m3x3_ints.map(x -> x == 2 ? null : "v");
+        IMatrix<String> rebuilt = withNulls.toTransient().set("w", 2, 2).build();
+        assertNull(rebuilt.getElement(0, 1));
+        assertEquals("v", rebuilt.getElement(0, 0));
+        assertEquals("w", rebuilt.getElement(2, 2));
+
+        MatrixBuilder<String> builder = new MatrixBuilder<>(1, 3);
+        builder.setBlock(withNulls.subMatrix(0, 0, 0, 2), 0, 0);
+        assertNull(builder.build().getElement(0, 1));
+    }
+
+    @Test
+    public void testMatricesWithNullCellsEqualTheirViews() {
+        IMatrix<String> built = m3x3_ints.map(x -> x % 2 == 0 ? null : "odd").toTransient().build();
+        IMatrix<String> topRows = new MatrixBuilder<String>(2, 3).setBlock(built.subMatrix(0, 1, 0, 2), 0, 0).build();
+
+        assertEquals(topRows, built.subMatrix(0, 1, 0, 2));
+        assertEquals(built.subMatrix(0, 1, 0, 2), topRows);
+        assertEquals(built, built.lazy());
+        assertEquals(built.transpose().transpose(), built);
+        assertNotEquals(built.subMatrix(1, 2, 0, 2), topRows);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetOutOfBoundsThrows() {
+        new MatrixBuilder<Integer>(2, 2).set(1, 2, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNullThrows() {
+        new MatrixBuilder<Integer>(2, 2).set(null, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlockThatDoesNotFitThrows() {
+        new MatrixBuilder<Integer>(3, 3).setBlock(m3x3_ints, 1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongSizeRowThrows() {
+        new MatrixBuilder<Integer>(3, 3).setRow(Arrays.asList(1, 2), 0);
+    }
+}
@@ -0,0 +1,166 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MatrixExecutorTests {
+
+    private final IMatrix<Integer> m8x8_ints = new FunMatrix<>((i, j) -> i * 8 + j, 8, 8);
+    private final IMatrix<Integer> m16x4_ints = new FunMatrix<>((i, j) -> i - j, 16, 4);
+
+    @Test
+    public void testOperationsMatchInlineResults() throws Exception {
+        try (MatrixExecutor executor = MatrixExecutor.create(64, 8)) {
+            CompletableFuture<IMatrix<Integer>> mapped = executor.map(m8x8_ints, x -> x * 2);
+            CompletableFuture<Integer> folded = executor.foldNW(m8x8_ints, (Integer x, Integer sum) -> x + sum, 0);
+            CompletableFuture<IMatrix<Integer>> combined =
+                    executor.elementWiseCombine(m16x4_ints, (Integer x, Integer y) -> x * y, m16x4_ints);
+
+            assertEquals(m8x8_ints.map(x -> x * 2), mapped.get(5, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(2016), folded.get(5, TimeUnit.SECONDS));
+            assertEquals(m16x4_ints.map(x -> x * x), combined.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testSameShapeJobsRunInBatches() throws Exception {
+        ExecutorService oneThread = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // holds the only thread, so that the jobs below pile up behind it
+            oneThread.execute(() -> awaitQuietly(release));
+            MatrixExecutor executor = MatrixExecutor.on(oneThread, 1, 100, 10);
+
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int k = 0; k < 30; k++) {
+                int jobNumber = k;
+                futures.add(executor.submit(m8x8_ints, toRun -> toRun.getElement(1, 1) + jobNumber));
+            }
+            release.countDown();
+
+            for (int k = 0; k < 30; k++) {
+                assertEquals(Integer.valueOf(9 + k), futures.get(k).get(5, TimeUnit.SECONDS));
+            }
+            assertTrue(executor.close(5, TimeUnit.SECONDS));
+            assertEquals(30, executor.jobsRun());
+            assertEquals(3, executor.batchesRun());
+        }
+        finally {
+            oneThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSameShapeBatchesRunConcurrently() throws Exception {
+        ExecutorService fourThreads = Executors.newFixedThreadPool(4);
+        try {
+            MatrixExecutor executor = MatrixExecutor.on(fourThreads, 100, 1);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger mostRunning = new AtomicInteger();
+            // every job waits for three others of the same shape, which only arrive if batches run side by side
+            CountDownLatch together = new CountDownLatch(4);
+
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int k = 0; k < 16; k++) {
+                futures.add(executor.submit(m8x8_ints, toRun -> {
+                    mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    together.countDown();
+                    awaitQuietly(together);
+                    running.decrementAndGet();
+                    return toRun.getElement(0, 0);
+                }));
+            }
+
+            for (CompletableFuture<Integer> aFuture : futures) {
+                assertEquals(Integer.valueOf(0), aFuture.get(5, TimeUnit.SECONDS));
+            }
+            assertTrue(executor.close(5, TimeUnit.SECONDS));
+            assertEquals(0, together.getCount());
+            assertTrue(mostRunning.get() > 1);
+        }
+        finally {
+            fourThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTrySubmitRejectsWhenFull() throws Exception {
+        ExecutorService oneThread = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            MatrixExecutor executor = MatrixExecutor.on(oneThread, 2, 4);
+            CompletableFuture<Integer> first = executor.submit(m8x8_ints, toRun -> {
+                awaitQuietly(release);
+                return 1;
+            });
+            CompletableFuture<Integer> second = executor.trySubmit(m8x8_ints, toRun -> 2);
+            CompletableFuture<Integer> third = executor.trySubmit(m8x8_ints, toRun -> 3);
+
+            assertEquals(0, executor.availableSlots());
+            assertTrue(third.isCompletedExceptionally());
+            release.countDown();
+            assertEquals(Integer.valueOf(1), first.get(5, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(2), second.get(5, TimeUnit.SECONDS));
+            assertTrue(executor.close(5, TimeUnit.SECONDS));
+            assertEquals(2, executor.availableSlots());
+        }
+        finally {
+            oneThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailingJobFailsOnlyItsFuture() throws Exception {
+        try (MatrixExecutor executor = MatrixExecutor.create(8, 8)) {
+            CompletableFuture<Integer> failing = executor.submit(m8x8_ints, toRun -> toRun.getElement(8, 0));
+            CompletableFuture<Integer> fine = executor.submit(m8x8_ints, toRun -> toRun.getElement(7, 0));
+
+            try {
+                failing.get(5, TimeUnit.SECONDS);
+                fail("expected the job's exception");
+            }
+            catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+            assertEquals(Integer.valueOf(56), fine.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testSubmitAfterCloseIsRejected() throws Exception {
+        MatrixExecutor executor = MatrixExecutor.create(8, 8);
+        executor.close();
+
+        try {
+            executor.map(m8x8_ints, x -> x).get(5, TimeUnit.SECONDS);
+            fail("expected a rejection");
+        }
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroMaxInFlightThrows() {
+        MatrixExecutor.create(0, 8);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MatrixSerializationTests {
+
+    private final IMatrix<String> m2x3_strings = new FunMatrix<>(
+            Arrays.asList("You're", "gonna", "need"),
+            Arrays.asList("a", "bigger", "bóat"));
+
+    // 4 MB of doubles, so several blocks
+    private final DoubleMatrix m700x750_doubles = new DoubleMatrix(
+            new FunMatrix<Double>((i, j) -> (i % 13) * 0.5 - j, 700, 750));
+
+    private final IMatrix<Long> m40x30_longs = new FunMatrix<>((i, j) -> (long) i << 33 | j, 40, 30);
+
+    private final IMatrix<Integer> m3x3_ints = new FunMatrix<>((i, j) -> i * 3 + j + 1, 3, 3);
+
+    private byte[] written(boolean deflate, WriteAction action) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        action.writeWith(new MatrixWriter(Channels.newChannel(bytes), deflate));
+        return bytes.toByteArray();
+    }
+
+    private MatrixReader readerOf(byte[] bytes) {
+        return new MatrixReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    private interface WriteAction {
+        void writeWith(MatrixWriter writer) throws IOException;
+    }
+
+    @Test
+    public void testRoundTripEveryTypeUncompressedAndCompressed() throws IOException {
+        for (boolean deflate : new boolean[]{false, true}) {
+            byte[] bytes = written(deflate, writer -> {
+                writer.write(m700x750_doubles, ElementCodec.DOUBLES);
+                writer.write(m40x30_longs, ElementCodec.LONGS);
+                writer.write(m3x3_ints, ElementCodec.INTS);
+                writer.write(m2x3_strings, ElementCodec.STRINGS);
+            });
+            MatrixReader reader = readerOf(bytes);
+
+            assertEquals(m700x750_doubles, reader.readDoubles());
+            assertEquals(m40x30_longs, reader.readLongs());
+            assertEquals(m3x3_ints, reader.readInts());
+            assertEquals(m2x3_strings, reader.read(ElementCodec.STRINGS));
+        }
+    }
+
+    @Test
+    public void testUncompressedDoublesArePrimitivePackedAndCompressionShrinksThem() throws IOException {
+        byte[] plain = written(false, writer -> writer.write(m700x750_doubles, ElementCodec.DOUBLES));
+        byte[] deflated = written(true, writer -> writer.write(m700x750_doubles, ElementCodec.DOUBLES));
+
+        assertEquals(MatrixFileHeader.SIZE + 700 * 750 * Double.BYTES, plain.length);
+        assertTrue(deflated.length < plain.length / 4);
+        assertEquals(m700x750_doubles, readerOf(deflated).read(ElementCodec.DOUBLES));
+    }
+
+    @Test
+    public void testUncompressedFileCanBeMapped() throws IOException {
+        Path file = Files.createTempFile("matrix-serialization-tests", ".fmat");
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                new MatrixWriter(channel, false).write(m700x750_doubles, ElementCodec.DOUBLES);
+            }
+            assertEquals(m700x750_doubles, MappedDoubleMatrix.open(file));
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testEmptyMatrixRoundTrips() throws IOException {
+        IMatrix<String> empty = new FunMatrix<>();
+
+        assertEquals(empty, readerOf(written(true, writer -> writer.write(empty, ElementCodec.STRINGS)))
+                .read(ElementCodec.STRINGS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadingAsTheWrongTypeThrows() throws IOException {
+        readerOf(written(false, writer -> writer.write(m3x3_ints, ElementCodec.INTS))).readLongs();
+    }
+
+    @Test(expected = EOFException.class)
+    public void testTruncatedInputThrows() throws IOException {
+        byte[] bytes = written(true, writer -> writer.write(m40x30_longs, ElementCodec.LONGS));
+        readerOf(Arrays.copyOf(bytes, bytes.length - 1)).readLongs();
+    }
+}
@@ -0,0 +1,219 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NeighborhoodTests {
+
+    private final IMatrix<Integer> m3x4_ints = new FunMatrix<>((i, j) -> i * 4 + j, 3, 4);
+
+    //~~~~ mapNeighborhood tests ~~~~
+    @Test
+    public void testClampReadsNearestEdge() {
+        IMatrix<Integer> upLeft = m3x4_ints.mapNeighborhood(1, BoundaryMode.CLAMP, n -> n.get(-1, -1));
+        assertEquals(new FunMatrix<>((i, j) -> Math.max(i - 1, 0) * 4 + Math.max(j - 1, 0), 3, 4), upLeft);
+
+        IMatrix<Integer> farDownRight = m3x4_ints.mapNeighborhood(2, BoundaryMode.CLAMP, n -> n.get(2, 2));
+        assertEquals(new FunMatrix<>((i, j) -> Math.min(i + 2, 2) * 4 + Math.min(j + 2, 3), 3, 4), farDownRight);
+    }
+
+    @Test
+    public void testWrapReadsAroundTheTorus() {
+        IMatrix<Integer> downRight = m3x4_ints.mapNeighborhood(1, BoundaryMode.WRAP, n -> n.get(1, 1));
+        assertEquals(new FunMatrix<>((i, j) -> (i + 1) % 3 * 4 + (j + 1) % 4, 3, 4), downRight);
+
+        // a radius wider than the matrix wraps more than once
+        IMatrix<Integer> farLeft = m3x4_ints.mapNeighborhood(9, BoundaryMode.WRAP, n -> n.get(0, -9));
+        assertEquals(new FunMatrix<>((i, j) -> i * 4 + Math.floorMod(j - 9, 4), 3, 4), farLeft);
+    }
+
+    @Test
+    public void testConstantReadsTheGivenValue() {
+        IMatrix<Integer> sums = m3x4_ints.mapNeighborhood(1, BoundaryMode.CONSTANT, 100, n -> {
+            int sum = 0;
+            for (int di = -1; di <= 1; di++) {
+                for (int dj = -1; dj <= 1; dj++) {
+                    sum += n.get(di, dj);
+                }
+            }
+            return sum;
+        });
+        assertEquals(Integer.valueOf(100 * 5 + 0 + 1 + 4 + 5), sums.getElement(0, 0));
+        assertEquals(Integer.valueOf(1 + 2 + 3 + 5 + 6 + 7 + 9 + 10 + 11), sums.getElement(1, 2));
+    }
+
+    @Test
+    public void testNeighborhoodKnowsItsCenter() {
+        IMatrix<String> centers = m3x4_ints.mapNeighborhood(0, BoundaryMode.CLAMP,
+                n -> n.getRow() + "," + n.getCol() + "=" + n.get(0, 0) + "/" + n.getRadius());
+        assertEquals(new FunMatrix<>((i, j) -> i + "," + j + "=" + (i * 4 + j) + "/0", 3, 4), centers);
+    }
+
+    @Test
+    public void testGameOfLifeAcrossManyTiles() {
+        // a glider on a torus larger than one tile, in parallel, moves one cell down and right every 4 steps
+        int threshold = Parallelism.getThreshold();
+        Parallelism.setThreshold(0);
+        try {
+            IMatrix<Boolean> board = new FunMatrix<>((i, j) -> false, 150, 130).parallel()
+                    .updateEntry(true, 63, 64).updateEntry(true, 64, 65)
+                    .updateEntry(true, 65, 63).updateEntry(true, 65, 64).updateEntry(true, 65, 65);
+            IMatrix<Boolean> start = board;
+            for (int step = 0; step < 4; step++) {
+                board = board.mapNeighborhood(1, BoundaryMode.WRAP, n -> {
+                    int alive = 0;
+                    for (int di = -1; di <= 1; di++) {
+                        for (int dj = -1; dj <= 1; dj++) {
+                            if ((di != 0 || dj != 0) && n.get(di, dj)) {
+                                alive++;
+                            }
+                        }
+                    }
+                    return alive == 3 || (alive == 2 && n.get(0, 0));
+                });
+            }
+            assertEquals(start.mapNeighborhood(1, BoundaryMode.WRAP, n -> n.get(-1, -1)), board);
+            assertTrue(board.isParallel());
+        }
+        finally {
+            Parallelism.setThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testMatchesGetElementOnEveryMatrixType() {
+        IMatrix<Integer> big = new FunMatrix<>((i, j) -> i * 1000 + j, 70, 140);
+        IMatrix<Integer> expected = big.map((i, j) ->
+                big.getElement(Math.max(i - 2, 0), Math.min(j + 1, 139)) - big.getElement(i, j));
+
+        assertEquals(expected, big.mapNeighborhood(2, BoundaryMode.CLAMP, n -> n.get(-2, 1) - n.get(0, 0)));
+        assertEquals(expected, big.subMatrix(0, 69, 0, 139).transpose().transpose()
+                .mapNeighborhood(2, BoundaryMode.CLAMP, n -> n.get(-2, 1) - n.get(0, 0)));
+        assertEquals(expected, big.instrumented(MatrixMetrics.NONE)
+                .mapNeighborhood(2, BoundaryMode.CLAMP, n -> n.get(-2, 1) - n.get(0, 0)));
+    }
+
+    @Test
+    public void testEmptyMatrix() {
+        IMatrix<Integer> empty = new FunMatrix<>((i, j) -> 0, 0, 0);
+        assertEquals(empty, empty.mapNeighborhood(1, BoundaryMode.WRAP, n -> n.get(0, 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOffsetBeyondRadiusThrows() {
+        m3x4_ints.mapNeighborhood(1, BoundaryMode.CLAMP, n -> n.get(2, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstantWithoutValueThrows() {
+        m3x4_ints.mapNeighborhood(1, BoundaryMode.CONSTANT, n -> n.get(0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRadiusThrows() {
+        m3x4_ints.mapNeighborhood(-1, BoundaryMode.CLAMP, n -> n.get(0, 0));
+    }
+
+    //~~~~ convolve tests ~~~~
+    @Test
+    public void testConvolveMatchesNaiveSum() {
+        DoubleMatrix image = random(130, 70, 1);
+        DoubleMatrix kernel = random(3, 5, 2);
+        for (BoundaryMode mode : BoundaryMode.values()) {
+            assertClose(naiveConvolve(image, kernel, mode, 0.5), image.convolve(kernel, mode, 0.5), 1e-12);
+        }
+    }
+
+    @Test
+    public void testConvolveFlipsTheKernel() {
+        DoubleMatrix impulse = new DoubleMatrix((i, j) -> i == 2 && j == 2 ? 1 : 0, 5, 5);
+        DoubleMatrix kernel = new DoubleMatrix(new double[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+        DoubleMatrix response = impulse.convolve(kernel, BoundaryMode.CONSTANT);
+        assertEquals(1, response.getDouble(1, 1), 0);
+        assertEquals(9, response.getDouble(3, 3), 0);
+        assertEquals(6, response.getDouble(2, 3), 0);
+        assertEquals(0, response.getDouble(0, 0), 0);
+    }
+
+    @Test
+    public void testLaplacianOfALinearRampIsZeroInside() {
+        DoubleMatrix ramp = new DoubleMatrix((i, j) -> 3 * i + 2 * j, 20, 20);
+        DoubleMatrix laplacian = new DoubleMatrix(new double[][]{{0, 1, 0}, {1, -4, 1}, {0, 1, 0}});
+        DoubleMatrix result = ramp.convolve(laplacian, BoundaryMode.CLAMP);
+        for (int i = 1; i < 19; i++) {
+            for (int j = 1; j < 19; j++) {
+                assertEquals(0, result.getDouble(i, j), 1e-12);
+            }
+        }
+        assertEquals(3 + 2, result.getDouble(0, 0), 1e-12);
+    }
+
+    @Test
+    public void testParallelConvolveMatchesSequential() {
+        DoubleMatrix image = random(300, 200, 3);
+        DoubleMatrix kernel = random(5, 5, 4);
+        DoubleMatrix sequential = image.convolve(kernel, BoundaryMode.WRAP);
+        int threshold = Parallelism.getThreshold();
+        Parallelism.setThreshold(0);
+        try {
+            assertEquals(sequential, image.convolve(kernel, BoundaryMode.WRAP));
+        }
+        finally {
+            Parallelism.setThreshold(threshold);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvenKernelThrows() {
+        random(10, 10, 5).convolve(new DoubleMatrix(1.0, 2, 3), BoundaryMode.CLAMP);
+    }
+
+    private static DoubleMatrix naiveConvolve(DoubleMatrix image, DoubleMatrix kernel, BoundaryMode mode,
+                                              double outside) {
+        int rows = image.getHeight();
+        int cols = image.getWidth();
+        int r = kernel.getHeight() / 2;
+        int c = kernel.getWidth() / 2;
+        return new DoubleMatrix((i, j) -> {
+            double sum = 0;
+            for (int a = 0; a < kernel.getHeight(); a++) {
+                for (int b = 0; b < kernel.getWidth(); b++) {
+                    int row = i + r - a;
+                    int col = j + c - b;
+                    double entry;
+                    if (row >= 0 && row < rows && col >= 0 && col < cols) {
+                        entry = image.getDouble(row, col);
+                    }
+                    else if (mode == BoundaryMode.CLAMP) {
+                        entry = image.getDouble(Math.min(Math.max(row, 0), rows - 1),
+                                Math.min(Math.max(col, 0), cols - 1));
+                    }
+                    else if (mode == BoundaryMode.WRAP) {
+                        entry = image.getDouble(Math.floorMod(row, rows), Math.floorMod(col, cols));
+                    }
+                    else {
+                        entry = outside;
+                    }
+                    sum += kernel.getDouble(a, b) * entry;
+                }
+            }
+            return sum;
+        }, rows, cols);
+    }
+
+    private static DoubleMatrix random(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        return new DoubleMatrix((i, j) -> random.nextDouble() * 2 - 1, rows, cols);
+    }
+
+    private static void assertClose(DoubleMatrix expected, DoubleMatrix actual, double tolerance) {
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertEquals(expected.getWidth(), actual.getWidth());
+        for (int i = 0; i < expected.getHeight(); i++) {
+            for (int j = 0; j < expected.getWidth(); j++) {
+                assertEquals(expected.getDouble(i, j), actual.getDouble(i, j), tolerance);
+            }
+        }
+    }
+}
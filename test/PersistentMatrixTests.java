@@ -0,0 +1,73 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PersistentMatrixTests {
+
+    private final IMatrix<Integer> m3x3_ints = new FunMatrix<>(new ArrayList<>(
+            Arrays.asList(
+                    new ArrayList<>(Arrays.asList(1, 2, 3)),
+                    new ArrayList<>(Arrays.asList(4, 5, 6)),
+                    new ArrayList<>(Arrays.asList(7, 8, 9))
+            )));
+
+    // large enough for both tries to be several levels deep
+    private final IMatrix<Integer> m1100x40_ints = new FunMatrix<>((i, j) -> i * 40 + j, 1100, 40);
+
+    @Test
+    public void testPersistentMatrixEqualsSource() {
+        assertEquals(m3x3_ints, new PersistentMatrix<>(m3x3_ints));
+        assertEquals(m1100x40_ints, new PersistentMatrix<>(m1100x40_ints));
+        assertEquals(m1100x40_ints.asList(), new PersistentMatrix<>(m1100x40_ints).asList());
+    }
+
+    @Test
+    public void testUpdateEntryKeepsOldVersion() {
+        IMatrix<Integer> original = new PersistentMatrix<>(m1100x40_ints);
+        IMatrix<Integer> updated = original.updateEntry(-1, 1037, 33);
+
+        assertEquals(Integer.valueOf(-1), updated.getElement(1037, 33));
+        assertEquals(Integer.valueOf(1037 * 40 + 33), original.getElement(1037, 33));
+        assertEquals(m1100x40_ints.updateEntry(-1, 1037, 33), updated);
+    }
+
+    @Test
+    public void testManyPointUpdatesMatchFlatUpdates() {
+        IMatrix<Integer> persistent = new PersistentMatrix<>(m1100x40_ints);
+        IMatrix<Integer> flat = m1100x40_ints;
+
+        for (int step = 0; step < 50; step++) {
+            int row = (step * 97) % 1100;
+            int col = (step * 13) % 40;
+            persistent = persistent.updateEntry(step, row, col);
+            flat = flat.updateEntry(step, row, col);
+        }
+
+        assertEquals(flat, persistent);
+    }
+
+    @Test
+    public void testUpdateRowAndCol() {
+        IMatrix<Integer> persistent = new PersistentMatrix<>(m3x3_ints);
+        List<Integer> zeros = Arrays.asList(0, 0, 0);
+
+        assertEquals(m3x3_ints.updateRow(zeros, 1), persistent.updateRow(zeros, 1));
+        assertEquals(m3x3_ints.updateCol(zeros, 2), persistent.updateCol(zeros, 2));
+        assertEquals(m3x3_ints, persistent);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateRowOfWrongLengthThrows() {
+        new PersistentMatrix<>(m3x3_ints).updateRow(Collections.singletonList(0), 0);
+    }
+
+    @Test
+    public void testReduceReadsThroughTries() {
+        assertEquals(m1100x40_ints.reduce(0, Integer::sum), new PersistentMatrix<>(m1100x40_ints).reduce(0, Integer::sum));
+    }
+}
@@ -0,0 +1,337 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveMatrixTests {
+
+    private final DoubleMatrix m2x3_doubles = new DoubleMatrix(new double[][]{
+            {1.5, 2.5, 3.5},
+            {4.5, 5.5, 6.5}
+    });
+
+    private final IntMatrix m3x3_ints = new IntMatrix(new int[][]{
+            {1, 2, 3},
+            {4, 5, 6},
+            {7, 8, 9}
+    });
+
+    private final LongMatrix m1x2_longs = new LongMatrix(new long[][]{
+            {10000000000L, -3L}
+    });
+
+    private final IMatrix<Integer> m3x3_boxedInts = new FunMatrix<>(new ArrayList<>(
+            Arrays.asList(
+                    new ArrayList<>(Arrays.asList(1, 2, 3)),
+                    new ArrayList<>(Arrays.asList(4, 5, 6)),
+                    new ArrayList<>(Arrays.asList(7, 8, 9))
+            )));
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~primitive operation tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testMapToDoubleHalvesEntries() {
+        assertEquals(new DoubleMatrix(new double[][]{
+                        {0.75, 1.25, 1.75},
+                        {2.25, 2.75, 3.25}}),
+                m2x3_doubles.mapToDouble(x -> x / 2));
+    }
+
+    @Test
+    public void testDoubleMatrixGenerator() {
+        assertEquals(m2x3_doubles, new DoubleMatrix((i, j) -> 1.5 + 3 * i + j, 2, 3));
+        assertEquals(new FunMatrix<>((i, j) -> i * 0.5 - j, 40, 30), new DoubleMatrix((i, j) -> i * 0.5 - j, 40, 30));
+    }
+
+    @Test
+    public void testPrimitiveForEachIndexed() {
+        double[] weightedSum = new double[1];
+        int[] diagonal = new int[1];
+        m2x3_doubles.forEachIndexed((i, j, x) -> weightedSum[0] += x * (i + 1));
+        m3x3_ints.forEachIndexed((i, j, x) -> diagonal[0] += i == j ? x : 0);
+        m1x2_longs.forEachIndexed((i, j, x) -> assertEquals(m1x2_longs.getElement(i, j), x));
+
+        assertEquals(7.5 + 2 * 16.5, weightedSum[0], 0);
+        assertEquals(15, diagonal[0]);
+    }
+
+    @Test
+    public void testMapIntsToDoubles() {
+        assertEquals(new DoubleMatrix(new double[][]{
+                        {0.5, 1, 1.5},
+                        {2, 2.5, 3},
+                        {3.5, 4, 4.5}}),
+                m3x3_ints.mapToDouble(x -> x / 2.0));
+    }
+
+    @Test
+    public void testPrimitiveFoldNWSumInts() {
+        assertEquals(45, m3x3_ints.foldNW((x, sum) -> x + sum, 0));
+    }
+
+    @Test
+    public void testPrimitiveFoldNWDigitsNotEqualToFoldSEDigits() {
+        assertEquals(123456789, m3x3_ints.foldNW((x, acc) -> acc * 10 + x, 0));
+        assertEquals(987654321, m3x3_ints.foldSE((x, acc) -> acc * 10 + x, 0));
+    }
+
+    @Test
+    public void testElementWiseCombineLongs() {
+        assertEquals(new LongMatrix(new long[][]{{10000000001L, 13L}}),
+                m1x2_longs.elementWiseCombineToLong((x, y) -> x + y * y, m1x2_longs.mapToLong(x -> x > 0 ? 1 : 4)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testElementWiseCombineUnequalDimensionsThrows() {
+        m3x3_ints.elementWiseCombineToInt((x, y) -> x + y, new IntMatrix(0, 2, 2));
+    }
+
+    @Test
+    public void testMultiplyMatchesGenericPseudoMultiply() {
+        DoubleMatrix left = new DoubleMatrix(new FunMatrix<>((i, j) -> (i * 3 + j) % 7 / 2.0, 90, 70));
+        DoubleMatrix right = new DoubleMatrix(new FunMatrix<>((i, j) -> (i - j) % 5 * 0.25, 70, 80));
+        IMatrix<Double> boxedRight = right;
+
+        assertEquals(left.pseudoMultiply((x, y) -> x * y, (product, sum) -> product + sum, boxedRight, 0.0),
+                left.multiply(right));
+    }
+
+    @Test
+    public void testPrimitivePseudoMultiplyMaxTimes() {
+        assertEquals(new IntMatrix(new int[][]{{21, 24, 27}, {42, 48, 54}, {63, 72, 81}}),
+                m3x3_ints.pseudoMultiply((x, y) -> x * y, Math::max, m3x3_ints, 0));
+    }
+
+    @Test
+    public void testPrimitiveReduceColsSumsEachColumn() {
+        assertEquals(new DoubleMatrix(new double[][]{{6, 8, 10}}), m2x3_doubles.reduceCols(0, Double::sum));
+        assertEquals(new IntMatrix(new int[][]{{3}, {6}, {9}}), m3x3_ints.reduceRows(0, Math::max));
+        assertEquals(-3L, m1x2_longs.reduce(Long.MAX_VALUE, Math::min));
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~numeric kernel tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testArithmeticCombineEqualsLambdaCombine() {
+        DoubleMatrix doubles = new DoubleMatrix((i, j) -> i * 0.25 - j * 1.5, 37, 29);
+        IntMatrix ints = new IntMatrix(new FunMatrix<>((i, j) -> i * 7 - j * 3 + 1, 37, 29));
+
+        assertEquals(doubles.elementWiseCombineToDouble((x, y) -> x + y, doubles),
+                doubles.elementWiseCombineToDouble(Arithmetic.ADD, doubles));
+        assertEquals(doubles.elementWiseCombineToDouble(Math::max, doubles.scale(-1)),
+                doubles.elementWiseCombineToDouble(Arithmetic.MAX, doubles.scale(-1)));
+        assertEquals(ints.elementWiseCombineToInt((x, y) -> x * y, ints),
+                ints.elementWiseCombineToInt(Arithmetic.MULTIPLY, ints));
+        assertEquals(ints.elementWiseCombineToInt((x, y) -> x - y, ints.offset(5)),
+                ints.elementWiseCombineToInt(Arithmetic.SUBTRACT, ints.offset(5)));
+    }
+
+    @Test
+    public void testScaleOffsetClamp() {
+        assertEquals(m2x3_doubles.mapToDouble(x -> x * 2), m2x3_doubles.scale(2));
+        assertEquals(m2x3_doubles.mapToDouble(x -> x - 1), m2x3_doubles.offset(-1));
+        assertEquals(new DoubleMatrix(new double[][]{{2, 2.5, 3.5}, {4.5, 5, 5}}), m2x3_doubles.clamp(2, 5));
+        assertEquals(new IntMatrix(new int[][]{{3, 3, 3}, {4, 5, 6}, {6, 6, 6}}), m3x3_ints.clamp(3, 6));
+        assertEquals(m3x3_ints.mapToInt(x -> 3 * x + 1), m3x3_ints.scale(3).offset(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testClampEmptyRange() {
+        m2x3_doubles.clamp(5, 2);
+    }
+
+    @Test
+    public void testSumMinMaxDot() {
+        assertEquals(24, m2x3_doubles.sum(), 0);
+        assertEquals(1.5, m2x3_doubles.min(), 0);
+        assertEquals(6.5, m2x3_doubles.max(), 0);
+        assertEquals(45, m3x3_ints.sum());
+        assertEquals(1, m3x3_ints.min());
+        assertEquals(9, m3x3_ints.max());
+        assertEquals(285, m3x3_ints.dot(m3x3_ints));
+        assertEquals(Double.POSITIVE_INFINITY, new DoubleMatrix(new double[0][]).min(), 0);
+    }
+
+    @Test
+    public void testVectorKernelsMatchScalarKernels() {
+        NumericKernels scalar = ScalarKernels.INSTANCE;
+        NumericKernels vector = NumericKernels.vectorized().orElse(scalar);
+
+        // lengths on both sides of whole vectors, so that the scalar tail loops run too
+        for (int length : new int[]{0, 1, 7, 8, 17, 64, 1000, 1003}) {
+            double[] a = new double[length];
+            double[] b = new double[length];
+            int[] ia = new int[length];
+            int[] ib = new int[length];
+            for (int k = 0; k < length; k++) {
+                a[k] = Math.sin(k) * 100;
+                b[k] = Math.cos(k * 3) * 10;
+                ia[k] = k * 37 % 101 - 50;
+                ib[k] = k * 11 % 23 + 1;
+            }
+
+            for (Arithmetic op : Arithmetic.values()) {
+                assertArrayEquals(combined(scalar, op, a, b), combined(vector, op, a, b), 0);
+                assertArrayEquals(combined(scalar, op, ia, ib), combined(vector, op, ia, ib));
+            }
+            double[] expected = new double[length];
+            double[] actual = new double[length];
+            scalar.clamp(a, -20, 30, expected);
+            vector.clamp(a, -20, 30, actual);
+            assertArrayEquals(expected, actual, 0);
+            scalar.scale(a, 1.5, expected);
+            vector.scale(a, 1.5, actual);
+            assertArrayEquals(expected, actual, 0);
+
+            assertEquals(scalar.sum(a), vector.sum(a), 1e-9);
+            assertEquals(scalar.dot(a, b), vector.dot(a, b), 1e-9);
+            assertEquals(scalar.min(a), vector.min(a), 0);
+            assertEquals(scalar.max(a), vector.max(a), 0);
+            assertEquals(scalar.sum(ia), vector.sum(ia));
+            assertEquals(scalar.dot(ia, ib), vector.dot(ia, ib));
+            assertEquals(scalar.min(ia), vector.min(ia));
+            assertEquals(scalar.max(ia), vector.max(ia));
+
+            double[] y1 = b.clone();
+            double[] y2 = b.clone();
+            scalar.axpy(0.75, a, 0, y1, 0, length);
+            vector.axpy(0.75, a, 0, y2, 0, length);
+            assertArrayEquals(y1, y2, 0);
+        }
+    }
+
+    @Test
+    public void testMultiplyMatchesPseudoMultiply() {
+        DoubleMatrix left = new DoubleMatrix((i, j) -> Math.sin(i + 2 * j), 70, 90);
+        DoubleMatrix right = new DoubleMatrix((i, j) -> Math.cos(3 * i - j), 90, 67);
+
+        assertEquals(left.pseudoMultiply((x, y) -> x * y, (product, sum) -> sum + product, right, 0.0),
+                left.multiply(right));
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~multiply strategy tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testExactStrategiesMatchBlockedBitForBit() {
+        int crossover = MultiplyStrategy.getCrossover();
+        MultiplyStrategy.setCrossover(16);
+        try {
+            for (int[] nmp : new int[][]{{1, 1, 1}, {70, 90, 67}, {33, 17, 129}, {130, 65, 3}}) {
+                DoubleMatrix left = new DoubleMatrix((i, j) -> Math.sin(i + 2 * j), nmp[0], nmp[1]);
+                DoubleMatrix right = new DoubleMatrix((i, j) -> Math.cos(3 * i - j), nmp[1], nmp[2]);
+                DoubleMatrix blocked = left.multiply(right, MultiplyStrategy.BLOCKED);
+
+                assertEquals(blocked, left.multiply(right, MultiplyStrategy.NAIVE));
+                assertEquals(blocked, left.multiply(right, MultiplyStrategy.RECURSIVE));
+                assertEquals(blocked, left.multiply(right, MultiplyStrategy.AUTO));
+            }
+        }
+        finally {
+            MultiplyStrategy.setCrossover(crossover);
+        }
+    }
+
+    @Test
+    public void testStrassenMatchesBlocked() {
+        int crossover = MultiplyStrategy.getCrossover();
+        MultiplyStrategy.setCrossover(16);
+        try {
+            for (int[] nmp : new int[][]{{2, 3, 4}, {64, 64, 64}, {70, 90, 67}, {33, 17, 129}}) {
+                DoubleMatrix left = new DoubleMatrix((i, j) -> Math.sin(i + 2 * j), nmp[0], nmp[1]);
+                DoubleMatrix right = new DoubleMatrix((i, j) -> Math.cos(3 * i - j), nmp[1], nmp[2]);
+                DoubleMatrix blocked = left.multiply(right, MultiplyStrategy.BLOCKED);
+                DoubleMatrix strassen = left.multiply(right, MultiplyStrategy.STRASSEN);
+
+                assertEquals(blocked.getHeight(), strassen.getHeight());
+                assertEquals(blocked.getWidth(), strassen.getWidth());
+                for (int i = 0; i < blocked.getHeight(); i++) {
+                    for (int j = 0; j < blocked.getWidth(); j++) {
+                        assertEquals(blocked.getDouble(i, j), strassen.getDouble(i, j), 1e-9);
+                    }
+                }
+
+                IntMatrix intLeft = new IntMatrix(new FunMatrix<>((i, j) -> (i * 31 + j * 17) % 23 - 11, nmp[0], nmp[1]));
+                IntMatrix intRight = new IntMatrix(new FunMatrix<>((i, j) -> (i * 7 - j * 5) % 13, nmp[1], nmp[2]));
+                IntMatrix intBlocked = intLeft.multiply(intRight, MultiplyStrategy.BLOCKED);
+
+                assertEquals(intBlocked, intLeft.multiply(intRight, MultiplyStrategy.STRASSEN));
+                assertEquals(intBlocked, intLeft.multiply(intRight, MultiplyStrategy.RECURSIVE));
+                assertEquals(intBlocked, intLeft.multiply(intRight, MultiplyStrategy.AUTO));
+            }
+        }
+        finally {
+            MultiplyStrategy.setCrossover(crossover);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveCrossoverThrows() {
+        MultiplyStrategy.setCrossover(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiplyNullStrategyThrows() {
+        m3x3_ints.multiply(m3x3_ints, null);
+    }
+
+    private static double[] combined(NumericKernels kernels, Arithmetic op, double[] a, double[] b) {
+        double[] out = new double[a.length];
+        kernels.combine(op, a, b, out);
+        return out;
+    }
+
+    private static int[] combined(NumericKernels kernels, Arithmetic op, int[] a, int[] b) {
+        int[] out = new int[a.length];
+        kernels.combine(op, a, b, out);
+        return out;
+    }
+
+    //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~generic IMatrix tests~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+    @Test
+    public void testPrimitiveMatrixEqualsBoxedMatrix() {
+        assertEquals(m3x3_boxedInts, m3x3_ints);
+        assertEquals(m3x3_ints, m3x3_boxedInts);
+        assertEquals(m3x3_boxedInts.hashCode(), m3x3_ints.hashCode());
+        assertEquals(m3x3_ints, new IntMatrix(m3x3_boxedInts));
+    }
+
+    @Test
+    public void testGenericMapOverPrimitiveMatrix() {
+        assertEquals(m3x3_boxedInts.map(x -> "#" + x), m3x3_ints.map(x -> "#" + x));
+    }
+
+    @Test
+    public void testUpdateEntryLeavesOriginalUntouched() {
+        IMatrix<Double> updated = m2x3_doubles.updateEntry(0.0, 1, 2);
+
+        assertEquals(Double.valueOf(0.0), updated.getElement(1, 2));
+        assertEquals(Double.valueOf(6.5), m2x3_doubles.getElement(1, 2));
+    }
+
+    @Test
+    public void testSubMatrixOfInts() {
+        assertEquals(new IntMatrix(new int[][]{{5, 6}, {8, 9}}), m3x3_ints.subMatrix(1, 2, 1, 2));
+    }
+
+    @Test
+    public void testSubMatrixRowAndColAreViews() {
+        IMatrix<Double> sub = m2x3_doubles.subMatrix(0, 1, 1, 2);
+        IMatrix<Double> row = m2x3_doubles.row(1);
+        IMatrix<Double> col = m2x3_doubles.col(2);
+        assertTrue(sub instanceof MatrixView);
+        assertTrue(row instanceof MatrixView);
+        assertTrue(col instanceof MatrixView);
+
+        assertEquals(new DoubleMatrix(new double[][]{{m2x3_doubles.getDouble(1, 0), m2x3_doubles.getDouble(1, 1),
+                m2x3_doubles.getDouble(1, 2)}}), row.compact());
+        assertTrue(col.compact() instanceof DoubleMatrix);
+        assertTrue(col.transpose().compact() instanceof DoubleMatrix);
+        assertTrue(m3x3_ints.row(0).compact() instanceof IntMatrix);
+        assertTrue(m1x2_longs.col(1).compact() instanceof LongMatrix);
+        assertEquals(m3x3_ints.col(1).transpose(), m3x3_ints.transpose().row(1));
+    }
+
+    @Test
+    public void testToStringMatchesBoxedMatrix() {
+        assertEquals(m3x3_boxedInts.toString(), m3x3_ints.toString());
+    }
+}
@@ -0,0 +1,128 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SparseMatrixTests {
+
+    // 1 in every 37 cells is non-zero
+    private final IMatrix<Integer> m120x90_dense = new FunMatrix<>((i, j) -> (i * 90 + j) % 37 == 0 ? i - j : 0, 120, 90);
+    private final SparseMatrix<Integer> m120x90_sparse = new SparseMatrix<>(m120x90_dense, 0);
+    private final IMatrix<Integer> m90x60_dense = new FunMatrix<>((i, j) -> (i + 2 * j) % 29 == 0 ? i + j + 1 : 0, 90, 60);
+    private final SparseMatrix<Integer> m90x60_sparse = new SparseMatrix<>(m90x60_dense, 0);
+
+    @Test
+    public void testDenseRoundTrip() {
+        assertEquals(m120x90_dense, m120x90_sparse);
+        assertEquals(m120x90_sparse, m120x90_dense);
+        assertEquals(m120x90_dense, m120x90_sparse.toDense());
+        assertEquals(m120x90_dense.hashCode(), m120x90_sparse.hashCode());
+        assertEquals(m120x90_dense.asList(), m120x90_sparse.asList());
+        assertEquals(m120x90_dense.filter(x -> x != 0).size(), m120x90_sparse.getStoredCount());
+    }
+
+    @Test
+    public void testForEachIndexedVisitsDefaults() {
+        List<Integer> visited = new ArrayList<>();
+        m120x90_sparse.forEachIndexed((i, j, x) -> {
+            assertEquals(m120x90_dense.getElement(i, j), x);
+            visited.add(x);
+        });
+
+        assertEquals(m120x90_dense.asList(), visited);
+    }
+
+    @Test
+    public void testCoordinateConstructionLastValueWins() {
+        SparseMatrix<String> coo = new SparseMatrix<>(2, 3, "", new int[]{1, 0, 1, 0}, new int[]{2, 1, 2, 0},
+                Arrays.asList("x", "y", "z", ""));
+
+        assertEquals(new FunMatrix<String>(Arrays.asList("", "y", ""), Arrays.asList("", "", "z")), coo);
+        assertEquals(2, coo.getStoredCount());
+    }
+
+    @Test
+    public void testMapAppliesFunctionOncePerStoredEntryAndOnceToDefault() {
+        AtomicInteger calls = new AtomicInteger();
+        IMatrix<Integer> mapped = m120x90_sparse.map(x -> {
+            calls.incrementAndGet();
+            return x * 3 + 1;
+        });
+
+        assertEquals(m120x90_sparse.getStoredCount() + 1, calls.get());
+        assertEquals(m120x90_dense.map(x -> x * 3 + 1), mapped);
+        assertEquals(Integer.valueOf(1), ((SparseMatrix<Integer>) mapped).getDefaultValue());
+    }
+
+    @Test
+    public void testMapDropsEntriesThatBecomeDefault() {
+        SparseMatrix<Integer> signs = (SparseMatrix<Integer>) m120x90_sparse.map(x -> x > 0 ? 1 : 0);
+
+        assertEquals(m120x90_dense.filter(x -> x > 0).size(), signs.getStoredCount());
+        assertEquals(m120x90_dense.findAndReplace(0, 5), m120x90_sparse.findAndReplace(0, 5));
+        assertEquals(0, ((SparseMatrix<Integer>) m120x90_sparse.fillWith(4)).getStoredCount());
+    }
+
+    @Test
+    public void testFilterFoldAndReduceMatchDense() {
+        assertEquals(m120x90_dense.filter(x -> x < 0), m120x90_sparse.filter(x -> x < 0));
+        assertEquals(m120x90_dense.filter(x -> x <= 0), m120x90_sparse.filter(x -> x <= 0));
+        assertEquals(m120x90_dense.foldNW((x, s) -> s + x + ",", ""), m120x90_sparse.foldNW((x, s) -> s + x + ",", ""));
+        assertEquals(m120x90_dense.foldSE((x, s) -> s + x + ",", ""), m120x90_sparse.foldSE((x, s) -> s + x + ",", ""));
+        assertEquals(m120x90_dense.reduce(0, Integer::sum), m120x90_sparse.reduce(0, Integer::sum));
+        assertEquals(m120x90_dense.reduce(1, Math::max), m120x90_sparse.reduce(1, Math::max));
+    }
+
+    @Test
+    public void testElementWiseCombineOfTwoSparseMatrices() {
+        SparseMatrix<Integer> shifted = new SparseMatrix<>(m120x90_dense.map((i, j) -> (i + j) % 11 == 0 ? j : 0), 0);
+        IMatrix<Integer> combined = m120x90_sparse.elementWiseCombine(Integer::sum, shifted);
+
+        assertTrue(combined instanceof SparseMatrix);
+        assertEquals(m120x90_dense.elementWiseCombine(Integer::sum, shifted.toDense()), combined);
+        assertEquals(m120x90_dense.elementWiseCombine(Integer::sum, shifted.toDense()),
+                m120x90_sparse.elementWiseCombine(Integer::sum, shifted.toDense()));
+    }
+
+    @Test
+    public void testSparseMultiplyEqualsDenseMultiply() {
+        IMatrix<Integer> sparseProduct = m120x90_sparse.pseudoMultiply((x, y) -> x * y, Integer::sum, m90x60_sparse, 0);
+
+        assertTrue(sparseProduct instanceof SparseMatrix);
+        assertEquals(m120x90_dense.pseudoMultiply((x, y) -> x * y, Integer::sum, m90x60_dense, 0), sparseProduct);
+    }
+
+    @Test
+    public void testMultiplyFallsBackWhenDefaultsAreNotAnnihilating() {
+        IMatrix<Integer> dense = m120x90_sparse.pseudoMultiply(Integer::sum, Math::max, m90x60_sparse, Integer.MIN_VALUE);
+
+        assertEquals(m120x90_dense.pseudoMultiply(Integer::sum, Math::max, m90x60_dense, Integer.MIN_VALUE), dense);
+    }
+
+    @Test
+    public void testTransposeAndUpdateEntry() {
+        assertEquals(m120x90_dense.transpose(), m120x90_sparse.transpose());
+        assertEquals(m120x90_sparse, m120x90_sparse.transpose().transpose());
+
+        IMatrix<Integer> stored = m120x90_sparse.updateEntry(7, 1, 1);
+        IMatrix<Integer> cleared = stored.updateEntry(0, 1, 1).updateEntry(0, 0, 37);
+        assertEquals(m120x90_dense.updateEntry(7, 1, 1), stored);
+        assertEquals(m120x90_dense.updateEntry(0, 0, 37), cleared);
+        assertEquals(m120x90_sparse.getStoredCount() - 1, ((SparseMatrix<Integer>) cleared).getStoredCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDenseWithNullEntryThrows() {
+        new SparseMatrix<>(m90x60_dense.map(x -> x == 0 ? null : x), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCoordinateOutsideMatrixThrows() {
+        new SparseMatrix<>(2, 2, 0, new int[]{2}, new int[]{0}, Collections.singletonList(1));
+    }
+}
@@ -0,0 +1,167 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TiledMatrixTests {
+
+    // 8 x 8 tiles, of which 45 x 37 needs 6 x 5 with ragged edges, and only 3 may be resident
+    private final IMatrix<Integer> m45x37_ints = new FunMatrix<>((i, j) -> i * 37 + j - 500, 45, 37);
+    private final IMatrix<Integer> m37x29_ints = new FunMatrix<>((i, j) -> (i * 7 - j * 3) % 11, 37, 29);
+
+    private Path dir;
+    private TileOptions small;
+
+    @Before
+    public void makeDir() throws IOException {
+        dir = Files.createTempDirectory("tiled-matrix-tests");
+        small = TileOptions.DEFAULT.withTileSize(8).withMaxResidentTiles(3).withSpillDirectory(dir);
+    }
+
+    @After
+    public void removeDir() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path aPath : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(aPath);
+            }
+        }
+    }
+
+    @Test
+    public void testTiledEqualsSourceAndSpills() throws IOException {
+        TiledMatrix<Integer> tiled = TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small);
+        assertEquals(30 - 3, tiled.tiles().tilesWritten());
+
+        assertEquals(m45x37_ints, tiled);
+        assertEquals(m45x37_ints.asList(), tiled.asList());
+        assertEquals(3, tiled.tiles().residentTiles());
+        // tiles never change, so each is written at most once however often it is read back
+        assertEquals(30, tiled.tiles().tilesWritten());
+        assertTrue(tiled.tiles().tilesRead() > 30);
+    }
+
+    @Test
+    public void testMapAndCombineMatchHeapResults() throws IOException {
+        TiledMatrix<Integer> tiled = TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small);
+        TiledMatrix<String> mapped = tiled.map(x -> "#" + x, ElementCodec.STRINGS);
+        TiledMatrix<Integer> combined = tiled.elementWiseCombine((x, y) -> x * y - 1, m45x37_ints, ElementCodec.INTS);
+
+        assertEquals(m45x37_ints.map(x -> "#" + x), mapped);
+        assertEquals(m45x37_ints.elementWiseCombine((Integer x, Integer y) -> x * y - 1, m45x37_ints), combined);
+        assertEquals(combined, tiled.elementWiseCombine((x, y) -> x * y - 1, tiled, ElementCodec.INTS));
+    }
+
+    @Test
+    public void testPseudoMultiplyMatchesHeapProduct() throws IOException {
+        TiledMatrix<Integer> left = TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small);
+        TiledMatrix<Integer> right = TiledMatrix.of(m37x29_ints, ElementCodec.INTS, small);
+        IMatrix<Integer> expected =
+                m45x37_ints.pseudoMultiply((Integer x, Integer y) -> x * y, Integer::sum, m37x29_ints, 0);
+
+        assertEquals(expected, left.pseudoMultiply((x, y) -> x * y, Integer::sum, right, 0, ElementCodec.INTS));
+        assertEquals(expected, left.pseudoMultiply((x, y) -> x * y, Integer::sum, m37x29_ints, 0, ElementCodec.INTS));
+    }
+
+    @Test
+    public void testFoldsAndReduceMatchHeapResults() throws IOException {
+        TiledMatrix<Integer> tiled = TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small);
+
+        assertEquals(m45x37_ints.foldNW((x, hash) -> hash * 31 + x, 7), tiled.foldNW((x, hash) -> hash * 31 + x, 7));
+        assertEquals(m45x37_ints.foldSE((x, hash) -> hash * 31 + x, 7), tiled.foldSE((x, hash) -> hash * 31 + x, 7));
+        assertEquals(m45x37_ints.reduce(0, Integer::sum), tiled.reduce(0, Integer::sum));
+        // associative but not commutative, so the order of cells matters
+        IMatrix<String> strings = m45x37_ints.map(x -> x + ",");
+        assertEquals(strings.reduce("", String::concat),
+                TiledMatrix.of(strings, ElementCodec.STRINGS, small).reduce("", String::concat));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws IOException {
+        int threshold = Parallelism.getThreshold();
+        Parallelism.setThreshold(0);
+        try {
+            TiledMatrix<Integer> tiled = TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small);
+            TiledMatrix<Integer> parallel = (TiledMatrix<Integer>) tiled.parallel();
+
+            assertTrue(parallel.isParallel());
+            assertEquals(m45x37_ints.map(x -> x + 1), parallel.map(x -> x + 1, ElementCodec.INTS));
+            assertEquals(m45x37_ints.pseudoMultiply((Integer x, Integer y) -> x * y, Integer::sum, m37x29_ints, 0),
+                    parallel.pseudoMultiply((x, y) -> x * y, Integer::sum, m37x29_ints, 0, ElementCodec.INTS));
+            assertEquals(tiled.reduce(0, Integer::sum), parallel.reduce(0, Integer::sum));
+        }
+        finally {
+            Parallelism.setThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testConcurrentReadersSeeEveryTileAndWriteEachOnce() throws Exception {
+        TiledMatrix<Integer> tiled = TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small);
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> sameAsSource = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t * 97;
+                sameAsSource.add(readers.submit(() -> {
+                    boolean same = true;
+                    for (int k = 0; k < 20 * 45 * 37; k++) {
+                        int cell = (k * 31 + offset) % (45 * 37);
+                        int i = cell / 37;
+                        int j = cell % 37;
+                        same &= tiled.getElement(i, j).equals(m45x37_ints.getElement(i, j));
+                    }
+                    return same;
+                }));
+            }
+            for (Future<Boolean> aReader : sameAsSource) {
+                assertTrue(aReader.get());
+            }
+        }
+        finally {
+            readers.shutdown();
+        }
+        // however the readers raced, no tile is written twice and no more than 3 stay resident
+        assertEquals(30, tiled.tiles().tilesWritten());
+        assertEquals(3, tiled.tiles().residentTiles());
+    }
+
+    @Test
+    public void testCloseDeletesSpilledTiles() throws IOException {
+        TiledMatrix<Integer> tiled = TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small);
+        tiled.close();
+
+        try (Stream<Path> spillDirs = Files.list(dir)) {
+            assertEquals(0, spillDirs.count());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadAfterCloseThrows() throws IOException {
+        TiledMatrix<Integer> tiled = TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small);
+        tiled.close();
+        tiled.getElement(0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCombineUnequalDimensionsThrows() throws IOException {
+        TiledMatrix.of(m45x37_ints, ElementCodec.INTS, small)
+                .elementWiseCombine((x, y) -> x + y, m37x29_ints, ElementCodec.INTS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroTileSizeThrows() {
+        TileOptions.DEFAULT.withTileSize(0);
+    }
+}